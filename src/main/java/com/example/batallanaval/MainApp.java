@@ -3,17 +3,21 @@ package com.example.batallanaval;
 import javafx.application.Application;
 import javafx.stage.Stage;
 import com.example.batallanaval.controlador.GameController;
+import com.example.batallanaval.modelo.SaveLibrary;
+import com.example.batallanaval.modelo.SaveWorker;
 
 /**
  * Clase principal de la aplicación modificada para incluir menú
  */
 public class MainApp extends Application {
 
+    private GameController gameController;
+
     @Override
     public void start(Stage primaryStage) {
         try {
             // Crear el controlador principal
-            GameController gameController = new GameController();
+            gameController = new GameController();
 
             // Inicializar la aplicación con menú
             gameController.initializeApplication(primaryStage);
@@ -24,6 +28,16 @@ public class MainApp extends Application {
         }
     }
 
+    @Override
+    public void stop() {
+        if (gameController != null) {
+            gameController.cerrar();
+        }
+        // Escribir el último auto-guardado pendiente antes de salir
+        SaveWorker.getInstance().cerrar(2000);
+        SaveLibrary.getInstance().cerrar();
+    }
+
     public static void main(String[] args) {
         System.out.println("=== INICIANDO BATALLA NAVAL ===");
         System.out.println("Sistema de guardado automático activado");
@@ -0,0 +1,188 @@
+package com.example.batallanaval;
+
+import com.example.batallanaval.interfaces.ShotStrategy;
+import com.example.batallanaval.modelo.Constants;
+import com.example.batallanaval.modelo.GameSimulator;
+import com.example.batallanaval.modelo.RandomShotStrategy;
+import com.example.batallanaval.modelo.ShotStrategies;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Punto de entrada sin interfaz gráfica para simular partidas CPU contra CPU.
+ * Reparte las partidas entre todos los núcleos; cada hilo tiene su propio simulador
+ * y su propio flujo aleatorio (split() de la semilla de la simulación), sin contención
+ * entre hilos, así que una misma semilla y número de hilos reproducen los mismos resultados.
+ *
+ * Uso: SimulationRunner [--partidas N] [--estrategia0 nombre] [--estrategia1 nombre]
+ *                       [--hilos N] [--semilla N]
+ */
+public class SimulationRunner {
+
+    private static final int TOTAL_CELDAS = Constants.GRID_COLS * Constants.GRID_ROWS;
+
+    /**
+     * Estadísticas acumuladas por un hilo de simulación
+     */
+    private static class Estadisticas {
+        final long[] victorias = new long[2];
+        final long[] histogramaDisparos = new long[TOTAL_CELDAS + 1];
+        long sinTerminar;
+
+        void registrar(GameSimulator simulador, int ganador) {
+            if (ganador < 0) {
+                sinTerminar++;
+                return;
+            }
+            victorias[ganador]++;
+            histogramaDisparos[Math.min(simulador.getDisparos(ganador), TOTAL_CELDAS)]++;
+        }
+
+        void sumar(Estadisticas otra) {
+            victorias[0] += otra.victorias[0];
+            victorias[1] += otra.victorias[1];
+            for (int i = 0; i < histogramaDisparos.length; i++) {
+                histogramaDisparos[i] += otra.histogramaDisparos[i];
+            }
+            sinTerminar += otra.sinTerminar;
+        }
+
+        long terminadas() {
+            return victorias[0] + victorias[1];
+        }
+
+        int percentil(double p) {
+            long objetivo = (long) Math.ceil(terminadas() * p);
+            long acumulado = 0;
+            for (int disparos = 0; disparos < histogramaDisparos.length; disparos++) {
+                acumulado += histogramaDisparos[disparos];
+                if (acumulado >= objetivo && acumulado > 0) {
+                    return disparos;
+                }
+            }
+            return -1;
+        }
+
+        double media() {
+            long suma = 0;
+            for (int disparos = 0; disparos < histogramaDisparos.length; disparos++) {
+                suma += disparos * histogramaDisparos[disparos];
+            }
+            return terminadas() == 0 ? 0.0 : (double) suma / terminadas();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        long partidas = 1_000_000;
+        String estrategia0 = RandomShotStrategy.NOMBRE;
+        String estrategia1 = RandomShotStrategy.NOMBRE;
+        int hilos = Runtime.getRuntime().availableProcessors();
+        long semilla = System.nanoTime();
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--partidas": partidas = Long.parseLong(args[i + 1]); break;
+                case "--estrategia0": estrategia0 = args[i + 1]; break;
+                case "--estrategia1": estrategia1 = args[i + 1]; break;
+                case "--hilos": hilos = Math.max(1, Integer.parseInt(args[i + 1])); break;
+                case "--semilla": semilla = Long.parseLong(args[i + 1]); break;
+                default:
+                    System.err.println("Opción desconocida: " + args[i]);
+                    return;
+            }
+        }
+
+        if (!estrategiaValida(estrategia0) || !estrategiaValida(estrategia1)) {
+            return;
+        }
+
+        System.out.println("=== SIMULACIÓN CPU CONTRA CPU ===");
+        System.out.println("Partidas: " + partidas + " | Hilos: " + hilos + " | Semilla: " + semilla);
+        System.out.println("Lado 0: " + estrategia0 + " | Lado 1: " + estrategia1);
+
+        SplittableRandom raiz = new SplittableRandom(semilla);
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        List<Future<Estadisticas>> resultados = new ArrayList<>();
+        long inicio = System.nanoTime();
+
+        try {
+            for (int hilo = 0; hilo < hilos; hilo++) {
+                long partidasHilo = partidas / hilos + (hilo < partidas % hilos ? 1 : 0);
+                // Flujo independiente por hilo, derivado de la semilla de la simulación
+                SplittableRandom random = raiz.split();
+                ShotStrategy lado0 = ShotStrategies.crear(estrategia0);
+                ShotStrategy lado1 = ShotStrategies.crear(estrategia1);
+                resultados.add(pool.submit(() -> simular(partidasHilo, lado0, lado1, random)));
+            }
+
+            Estadisticas total = new Estadisticas();
+            for (Future<Estadisticas> resultado : resultados) {
+                total.sumar(resultado.get());
+            }
+            imprimirInforme(total, estrategia0, estrategia1, System.nanoTime() - inicio);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Estadisticas simular(long partidas, ShotStrategy estrategia0, ShotStrategy estrategia1, SplittableRandom random) {
+        GameSimulator simulador = new GameSimulator(estrategia0, estrategia1);
+        Estadisticas estadisticas = new Estadisticas();
+        for (long partida = 0; partida < partidas; partida++) {
+            // Se alterna quién abre para no favorecer a ningún lado
+            int ganador = simulador.jugarPartida(random, (int) (partida & 1));
+            estadisticas.registrar(simulador, ganador);
+        }
+        return estadisticas;
+    }
+
+    private static boolean estrategiaValida(String nombre) {
+        if (!ShotStrategies.existe(nombre)) {
+            System.err.println("Estrategia desconocida: " + nombre + ". Disponibles: " + ShotStrategies.nombres());
+            return false;
+        }
+        return true;
+    }
+
+    private static void imprimirInforme(Estadisticas total, String estrategia0, String estrategia1, long nanos) {
+        double segundos = nanos / 1e9;
+        long jugadas = total.terminadas() + total.sinTerminar;
+
+        System.out.println();
+        System.out.printf("Tiempo: %.2f s | %.0f partidas/s%n", segundos, jugadas / segundos);
+        System.out.printf("Victorias lado 0 (%s): %d (%.2f%%)%n", estrategia0, total.victorias[0],
+                100.0 * total.victorias[0] / Math.max(1, jugadas));
+        System.out.printf("Victorias lado 1 (%s): %d (%.2f%%)%n", estrategia1, total.victorias[1],
+                100.0 * total.victorias[1] / Math.max(1, jugadas));
+        if (total.sinTerminar > 0) {
+            System.out.println("Partidas sin terminar: " + total.sinTerminar);
+        }
+
+        System.out.println();
+        System.out.println("Disparos del ganador hasta la victoria:");
+        System.out.printf("  media %.2f | p10 %d | p50 %d | p90 %d | p99 %d%n", total.media(),
+                total.percentil(0.10), total.percentil(0.50), total.percentil(0.90), total.percentil(0.99));
+
+        // Histograma en tramos de 5 disparos
+        long maximo = 1;
+        long[] tramos = new long[(TOTAL_CELDAS + 5) / 5];
+        for (int disparos = 0; disparos < total.histogramaDisparos.length; disparos++) {
+            tramos[Math.min(disparos / 5, tramos.length - 1)] += total.histogramaDisparos[disparos];
+        }
+        for (long tramo : tramos) {
+            maximo = Math.max(maximo, tramo);
+        }
+        for (int i = 0; i < tramos.length; i++) {
+            if (tramos[i] == 0) {
+                continue;
+            }
+            int barra = (int) (40 * tramos[i] / maximo);
+            System.out.printf("  %3d-%3d | %-40s %d%n", i * 5, i * 5 + 4, "#".repeat(barra), tramos[i]);
+        }
+    }
+}
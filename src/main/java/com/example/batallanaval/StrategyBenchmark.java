@@ -0,0 +1,151 @@
+package com.example.batallanaval;
+
+import com.example.batallanaval.interfaces.ShotStrategy;
+import com.example.batallanaval.modelo.Constants;
+import com.example.batallanaval.modelo.GameLogic;
+import com.example.batallanaval.modelo.ShotStrategies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Benchmark de las estrategias de disparo registradas.
+ * Cada estrategia hunde, ella sola, las mismas flotas sembradas generadas con
+ * GameLogic.posicionarBarcosCpu, y se mide cuántos disparos necesita (calidad) y
+ * cuánto tarda cada decisión (coste). Así los niveles de dificultad se eligen con datos.
+ *
+ * Uso: StrategyBenchmark [--flotas N] [--semilla N] [--estrategias a,b,...] [--calentamiento N]
+ */
+public class StrategyBenchmark {
+
+    private static final int TOTAL_CELDAS = Constants.GRID_COLS * Constants.GRID_ROWS;
+
+    /**
+     * Resultados de una estrategia
+     */
+    private static class Resultado {
+        final String nombre;
+        final int[] disparosPorFlota;
+        long decisiones;
+        long nanosDecision;
+        long peorDecision;
+
+        Resultado(String nombre, int flotas) {
+            this.nombre = nombre;
+            this.disparosPorFlota = new int[flotas];
+        }
+    }
+
+    public static void main(String[] args) {
+        int flotas = 10_000;
+        long semilla = 1L;
+        int calentamiento = 1_000;
+        List<String> estrategias = new ArrayList<>(ShotStrategies.nombres());
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--flotas": flotas = Integer.parseInt(args[i + 1]); break;
+                case "--semilla": semilla = Long.parseLong(args[i + 1]); break;
+                case "--calentamiento": calentamiento = Integer.parseInt(args[i + 1]); break;
+                case "--estrategias": estrategias = Arrays.asList(args[i + 1].split(",")); break;
+                default:
+                    System.err.println("Opción desconocida: " + args[i]);
+                    return;
+            }
+        }
+
+        for (String nombre : estrategias) {
+            if (!ShotStrategies.existe(nombre)) {
+                System.err.println("Estrategia desconocida: " + nombre + ". Disponibles: " + ShotStrategies.nombres());
+                return;
+            }
+        }
+
+        System.out.println("=== BENCHMARK DE ESTRATEGIAS ===");
+        System.out.println("Flotas: " + flotas + " | Semilla: " + semilla + " | Calentamiento: " + calentamiento);
+
+        List<Resultado> resultados = new ArrayList<>();
+        for (String nombre : estrategias) {
+            // Calentamiento con otras semillas para que el JIT compile antes de medir
+            medir(nombre, calentamiento, semilla ^ 0x5DEECE66DL);
+            resultados.add(medir(nombre, flotas, semilla));
+        }
+
+        imprimirInforme(resultados);
+    }
+
+    /**
+     * Hace que una estrategia hunda las flotas semilla, semilla + 1, ... semilla + flotas - 1
+     */
+    private static Resultado medir(String nombre, int flotas, long semilla) {
+        Resultado resultado = new Resultado(nombre, flotas);
+        ShotStrategy estrategia = ShotStrategies.crear(nombre);
+        GameLogic juego = new GameLogic(semilla);
+        juego.setVerbose(false);
+
+        for (int flota = 0; flota < flotas; flota++) {
+            juego.reiniciarJuego();
+            juego.setSemilla(semilla + flota);
+            juego.posicionarBarcosCpu();
+            estrategia.reiniciar();
+            // La aleatoriedad de la estrategia también depende solo de la flota
+            SplittableRandom random = new SplittableRandom(semilla + flota).split();
+
+            int disparos = 0;
+            while (disparos < TOTAL_CELDAS) {
+                long inicio = System.nanoTime();
+                int celda = estrategia.elegirDisparo(juego, 0, random);
+                long nanos = System.nanoTime() - inicio;
+                resultado.decisiones++;
+                resultado.nanosDecision += nanos;
+                resultado.peorDecision = Math.max(resultado.peorDecision, nanos);
+                if (celda < 0) {
+                    break;
+                }
+
+                String jugada = juego.jugada(celda % Constants.GRID_COLS, celda / Constants.GRID_COLS, 0);
+                estrategia.registrarResultado(juego, 0, celda, jugada);
+                disparos++;
+                if (jugada.equals("VICTORIA_JUGADOR")) {
+                    break;
+                }
+            }
+            resultado.disparosPorFlota[flota] = disparos;
+        }
+        return resultado;
+    }
+
+    private static void imprimirInforme(List<Resultado> resultados) {
+        System.out.println();
+        System.out.printf("%-12s %8s %6s %6s %6s %6s %6s %12s %12s%n",
+                "Estrategia", "Flotas", "Media", "p50", "p90", "p99", "Máx", "ns/decisión", "Peor ns");
+        for (Resultado resultado : resultados) {
+            int[] ordenados = resultado.disparosPorFlota.clone();
+            Arrays.sort(ordenados);
+            long suma = 0;
+            for (int disparos : ordenados) {
+                suma += disparos;
+            }
+            System.out.printf("%-12s %8d %6.2f %6d %6d %6d %6d %12.0f %12d%n",
+                    resultado.nombre,
+                    ordenados.length,
+                    ordenados.length == 0 ? 0.0 : (double) suma / ordenados.length,
+                    percentil(ordenados, 0.50),
+                    percentil(ordenados, 0.90),
+                    percentil(ordenados, 0.99),
+                    ordenados.length == 0 ? 0 : ordenados[ordenados.length - 1],
+                    resultado.decisiones == 0 ? 0.0 : (double) resultado.nanosDecision / resultado.decisiones,
+                    resultado.peorDecision);
+        }
+    }
+
+    private static int percentil(int[] ordenados, double p) {
+        if (ordenados.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(ordenados.length * p) - 1;
+        return ordenados[Math.max(0, Math.min(indice, ordenados.length - 1))];
+    }
+}
@@ -48,4 +48,13 @@ public abstract class GameStateAdapter implements GameStateListener {
         // Implementación por defecto que muestra el error
         System.err.println("Error de guardado/carga: " + error);
     }
+    
+    /**
+     * Implementación por defecto que muestra los avisos de carga en consola
+     * Las subclases pueden sobreescribir este método para mostrarlos al jugador
+     */
+    @Override
+    public void onLoadWarning(String warning) {
+        System.err.println("Aviso de carga: " + warning);
+    }
 }
\ No newline at end of file
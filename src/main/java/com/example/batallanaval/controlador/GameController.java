@@ -3,6 +3,7 @@ package com.example.batallanaval.controlador;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.TextInputDialog;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
@@ -10,12 +11,19 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.application.Platform;
-import java.util.List;
-import java.util.Random;
 import java.util.ArrayList;
+import java.util.List;
 
 import com.example.batallanaval.modelo.Constants;
+import com.example.batallanaval.modelo.GameDelta;
 import com.example.batallanaval.modelo.GameLogic;
+import com.example.batallanaval.modelo.GameSession;
+import com.example.batallanaval.modelo.GameSnapshot;
+import com.example.batallanaval.modelo.CpuFleetPool;
+import com.example.batallanaval.modelo.RegistroJugada;
+import com.example.batallanaval.modelo.SaveLibrary;
+import com.example.batallanaval.modelo.SaveWorker;
+import com.example.batallanaval.modelo.ShotStrategies;
 import com.example.batallanaval.modelo.Ship;
 import com.example.batallanaval.vista.GameBoardView;
 import com.example.batallanaval.vista.DraggableShape;
@@ -24,19 +32,31 @@ import com.example.batallanaval.modelo.GameState;
 import com.example.batallanaval.vista.MainMenuView;
 import com.example.batallanaval.interfaces.MenuListener;
 import com.example.batallanaval.adapters.GameStateAdapter;
-import com.example.batallanaval.exceptions.GameSaveException;
 import com.example.batallanaval.exceptions.GameLoadException;
+import com.example.batallanaval.exceptions.GameSaveException;
 import com.example.batallanaval.modelo.GameSaveManager;
 
 public class GameController extends GameStateAdapter implements MenuListener {
 
+    // Pausas entre turnos, en milisegundos
+    private static final long PAUSA_CPU_PENSANDO = 1500;
+    private static final long PAUSA_TRAS_FALLO = 2000;
+    private static final long PAUSA_TRAS_TOCADO = 2500;
+    private static final long PAUSA_TRAS_HUNDIDO = 3000;
+    private static final long PAUSA_TRAS_CARGAR = 2000;
+
+    // GameLogic solo se modifica con órdenes de la sesión; la vista lee sus snapshots.
+    // Los campos de turno y de partida iniciada solo los escriben esas órdenes, así quedan
+    // ordenados con las jugadas; el hilo de JavaFX solo los lee, por eso son volatile.
     private GameLogic gameLogic;
+    private GameSession sesion;
     private List<DraggableShape> playerShips;
     private Button startGameButton;
     private Button showCpuShipsButton;
     private Button newGameButton;
-    private boolean gameStarted = false;
-    private boolean firstPlayerMove = true;
+    private Button saveSlotButton;
+    private volatile boolean gameStarted = false;
+    private volatile boolean firstPlayerMove = true;
     private boolean cpuShipsVisible = false;
     private Label statusLabel;
     private Label gameStatusLabel;
@@ -44,14 +64,20 @@ public class GameController extends GameStateAdapter implements MenuListener {
     private Label victoryLabel;
     private GridPane playerGridPane;
     private GridPane cpuGridPane;
-    private boolean isPlayerTurn = true;
-    private Random cpuRandom = new Random();
+    private volatile boolean isPlayerTurn = true;
 
     // SIMPLIFICADO: Solo usar GameSaveManager directamente
     private GameSaveManager saveManager;
     private MainMenuView mainMenu;
     private Stage primaryStage;
-    private String playerNickname = "Capitán";
+    private volatile String playerNickname = "Capitán";
+    // Aviso de la última carga (backup o diario recuperados), se muestra al abrir la partida
+    private String avisoCarga;
+
+    // Última captura y el snapshot de GameLogic del que salió: la siguiente solo copia lo que
+    // cambió entre ese snapshot y el actual. Solo se usan en el bucle de la sesión.
+    private GameState ultimoEstado;
+    private GameSnapshot ultimoSnapshot;
 
     public GameController() {
         this.saveManager = new GameSaveManager();
@@ -61,8 +87,14 @@ public class GameController extends GameStateAdapter implements MenuListener {
 
     public void initializeApplication(Stage primaryStage) {
         this.primaryStage = primaryStage;
+
+        // Empezar a preparar flotas de la CPU mientras el jugador está en el menú
+        CpuFleetPool.getInstance().iniciar();
+
         mainMenu = new MainMenuView(primaryStage);
         mainMenu.setMenuListener(this);
+        // Solo se lee la cabecera del archivo: el menú no carga la partida para mostrarla
+        mainMenu.showSavedGame(saveManager.getSaveMetadata());
         mainMenu.showMenu();
         System.out.println("=== BATALLA NAVAL CON GUARDADO AUTOMÁTICO ===");
     }
@@ -87,6 +119,7 @@ public class GameController extends GameStateAdapter implements MenuListener {
             try {
                 // CORREGIDO: Cargar primero, después inicializar
                 System.out.println("📁 Intentando cargar partida guardada...");
+                avisoCarga = null;
                 
                 GameState loadedState = saveManager.loadGame();
                 if (loadedState != null && isValidGameState(loadedState)) {
@@ -111,6 +144,30 @@ public class GameController extends GameStateAdapter implements MenuListener {
         }
     }
 
+    @Override
+    public void onSlotsRequested() {
+        List<SaveLibrary.InfoRanura> ranuras = SaveLibrary.getInstance().listar();
+        if (ranuras.isEmpty()) {
+            mainMenu.showLoadError("No hay partidas guardadas en la biblioteca");
+            return;
+        }
+        String nombre = mainMenu.chooseSlot(ranuras);
+        if (nombre == null) {
+            return;
+        }
+        try {
+            System.out.println("📁 Cargando la ranura \"" + nombre + "\"...");
+            avisoCarga = null;
+            GameState loadedState = SaveLibrary.getInstance().cargar(nombre);
+            if (isValidGameState(loadedState)) {
+                initializeGameWithLoadedState(primaryStage, loadedState);
+            }
+        } catch (GameLoadException e) {
+            System.err.println("✗ Error cargando la ranura: " + e.getMessage());
+            mainMenu.showLoadError("No se pudo cargar la partida \"" + nombre + "\": " + e.getMessage());
+        }
+    }
+
     @Override
     public void onMenuClosed() {
         System.out.println("Menú cerrado");
@@ -145,136 +202,111 @@ public class GameController extends GameStateAdapter implements MenuListener {
         // Después restaurar el estado cargado
         restoreGameFromState(loadedState);
         
+        // El aviso se publica después de la restauración para que no lo tape su actualización de la vista
+        if (avisoCarga != null) {
+            String aviso = avisoCarga;
+            avisoCarga = null;
+            sesion.enviar(logica -> () -> {
+                statusLabel.setText(aviso);
+                statusLabel.setTextFill(Color.DARKORANGE);
+            });
+        }
+        
         System.out.println("✓ Juego inicializado con estado cargado");
     }
 
     /**
-     * CORREGIDO: Captura el estado actual con validaciones mejoradas
+     * Captura el estado actual a partir del último snapshot de GameLogic, que es inmutable:
+     * no hace falta cerrojo aunque otro hilo siga jugando. Tras la primera captura solo se
+     * copian las filas y los barcos que cambiaron entre snapshots; los cambios en bloque
+     * (colocación, reinicio, carga) vuelven a capturar todo.
      */
     private GameState captureCurrentGameState() {
         if (gameLogic == null) {
             System.err.println("❌ GameLogic es null en captureCurrentGameState");
             return null;
         }
-        
+
+        GameSnapshot snapshot = gameLogic.getSnapshot();
+        GameDelta delta = snapshot.cambiosDesde(ultimoSnapshot);
+        GameState state = null;
+        if (ultimoEstado != null && !delta.isCompleto()) {
+            state = capturarCambios(snapshot, delta);
+        }
+        if (state == null) {
+            state = capturarEstadoCompleto(snapshot);
+        }
+        ultimoEstado = state;
+        ultimoSnapshot = state != null ? snapshot : null;
+        // El guardado recibe su propia copia: la captura siguiente parte de ultimoEstado
+        return state != null ? state.copia() : null;
+    }
+
+    /**
+     * Aplica un delta sobre la captura anterior
+     * @return El nuevo estado o null si las flotas no coinciden y hay que capturar todo
+     */
+    private GameState capturarCambios(GameSnapshot snapshot, GameDelta delta) {
+        // Las posiciones del delta son las de las flotas de GameLogic; si algún barco se omitió
+        // al capturar, las listas no están alineadas
+        if (ultimoEstado.getPlayerShips().size() != snapshot.getPosicionesFlota(0)
+                || ultimoEstado.getCpuShips().size() != snapshot.getPosicionesFlota(1)) {
+            return null;
+        }
+
+        GameState state = ultimoEstado.conCambios(delta);
+        state.setPlayerNickname(playerNickname);
+        state.setGameStarted(gameStarted);
+        state.setGameEnded(snapshot.isGameEnded());
+        state.setPlayerTurn(isPlayerTurn);
+        state.setFirstPlayerMove(firstPlayerMove);
+        state.setWinner(snapshot.getWinner());
+        state.setSemilla(snapshot.getSemilla());
+
+        // Los ShipState se comparten con la captura anterior: los cambiados se reemplazan
+        for (int i : delta.getBarcosJugador()) {
+            state.getPlayerShips().set(i, state.getPlayerShips().get(i).conEstado(snapshot.getEstadoBarco(0, i)));
+        }
+        for (int i : delta.getBarcosCpu()) {
+            state.getCpuShips().set(i, snapshot.getShipState(1, i));
+        }
+        return state;
+    }
+
+    /**
+     * CORREGIDO: Captura el estado actual con validaciones mejoradas
+     */
+    private GameState capturarEstadoCompleto(GameSnapshot snapshot) {
         try {
             GameState state = new GameState();
             state.setPlayerNickname(playerNickname);
             state.setGameStarted(gameStarted);
-            state.setGameEnded(gameLogic.isGameEnded());
+            state.setGameEnded(snapshot.isGameEnded());
             state.setPlayerTurn(isPlayerTurn);
             state.setFirstPlayerMove(firstPlayerMove);
-            state.setWinner(gameLogic.getWinner());
+            state.setWinner(snapshot.getWinner());
+            state.setSemilla(snapshot.getSemilla());
             
-            // Copiar matrices con validaciones
-            state.setMatrizLimpiezaPlayer(copyMatrix(gameLogic.getMatrizLimpiezaPlayer()));
-            state.setMatrizLimpiezaCpu(copyMatrix(gameLogic.getMatrizLimpiezaCpu()));
-            state.setMatrizDisparosPlayer(copyMatrix(gameLogic.getMatrizDisparosPlayer()));
-            state.setMatrizAtinacionCpu(copyMatrix(gameLogic.getMatrizAtinacionCpu()));
-            state.setMatrizDisparosCpu(copyMatrix(gameLogic.getMatrizDisparosCpu()));
-            state.setMatrizAtinacionPlayer(copyMatrix(gameLogic.getMatrizAtinacionPlayer()));
+            // Matrices nuevas a partir del snapshot, sin compartir nada con GameLogic
+            state.setMatrizLimpiezaPlayer(snapshot.getMatriz(GameDelta.LIMPIEZA_PLAYER));
+            state.setMatrizLimpiezaCpu(snapshot.getMatriz(GameDelta.LIMPIEZA_CPU));
+            state.setMatrizDisparosPlayer(snapshot.getMatriz(GameDelta.DISPAROS_PLAYER));
+            state.setMatrizAtinacionCpu(snapshot.getMatriz(GameDelta.ATINACION_CPU));
+            state.setMatrizDisparosCpu(snapshot.getMatriz(GameDelta.DISPAROS_CPU));
+            state.setMatrizAtinacionPlayer(snapshot.getMatriz(GameDelta.ATINACION_PLAYER));
             
-            // CORREGIDO: Guardar barcos del JUGADOR con validaciones
+            // Barcos del JUGADOR colocados en GameLogic, con el tamaño que ocupan en la vista
             state.getPlayerShips().clear();
-            
-            if (playerShips != null && !playerShips.isEmpty()) {
-                for (int i = 0; i < playerShips.size(); i++) {
-                    DraggableShape ship = playerShips.get(i);
-                    if (ship == null) continue;
-                    
-                    int[] position = ship.getCurrentGridPosition();
-                    int[] dimensions = ship.getCurrentDimensionsInCells();
-                    boolean isVertical = ship.isVertical();
-                    
-                    // Solo guardar barcos que estén colocados en el tablero
-                    if (position[0] >= 0 && position[1] >= 0) {
-                        GameState.ShipState shipState = new GameState.ShipState();
-                        shipState.setGridCol(position[0]);
-                        shipState.setGridRow(position[1]);
-                        shipState.setWidth(dimensions[0] * Constants.CELL_SIZE);
-                        shipState.setHeight(dimensions[1] * Constants.CELL_SIZE);
-                        shipState.setVertical(isVertical);
-                        
-                        // Generar coordenadas del barco y determinar su estado
-                        List<int[]> coordinates = new ArrayList<>();
-                        boolean shipDestroyed = true;
-                        int hitCells = 0;
-                        
-                        boolean[][] atinacionMatrix = gameLogic.getMatrizAtinacionPlayer();
-                        
-                        for (int row = position[1]; row < position[1] + dimensions[1]; row++) {
-                            for (int col = position[0]; col < position[0] + dimensions[0]; col++) {
-                                coordinates.add(new int[]{col, row});
-                                
-                                // Verificar si esta celda fue golpeada
-                                if (atinacionMatrix != null && atinacionMatrix[row][col]) {
-                                    hitCells++;
-                                } else {
-                                    shipDestroyed = false;
-                                }
-                            }
-                        }
-                        
-                        shipState.setCoordinates(coordinates);
-                        
-                        // Determinar estado: 0=intacto, 1=dañado, 2=hundido
-                        if (hitCells == 0) {
-                            shipState.setState(0); // Intacto
-                        } else if (shipDestroyed) {
-                            shipState.setState(2); // Hundido
-                        } else {
-                            shipState.setState(1); // Dañado
-                        }
-                        
-                        state.getPlayerShips().add(shipState);
-                    }
-                }
+            for (GameState.ShipState shipState : snapshot.getShipStates(0)) {
+                int longitud = shipState.getLongitud();
+                shipState.setWidth((shipState.isVertical() ? 1 : longitud) * Constants.CELL_SIZE);
+                shipState.setHeight((shipState.isVertical() ? longitud : 1) * Constants.CELL_SIZE);
+                state.getPlayerShips().add(shipState);
             }
             
-            // Guardar barcos de la CPU con estado correcto
-            Ship[] arrayCpu = gameLogic.getArrayCpu();
+            // Guardar barcos de la CPU: disposición compacta y estado mantenido por GameLogic
             state.getCpuShips().clear();
-            
-            if (arrayCpu != null) {
-                for (int i = 0; i < arrayCpu.length; i++) {
-                    if (arrayCpu[i] != null && arrayCpu[i].getSize() > 0) {
-                        GameState.ShipState shipState = new GameState.ShipState();
-                        shipState.setCoordinates(new ArrayList<>(arrayCpu[i].getCoordinates()));
-                        
-                        // Determinar estado del barco de la CPU
-                        List<int[]> coords = arrayCpu[i].getCoordinates();
-                        boolean shipDestroyed = true;
-                        int hitCells = 0;
-                        
-                        boolean[][] atinacionCpu = gameLogic.getMatrizAtinacionCpu();
-                        
-                        if (atinacionCpu != null) {
-                            for (int[] coord : coords) {
-                                if (coord[1] < atinacionCpu.length && coord[0] < atinacionCpu[0].length) {
-                                    if (atinacionCpu[coord[1]][coord[0]]) {
-                                        hitCells++;
-                                    } else {
-                                        shipDestroyed = false;
-                                    }
-                                }
-                            }
-                        } else {
-                            shipDestroyed = false;
-                            hitCells = 0;
-                        }
-                        
-                        if (hitCells == 0) {
-                            shipState.setState(0); // Intacto
-                        } else if (shipDestroyed) {
-                            shipState.setState(2); // Hundido
-                        } else {
-                            shipState.setState(1); // Dañado
-                        }
-                        
-                        state.getCpuShips().add(shipState);
-                    }
-                }
-            }
+            state.getCpuShips().addAll(snapshot.getShipStates(1));
             
             System.out.println("📊 Estado capturado - Barcos Jugador: " + state.getPlayerShips().size() + 
                               ", Barcos CPU: " + state.getCpuShips().size());
@@ -298,49 +330,14 @@ public class GameController extends GameStateAdapter implements MenuListener {
         
         System.out.println("🔄 Restaurando estado del juego...");
         
-        // Restaurar variables de estado
-        gameStarted = state.isGameStarted();
-        isPlayerTurn = state.isPlayerTurn();
-        firstPlayerMove = state.isFirstPlayerMove();
         playerNickname = state.getPlayerNickname() != null ? state.getPlayerNickname() : "Capitán";
         
-        // CORREGIDO: Limpiar matrices primero para evitar inconsistencias
-        gameLogic.reiniciarJuego();
-        
-        // Restaurar matrices en GameLogic
-        if (state.getMatrizLimpiezaPlayer() != null) {
-            gameLogic.setMatrizLimpiezaPlayer(copyMatrix(state.getMatrizLimpiezaPlayer()));
-        }
-        if (state.getMatrizLimpiezaCpu() != null) {
-            gameLogic.setMatrizLimpiezaCpu(copyMatrix(state.getMatrizLimpiezaCpu()));
-        }
-        if (state.getMatrizDisparosPlayer() != null) {
-            gameLogic.setMatrizDisparosPlayer(copyMatrix(state.getMatrizDisparosPlayer()));
-        }
-        if (state.getMatrizAtinacionCpu() != null) {
-            gameLogic.setMatrizAtinacionCpu(copyMatrix(state.getMatrizAtinacionCpu()));
-        }
-        if (state.getMatrizDisparosCpu() != null) {
-            gameLogic.setMatrizDisparosCpu(copyMatrix(state.getMatrizDisparosCpu()));
-        }
-        if (state.getMatrizAtinacionPlayer() != null) {
-            gameLogic.setMatrizAtinacionPlayer(copyMatrix(state.getMatrizAtinacionPlayer()));
-        }
-        
-        // CORREGIDO: Restaurar posiciones EXACTAS de los barcos del JUGADOR
+        // Posiciones de los barcos del jugador en la vista; GameLogic se restaura después en una
+        // sola orden de la sesión
+        List<int[]> colocaciones = new ArrayList<>();
         if (state.getPlayerShips() != null && !state.getPlayerShips().isEmpty() && playerShips != null) {
             System.out.println("🚢 Restaurando " + state.getPlayerShips().size() + " barcos del jugador");
             
-            // NUEVO: Limpiar posiciones actuales primero
-            for (DraggableShape ship : playerShips) {
-                int[] currentPos = ship.getCurrentGridPosition();
-                if (currentPos[0] >= 0 && currentPos[1] >= 0) {
-                    int[] dimensions = ship.getCurrentDimensionsInCells();
-                    gameLogic.removeShip(currentPos[0], currentPos[1], dimensions[0], dimensions[1]);
-                }
-            }
-            
-            int restoredShips = 0;
             for (int i = 0; i < state.getPlayerShips().size() && i < playerShips.size(); i++) {
                 GameState.ShipState shipState = state.getPlayerShips().get(i);
                 DraggableShape ship = playerShips.get(i);
@@ -365,10 +362,9 @@ public class GameController extends GameStateAdapter implements MenuListener {
                     System.err.println("⚠️ No se pudo actualizar posición interna del barco: " + e.getMessage());
                 }
                 
-                // Marcar las celdas como ocupadas en GameLogic
+                // Celdas que hay que ocupar en GameLogic
                 int[] dimensions = ship.getCurrentDimensionsInCells();
-                gameLogic.placeShip(shipState.getGridCol(), shipState.getGridRow(), 
-                                   dimensions[0], dimensions[1]);
+                colocaciones.add(new int[]{i, shipState.getGridCol(), shipState.getGridRow(), dimensions[0], dimensions[1]});
                 
                 // Restaurar estado visual de impactos en el barco
                 restoreShipVisualState(ship, shipState, state.getMatrizAtinacionPlayer());
@@ -376,40 +372,73 @@ public class GameController extends GameStateAdapter implements MenuListener {
                 System.out.println("✓ Barco " + (i+1) + " restaurado en posición (" + 
                                   shipState.getGridCol() + "," + shipState.getGridRow() + 
                                   ") - Estado: " + shipState.getState());
-                restoredShips++;
             }
-            
-            System.out.println("✅ " + restoredShips + " barcos del jugador restaurados");
+            System.out.println("✅ " + colocaciones.size() + " barcos del jugador restaurados");
         } else {
             System.out.println("⚠️ No hay barcos del jugador guardados");
         }
         
-        // Restaurar barcos de la CPU
-        if (state.getCpuShips() != null && !state.getCpuShips().isEmpty()) {
-            Ship[] arrayCpu = gameLogic.getArrayCpu();
-            System.out.println("🚢 Restaurando " + state.getCpuShips().size() + " barcos de la CPU");
+        List<DraggableShape> barcosJugador = playerShips;
+        sesion.enviar(logica -> {
+            // CORREGIDO: Limpiar matrices primero para evitar inconsistencias
+            logica.reiniciarJuego();
+            gameStarted = state.isGameStarted();
+            isPlayerTurn = state.isPlayerTurn();
+            firstPlayerMove = state.isFirstPlayerMove();
+            if (state.hasSemilla()) {
+                logica.setSemilla(state.getSemilla());
+            }
             
-            for (int i = 0; i < state.getCpuShips().size() && i < arrayCpu.length; i++) {
-                GameState.ShipState shipState = state.getCpuShips().get(i);
-                if (arrayCpu[i] == null) {
-                    arrayCpu[i] = new Ship();
-                }
-                arrayCpu[i].clearCoordinates();
-                for (int[] coord : shipState.getCoordinates()) {
-                    arrayCpu[i].addCoordinate(coord[0], coord[1]);
+            // Restaurar matrices en GameLogic
+            if (state.getMatrizLimpiezaPlayer() != null) {
+                logica.setMatrizLimpiezaPlayer(copyMatrix(state.getMatrizLimpiezaPlayer()));
+            }
+            if (state.getMatrizLimpiezaCpu() != null) {
+                logica.setMatrizLimpiezaCpu(copyMatrix(state.getMatrizLimpiezaCpu()));
+            }
+            if (state.getMatrizDisparosPlayer() != null) {
+                logica.setMatrizDisparosPlayer(copyMatrix(state.getMatrizDisparosPlayer()));
+            }
+            if (state.getMatrizAtinacionCpu() != null) {
+                logica.setMatrizAtinacionCpu(copyMatrix(state.getMatrizAtinacionCpu()));
+            }
+            if (state.getMatrizDisparosCpu() != null) {
+                logica.setMatrizDisparosCpu(copyMatrix(state.getMatrizDisparosCpu()));
+            }
+            if (state.getMatrizAtinacionPlayer() != null) {
+                logica.setMatrizAtinacionPlayer(copyMatrix(state.getMatrizAtinacionPlayer()));
+            }
+            
+            // Marcar las celdas de los barcos del jugador y reconstruir su flota e índice de celdas
+            for (int[] colocacion : colocaciones) {
+                barcosJugador.get(colocacion[0]).ocuparCeldas(logica, colocacion[1], colocacion[2], colocacion[3], colocacion[4]);
+            }
+            if (!colocaciones.isEmpty()) {
+                logica.inicializarBarcosJugador(barcosJugador);
+            }
+            
+            // Restaurar barcos de la CPU
+            if (state.getCpuShips() != null && !state.getCpuShips().isEmpty()) {
+                Ship[] arrayCpu = logica.getArrayCpu();
+                System.out.println("🚢 Restaurando " + state.getCpuShips().size() + " barcos de la CPU");
+                
+                for (int i = 0; i < state.getCpuShips().size() && i < arrayCpu.length; i++) {
+                    GameState.ShipState shipState = state.getCpuShips().get(i);
+                    logica.asignarBarco(1, i, shipState.toShip());
                 }
-                arrayCpu[i].setState(shipState.getState());
+            } else {
+                System.out.println("⚠️ No hay barcos de CPU guardados, generando nuevos...");
+                logica.posicionarBarcosCpu();
             }
-        } else {
-            System.out.println("⚠️ No hay barcos de CPU guardados, generando nuevos...");
-            gameLogic.posicionarBarcosCpu();
-        }
-        
-        // Actualizar UI si el juego ya estaba iniciado
-        if (gameStarted) {
-            updateUIForLoadedGame();
-            restaurarVisualTablero();
-        }
+            
+            // Actualizar UI si el juego ya estaba iniciado
+            return () -> {
+                if (gameStarted) {
+                    updateUIForLoadedGame();
+                    restaurarVisualTablero();
+                }
+            };
+        });
         
         System.out.println("✅ Estado restaurado exitosamente");
     }
@@ -424,9 +453,9 @@ public class GameController extends GameStateAdapter implements MenuListener {
             System.out.println("🔴 Barco marcado como hundido");
         } else if (shipState.getState() == 1) {
             // Barco dañado - marcar celdas específicas como tocadas
-            for (int[] coord : shipState.getCoordinates()) {
-                int col = coord[0];
-                int row = coord[1];
+            for (int segmento = 0; segmento < shipState.getLongitud(); segmento++) {
+                int col = shipState.getCol(segmento);
+                int row = shipState.getRow(segmento);
                 
                 if (atinacionMatrix != null && atinacionMatrix[row][col]) {
                     ship.markCellImpact(col, row, "TOCADO");
@@ -454,6 +483,7 @@ public class GameController extends GameStateAdapter implements MenuListener {
         }
         
         showCpuShipsButton.setVisible(true);
+        saveSlotButton.setVisible(true);
         
         // CORREGIDO: Manejar el turno correctamente al cargar
         if (isPlayerTurn) {
@@ -464,21 +494,10 @@ public class GameController extends GameStateAdapter implements MenuListener {
             updateGameStatus("Turno de la CPU", Color.DARKRED);
             updateTurnIndicator("Turno de la CPU", Color.DARKRED);
             
-            // NUEVO: Reanudar turno de la CPU después de cargar
-            Platform.runLater(() -> {
-                System.out.println("🤖 Reanudando turno de la CPU tras cargar partida...");
-                // Pequeño delay para que la UI se estabilice
-                new Thread(() -> {
-                    try {
-                        Thread.sleep(2000); // 2 segundos para que el jugador vea que se cargó
-                        Platform.runLater(() -> {
-                            turnoDelaCpu();
-                        });
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                    }
-                }).start();
-            });
+            // NUEVO: Reanudar turno de la CPU después de cargar, con una pausa para que el
+            // jugador vea que se cargó
+            System.out.println("🤖 Reanudando turno de la CPU tras cargar partida...");
+            sesion.programarEnVista(this::turnoDelaCpu, PAUSA_TRAS_CARGAR);
         }
         
         System.out.println("🎮 UI actualizada para partida cargada - Turno: " + (isPlayerTurn ? "Jugador" : "CPU"));
@@ -490,17 +509,17 @@ public class GameController extends GameStateAdapter implements MenuListener {
     private void restaurarVisualTablero() {
         System.out.println("🎨 Restaurando estado visual del tablero...");
         
-        boolean[][] disparosPlayer = gameLogic.getMatrizDisparosPlayer();
-        boolean[][] atinacionCpu = gameLogic.getMatrizAtinacionCpu();
-        boolean[][] disparosCpu = gameLogic.getMatrizDisparosCpu();
-        boolean[][] atinacionPlayer = gameLogic.getMatrizAtinacionPlayer();
+        GameSnapshot snapshot = gameLogic.getSnapshot();
+        boolean[][] disparosPlayer = snapshot.getMatriz(GameDelta.DISPAROS_PLAYER);
+        boolean[][] atinacionCpu = snapshot.getMatriz(GameDelta.ATINACION_CPU);
+        boolean[][] disparosCpu = snapshot.getMatriz(GameDelta.DISPAROS_CPU);
         
         // Restaurar disparos del jugador en el tablero de la CPU
         for (int row = 0; row < Constants.GRID_ROWS; row++) {
             for (int col = 0; col < Constants.GRID_COLS; col++) {
                 if (disparosPlayer[row][col]) {
                     // Verificar si es barco hundido para mostrar rojo
-                    boolean isShipSunk = isShipSunkAtPosition(col, row, true); // true = CPU
+                    boolean isShipSunk = isShipSunkAtPosition(snapshot, col, row, true); // true = CPU
                     
                     if (isShipSunk) {
                         updateCpuBoardCell(col, row, "HUNDIDO");
@@ -528,23 +547,17 @@ public class GameController extends GameStateAdapter implements MenuListener {
     /**
      * NUEVO: Verifica si un barco está hundido en una posición específica
      */
-    private boolean isShipSunkAtPosition(int col, int row, boolean isCpuBoard) {
-        Ship[] ships = isCpuBoard ? gameLogic.getArrayCpu() : gameLogic.getArrayPlayer();
-        boolean[][] atinacionMatrix = isCpuBoard ? gameLogic.getMatrizAtinacionCpu() : gameLogic.getMatrizAtinacionPlayer();
+    private boolean isShipSunkAtPosition(GameSnapshot snapshot, int col, int row, boolean isCpuBoard) {
+        int jugador = isCpuBoard ? 1 : 0;
         
         // Buscar el barco que contiene esta coordenada
-        for (Ship ship : ships) {
-            if (ship != null && ship.containsCoordinate(col, row)) {
-                // Verificar si todas las celdas del barco están golpeadas
-                for (int[] coord : ship.getCoordinates()) {
-                    if (!atinacionMatrix[coord[1]][coord[0]]) {
-                        return false; // Aún hay celdas sin golpear
-                    }
-                }
-                return true; // Todas las celdas están golpeadas = barco hundido
-            }
+        int barco = snapshot.barcoEn(jugador, col, row);
+        if (barco < 0) {
+            return false; // No se encontró barco en esa posición
         }
-        return false; // No se encontró barco en esa posición
+        
+        // El snapshot ya tiene el estado del barco: 2 = hundido
+        return snapshot.getEstadoBarco(jugador, barco) == 2;
     }
 
     /**
@@ -612,7 +625,8 @@ public class GameController extends GameStateAdapter implements MenuListener {
     }
 
     /**
-     * CORREGIDO: Auto-guardado con validación mejorada
+     * CORREGIDO: Auto-guardado con validación mejorada.
+     * Se llama desde las órdenes de la sesión, después de la jugada o el cambio de turno.
      */
     private void autoSave() {
         if (!gameStarted) {
@@ -626,51 +640,40 @@ public class GameController extends GameStateAdapter implements MenuListener {
             return;
         }
         
-        new Thread(() -> {
-            try {
-                Thread.sleep(500); // Reducir delay para guardado más rápido
-                
-                // NUEVO: Verificar nuevamente que el juego sigue activo
-                if (!gameStarted) {
-                    System.out.println("⚠️ Juego terminó durante delay, cancelando auto-guardado");
-                    return;
-                }
-                
-                GameState state = captureCurrentGameState();
-                
-                // NUEVO: Validar que el estado capturado es válido
-                if (state == null) {
-                    System.err.println("❌ Estado capturado es null, cancelando auto-guardado");
-                    return;
-                }
-                
-                // NUEVO: Validar que tenemos datos mínimos
-                if (state.getPlayerShips() == null || state.getCpuShips() == null) {
-                    System.err.println("❌ Datos de barcos incompletos, cancelando auto-guardado");
-                    return;
-                }
-                
-                saveManager.saveGame(state);
-                System.out.println("💾 Auto-guardado completado exitosamente");
-                
-            } catch (InterruptedException e) {
-                System.out.println("⚠️ Auto-guardado interrumpido");
-                Thread.currentThread().interrupt();
-            } catch (GameSaveException e) {
-                System.err.println("❌ Error en auto-guardado: " + e.getMessage());
-                // NUEVO: No mostrar error en UI para auto-guardado fallido
-                // Platform.runLater(() -> updateGameStatus("Error guardando", Color.ORANGE));
-            } catch (Exception e) {
-                System.err.println("❌ Error crítico en auto-guardado: " + e.getMessage());
-                e.printStackTrace();
-            }
-        }).start();
+        GameState state = captureCurrentGameState();
+
+        // NUEVO: Validar que el estado capturado es válido
+        if (state == null) {
+            System.err.println("❌ Estado capturado es null, cancelando auto-guardado");
+            return;
+        }
+
+        // NUEVO: Validar que tenemos datos mínimos
+        if (state.getPlayerShips() == null || state.getCpuShips() == null) {
+            System.err.println("❌ Datos de barcos incompletos, cancelando auto-guardado");
+            return;
+        }
+
+        // Las jugadas se drenan solo si el guardado sale: si se cancela, las recoge el siguiente.
+        // Captura y drenado corren en el hilo de la sesión, así que el estado las incluye todas
+        List<RegistroJugada> jugadas = gameLogic.drenarJugadas();
+
+        // El hilo de guardado escribe solo el último estado y añade las jugadas al diario;
+        // el resultado llega por onGameSaved/onSaveError
+        SaveWorker.getInstance().enviar(saveManager, state, jugadas);
     }
 
     // ===== MÉTODOS ORIGINALES - SIN CAMBIOS =====
     
     public void initializeGame(Stage primaryStage) {
+        if (sesion != null) {
+            gameLogic.cancelarDisparoCpu();
+            sesion.cerrar();
+        }
         gameLogic = new GameLogic();
+        gameLogic.setEstrategiaCpu(ShotStrategies.crear(ShotStrategies.POR_DEFECTO));
+        gameLogic.setRegistrarJugadas(true);
+        sesion = new GameSession(gameLogic, Platform::runLater);
 
         GameBoardView playerBoardView = new GameBoardView();
         playerGridPane = playerBoardView.getGridPane();
@@ -703,7 +706,7 @@ public class GameController extends GameStateAdapter implements MenuListener {
         root.getChildren().addAll(playerLabel, playerGridPane, cpuLabel, cpuGridPane);
 
         PlayerShipManager shipManager = new PlayerShipManager();
-        playerShips = shipManager.createAndPositionShips(gameLogic, this::checkAllShipsPlaced);
+        playerShips = shipManager.createAndPositionShips(sesion, this::checkAllShipsPlaced);
 
         Label instructionsLabel = new Label("Arrastra los barcos solo al tablero AZUL. Click derecho para rotar.");
         instructionsLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 12));
@@ -747,9 +750,11 @@ public class GameController extends GameStateAdapter implements MenuListener {
         createStartGameButton();
         createShowCpuShipsButton();
         createNewGameButton();
+        createSaveSlotButton();
         root.getChildren().add(startGameButton);
         root.getChildren().add(showCpuShipsButton);
         root.getChildren().add(newGameButton);
+        root.getChildren().add(saveSlotButton);
 
         for (DraggableShape ship : playerShips) {
             root.getChildren().add(ship.getNode());
@@ -766,7 +771,10 @@ public class GameController extends GameStateAdapter implements MenuListener {
         primaryStage.show();
 
         checkAllShipsPlaced();
-        gameLogic.printMatrizLimpieza();
+        sesion.enviar(logica -> {
+            logica.printMatrizLimpieza();
+            return null;
+        });
     }
 
     private void setupEventHandlers() {
@@ -776,7 +784,7 @@ public class GameController extends GameStateAdapter implements MenuListener {
                 return;
             }
 
-            if (gameLogic.isGameEnded()) {
+            if (gameLogic.getSnapshot().isGameEnded()) {
                 updateGameStatus("¡El juego ya ha terminado!", Color.GRAY);
                 return;
             }
@@ -795,70 +803,72 @@ public class GameController extends GameStateAdapter implements MenuListener {
 
                 if (col != null && row != null) {
                     if (firstPlayerMove) {
-                        firstPlayerMove = false;
+                        // La orden del disparo lo marca; hasta entonces ocultar otra vez no cambia nada
                         showCpuShipsButton.setVisible(false);
                         if (cpuShipsVisible) {
                             hideCpuShips();
                         }
                     }
-                    realizarDisparoJugador(col, row, clickedPane);
+                    sesion.enviar(logica -> realizarDisparoJugador(logica, col, row, clickedPane));
                 }
             }
         });
     }
 
-    private void realizarDisparoJugador(int col, int row, Pane clickedPane) {
-        String resultado = gameLogic.jugada(col, row, 0);
+    /**
+     * Disparo del jugador. Se ejecuta en el bucle de la sesión: el turno se vuelve a comprobar
+     * aquí porque el clic pudo encolarse antes de que terminara el disparo anterior.
+     * @return Actualización de la vista con el resultado
+     */
+    private Runnable realizarDisparoJugador(GameLogic logica, int col, int row, Pane clickedPane) {
+        // El clic pudo llegar justo antes de reiniciar la partida o de cargar otra
+        if (!gameStarted || !isPlayerTurn || logica != gameLogic) {
+            return null;
+        }
+        String resultado = logica.jugada(col, row, 0);
+        firstPlayerMove = false;
         
         switch (resultado) {
             case "AGUA":
-                clickedPane.setStyle("-fx-border-color: black; -fx-border-width: 0.8; -fx-background-color: lightblue;");
-                updateGameStatus("¡Agua! Turno de la CPU", Color.BLUE);
-                updateTurnIndicator("Turno de la CPU", Color.DARKRED);
-                
                 // CORREGIDO: Cambiar turno inmediatamente tras fallo del jugador
                 isPlayerTurn = false;
                 autoSave(); // Guardar inmediatamente el cambio de turno
-                
-                new Thread(() -> {
-                    try {
-                        Thread.sleep(2000);
-                        Platform.runLater(() -> {
-                            turnoDelaCpu();
-                        });
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                    }
-                }).start();
-                break;
+                sesion.programarEnVista(this::turnoDelaCpu, PAUSA_TRAS_FALLO);
+                return () -> {
+                    clickedPane.setStyle("-fx-border-color: black; -fx-border-width: 0.8; -fx-background-color: lightblue;");
+                    updateGameStatus("¡Agua! Turno de la CPU", Color.BLUE);
+                    updateTurnIndicator("Turno de la CPU", Color.DARKRED);
+                };
 
             case "TOCADO":
-                clickedPane.setStyle("-fx-border-color: black; -fx-border-width: 0.8; -fx-background-color: yellow;");
-                updateGameStatus("¡Tocado! Puedes disparar de nuevo", Color.DARKORANGE);
-                updateTurnIndicator("Tu turno - ¡Sigue!", Color.DARKGREEN);
                 autoSave(); // Guardar el progreso
-                break;
+                return () -> {
+                    clickedPane.setStyle("-fx-border-color: black; -fx-border-width: 0.8; -fx-background-color: yellow;");
+                    updateGameStatus("¡Tocado! Puedes disparar de nuevo", Color.DARKORANGE);
+                    updateTurnIndicator("Tu turno - ¡Sigue!", Color.DARKGREEN);
+                };
 
             case "HUNDIDO":
-                marcarBarcoHundidoCpu(col, row);
-                updateGameStatus("¡Barco hundido! Sigue disparando", Color.DARKRED);
-                updateTurnIndicator("Tu turno - ¡Hundido!", Color.DARKGREEN);
                 autoSave(); // Guardar el progreso
-                break;
+                return () -> {
+                    marcarBarcoHundidoCpu(col, row);
+                    updateGameStatus("¡Barco hundido! Sigue disparando", Color.DARKRED);
+                    updateTurnIndicator("Tu turno - ¡Hundido!", Color.DARKGREEN);
+                };
 
             case "VICTORIA_JUGADOR":
-                marcarBarcoHundidoCpu(col, row);
+                isPlayerTurn = false;
                 autoSave(); // Guardar la victoria
-                manejarFinDelJuego("VICTORIA_JUGADOR");
-                break;
+                return () -> {
+                    marcarBarcoHundidoCpu(col, row);
+                    manejarFinDelJuego("VICTORIA_JUGADOR");
+                };
 
             case "YA_DISPARADO":
-                updateGameStatus("Ya disparaste ahí", Color.GRAY);
-                break;
+                return () -> updateGameStatus("Ya disparaste ahí", Color.GRAY);
 
             default:
-                updateGameStatus("Error en el disparo", Color.RED);
-                break;
+                return () -> updateGameStatus("Error en el disparo", Color.RED);
         }
     }
 
@@ -866,35 +876,49 @@ public class GameController extends GameStateAdapter implements MenuListener {
         updateGameStatus("La CPU está pensando...", Color.DARKRED);
         updateTurnIndicator("Turno de la CPU", Color.DARKRED);
 
-        new Thread(() -> {
-            try {
-                Thread.sleep(1500);
-
-                boolean disparoExitoso = false;
-                int intentos = 0;
+        sesion.programar(this::dispararCpu, PAUSA_CPU_PENSANDO);
+    }
 
-                while (!disparoExitoso && intentos < 100) {
-                    int col = cpuRandom.nextInt(Constants.GRID_COLS);
-                    int row = cpuRandom.nextInt(Constants.GRID_ROWS);
+    /**
+     * Disparo de la CPU. Se ejecuta en el bucle de la sesión y fija de quién es el turno
+     * antes de guardar, así el guardado ya incluye el cambio de turno.
+     * @return Actualización de la vista con el resultado, o null si ya no le toca a la CPU
+     */
+    private Runnable dispararCpu(GameLogic logica) {
+        if (!gameStarted || isPlayerTurn || logica.isGameEnded() || logica != gameLogic) {
+            return null;
+        }
 
-                    if (!gameLogic.yaSeDisparo(col, row, 1)) {
-                        String resultado = gameLogic.jugada(col, row, 1);
-                        autoSave(); // Auto-guardar después de jugada de CPU
+        // Celda elegida por la estrategia de la CPU; solo es null si el tablero está agotado
+        int[] disparo = logica.encontrarCoordenadaValidaParaDisparar(1);
+        if (disparo == null) {
+            System.err.println("⚠️ La CPU no tiene celdas disponibles para disparar");
+            return null;
+        }
 
-                        Platform.runLater(() -> {
-                            actualizarTableroJugador(col, row, resultado);
-                            manejarResultadoCpu(resultado, col, row);
-                        });
+        int col = disparo[0];
+        int row = disparo[1];
+        String resultado = logica.jugada(col, row, 1);
 
-                        disparoExitoso = true;
-                    }
-                    intentos++;
-                }
+        switch (resultado) {
+            case "TOCADO":
+            case "HUNDIDO":
+                // CPU sigue jugando porque acertó
+                break;
+            case "VICTORIA_CPU":
+                isPlayerTurn = false;
+                break;
+            default:
+                // Fallo o error: pasa el turno al jugador
+                isPlayerTurn = true;
+                break;
+        }
+        autoSave(); // Auto-guardar después de jugada de CPU
 
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }).start();
+        return () -> {
+            actualizarTableroJugador(col, row, resultado);
+            manejarResultadoCpu(resultado, col, row);
+        };
     }
 
     private void manejarResultadoCpu(String resultado, int col, int row) {
@@ -903,21 +927,8 @@ public class GameController extends GameStateAdapter implements MenuListener {
                 updateGameStatus("La CPU falló. ¡Tu turno!", Color.BLUE);
                 updateTurnIndicator("Tu turno", Color.DARKGREEN);
                 
-                // CORREGIDO: Cambiar turno inmediatamente tras fallo de CPU
-                isPlayerTurn = true;
-                autoSave(); // Guardar el cambio de turno
-                
-                new Thread(() -> {
-                    try {
-                        Thread.sleep(2000);
-                        Platform.runLater(() -> {
-                            // Ya no necesitamos cambiar isPlayerTurn aquí porque ya se cambió arriba
-                            updateGameStatus("¡Tu turno! Haz clic para disparar", Color.DARKGREEN);
-                        });
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                    }
-                }).start();
+                sesion.programarEnVista(() ->
+                        updateGameStatus("¡Tu turno! Haz clic para disparar", Color.DARKGREEN), PAUSA_TRAS_FALLO);
                 break;
 
             case "TOCADO":
@@ -926,16 +937,7 @@ public class GameController extends GameStateAdapter implements MenuListener {
                 updateTurnIndicator("Turno de la CPU", Color.DARKRED);
                 
                 // CPU sigue jugando porque acertó
-                new Thread(() -> {
-                    try {
-                        Thread.sleep(2500);
-                        Platform.runLater(() -> {
-                            turnoDelaCpu();
-                        });
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                    }
-                }).start();
+                sesion.programarEnVista(this::turnoDelaCpu, PAUSA_TRAS_TOCADO);
                 break;
 
             case "HUNDIDO":
@@ -944,16 +946,7 @@ public class GameController extends GameStateAdapter implements MenuListener {
                 updateTurnIndicator("Turno de la CPU", Color.DARKRED);
                 
                 // CPU sigue jugando porque hundió un barco
-                new Thread(() -> {
-                    try {
-                        Thread.sleep(3000);
-                        Platform.runLater(() -> {
-                            turnoDelaCpu();
-                        });
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                    }
-                }).start();
+                sesion.programarEnVista(this::turnoDelaCpu, PAUSA_TRAS_HUNDIDO);
                 break;
 
             case "VICTORIA_CPU":
@@ -961,10 +954,8 @@ public class GameController extends GameStateAdapter implements MenuListener {
                 break;
 
             default:
-                // En caso de error, pasar turno al jugador
-                isPlayerTurn = true;
+                // En caso de error, el turno ya pasó al jugador
                 updateTurnIndicator("Tu turno", Color.DARKGREEN);
-                autoSave(); // Guardar el cambio de turno
                 break;
         }
     }
@@ -1024,10 +1015,6 @@ public class GameController extends GameStateAdapter implements MenuListener {
     }
 
     private void startGame() {
-        gameStarted = true;
-        gameLogic.inicializarBarcosJugador(playerShips);
-        gameLogic.posicionarBarcosCpu();
-
         for (DraggableShape ship : playerShips) {
             ship.disableDragging();
         }
@@ -1037,15 +1024,24 @@ public class GameController extends GameStateAdapter implements MenuListener {
         startGameButton.setStyle("-fx-background-color: #2196F3; -fx-text-fill: white; -fx-font-weight: bold;");
 
         showCpuShipsButton.setVisible(true);
+        saveSlotButton.setVisible(true);
         statusLabel.setText("¡Juego iniciado! Haz clic en el tablero enemigo");
         statusLabel.setTextFill(Color.DARKBLUE);
 
         updateGameStatus("¡Tu turno! Dispara", Color.DARKGREEN);
         updateTurnIndicator("Tu turno", Color.DARKGREEN);
 
-        isPlayerTurn = true;
-        firstPlayerMove = true;
-        autoSave();
+        // Los barcos ya no se pueden arrastrar: la flota del jugador se lee en la orden
+        List<DraggableShape> barcosJugador = playerShips;
+        sesion.enviar(logica -> {
+            gameStarted = true;
+            isPlayerTurn = true;
+            firstPlayerMove = true;
+            logica.inicializarBarcosJugador(barcosJugador);
+            logica.posicionarBarcosCpu();
+            autoSave();
+            return null;
+        });
     }
 
     private void createShowCpuShipsButton() {
@@ -1072,7 +1068,7 @@ public class GameController extends GameStateAdapter implements MenuListener {
     }
 
     private void showCpuShips() {
-        boolean[][] cpuMatrix = gameLogic.getMatrizLimpiezaCpu();
+        boolean[][] cpuMatrix = gameLogic.getSnapshot().getMatriz(GameDelta.LIMPIEZA_CPU);
 
         for (int row = 0; row < Constants.GRID_ROWS; row++) {
             for (int col = 0; col < Constants.GRID_COLS; col++) {
@@ -1098,9 +1094,10 @@ public class GameController extends GameStateAdapter implements MenuListener {
     }
 
     private void hideCpuShips() {
-        boolean[][] cpuMatrix = gameLogic.getMatrizLimpiezaCpu();
-        boolean[][] disparosMatrix = gameLogic.getMatrizDisparosPlayer();
-        boolean[][] atinacionMatrix = gameLogic.getMatrizAtinacionCpu();
+        GameSnapshot snapshot = gameLogic.getSnapshot();
+        boolean[][] cpuMatrix = snapshot.getMatriz(GameDelta.LIMPIEZA_CPU);
+        boolean[][] disparosMatrix = snapshot.getMatriz(GameDelta.DISPAROS_PLAYER);
+        boolean[][] atinacionMatrix = snapshot.getMatriz(GameDelta.ATINACION_CPU);
 
         for (int row = 0; row < Constants.GRID_ROWS; row++) {
             for (int col = 0; col < Constants.GRID_COLS; col++) {
@@ -1151,12 +1148,79 @@ public class GameController extends GameStateAdapter implements MenuListener {
         });
     }
 
+    private void createSaveSlotButton() {
+        saveSlotButton = new Button("GUARDAR COMO...");
+        saveSlotButton.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+        saveSlotButton.setPrefSize(170, 35);
+
+        double buttonX = Constants.BOARD_START_X + (Constants.GRID_COLS * Constants.CELL_SIZE) - 100 + 420;
+        double buttonY = Constants.BOARD_START_Y + (Constants.GRID_ROWS * Constants.CELL_SIZE) + 85;
+
+        saveSlotButton.setTranslateX(buttonX);
+        saveSlotButton.setTranslateY(buttonY);
+        saveSlotButton.setVisible(false);
+        saveSlotButton.setStyle("-fx-background-color: #FF9800; -fx-text-fill: white; -fx-font-weight: bold;");
+
+        saveSlotButton.setOnAction(event -> {
+            guardarEnRanura();
+        });
+    }
+
+    /**
+     * Pide un nombre y guarda la partida en esa ranura de la biblioteca.
+     * La captura y la escritura son una orden de la sesión, así que la ranura recibe el estado
+     * con todas las jugadas anteriores; el auto-guardado pendiente no se toca.
+     */
+    private void guardarEnRanura() {
+        TextInputDialog dialog = new TextInputDialog(playerNickname);
+        dialog.setTitle("Batalla Naval");
+        dialog.setHeaderText("Guardar la partida en la biblioteca");
+        dialog.setContentText("Nombre:");
+        String nombre = dialog.showAndWait().map(String::trim).orElse("");
+        if (nombre.isEmpty()) {
+            return;
+        }
+
+        sesion.enviar(logica -> {
+            GameState state = captureCurrentGameState();
+            if (state == null) {
+                return () -> updateGameStatus("No se pudo guardar la partida", Color.RED);
+            }
+            try {
+                SaveWorker.getInstance().guardar(SaveLibrary.getInstance().ranura(nombre), state);
+                return () -> updateGameStatus("Partida guardada como \"" + nombre + "\"", Color.DARKGREEN);
+            } catch (GameSaveException | IllegalArgumentException e) {
+                System.err.println("❌ Error guardando en la ranura: " + e.getMessage());
+                return () -> updateGameStatus("Error guardando partida: " + e.getMessage(), Color.RED);
+            }
+        });
+    }
+
+    /**
+     * Cierra la partida al salir de la aplicación: el turno de la CPU en curso termina
+     * enseguida y lo pendiente se descarta
+     */
+    public void cerrar() {
+        if (sesion != null) {
+            gameLogic.cancelarDisparoCpu();
+            sesion.cerrar();
+        }
+    }
+
     private void iniciarNuevaPartida() {
-        gameLogic.reiniciarJuego();
-        gameStarted = false;
-        firstPlayerMove = true;
+        // Un turno de la CPU en curso no se puede descartar: se le pide que dispare ya
+        gameLogic.cancelarDisparoCpu();
+        // Descarta los turnos de la CPU y las actualizaciones de vista de la partida anterior
+        sesion.cancelarPendientes();
+        sesion.enviar(logica -> {
+            logica.reiniciarJuego();
+            gameStarted = false;
+            firstPlayerMove = true;
+            isPlayerTurn = true;
+            // Hasta aquí la vista todavía ve la partida anterior como iniciada
+            return this::checkAllShipsPlaced;
+        });
         cpuShipsVisible = false;
-        isPlayerTurn = true;
 
         limpiarTablerosVisuales();
 
@@ -1165,7 +1229,7 @@ public class GameController extends GameStateAdapter implements MenuListener {
         }
 
         PlayerShipManager shipManager = new PlayerShipManager();
-        List<DraggableShape> newPlayerShips = shipManager.createAndPositionShips(gameLogic, this::checkAllShipsPlaced);
+        List<DraggableShape> newPlayerShips = shipManager.createAndPositionShips(sesion, this::checkAllShipsPlaced);
 
         Pane root = (Pane) playerGridPane.getParent();
         for (DraggableShape oldShip : playerShips) {
@@ -1183,6 +1247,7 @@ public class GameController extends GameStateAdapter implements MenuListener {
 
         showCpuShipsButton.setVisible(false);
         newGameButton.setVisible(false);
+        saveSlotButton.setVisible(false);
 
         statusLabel.setText("Coloca todos los barcos en el tablero");
         statusLabel.setTextFill(Color.DARKORANGE);
@@ -1191,8 +1256,6 @@ public class GameController extends GameStateAdapter implements MenuListener {
         gameStatusLabel.setVisible(false);
         turnIndicatorLabel.setVisible(false);
         victoryLabel.setVisible(false);
-
-        checkAllShipsPlaced();
     }
 
     private void limpiarTablerosVisuales() {
@@ -1210,8 +1273,7 @@ public class GameController extends GameStateAdapter implements MenuListener {
     }
 
     private void manejarFinDelJuego(String tipoVictoria) {
-        isPlayerTurn = false;
-
+        // El turno ya lo cerró la orden que detectó la victoria
         String mensajeVictoria;
         Color colorVictoria;
 
@@ -1282,30 +1344,28 @@ public class GameController extends GameStateAdapter implements MenuListener {
     }
 
     private void marcarBarcoHundidoCpu(int col, int row) {
-        Ship[] barcosCpu = gameLogic.getArrayCpu();
-
-        for (int i = 0; i < barcosCpu.length; i++) {
-            if (barcosCpu[i] != null && barcosCpu[i].containsCoordinate(col, row)) {
-                List<int[]> coordinates = barcosCpu[i].getCoordinates();
+        GameSnapshot snapshot = gameLogic.getSnapshot();
+        int barco = snapshot.barcoEn(1, col, row);
+        if (barco < 0) {
+            return;
+        }
+        GameState.ShipState barcoCpu = snapshot.getShipState(1, barco);
 
-                for (int[] coordinate : coordinates) {
-                    int shipCol = coordinate[0];
-                    int shipRow = coordinate[1];
+        for (int segmento = 0; segmento < barcoCpu.getLongitud(); segmento++) {
+            int shipCol = barcoCpu.getCol(segmento);
+            int shipRow = barcoCpu.getRow(segmento);
 
-                    for (javafx.scene.Node node : cpuGridPane.getChildren()) {
-                        if (node instanceof Pane) {
-                            Integer nodeCol = GridPane.getColumnIndex(node);
-                            Integer nodeRow = GridPane.getRowIndex(node);
+            for (javafx.scene.Node node : cpuGridPane.getChildren()) {
+                if (node instanceof Pane) {
+                    Integer nodeCol = GridPane.getColumnIndex(node);
+                    Integer nodeRow = GridPane.getRowIndex(node);
 
-                            if (nodeCol != null && nodeRow != null &&
-                                    nodeCol == shipCol && nodeRow == shipRow) {
-                                node.setStyle("-fx-border-color: black; -fx-border-width: 0.8; -fx-background-color: red;");
-                                break;
-                            }
-                        }
+                    if (nodeCol != null && nodeRow != null &&
+                            nodeCol == shipCol && nodeRow == shipRow) {
+                        node.setStyle("-fx-border-color: black; -fx-border-width: 0.8; -fx-background-color: red;");
+                        break;
                     }
                 }
-                break;
             }
         }
     }
@@ -1340,10 +1400,20 @@ public class GameController extends GameStateAdapter implements MenuListener {
     public void onSaveError(String error) {
         System.err.println("Error de guardado: " + error);
         Platform.runLater(() -> {
-            updateGameStatus("Error guardando partida", Color.ORANGE);
+            // Sin partida abierta (por ejemplo, desde el menú) no hay etiqueta donde mostrarlo
+            if (gameStatusLabel != null) {
+                updateGameStatus("Error guardando partida", Color.ORANGE);
+            }
         });
     }
 
+    @Override
+    public void onLoadWarning(String warning) {
+        // La carga se hace en el hilo de JavaFX antes de crear la vista de la partida
+        System.err.println("⚠️ Aviso de carga: " + warning);
+        avisoCarga = warning;
+    }
+
     @Override
     public void onGameStateChanged(GameState newState) {
         if (newState != null) {
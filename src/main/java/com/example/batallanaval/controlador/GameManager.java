@@ -4,7 +4,10 @@ import com.example.batallanaval.interfaces.GameStateListener;
 import com.example.batallanaval.modelo.GameState;
 import com.example.batallanaval.modelo.GameSaveManager;
 import com.example.batallanaval.modelo.GameLogic;
-import com.example.batallanaval.modelo.Ship;
+import com.example.batallanaval.modelo.GameDelta;
+import com.example.batallanaval.modelo.GameSnapshot;
+import com.example.batallanaval.modelo.SaveLibrary;
+import com.example.batallanaval.modelo.SaveWorker;
 import com.example.batallanaval.exceptions.GameSaveException;
 import com.example.batallanaval.exceptions.GameLoadException;
 
@@ -56,6 +59,11 @@ public class GameManager {
             public void onSaveError(String error) {
                 notifyError(error);
             }
+
+            @Override
+            public void onLoadWarning(String warning) {
+                notifyLoadWarning(warning);
+            }
         });
     }
 
@@ -71,6 +79,8 @@ public class GameManager {
      */
     public void initializeWithGameLogic(GameLogic gameLogic) {
         this.gameLogic = gameLogic;
+        // El guardado lee la partida desde su snapshot
+        gameLogic.setPublicarSnapshots(true);
         System.out.println("✓ GameManager inicializado con GameLogic");
     }
 
@@ -97,30 +107,23 @@ public class GameManager {
         }
 
         try {
-            // Capturar matrices del GameLogic
-            currentGameState.setMatrizLimpiezaPlayer(copyMatrix(gameLogic.getMatrizLimpiezaPlayer()));
-            currentGameState.setMatrizLimpiezaCpu(copyMatrix(gameLogic.getMatrizLimpiezaCpu()));
-            currentGameState.setMatrizDisparosPlayer(copyMatrix(gameLogic.getMatrizDisparosPlayer()));
-            currentGameState.setMatrizDisparosCpu(copyMatrix(gameLogic.getMatrizDisparosCpu()));
-            currentGameState.setMatrizAtinacionPlayer(copyMatrix(gameLogic.getMatrizAtinacionPlayer()));
-            currentGameState.setMatrizAtinacionCpu(copyMatrix(gameLogic.getMatrizAtinacionCpu()));
+            // Una sola lectura del snapshot inmutable: matrices, barcos y fin de partida coherentes
+            GameSnapshot snapshot = gameLogic.getSnapshot();
+            currentGameState.setMatrizLimpiezaPlayer(snapshot.getMatriz(GameDelta.LIMPIEZA_PLAYER));
+            currentGameState.setMatrizLimpiezaCpu(snapshot.getMatriz(GameDelta.LIMPIEZA_CPU));
+            currentGameState.setMatrizDisparosPlayer(snapshot.getMatriz(GameDelta.DISPAROS_PLAYER));
+            currentGameState.setMatrizDisparosCpu(snapshot.getMatriz(GameDelta.DISPAROS_CPU));
+            currentGameState.setMatrizAtinacionPlayer(snapshot.getMatriz(GameDelta.ATINACION_PLAYER));
+            currentGameState.setMatrizAtinacionCpu(snapshot.getMatriz(GameDelta.ATINACION_CPU));
 
             // Capturar estado del juego
-            currentGameState.setGameEnded(gameLogic.isGameEnded());
-            currentGameState.setWinner(gameLogic.getWinner());
+            currentGameState.setGameEnded(snapshot.isGameEnded());
+            currentGameState.setWinner(snapshot.getWinner());
+            currentGameState.setSemilla(snapshot.getSemilla());
 
             // Capturar barcos de la CPU
             currentGameState.getCpuShips().clear();
-            if (gameLogic.getArrayCpu() != null) {
-                for (int i = 0; i < gameLogic.getArrayCpu().length; i++) {
-                    if (gameLogic.getArrayCpu()[i] != null && gameLogic.getArrayCpu()[i].getSize() > 0) {
-                        GameState.ShipState shipState = new GameState.ShipState();
-                        shipState.setCoordinates(new ArrayList<>(gameLogic.getArrayCpu()[i].getCoordinates()));
-                        shipState.setState(gameLogic.getArrayCpu()[i].getState());
-                        currentGameState.getCpuShips().add(shipState);
-                    }
-                }
-            }
+            currentGameState.getCpuShips().addAll(snapshot.getShipStates(1));
 
             // Actualizar timestamp
             currentGameState.setSaveTimestamp(System.currentTimeMillis());
@@ -139,6 +142,10 @@ public class GameManager {
         }
 
         try {
+            if (gameState.hasSemilla()) {
+                gameLogic.setSemilla(gameState.getSemilla());
+            }
+
             // Restaurar matrices en GameLogic
             if (gameState.getMatrizLimpiezaPlayer() != null) {
                 gameLogic.setMatrizLimpiezaPlayer(gameState.getMatrizLimpiezaPlayer());
@@ -163,14 +170,7 @@ public class GameManager {
             if (gameState.getCpuShips() != null && !gameState.getCpuShips().isEmpty()) {
                 for (int i = 0; i < gameState.getCpuShips().size() && i < gameLogic.getArrayCpu().length; i++) {
                     GameState.ShipState shipState = gameState.getCpuShips().get(i);
-                    if (gameLogic.getArrayCpu()[i] == null) {
-                        gameLogic.getArrayCpu()[i] = new Ship();
-                    }
-                    gameLogic.getArrayCpu()[i].clearCoordinates();
-                    for (int[] coord : shipState.getCoordinates()) {
-                        gameLogic.getArrayCpu()[i].addCoordinate(coord[0], coord[1]);
-                    }
-                    gameLogic.getArrayCpu()[i].setState(shipState.getState());
+                    gameLogic.asignarBarco(1, i, shipState.toShip());
                 }
             }
 
@@ -199,19 +199,9 @@ public class GameManager {
         // Capturar estado actual
         captureGameState();
 
-        // Guardar en hilo separado para no bloquear la UI
-        new Thread(() -> {
-            try {
-                Thread.sleep(500); // Pequeño delay para asegurar que el estado esté completo
-                saveManager.saveGame(currentGameState);
-                System.out.println("✓ Auto-guardado completado");
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            } catch (GameSaveException e) {
-                System.err.println("Error en auto-guardado: " + e.getMessage());
-                notifyError("Error en auto-guardado: " + e.getMessage());
-            }
-        }).start();
+        // Guardar en el hilo de guardado para no bloquear la UI. Se envía una copia porque
+        // captureGameState sigue modificando currentGameState en las siguientes jugadas
+        SaveWorker.getInstance().enviar(saveManager, currentGameState.copia());
     }
 
     /**
@@ -226,7 +216,7 @@ public class GameManager {
         captureGameState();
 
         try {
-            saveManager.saveGame(currentGameState);
+            SaveWorker.getInstance().guardar(saveManager, currentGameState.copia());
             System.out.println("✓ Partida guardada manualmente");
         } catch (GameSaveException e) {
             System.err.println("Error guardando partida: " + e.getMessage());
@@ -275,6 +265,64 @@ public class GameManager {
         }
     }
 
+    /**
+     * Guarda la partida actual en una ranura con nombre de la biblioteca de partidas
+     */
+    public void saveToSlot(String nombre) {
+        if (!gameInProgress) {
+            System.out.println("No hay partida activa para guardar");
+            return;
+        }
+
+        captureGameState();
+
+        try {
+            SaveWorker.getInstance().guardar(SaveLibrary.getInstance().ranura(nombre), currentGameState.copia());
+            notifyGameSaved();
+        } catch (GameSaveException e) {
+            System.err.println("Error guardando en la ranura: " + e.getMessage());
+            notifyError("Error guardando en la ranura " + nombre + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Carga la partida de una ranura de la biblioteca
+     */
+    public boolean loadFromSlot(String nombre) {
+        try {
+            GameState loadedState = SaveLibrary.getInstance().cargar(nombre);
+            if (restoreGameState(loadedState)) {
+                notifyGameLoaded();
+                return true;
+            }
+            return false;
+        } catch (GameLoadException e) {
+            System.err.println("Error cargando la ranura: " + e.getMessage());
+            notifyError("Error cargando la ranura " + nombre + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Ranuras guardadas con su resumen, de la más reciente a la más antigua.
+     * Solo se lee el índice de la biblioteca.
+     */
+    public List<SaveLibrary.InfoRanura> listSlots() {
+        return SaveLibrary.getInstance().listar();
+    }
+
+    /**
+     * Elimina una ranura de la biblioteca
+     */
+    public void deleteSlot(String nombre) {
+        try {
+            SaveLibrary.getInstance().eliminar(nombre);
+        } catch (GameSaveException e) {
+            System.err.println("Error eliminando la ranura: " + e.getMessage());
+            notifyError("Error eliminando la ranura " + nombre + ": " + e.getMessage());
+        }
+    }
+
     /**
      * Actualiza el turno del jugador
      */
@@ -301,19 +349,6 @@ public class GameManager {
         }
     }
 
-    /**
-     * Copia una matriz booleana
-     */
-    private boolean[][] copyMatrix(boolean[][] original) {
-        if (original == null) return null;
-
-        boolean[][] copy = new boolean[original.length][];
-        for (int i = 0; i < original.length; i++) {
-            copy[i] = original[i].clone();
-        }
-        return copy;
-    }
-
     // Métodos para listeners
     public void addGameStateListener(GameStateListener listener) {
         if (listener != null && !listeners.contains(listener)) {
@@ -365,6 +400,16 @@ public class GameManager {
         }
     }
 
+    private void notifyLoadWarning(String warning) {
+        for (GameStateListener listener : listeners) {
+            try {
+                listener.onLoadWarning(warning);
+            } catch (Exception e) {
+                System.err.println("Error notificando aviso de carga: " + e.getMessage());
+            }
+        }
+    }
+
     // Getters
     public GameState getCurrentGameState() {
         return currentGameState;
@@ -0,0 +1,19 @@
+package com.example.batallanaval.interfaces;
+
+import com.example.batallanaval.modelo.GameLogic;
+
+/**
+ * Interface para las órdenes que modifican una partida (colocar, disparar, reiniciar, capturar).
+ * GameSession las ejecuta de una en una en su bucle de eventos, así que pueden modificar
+ * GameLogic sin sincronizar; no deben tocar la interfaz gráfica directamente.
+ */
+@FunctionalInterface
+public interface GameCommand {
+
+    /**
+     * Ejecuta la orden sobre la partida
+     * @param logica Partida de la sesión; solo se modifica desde este método
+     * @return Actualización de la vista que se publica al terminar el lote, o null si no hay
+     */
+    Runnable ejecutar(GameLogic logica);
+}
@@ -1,9 +1,12 @@
 package com.example.batallanaval.interfaces;
 
 import com.example.batallanaval.modelo.GameState;
+import com.example.batallanaval.modelo.RegistroJugada;
 import com.example.batallanaval.exceptions.GameSaveException;
 import com.example.batallanaval.exceptions.GameLoadException;
 
+import java.util.List;
+
 /**
  * Interface para el guardado automático del juego
  * Define los métodos necesarios para la persistencia del estado del juego
@@ -17,6 +20,17 @@ public interface GameSaveInterface {
      */
     void saveGame(GameState gameState) throws GameSaveException;
     
+    /**
+     * Guarda el estado tras las jugadas indicadas. Las implementaciones con diario pueden
+     * escribir solo las jugadas; por defecto se guarda el estado completo.
+     * @param gameState Estado del juego, que ya incluye las jugadas
+     * @param jugadas Jugadas realizadas desde el guardado anterior, en orden
+     * @throws GameSaveException Si ocurre un error durante el guardado
+     */
+    default void saveMoves(GameState gameState, List<RegistroJugada> jugadas) throws GameSaveException {
+        saveGame(gameState);
+    }
+    
     /**
      * Carga el último estado guardado del juego
      * @return Estado del juego cargado
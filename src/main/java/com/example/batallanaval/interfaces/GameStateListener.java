@@ -29,4 +29,12 @@ public interface GameStateListener {
      * @param error Mensaje de error descriptivo
      */
     void onSaveError(String error);
+    
+    /**
+     * Se llama cuando una partida se carga pero no entera: el archivo principal estaba dañado
+     * y se recuperó el backup, o el diario de jugadas se cortó en un registro dañado.
+     * Los fallos de carga sin recuperación llegan como GameLoadException.
+     * @param warning Mensaje descriptivo de lo que se recuperó
+     */
+    void onLoadWarning(String warning);
 }
\ No newline at end of file
@@ -16,6 +16,11 @@ public interface MenuListener {
      */
     void onLoadGameRequested();
     
+    /**
+     * Se llama cuando el usuario quiere elegir una partida de la biblioteca de ranuras
+     */
+    void onSlotsRequested();
+    
     /**
      * Se llama cuando el menú se cierra
      */
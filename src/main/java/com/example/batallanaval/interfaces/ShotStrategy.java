@@ -0,0 +1,50 @@
+package com.example.batallanaval.interfaces;
+
+import com.example.batallanaval.modelo.GameLogic;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Interface para las estrategias de disparo de la CPU
+ * Una instancia pertenece a un solo tirador de una sola partida y puede guardar estado
+ * entre disparos (por ejemplo, los impactos pendientes de rematar)
+ */
+public interface ShotStrategy {
+
+    /**
+     * @return Nombre corto de la estrategia, usado en informes y configuración
+     */
+    String getNombre();
+
+    /**
+     * Descarta el estado acumulado para empezar una partida nueva
+     */
+    void reiniciar();
+
+    /**
+     * Pide que el elegirDisparo en curso termine cuanto antes, por ejemplo al reiniciar o
+     * cerrar la partida. Se puede llamar desde cualquier hilo mientras otro está eligiendo;
+     * el disparo interrumpido sigue devolviendo una celda válida.
+     * Las estrategias que deciden al momento no necesitan hacer nada.
+     */
+    default void cancelar() {
+    }
+
+    /**
+     * Elige la siguiente celda a la que disparar
+     * @param juego Partida en curso
+     * @param tirador Jugador que dispara: 0 = jugador, 1 = CPU
+     * @param random Fuente de aleatoriedad del llamador
+     * @return Índice de celda (fila * columnas + columna) o -1 si no quedan celdas
+     */
+    int elegirDisparo(GameLogic juego, int tirador, RandomGenerator random);
+
+    /**
+     * Informa del resultado del último disparo
+     * @param juego Partida en curso
+     * @param tirador Jugador que disparó
+     * @param celda Celda disparada
+     * @param resultado Resultado devuelto por GameLogic.jugada (AGUA, TOCADO, HUNDIDO...)
+     */
+    void registrarResultado(GameLogic juego, int tirador, int celda, String resultado);
+}
@@ -0,0 +1,327 @@
+package com.example.batallanaval.modelo;
+
+import java.util.Arrays;
+
+/**
+ * Representación compacta de una capa del tablero (ocupación, impactos o disparos).
+ * Cada celda es un bit dentro de un arreglo de longs, indexado como fila * columnas + columna,
+ * de modo que un tablero de 10x10 cabe en dos palabras y las operaciones sobre capas
+ * completas (limpiar, comparar, contar) se resuelven palabra por palabra.
+ */
+public class BitBoard {
+
+    private final int cols;
+    private final int rows;
+    private final long[] words;
+
+    /**
+     * Crea una capa vacía con las dimensiones indicadas
+     * @param cols Número de columnas del tablero
+     * @param rows Número de filas del tablero
+     */
+    public BitBoard(int cols, int rows) {
+        if (cols <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("Dimensiones de tablero inválidas: " + cols + "x" + rows);
+        }
+        this.cols = cols;
+        this.rows = rows;
+        this.words = new long[(cols * rows + 63) >>> 6];
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return Número total de celdas de la capa
+     */
+    public int size() {
+        return cols * rows;
+    }
+
+    /**
+     * Convierte una coordenada (columna, fila) en el índice lineal de la celda
+     */
+    public int indexOf(int col, int row) {
+        return row * cols + col;
+    }
+
+    public boolean get(int col, int row) {
+        return get(indexOf(col, row));
+    }
+
+    public boolean get(int index) {
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public void set(int col, int row) {
+        set(indexOf(col, row));
+    }
+
+    public void set(int index) {
+        words[index >>> 6] |= 1L << index;
+    }
+
+    public void clear(int col, int row) {
+        clear(indexOf(col, row));
+    }
+
+    public void clear(int index) {
+        words[index >>> 6] &= ~(1L << index);
+    }
+
+    /**
+     * Limpia la capa completa palabra por palabra
+     */
+    public void clearAll() {
+        Arrays.fill(words, 0L);
+    }
+
+    /**
+     * @return true si ninguna celda está marcada
+     */
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Número de celdas marcadas
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @return true si todas las celdas del tablero están marcadas
+     */
+    public boolean isFull() {
+        return cardinality() == size();
+    }
+
+    /**
+     * Verifica si todas las celdas marcadas en otra capa también lo están en esta
+     * @param other Capa con las mismas dimensiones
+     * @return true si other es subconjunto de esta capa
+     */
+    public boolean containsAll(BitBoard other) {
+        checkSameShape(other);
+        for (int i = 0; i < words.length; i++) {
+            if ((other.words[i] & ~words[i]) != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Devuelve el índice de la siguiente celda marcada a partir de fromIndex (inclusive)
+     * @return Índice de la celda o -1 si no hay más celdas marcadas
+     */
+    public int nextSetBit(int fromIndex) {
+        int size = size();
+        if (fromIndex >= size) {
+            return -1;
+        }
+        int wordIndex = fromIndex >>> 6;
+        long word = words[wordIndex] & (-1L << fromIndex);
+        while (true) {
+            if (word != 0L) {
+                int index = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+                return index < size ? index : -1;
+            }
+            if (++wordIndex == words.length) {
+                return -1;
+            }
+            word = words[wordIndex];
+        }
+    }
+
+    /**
+     * Verifica si algún bit del rectángulo indicado está marcado.
+     * El rectángulo debe estar dentro de los límites del tablero.
+     */
+    public boolean intersectsRect(int startCol, int startRow, int widthCells, int heightCells) {
+        for (int row = startRow; row < startRow + heightCells; row++) {
+            if (intersectsRange(indexOf(startCol, row), widthCells)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marca todas las celdas del rectángulo indicado
+     */
+    public void setRect(int startCol, int startRow, int widthCells, int heightCells) {
+        for (int row = startRow; row < startRow + heightCells; row++) {
+            applyRange(indexOf(startCol, row), widthCells, true);
+        }
+    }
+
+    /**
+     * Libera todas las celdas del rectángulo indicado
+     */
+    public void clearRect(int startCol, int startRow, int widthCells, int heightCells) {
+        for (int row = startRow; row < startRow + heightCells; row++) {
+            applyRange(indexOf(startCol, row), widthCells, false);
+        }
+    }
+
+    /**
+     * Copia el contenido de otra capa con las mismas dimensiones
+     */
+    public void copyFrom(BitBoard other) {
+        checkSameShape(other);
+        System.arraycopy(other.words, 0, words, 0, words.length);
+    }
+
+    /**
+     * Hace esta capa igual al complemento de otra (celdas libres a partir de celdas ocupadas)
+     */
+    public void setComplementOf(BitBoard other) {
+        checkSameShape(other);
+        for (int i = 0; i < words.length; i++) {
+            words[i] = ~other.words[i];
+        }
+        clearUnusedBits();
+    }
+
+    /**
+     * Intersección en sitio con otra capa
+     */
+    public void and(BitBoard other) {
+        checkSameShape(other);
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= other.words[i];
+        }
+    }
+
+    /**
+     * Conserva la celda i solo si la celda i + distancia de la otra capa está marcada.
+     * Equivale a intersectar con la otra capa desplazada "distancia" posiciones hacia el origen,
+     * lo que permite comprobar de una vez todas las celdas de un barco que empieza en i.
+     */
+    public void andShifted(BitBoard other, int distancia) {
+        checkSameShape(other);
+        int wordShift = distancia >>> 6;
+        int bitShift = distancia & 63;
+        for (int i = 0; i < words.length; i++) {
+            int source = i + wordShift;
+            long shifted = source < words.length ? other.words[source] >>> bitShift : 0L;
+            if (bitShift != 0 && source + 1 < words.length) {
+                shifted |= other.words[source + 1] << (64 - bitShift);
+            }
+            words[i] &= shifted;
+        }
+    }
+
+    /**
+     * Devuelve el índice de la k-ésima celda marcada (empezando en 0)
+     * @return Índice de la celda o -1 si hay k celdas marcadas o menos
+     */
+    public int selectBit(int k) {
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            int count = Long.bitCount(word);
+            if (k < count) {
+                for (int j = 0; j < k; j++) {
+                    word &= word - 1;
+                }
+                return (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+            k -= count;
+        }
+        return -1;
+    }
+
+    /**
+     * Copia de las palabras de la capa, para los snapshots inmutables de GameLogic
+     */
+    long[] copiarPalabras() {
+        return words.clone();
+    }
+
+    /**
+     * Carga la capa desde una matriz booleana [fila][columna]
+     */
+    public void loadMatrix(boolean[][] matrix) {
+        clearAll();
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (matrix[row][col]) {
+                    set(col, row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Exporta la capa como una nueva matriz booleana [fila][columna]
+     */
+    public boolean[][] toMatrix() {
+        boolean[][] matrix = new boolean[rows][cols];
+        for (int index = nextSetBit(0); index >= 0; index = nextSetBit(index + 1)) {
+            matrix[index / cols][index % cols] = true;
+        }
+        return matrix;
+    }
+
+    private boolean intersectsRange(int start, int length) {
+        int end = start + length;
+        while (start < end) {
+            int wordIndex = start >>> 6;
+            int bitsInWord = Math.min(end - start, 64 - (start & 63));
+            if ((words[wordIndex] & rangeMask(start, bitsInWord)) != 0L) {
+                return true;
+            }
+            start += bitsInWord;
+        }
+        return false;
+    }
+
+    private void applyRange(int start, int length, boolean value) {
+        int end = start + length;
+        while (start < end) {
+            int wordIndex = start >>> 6;
+            int bitsInWord = Math.min(end - start, 64 - (start & 63));
+            long mask = rangeMask(start, bitsInWord);
+            if (value) {
+                words[wordIndex] |= mask;
+            } else {
+                words[wordIndex] &= ~mask;
+            }
+            start += bitsInWord;
+        }
+    }
+
+    private void clearUnusedBits() {
+        int usedInLastWord = size() & 63;
+        if (usedInLastWord != 0) {
+            words[words.length - 1] &= (1L << usedInLastWord) - 1;
+        }
+    }
+
+    private static long rangeMask(int start, int length) {
+        long bits = length == 64 ? -1L : (1L << length) - 1;
+        return bits << (start & 63);
+    }
+
+    private void checkSameShape(BitBoard other) {
+        if (other.cols != cols || other.rows != rows) {
+            throw new IllegalArgumentException("Las capas tienen dimensiones distintas");
+        }
+    }
+}
@@ -36,6 +36,11 @@ public class Constants {
     public static final double FRIGATE_WIDTH_CELLS = 1.0;
     public static final double FRIGATE_HEIGHT_CELLS = 1.0;
 
+    // Composición de la flota: longitud en celdas de cada barco, en el orden en que se colocan.
+    // 1 Portaaviones, 2 Submarinos, 3 Destructores y 4 Fragatas (20 celdas en total).
+    // La usan la colocación automática de la CPU y las simulaciones.
+    public static final int[] FLEET_SHIP_LENGTHS = {4, 3, 3, 2, 2, 2, 1, 1, 1, 1};
+
     // Paso 3: Dimensiones de los Barcos en Píxeles
     // Estas constantes calculan el tamaño real en píxeles de cada tipo de barco.
     // Se derivan de las dimensiones en celdas multiplicadas por el CELL_SIZE.
@@ -0,0 +1,145 @@
+package com.example.batallanaval.modelo;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reserva de flotas de la CPU ya generadas.
+ * Un hilo productor en segundo plano mantiene llena una cola acotada con disposiciones
+ * aleatorias, de modo que al empezar una partida nueva GameLogic toma una flota lista
+ * en tiempo constante en lugar de generarla en el hilo de la interfaz.
+ * Cada flota se genera a partir de una semilla de sesión, con el mismo procedimiento que
+ * GameLogic usa sin reserva, así que la partida se puede reproducir desde esa semilla.
+ * Implementa el patrón Singleton: todas las partidas comparten la misma reserva.
+ */
+public class CpuFleetPool {
+
+    // Número máximo de flotas preparadas en espera
+    private static final int CAPACIDAD = 8;
+
+    private static CpuFleetPool instance;
+
+    private final BlockingQueue<Disposicion> flotas = new ArrayBlockingQueue<>(CAPACIDAD);
+    private Thread productor;
+
+    /**
+     * Disposición inmutable de una flota: longitud, origen (índice de celda) y orientación de cada barco
+     */
+    public static final class Disposicion {
+        private final long semilla;
+        private final int[] longitudes;
+        private final int[] origenes;
+        private final boolean[] verticales;
+
+        Disposicion(long semilla, int[] longitudes, int[] origenes, boolean[] verticales) {
+            this.semilla = semilla;
+            this.longitudes = longitudes.clone();
+            this.origenes = origenes;
+            this.verticales = verticales;
+        }
+
+        /**
+         * @return Semilla de sesión de la que salió la flota (0 si se generó con otra fuente)
+         */
+        public long getSemilla() {
+            return semilla;
+        }
+
+        public int getBarcos() {
+            return origenes.length;
+        }
+
+        public int getLongitud(int barco) {
+            return longitudes[barco];
+        }
+
+        public int getOrigen(int barco) {
+            return origenes[barco];
+        }
+
+        public boolean isVertical(int barco) {
+            return verticales[barco];
+        }
+    }
+
+    private CpuFleetPool() {
+    }
+
+    public static synchronized CpuFleetPool getInstance() {
+        if (instance == null) {
+            instance = new CpuFleetPool();
+        }
+        return instance;
+    }
+
+    /**
+     * Arranca el hilo productor si aún no está en marcha.
+     * Es seguro llamarlo varias veces; el hilo es daemon y no impide cerrar la aplicación.
+     */
+    public synchronized void iniciar() {
+        if (productor != null) {
+            return;
+        }
+        productor = new Thread(this::producir, "cpu-fleet-pool");
+        productor.setDaemon(true);
+        productor.setPriority(Thread.MIN_PRIORITY);
+        productor.start();
+    }
+
+    /**
+     * Toma una flota preparada sin bloquear
+     * @return Una disposición lista o null si la reserva está vacía
+     */
+    public Disposicion tomar() {
+        return flotas.poll();
+    }
+
+    /**
+     * @return Número de flotas preparadas en este momento
+     */
+    public int disponibles() {
+        return flotas.size();
+    }
+
+    /**
+     * Genera una flota de forma síncrona con el generador y la aleatoriedad indicados
+     * @return La disposición generada o null si no se pudo colocar la flota
+     */
+    public static Disposicion generar(FleetPlacer placer, int[] longitudes, RandomGenerator random) {
+        return generar(placer, longitudes, random, 0L);
+    }
+
+    /**
+     * Genera la flota de una sesión: la flota sale del primer split() de la semilla de sesión
+     */
+    public static Disposicion generarParaSesion(FleetPlacer placer, int[] longitudes, long semillaSesion) {
+        return generar(placer, longitudes, new SplittableRandom(semillaSesion).split(), semillaSesion);
+    }
+
+    private static Disposicion generar(FleetPlacer placer, int[] longitudes, RandomGenerator random, long semilla) {
+        int[] origenes = new int[longitudes.length];
+        boolean[] verticales = new boolean[longitudes.length];
+        if (!placer.colocarFlota(longitudes, random, origenes, verticales)) {
+            return null;
+        }
+        return new Disposicion(semilla, longitudes, origenes, verticales);
+    }
+
+    private void producir() {
+        // El productor tiene su propio generador: FleetPlacer no es seguro entre hilos
+        FleetPlacer placer = new FleetPlacer(Constants.GRID_COLS, Constants.GRID_ROWS);
+        SplittableRandom semillas = new SplittableRandom();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Disposicion flota = generarParaSesion(placer, Constants.FLEET_SHIP_LENGTHS, semillas.nextLong());
+                if (flota != null) {
+                    flotas.put(flota);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
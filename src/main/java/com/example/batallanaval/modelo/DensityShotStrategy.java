@@ -0,0 +1,393 @@
+package com.example.batallanaval.modelo;
+
+import com.example.batallanaval.interfaces.ShotStrategy;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Estrategia de "caza y remate" guiada por un mapa de calor.
+ * Para cada celda lleva la cuenta de cuántas posiciones posibles de los barcos que quedan
+ * a flote la cubren. Una posición deja de ser posible cuando toca una celda de agua o de un
+ * barco hundido. El mapa se actualiza de forma incremental con cada resultado: un disparo
+ * solo revisa las posiciones que pasan por su celda, y un hundimiento resta la contribución
+ * de una longitud completa.
+ *
+ * Mientras haya impactos sin hundir, la estrategia remata: solo puntúa las posiciones
+ * que pasan por esos impactos. Si no, caza disparando a la celda más probable.
+ */
+public class DensityShotStrategy implements ShotStrategy {
+
+    public static final String NOMBRE = "densidad";
+
+    private static final byte DESCONOCIDA = 0;
+    private static final byte AGUA = 1;
+    private static final byte TOCADA = 2;
+    private static final byte HUNDIDA = 3;
+
+    private final int cols;
+    private final int rows;
+    private final int[] longitudesFlota;
+
+    private final byte[] estado;
+    private final int[] restantes;
+    // cobertura[L][celda]: posiciones aún posibles de un barco de longitud L que cubren la celda
+    private final int[][] cobertura;
+    // calor[celda] = suma de restantes[L] * cobertura[L][celda]
+    private final int[] calor;
+
+    // Impactos cuyo barco aún no se ha hundido
+    private final int[] pendientes;
+    private int totalPendientes;
+
+    // Buffers del modo remate
+    private final int[] puntuacion;
+    private final int[] tocadas;
+    private int totalTocadas;
+
+    private int disparosRegistrados;
+
+    /**
+     * Crea la estrategia para el tablero y la flota estándar del juego
+     */
+    public DensityShotStrategy() {
+        this(Constants.GRID_COLS, Constants.GRID_ROWS, Constants.FLEET_SHIP_LENGTHS);
+    }
+
+    /**
+     * Crea la estrategia para un tablero y una flota arbitrarios
+     */
+    public DensityShotStrategy(int cols, int rows, int[] longitudesFlota) {
+        this.cols = cols;
+        this.rows = rows;
+        this.longitudesFlota = longitudesFlota.clone();
+
+        int maxLongitud = 0;
+        for (int longitud : longitudesFlota) {
+            maxLongitud = Math.max(maxLongitud, longitud);
+        }
+
+        int totalCeldas = cols * rows;
+        this.estado = new byte[totalCeldas];
+        this.restantes = new int[maxLongitud + 1];
+        this.cobertura = new int[maxLongitud + 1][];
+        for (int longitud : longitudesFlota) {
+            if (cobertura[longitud] == null) {
+                cobertura[longitud] = new int[totalCeldas];
+            }
+        }
+        this.calor = new int[totalCeldas];
+        this.pendientes = new int[totalCeldas];
+        this.puntuacion = new int[totalCeldas];
+        this.tocadas = new int[totalCeldas];
+        reiniciar();
+    }
+
+    @Override
+    public String getNombre() {
+        return NOMBRE;
+    }
+
+    @Override
+    public void reiniciar() {
+        Arrays.fill(estado, DESCONOCIDA);
+        Arrays.fill(restantes, 0);
+        for (int longitud : longitudesFlota) {
+            restantes[longitud]++;
+        }
+        Arrays.fill(calor, 0);
+        totalPendientes = 0;
+        disparosRegistrados = 0;
+
+        // Con el tablero vacío, todas las posiciones dentro de los límites son posibles
+        for (int longitud = 1; longitud < cobertura.length; longitud++) {
+            if (cobertura[longitud] == null) {
+                continue;
+            }
+            int[] cuenta = cobertura[longitud];
+            Arrays.fill(cuenta, 0);
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    if (col + longitud <= cols) {
+                        sumarPosicion(cuenta, col, row, longitud, false);
+                    }
+                    if (longitud > 1 && row + longitud <= rows) {
+                        sumarPosicion(cuenta, col, row, longitud, true);
+                    }
+                }
+            }
+            for (int celda = 0; celda < calor.length; celda++) {
+                calor[celda] += restantes[longitud] * cuenta[celda];
+            }
+        }
+    }
+
+    @Override
+    public int elegirDisparo(GameLogic juego, int tirador, RandomGenerator random) {
+        // Si la partida se restauró o alguien disparó por fuera, reconstruir desde el tablero
+        if (juego.getDisparosRealizados(tirador) != disparosRegistrados) {
+            reconstruir(juego, tirador);
+        }
+
+        if (totalPendientes > 0) {
+            int celda = elegirRemate(random);
+            if (celda >= 0) {
+                return celda;
+            }
+        }
+        return elegirMaximo(calor, random);
+    }
+
+    @Override
+    public void registrarResultado(GameLogic juego, int tirador, int celda, String resultado) {
+        if (estado[celda] != DESCONOCIDA) {
+            return;
+        }
+
+        switch (resultado) {
+            case "AGUA":
+                bloquear(celda);
+                estado[celda] = AGUA;
+                break;
+            case "TOCADO":
+                marcarTocada(celda);
+                break;
+            case "HUNDIDO":
+            case "VICTORIA_JUGADOR":
+            case "VICTORIA_CPU":
+                marcarTocada(celda);
+                hundir(juego.getBarcoEn(celda % cols, celda / cols, 1 - tirador));
+                break;
+            default:
+                // YA_DISPARADO, JUEGO_TERMINADO: el disparo no cambió el tablero
+                return;
+        }
+        disparosRegistrados++;
+    }
+
+    /**
+     * @return Copia del mapa de calor, para comparar la actualización incremental con un cálculo desde cero
+     */
+    int[] copiarCalor() {
+        return calor.clone();
+    }
+
+    /**
+     * Vuelve a calcular el estado a partir de los disparos e impactos de la partida
+     */
+    private void reconstruir(GameLogic juego, int tirador) {
+        reiniciar();
+        int defensor = 1 - tirador;
+        for (int celda = 0; celda < estado.length; celda++) {
+            int col = celda % cols;
+            int row = celda / cols;
+            if (!juego.yaSeDisparo(col, row, tirador)) {
+                continue;
+            }
+            disparosRegistrados++;
+            if (juego.esImpacto(col, row, tirador)) {
+                marcarTocada(celda);
+            } else {
+                bloquear(celda);
+                estado[celda] = AGUA;
+            }
+        }
+
+        // hundir() quita de pendientes la celda actual, así que solo se avanza si el barco sigue a flote
+        int i = 0;
+        while (i < totalPendientes) {
+            int celda = pendientes[i];
+            Ship barco = juego.getBarcoEn(celda % cols, celda / cols, defensor);
+            if (barco != null && barco.isHundido()) {
+                hundir(barco);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private void marcarTocada(int celda) {
+        estado[celda] = TOCADA;
+        pendientes[totalPendientes++] = celda;
+    }
+
+    /**
+     * Retira un barco hundido: su longitud deja de contar y sus celdas quedan bloqueadas
+     */
+    private void hundir(Ship barco) {
+        if (barco == null) {
+            return;
+        }
+
+        int longitud = barco.getSize();
+        if (longitud < restantes.length && restantes[longitud] > 0) {
+            restantes[longitud]--;
+            int[] cuenta = cobertura[longitud];
+            for (int celda = 0; celda < calor.length; celda++) {
+                calor[celda] -= cuenta[celda];
+            }
+        }
+
+        for (int segmento = 0; segmento < longitud; segmento++) {
+            int celda = barco.getRow(segmento) * cols + barco.getCol(segmento);
+            if (estado[celda] == HUNDIDA) {
+                continue;
+            }
+            quitarPendiente(celda);
+            bloquear(celda);
+            estado[celda] = HUNDIDA;
+        }
+    }
+
+    private void quitarPendiente(int celda) {
+        for (int i = 0; i < totalPendientes; i++) {
+            if (pendientes[i] == celda) {
+                pendientes[i] = pendientes[--totalPendientes];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Descuenta todas las posiciones que pasan por una celda que deja de poder contener barcos.
+     * Debe llamarse antes de cambiar el estado de la celda.
+     */
+    private void bloquear(int celda) {
+        int col = celda % cols;
+        int row = celda / cols;
+        for (int longitud = 1; longitud < cobertura.length; longitud++) {
+            int[] cuenta = cobertura[longitud];
+            if (cuenta == null) {
+                continue;
+            }
+            for (int inicio = Math.max(0, col - longitud + 1); inicio <= Math.min(col, cols - longitud); inicio++) {
+                if (esPosible(inicio, row, longitud, false, celda)) {
+                    restarPosicion(cuenta, inicio, row, longitud, false, restantes[longitud]);
+                }
+            }
+            if (longitud == 1) {
+                continue;
+            }
+            for (int inicio = Math.max(0, row - longitud + 1); inicio <= Math.min(row, rows - longitud); inicio++) {
+                if (esPosible(col, inicio, longitud, true, celda)) {
+                    restarPosicion(cuenta, col, inicio, longitud, true, restantes[longitud]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Una posición es posible si ninguna de sus celdas es agua o parte de un barco hundido
+     * @param ignorar Celda que se está bloqueando y aún no cambió de estado
+     */
+    private boolean esPosible(int col, int row, int longitud, boolean vertical, int ignorar) {
+        int paso = vertical ? cols : 1;
+        int celda = row * cols + col;
+        for (int i = 0; i < longitud; i++, celda += paso) {
+            if (celda != ignorar && (estado[celda] == AGUA || estado[celda] == HUNDIDA)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void sumarPosicion(int[] cuenta, int col, int row, int longitud, boolean vertical) {
+        int paso = vertical ? cols : 1;
+        int celda = row * cols + col;
+        for (int i = 0; i < longitud; i++, celda += paso) {
+            cuenta[celda]++;
+        }
+    }
+
+    private void restarPosicion(int[] cuenta, int col, int row, int longitud, boolean vertical, int peso) {
+        int paso = vertical ? cols : 1;
+        int celda = row * cols + col;
+        for (int i = 0; i < longitud; i++, celda += paso) {
+            cuenta[celda]--;
+            calor[celda] -= peso;
+        }
+    }
+
+    /**
+     * Modo remate: puntúa las celdas desconocidas de las posiciones posibles que pasan
+     * por los impactos pendientes. Una posición que cubre varios impactos suma varias veces.
+     * @return La mejor celda o -1 si ninguna posición pasa por los impactos
+     */
+    private int elegirRemate(RandomGenerator random) {
+        totalTocadas = 0;
+        for (int i = 0; i < totalPendientes; i++) {
+            int impacto = pendientes[i];
+            int col = impacto % cols;
+            int row = impacto / cols;
+            for (int longitud = 2; longitud < restantes.length; longitud++) {
+                if (restantes[longitud] == 0) {
+                    continue;
+                }
+                for (int inicio = Math.max(0, col - longitud + 1); inicio <= Math.min(col, cols - longitud); inicio++) {
+                    puntuarPosicion(inicio, row, longitud, false, restantes[longitud]);
+                }
+                for (int inicio = Math.max(0, row - longitud + 1); inicio <= Math.min(row, rows - longitud); inicio++) {
+                    puntuarPosicion(col, inicio, longitud, true, restantes[longitud]);
+                }
+            }
+        }
+
+        int mejor = -1;
+        int mejorPuntuacion = 0;
+        int empates = 0;
+        for (int i = 0; i < totalTocadas; i++) {
+            int celda = tocadas[i];
+            int valor = puntuacion[celda];
+            puntuacion[celda] = 0;
+            if (valor > mejorPuntuacion) {
+                mejor = celda;
+                mejorPuntuacion = valor;
+                empates = 1;
+            } else if (valor == mejorPuntuacion && random.nextInt(++empates) == 0) {
+                mejor = celda;
+            }
+        }
+        return mejor;
+    }
+
+    private void puntuarPosicion(int col, int row, int longitud, boolean vertical, int peso) {
+        if (!esPosible(col, row, longitud, vertical, -1)) {
+            return;
+        }
+        int paso = vertical ? cols : 1;
+        int celda = row * cols + col;
+        for (int i = 0; i < longitud; i++, celda += paso) {
+            if (estado[celda] != DESCONOCIDA) {
+                continue;
+            }
+            if (puntuacion[celda] == 0) {
+                tocadas[totalTocadas++] = celda;
+            }
+            puntuacion[celda] += peso;
+        }
+    }
+
+    /**
+     * Elige la celda desconocida con más valor; los empates se deciden al azar
+     * @return Índice de la celda o -1 si no quedan celdas desconocidas
+     */
+    private int elegirMaximo(int[] valores, RandomGenerator random) {
+        int mejor = -1;
+        int mejorValor = Integer.MIN_VALUE;
+        int empates = 0;
+        for (int celda = 0; celda < valores.length; celda++) {
+            if (estado[celda] != DESCONOCIDA) {
+                continue;
+            }
+            int valor = valores[celda];
+            if (valor > mejorValor) {
+                mejor = celda;
+                mejorValor = valor;
+                empates = 1;
+            } else if (valor == mejorValor && random.nextInt(++empates) == 0) {
+                mejor = celda;
+            }
+        }
+        return mejor;
+    }
+}
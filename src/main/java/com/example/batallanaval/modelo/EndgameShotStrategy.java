@@ -0,0 +1,648 @@
+package com.example.batallanaval.modelo;
+
+import com.example.batallanaval.interfaces.ShotStrategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Estrategia "difícil": resuelve el final de la partida de forma exacta.
+ * Cuando quedan pocos barcos por hundir enumera todas las flotas compatibles con lo que
+ * sabe el tirador (como mucho 64, para representar cada conjunto de flotas con un long) y
+ * elige el disparo que minimiza el número esperado de disparos hasta hundirlas, suponiendo
+ * que todas las flotas compatibles son igual de probables. Los estados se memorizan por
+ * (flotas aún posibles, celdas disparadas), ambos como máscaras de bits.
+ *
+ * Si hay demasiadas flotas posibles o la búsqueda agota su presupuesto de tiempo o de
+ * estados, el turno lo decide la estrategia de respaldo (por defecto, la de densidad).
+ */
+public class EndgameShotStrategy implements ShotStrategy {
+
+    public static final String NOMBRE = "exacta";
+
+    private static final long PRESUPUESTO_POR_DEFECTO_MILLIS = 20L;
+    private static final int MAX_ESTADOS_POR_DEFECTO = 50_000;
+
+    // Límites de la representación con máscaras de 64 bits
+    private static final int MAX_FLOTAS = 64;
+    private static final int MAX_CELDAS = 64;
+
+    // Pasos máximos de la enumeración antes de abandonar
+    private static final int MAX_PASOS_ENUMERACION = 20_000;
+
+    // Cuántas veces maxEstados puede valer la cota de estados alcanzables para intentar la búsqueda
+    private static final int MARGEN_ESTIMACION = 8;
+
+    // Cada cuántos pasos de la enumeración o de la búsqueda se consulta el reloj
+    private static final int PASOS_POR_CONSULTA = 256;
+
+    // Decisiones exactas ya calculadas, compartidas por las instancias con la configuración por defecto
+    private static final TranspositionCache<int[]> CACHE_COMPARTIDA = crearCache(8192);
+
+    private final int cols;
+    private final int rows;
+    private final int[] longitudesFlota;
+    private final long presupuestoNanos;
+    private final int maxEstados;
+    private final ShotStrategy respaldo;
+    private final TranspositionCache<int[]> cache;
+
+    private long decisionesExactas;
+    private long decisionesRespaldo;
+
+    /**
+     * Crea la estrategia para el tablero y la flota estándar, con la de densidad como respaldo
+     */
+    public EndgameShotStrategy() {
+        this(Constants.GRID_COLS, Constants.GRID_ROWS, Constants.FLEET_SHIP_LENGTHS,
+                PRESUPUESTO_POR_DEFECTO_MILLIS, MAX_ESTADOS_POR_DEFECTO, new DensityShotStrategy(), CACHE_COMPARTIDA);
+    }
+
+    /**
+     * @param presupuestoMillis Tiempo máximo de búsqueda por turno
+     * @param maxEstados Estados memorizados a partir de los cuales se abandona la búsqueda
+     * @param respaldo Estrategia que decide cuando la búsqueda exacta no es posible
+     * @param cache Caché de decisiones; solo se debe compartir entre estrategias con el
+     *              mismo tablero y la misma flota
+     */
+    public EndgameShotStrategy(int cols, int rows, int[] longitudesFlota, long presupuestoMillis,
+                               int maxEstados, ShotStrategy respaldo, TranspositionCache<int[]> cache) {
+        this.cols = cols;
+        this.rows = rows;
+        this.longitudesFlota = longitudesFlota.clone();
+        this.presupuestoNanos = presupuestoMillis * 1_000_000L;
+        this.maxEstados = maxEstados;
+        this.respaldo = respaldo;
+        this.cache = cache;
+    }
+
+    /**
+     * Crea una caché de decisiones; cada entrada guarda una sola celda
+     */
+    public static TranspositionCache<int[]> crearCache(int entradas) {
+        return new TranspositionCache<>(entradas, entradas, decision -> 1);
+    }
+
+    @Override
+    public String getNombre() {
+        return NOMBRE;
+    }
+
+    @Override
+    public void reiniciar() {
+        respaldo.reiniciar();
+    }
+
+    /**
+     * La búsqueda exacta ya está acotada por su presupuesto; se cancela el respaldo, que
+     * puede ser una estrategia de muestreo
+     */
+    @Override
+    public void cancelar() {
+        respaldo.cancelar();
+    }
+
+    @Override
+    public int elegirDisparo(GameLogic juego, int tirador, RandomGenerator random) {
+        long hash = juego.getHashZobrist(tirador);
+        int[] guardada = cache.buscar(hash);
+        if (guardada != null && !juego.yaSeDisparo(guardada[0] % cols, guardada[0] / cols, tirador)) {
+            decisionesExactas++;
+            return guardada[0];
+        }
+
+        long limite = System.nanoTime() + presupuestoNanos;
+        Restricciones restricciones = Restricciones.desde(juego, tirador, cols, rows, longitudesFlota);
+        Resolutor resolutor = Resolutor.crear(restricciones, cols, rows, limite, maxEstados);
+        if (resolutor != null) {
+            int celda = resolutor.resolver();
+            if (celda >= 0) {
+                cache.guardar(hash, new int[]{celda});
+                decisionesExactas++;
+                return celda;
+            }
+        }
+
+        decisionesRespaldo++;
+        return respaldo.elegirDisparo(juego, tirador, random);
+    }
+
+    @Override
+    public void registrarResultado(GameLogic juego, int tirador, int celda, String resultado) {
+        // El respaldo lleva su propio estado incremental: debe ver todos los disparos
+        respaldo.registrarResultado(juego, tirador, celda, resultado);
+    }
+
+    /**
+     * @return Turnos decididos por la búsqueda exacta (incluidos los que salieron de la caché)
+     */
+    public long getDecisionesExactas() {
+        return decisionesExactas;
+    }
+
+    /**
+     * @return Turnos decididos por la estrategia de respaldo
+     */
+    public long getDecisionesRespaldo() {
+        return decisionesRespaldo;
+    }
+
+    /**
+     * Búsqueda de un turno. Las celdas desconocidas que alguna flota posible ocupa se
+     * renumeran como bits 0..63, y las flotas posibles como bits 0..63.
+     */
+    private static final class Resolutor {
+
+        // Celda del tablero de cada bit
+        private final int[] celdas;
+        // Celdas (bits) que ocupa cada flota
+        private final long[] ocupacion;
+        // barcoEn[flota][bit]: índice del barco de esa flota que ocupa la celda, o -1
+        private final int[][] barcoEn;
+        // Celdas (bits) de cada barco de cada flota, e identificador de su posición en el tablero
+        private final long[][] mascaraBarco;
+        private final int[][] idBarco;
+
+        private final long limite;
+        private final int maxEstados;
+        private final Map<Estado, Double> memoria = new HashMap<>();
+        private long visitas;
+        private boolean agotado;
+
+        /**
+         * Clave de la memoria: flotas aún posibles y celdas ya disparadas
+         */
+        private static final class Estado {
+            final long flotas;
+            final long disparos;
+
+            Estado(long flotas, long disparos) {
+                this.flotas = flotas;
+                this.disparos = disparos;
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (!(o instanceof Estado)) {
+                    return false;
+                }
+                Estado otro = (Estado) o;
+                return flotas == otro.flotas && disparos == otro.disparos;
+            }
+
+            @Override
+            public int hashCode() {
+                long h = flotas * 0x9E3779B97F4A7C15L ^ disparos;
+                return (int) (h ^ (h >>> 32));
+            }
+        }
+
+        private Resolutor(int[] celdas, long[] ocupacion, int[][] barcoEn, long[][] mascaraBarco,
+                          int[][] idBarco, long limite, int maxEstados) {
+            this.celdas = celdas;
+            this.ocupacion = ocupacion;
+            this.barcoEn = barcoEn;
+            this.mascaraBarco = mascaraBarco;
+            this.idBarco = idBarco;
+            this.limite = limite;
+            this.maxEstados = maxEstados;
+        }
+
+        /**
+         * Enumera las flotas compatibles con las restricciones
+         * @return El resolutor, o null si no hay barcos por hundir o el problema no cabe en 64 bits
+         */
+        static Resolutor crear(Restricciones restricciones, int cols, int rows, long limite, int maxEstados) {
+            int[] longitudes = restricciones.longitudes;
+            if (longitudes.length == 0) {
+                return null;
+            }
+            List<int[][]> flotas = new Enumeracion(restricciones, cols, rows, limite).enumerar();
+            if (flotas == null || flotas.isEmpty()) {
+                return null;
+            }
+
+            // Renumerar las celdas desconocidas que ocupa alguna flota
+            int totalCeldas = cols * rows;
+            int[] bitDeCelda = new int[totalCeldas];
+            Arrays.fill(bitDeCelda, -1);
+            int[] celdas = new int[MAX_CELDAS];
+            int totalBits = 0;
+            for (int[][] flota : flotas) {
+                for (int[] barco : flota) {
+                    for (int celda : barco) {
+                        if (restricciones.pendientes.get(celda) || bitDeCelda[celda] >= 0) {
+                            continue;
+                        }
+                        if (totalBits == MAX_CELDAS) {
+                            return null;
+                        }
+                        bitDeCelda[celda] = totalBits;
+                        celdas[totalBits++] = celda;
+                    }
+                }
+            }
+
+            int totalFlotas = flotas.size();
+            long[] ocupacion = new long[totalFlotas];
+            int[][] barcoEn = new int[totalFlotas][totalBits];
+            long[][] mascaraBarco = new long[totalFlotas][longitudes.length];
+            int[][] idBarco = new int[totalFlotas][longitudes.length];
+            for (int f = 0; f < totalFlotas; f++) {
+                Arrays.fill(barcoEn[f], -1);
+                int[][] flota = flotas.get(f);
+                for (int b = 0; b < flota.length; b++) {
+                    int[] barco = flota[b];
+                    // El barco queda identificado por su primera celda, su dirección y su longitud
+                    boolean vertical = barco.length > 1 && barco[1] - barco[0] != 1;
+                    idBarco[f][b] = (barco[0] * 2 + (vertical ? 1 : 0)) * (Ship.MAX_LONGITUD + 1) + barco.length;
+                    for (int celda : barco) {
+                        int bit = bitDeCelda[celda];
+                        if (bit >= 0) {
+                            mascaraBarco[f][b] |= 1L << bit;
+                            barcoEn[f][bit] = b;
+                        }
+                    }
+                    ocupacion[f] |= mascaraBarco[f][b];
+                }
+            }
+
+            return new Resolutor(Arrays.copyOf(celdas, totalBits), ocupacion, barcoEn,
+                    mascaraBarco, idBarco, limite, maxEstados);
+        }
+
+        /**
+         * @return La celda del tablero con menor número esperado de disparos, o -1 si se agotó el presupuesto
+         */
+        int resolver() {
+            if (!esAbordable()) {
+                return -1;
+            }
+            long todas = ocupacion.length == 64 ? -1L : (1L << ocupacion.length) - 1;
+            long candidatas = union(todas);
+            int mejor = -1;
+            double mejorValor = Double.MAX_VALUE;
+            for (long resto = candidatas; resto != 0; resto &= resto - 1) {
+                int bit = Long.numberOfTrailingZeros(resto);
+                double valor = valorDisparo(todas, 0L, bit);
+                if (agotado) {
+                    return -1;
+                }
+                if (valor < mejorValor) {
+                    mejorValor = valor;
+                    mejor = bit;
+                }
+            }
+            return mejor < 0 ? -1 : celdas[mejor];
+        }
+
+        /**
+         * Cada estado alcanzable queda determinado por la flota real y las celdas disparadas,
+         * así que hay como mucho flotas * 2^celdas. Si esa cota es mucho mayor que el límite
+         * de estados, la búsqueda casi seguro se agotaría: mejor no gastar el presupuesto.
+         */
+        private boolean esAbordable() {
+            if (celdas.length >= 40) {
+                return false;
+            }
+            return (long) ocupacion.length << celdas.length <= (long) maxEstados * MARGEN_ESTIMACION;
+        }
+
+        /**
+         * Disparos esperados hasta hundir la flota real, sabiendo que está entre las flotas
+         * indicadas y que ninguna de ellas está ya hundida del todo
+         */
+        private double esperado(long flotas, long disparos) {
+            if (Long.bitCount(flotas) == 1) {
+                // Flota conocida: quedan tantos disparos como celdas suyas sin disparar
+                return Long.bitCount(ocupacion[Long.numberOfTrailingZeros(flotas)] & ~disparos);
+            }
+
+            long candidatas = union(flotas);
+            // Los disparos fuera de las flotas posibles no distinguen nada: fuera de la clave
+            Estado estado = new Estado(flotas, disparos & candidatas);
+            Double memorizado = memoria.get(estado);
+            if (memorizado != null) {
+                return memorizado;
+            }
+            if (memoria.size() >= maxEstados
+                    || (++visitas % PASOS_POR_CONSULTA == 0 && System.nanoTime() > limite)) {
+                agotado = true;
+                return 0.0;
+            }
+
+            double mejor = Double.MAX_VALUE;
+            for (long resto = candidatas & ~disparos; resto != 0; resto &= resto - 1) {
+                double valor = valorDisparo(flotas, disparos, Long.numberOfTrailingZeros(resto));
+                if (agotado) {
+                    return 0.0;
+                }
+                mejor = Math.min(mejor, valor);
+            }
+            memoria.put(estado, mejor);
+            return mejor;
+        }
+
+        /**
+         * Disparos esperados si el siguiente disparo va a la celda indicada. Las flotas se
+         * reparten según lo que respondería el juego: agua, tocado o el barco hundido.
+         */
+        private double valorDisparo(long flotas, long disparos, int bit) {
+            long nuevos = disparos | (1L << bit);
+            long agua = 0L;
+            long tocado = 0L;
+            // Hundimientos: cada barco distinto es una respuesta distinta
+            long[] hundidas = new long[Long.bitCount(flotas)];
+            int[] idsHundidos = new int[hundidas.length];
+            int totalHundidos = 0;
+
+            for (long resto = flotas; resto != 0; resto &= resto - 1) {
+                int f = Long.numberOfTrailingZeros(resto);
+                int barco = barcoEn[f][bit];
+                if (barco < 0) {
+                    agua |= 1L << f;
+                } else if ((ocupacion[f] & ~nuevos) == 0) {
+                    // Con este disparo la flota queda hundida: no quedan más disparos
+                    continue;
+                } else if ((mascaraBarco[f][barco] & ~nuevos) == 0) {
+                    int id = idBarco[f][barco];
+                    int i = 0;
+                    while (i < totalHundidos && idsHundidos[i] != id) {
+                        i++;
+                    }
+                    if (i == totalHundidos) {
+                        idsHundidos[totalHundidos++] = id;
+                    }
+                    hundidas[i] |= 1L << f;
+                } else {
+                    tocado |= 1L << f;
+                }
+            }
+
+            double suma = 0.0;
+            if (agua != 0) {
+                suma += Long.bitCount(agua) * esperado(agua, nuevos);
+            }
+            if (tocado != 0) {
+                suma += Long.bitCount(tocado) * esperado(tocado, nuevos);
+            }
+            for (int i = 0; i < totalHundidos; i++) {
+                suma += Long.bitCount(hundidas[i]) * esperado(hundidas[i], nuevos);
+            }
+            return 1.0 + suma / Long.bitCount(flotas);
+        }
+
+        private long union(long flotas) {
+            long union = 0L;
+            for (long resto = flotas; resto != 0; resto &= resto - 1) {
+                union |= ocupacion[Long.numberOfTrailingZeros(resto)];
+            }
+            return union;
+        }
+    }
+
+    /**
+     * Enumeración por vuelta atrás de las flotas compatibles.
+     * Primero cubre los impactos pendientes: el barco que pasa por el primer impacto sin
+     * cubrir queda determinado por la flota, así que cada flota sale una sola vez y las
+     * ramas que no pueden cubrir los impactos se cortan enseguida. Después coloca el resto
+     * de barcos en celdas desconocidas; los de igual longitud en orden creciente de posición.
+     */
+    private static final class Enumeracion {
+
+        // Posiciones válidas (celdas que ocupan) de cada longitud, ignorando los demás barcos
+        private final int[][][] posiciones;
+        private final int[] restantes;
+        private final boolean[] ocupada;
+        private final int[] pendientes;
+        private final boolean[] esPendiente;
+        private int cubiertas;
+
+        // Barcos colocados: longitud y posición
+        private final int[] longitudElegida;
+        private final int[] posicionElegida;
+        private int colocados;
+
+        private final long limite;
+        private final List<int[][]> flotas = new ArrayList<>();
+        private int pasos;
+        private boolean desbordada;
+
+        Enumeracion(Restricciones restricciones, int cols, int rows, long limite) {
+            int[] longitudes = restricciones.longitudes;
+            this.limite = limite;
+            int totalCeldas = cols * rows;
+            this.ocupada = new boolean[totalCeldas];
+            this.esPendiente = new boolean[totalCeldas];
+            int[] lista = new int[totalCeldas];
+            int totalPendientes = 0;
+            for (int celda = 0; celda < totalCeldas; celda++) {
+                if (restricciones.pendientes.get(celda)) {
+                    esPendiente[celda] = true;
+                    lista[totalPendientes++] = celda;
+                }
+            }
+            this.pendientes = Arrays.copyOf(lista, totalPendientes);
+
+            // longitudes va de mayor a menor
+            this.restantes = new int[longitudes[0] + 1];
+            this.posiciones = new int[longitudes[0] + 1][][];
+            for (int longitud : longitudes) {
+                restantes[longitud]++;
+                if (posiciones[longitud] == null) {
+                    posiciones[longitud] = calcularPosiciones(restricciones.bloqueadas, cols, rows, longitud);
+                }
+            }
+            this.longitudElegida = new int[longitudes.length];
+            this.posicionElegida = new int[longitudes.length];
+        }
+
+        /**
+         * @return Las flotas (cada barco como sus celdas), o null si hay más de 64 o la enumeración no termina a tiempo
+         */
+        List<int[][]> enumerar() {
+            cubrirPendientes();
+            return desbordada ? null : flotas;
+        }
+
+        private boolean seguir() {
+            if (desbordada) {
+                return false;
+            }
+            if (++pasos > MAX_PASOS_ENUMERACION
+                    || (pasos % PASOS_POR_CONSULTA == 0 && System.nanoTime() > limite)) {
+                desbordada = true;
+                return false;
+            }
+            return true;
+        }
+
+        private void cubrirPendientes() {
+            if (!seguir()) {
+                return;
+            }
+            int objetivo = -1;
+            for (int celda : pendientes) {
+                if (!ocupada[celda]) {
+                    objetivo = celda;
+                    break;
+                }
+            }
+            if (objetivo < 0) {
+                colocarResto(restantes.length - 1, 0);
+                return;
+            }
+
+            // Poda: los barcos que faltan deben poder cubrir los impactos pendientes sin cubrir
+            int capacidad = 0;
+            for (int longitud = 1; longitud < restantes.length; longitud++) {
+                capacidad += longitud * restantes[longitud];
+            }
+            if (pendientes.length - cubiertas > capacidad) {
+                return;
+            }
+
+            for (int longitud = 1; longitud < restantes.length && !desbordada; longitud++) {
+                if (restantes[longitud] == 0) {
+                    continue;
+                }
+                int[][] candidatas = posiciones[longitud];
+                for (int p = 0; p < candidatas.length && !desbordada; p++) {
+                    int[] celdas = candidatas[p];
+                    if (!contiene(celdas, objetivo) || !libre(celdas)) {
+                        continue;
+                    }
+                    int nuevas = marcar(celdas, true);
+                    // Un barco solo sobre impactos ya estaría hundido: no es una flota posible
+                    if (nuevas < celdas.length) {
+                        cubiertas += nuevas;
+                        apilar(longitud, p);
+                        cubrirPendientes();
+                        desapilar(longitud);
+                        cubiertas -= nuevas;
+                    }
+                    marcar(celdas, false);
+                }
+            }
+        }
+
+        /**
+         * Coloca los barcos restantes, de mayor a menor longitud, en celdas libres
+         * @param longitud Longitud del barco que toca colocar (o menor, si ya no quedan de esta)
+         * @param desde Primera posición permitida mientras siga siendo la misma longitud que el anterior
+         */
+        private void colocarResto(int longitud, int desde) {
+            if (!seguir()) {
+                return;
+            }
+            while (longitud >= 1 && restantes[longitud] == 0) {
+                longitud--;
+                desde = 0;
+            }
+            if (longitud < 1) {
+                registrarFlota();
+                return;
+            }
+
+            int[][] candidatas = posiciones[longitud];
+            for (int p = desde; p < candidatas.length && !desbordada; p++) {
+                int[] celdas = candidatas[p];
+                if (!libre(celdas)) {
+                    continue;
+                }
+                marcar(celdas, true);
+                apilar(longitud, p);
+                colocarResto(longitud, p + 1);
+                desapilar(longitud);
+                marcar(celdas, false);
+            }
+        }
+
+        private void apilar(int longitud, int posicion) {
+            restantes[longitud]--;
+            longitudElegida[colocados] = longitud;
+            posicionElegida[colocados] = posicion;
+            colocados++;
+        }
+
+        private void desapilar(int longitud) {
+            colocados--;
+            restantes[longitud]++;
+        }
+
+        private void registrarFlota() {
+            if (flotas.size() == MAX_FLOTAS) {
+                desbordada = true;
+                return;
+            }
+            int[][] flota = new int[colocados][];
+            for (int b = 0; b < colocados; b++) {
+                flota[b] = posiciones[longitudElegida[b]][posicionElegida[b]];
+            }
+            flotas.add(flota);
+        }
+
+        private static boolean contiene(int[] celdas, int celda) {
+            for (int c : celdas) {
+                if (c == celda) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean libre(int[] celdas) {
+            for (int celda : celdas) {
+                if (ocupada[celda]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return Cuántas de las celdas son impactos pendientes
+         */
+        private int marcar(int[] celdas, boolean valor) {
+            int enPendientes = 0;
+            for (int celda : celdas) {
+                ocupada[celda] = valor;
+                if (esPendiente[celda]) {
+                    enPendientes++;
+                }
+            }
+            return enPendientes;
+        }
+
+        private static int[][] calcularPosiciones(BitBoard bloqueadas, int cols, int rows, int longitud) {
+            List<int[]> lista = new ArrayList<>();
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    if (col + longitud <= cols) {
+                        agregarSiLibre(lista, bloqueadas, row * cols + col, 1, longitud);
+                    }
+                    // Un barco de una celda es el mismo en horizontal y en vertical
+                    if (longitud > 1 && row + longitud <= rows) {
+                        agregarSiLibre(lista, bloqueadas, row * cols + col, cols, longitud);
+                    }
+                }
+            }
+            return lista.toArray(new int[0][]);
+        }
+
+        private static void agregarSiLibre(List<int[]> lista, BitBoard bloqueadas, int origen, int paso, int longitud) {
+            int[] celdas = new int[longitud];
+            for (int i = 0; i < longitud; i++) {
+                celdas[i] = origen + i * paso;
+                if (bloqueadas.get(celdas[i])) {
+                    return;
+                }
+            }
+            lista.add(celdas);
+        }
+    }
+}
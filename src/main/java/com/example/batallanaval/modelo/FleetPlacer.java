@@ -0,0 +1,196 @@
+package com.example.batallanaval.modelo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Generador exacto de flotas aleatorias.
+ * Para cada barco calcula, como máscaras de bits, todas las posiciones de origen legales
+ * (horizontales y verticales) a partir de la ocupación actual, y elige una de ellas
+ * uniformemente. Si un barco no tiene ninguna posición legal, retrocede y prueba otra
+ * posición para el barco anterior. No hay bucles de intentos al azar: cada paso
+ * descarta al menos una posición candidata, así que la búsqueda siempre termina.
+ */
+public class FleetPlacer {
+
+    // Límite de posiciones probadas por flota, para acotar flotas imposibles
+    private static final int MAX_PASOS = 100_000;
+    // Pasos entre consultas al reloj cuando hay un plazo
+    private static final int PASOS_POR_CONSULTA = 256;
+
+    private final int cols;
+    private final int rows;
+    private final BitBoard ocupacion;
+    private final BitBoard libres;
+
+    // Máscaras de columnas donde cabe un barco horizontal de cada longitud
+    private final BitBoard[] mascaraColumnas;
+
+    // Buffers por nivel de profundidad de la búsqueda
+    private BitBoard[] legalesHorizontal = new BitBoard[0];
+    private BitBoard[] legalesVertical = new BitBoard[0];
+
+    private int pasos;
+    // Plazo absoluto (System.nanoTime) de la búsqueda en curso, o Long.MAX_VALUE si no hay
+    private long limiteNanos = Long.MAX_VALUE;
+
+    /**
+     * Crea un generador para un tablero de las dimensiones indicadas
+     */
+    public FleetPlacer(int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+        this.ocupacion = new BitBoard(cols, rows);
+        this.libres = new BitBoard(cols, rows);
+        this.mascaraColumnas = new BitBoard[Math.max(cols, rows) + 1];
+    }
+
+    /**
+     * Coloca una flota completa al azar sobre un tablero vacío
+     * @param longitudes Longitud de cada barco, en el orden de colocación
+     * @param random Fuente de aleatoriedad
+     * @param origenes Salida: índice de celda del origen de cada barco
+     * @param verticales Salida: orientación de cada barco
+     * @return true si se pudo colocar toda la flota
+     */
+    public boolean colocarFlota(int[] longitudes, RandomGenerator random, int[] origenes, boolean[] verticales) {
+        ocupacion.clearAll();
+        asegurarBuffers(longitudes.length);
+        pasos = 0;
+        return colocarDesde(0, longitudes, random, origenes, verticales);
+    }
+
+    /**
+     * Coloca una flota al azar evitando las celdas bloqueadas
+     * (por ejemplo agua ya descubierta o barcos ya hundidos)
+     * @param bloqueadas Celdas donde no puede haber ningún barco
+     * @return true si se pudo colocar toda la flota
+     */
+    public boolean colocarFlota(int[] longitudes, BitBoard bloqueadas, RandomGenerator random,
+                                int[] origenes, boolean[] verticales) {
+        return colocarFlota(longitudes, bloqueadas, random, origenes, verticales, Long.MAX_VALUE);
+    }
+
+    /**
+     * Igual que colocarFlota con celdas bloqueadas, pero abandona la búsqueda al pasar el plazo:
+     * en un tablero muy restringido el retroceso puede tardar mucho más que el turno
+     * @param limiteNanos Plazo absoluto, en la escala de System.nanoTime()
+     * @return true si se pudo colocar toda la flota antes del plazo
+     */
+    public boolean colocarFlota(int[] longitudes, BitBoard bloqueadas, RandomGenerator random,
+                                int[] origenes, boolean[] verticales, long limiteNanos) {
+        ocupacion.copyFrom(bloqueadas);
+        asegurarBuffers(longitudes.length);
+        pasos = 0;
+        this.limiteNanos = limiteNanos;
+        try {
+            return colocarDesde(0, longitudes, random, origenes, verticales);
+        } finally {
+            this.limiteNanos = Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Verifica si la última flota colocada cubre todas las celdas indicadas
+     */
+    public boolean cubre(BitBoard celdas) {
+        return ocupacion.containsAll(celdas);
+    }
+
+    private boolean colocarDesde(int barco, int[] longitudes, RandomGenerator random, int[] origenes, boolean[] verticales) {
+        if (barco == longitudes.length) {
+            return true;
+        }
+
+        int longitud = longitudes[barco];
+        BitBoard horizontales = legalesHorizontal[barco];
+        BitBoard verticalesLegales = legalesVertical[barco];
+        calcularPosicionesLegales(longitud, horizontales, verticalesLegales);
+
+        int totalHorizontal = horizontales.cardinality();
+        int totalVertical = verticalesLegales.cardinality();
+
+        while (totalHorizontal + totalVertical > 0 && pasos < MAX_PASOS) {
+            if (++pasos % PASOS_POR_CONSULTA == 0 && System.nanoTime() > limiteNanos) {
+                // Plazo agotado: cortar toda la búsqueda, no solo este nivel
+                pasos = MAX_PASOS;
+                return false;
+            }
+            int elegido = random.nextInt(totalHorizontal + totalVertical);
+            boolean vertical = elegido >= totalHorizontal;
+            int origen = vertical
+                    ? verticalesLegales.selectBit(elegido - totalHorizontal)
+                    : horizontales.selectBit(elegido);
+
+            int col = origen % cols;
+            int row = origen / cols;
+            int ancho = vertical ? 1 : longitud;
+            int alto = vertical ? longitud : 1;
+
+            ocupacion.setRect(col, row, ancho, alto);
+            if (colocarDesde(barco + 1, longitudes, random, origenes, verticales)) {
+                origenes[barco] = origen;
+                verticales[barco] = vertical;
+                return true;
+            }
+
+            // Retroceso: liberar el barco y descartar esta posición
+            ocupacion.clearRect(col, row, ancho, alto);
+            if (vertical) {
+                verticalesLegales.clear(origen);
+                totalVertical--;
+            } else {
+                horizontales.clear(origen);
+                totalHorizontal--;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calcula las posiciones de origen legales para un barco con la ocupación actual
+     */
+    private void calcularPosicionesLegales(int longitud, BitBoard horizontales, BitBoard verticales) {
+        libres.setComplementOf(ocupacion);
+
+        horizontales.copyFrom(libres);
+        if (longitud > cols) {
+            horizontales.clearAll();
+        } else {
+            horizontales.and(getMascaraColumnas(longitud));
+            for (int k = 1; k < longitud; k++) {
+                horizontales.andShifted(libres, k);
+            }
+        }
+
+        // Un barco de una celda es igual en ambas orientaciones: solo se cuenta una vez
+        if (longitud == 1 || longitud > rows) {
+            verticales.clearAll();
+            return;
+        }
+        verticales.copyFrom(libres);
+        for (int k = 1; k < longitud; k++) {
+            verticales.andShifted(libres, k * cols);
+        }
+    }
+
+    private BitBoard getMascaraColumnas(int longitud) {
+        if (mascaraColumnas[longitud] == null) {
+            BitBoard mascara = new BitBoard(cols, rows);
+            mascara.setRect(0, 0, cols - longitud + 1, rows);
+            mascaraColumnas[longitud] = mascara;
+        }
+        return mascaraColumnas[longitud];
+    }
+
+    private void asegurarBuffers(int barcos) {
+        if (legalesHorizontal.length >= barcos) {
+            return;
+        }
+        legalesHorizontal = new BitBoard[barcos];
+        legalesVertical = new BitBoard[barcos];
+        for (int i = 0; i < barcos; i++) {
+            legalesHorizontal[i] = new BitBoard(cols, rows);
+            legalesVertical[i] = new BitBoard(cols, rows);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.batallanaval.modelo;
+
+/**
+ * Tabla de áreas acumuladas (summed-area table) sobre una capa de ocupación.
+ * suma[(fila) * (cols + 1) + col] guarda cuántas celdas ocupadas hay en el rectángulo
+ * [0, col) x [0, fila), así que saber si un rectángulo cualquiera está libre cuesta
+ * cuatro lecturas, sin importar el tamaño del barco.
+ */
+public class FreeSpaceIndex {
+
+    private final int cols;
+    private final int rows;
+    private final int ancho;
+    private final int[] suma;
+
+    public FreeSpaceIndex(int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+        this.ancho = cols + 1;
+        this.suma = new int[(cols + 1) * (rows + 1)];
+    }
+
+    /**
+     * Recalcula la tabla completa a partir de la capa de ocupación
+     */
+    public void reconstruir(BitBoard ocupacion) {
+        actualizar(ocupacion, 0, 0);
+    }
+
+    /**
+     * Recalcula la tabla tras un cambio en la ocupación.
+     * Solo las entradas a la derecha y por debajo de (startCol, startRow) dependen del cambio.
+     */
+    public void actualizar(BitBoard ocupacion, int startCol, int startRow) {
+        for (int row = startRow; row < rows; row++) {
+            int base = (row + 1) * ancho;
+            int acumuladoFila = suma[base + startCol] - suma[base - ancho + startCol];
+            for (int col = startCol; col < cols; col++) {
+                if (ocupacion.get(col, row)) {
+                    acumuladoFila++;
+                }
+                suma[base + col + 1] = suma[base - ancho + col + 1] + acumuladoFila;
+            }
+        }
+    }
+
+    /**
+     * Cuenta las celdas ocupadas dentro de un rectángulo que está dentro del tablero
+     */
+    public int ocupadas(int startCol, int startRow, int widthCells, int heightCells) {
+        int arriba = startRow * ancho;
+        int abajo = (startRow + heightCells) * ancho;
+        int derecha = startCol + widthCells;
+        return suma[abajo + derecha] - suma[arriba + derecha] - suma[abajo + startCol] + suma[arriba + startCol];
+    }
+
+    /**
+     * Verifica en O(1) si un rectángulo cabe en el tablero y todas sus celdas están libres
+     */
+    public boolean estaLibre(int startCol, int startRow, int widthCells, int heightCells) {
+        if (startCol < 0 || startRow < 0 ||
+                startCol + widthCells > cols ||
+                startRow + heightCells > rows) {
+            return false;
+        }
+        return ocupadas(startCol, startRow, widthCells, heightCells) == 0;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.batallanaval.modelo;
+
+/**
+ * Cambios de una partida desde la última captura: las celdas que cambiaron en cada capa,
+ * con su valor actual, y los barcos cuyo estado cambió.
+ * Lo produce GameSnapshot.cambiosDesde; GameState.conCambios lo aplica sobre la captura anterior
+ * copiando solo las filas afectadas. Un delta completo indica que hay que capturar todo
+ * (reinicio, colocación de barcos o restauración de una partida).
+ */
+public final class GameDelta {
+
+    // Capas en el mismo orden que las matrices de GameStateCodec
+    public static final int LIMPIEZA_PLAYER = 0;
+    public static final int LIMPIEZA_CPU = 1;
+    public static final int ATINACION_PLAYER = 2;
+    public static final int ATINACION_CPU = 3;
+    public static final int DISPAROS_PLAYER = 4;
+    public static final int DISPAROS_CPU = 5;
+    public static final int CAPAS = 6;
+
+    private static final int[] VACIO = new int[0];
+    private static final GameDelta COMPLETO = new GameDelta(true, 0, null, null, VACIO, VACIO);
+
+    private final boolean completo;
+    private final int columnas;
+    private final int[][] celdas;
+    private final boolean[][] valores;
+    private final int[] barcosJugador;
+    private final int[] barcosCpu;
+
+    GameDelta(boolean completo, int columnas, int[][] celdas, boolean[][] valores,
+              int[] barcosJugador, int[] barcosCpu) {
+        this.completo = completo;
+        this.columnas = columnas;
+        this.celdas = celdas;
+        this.valores = valores;
+        this.barcosJugador = barcosJugador;
+        this.barcosCpu = barcosCpu;
+    }
+
+    static GameDelta completo() {
+        return COMPLETO;
+    }
+
+    /**
+     * @return true si los cambios no se pueden aplicar celda a celda y hay que capturar todo
+     */
+    public boolean isCompleto() {
+        return completo;
+    }
+
+    public boolean isVacio() {
+        if (completo) {
+            return false;
+        }
+        for (int[] capa : celdas) {
+            if (capa.length > 0) {
+                return false;
+            }
+        }
+        return barcosJugador.length == 0 && barcosCpu.length == 0;
+    }
+
+    /**
+     * @return Índices (fila * columnas + columna) de las celdas cambiadas en la capa
+     */
+    public int[] getCeldas(int capa) {
+        return completo ? VACIO : celdas[capa];
+    }
+
+    /**
+     * @return Valor actual de la i-ésima celda cambiada de la capa
+     */
+    public boolean getValor(int capa, int i) {
+        return valores[capa][i];
+    }
+
+    public int getColumnas() {
+        return columnas;
+    }
+
+    /**
+     * @return Posiciones en la flota del jugador de los barcos cuyo estado cambió
+     */
+    public int[] getBarcosJugador() {
+        return barcosJugador;
+    }
+
+    /**
+     * @return Posiciones en la flota de la CPU de los barcos cuyo estado cambió
+     */
+    public int[] getBarcosCpu() {
+        return barcosCpu;
+    }
+
+    @Override
+    public String toString() {
+        if (completo) {
+            return "GameDelta{completo}";
+        }
+        int total = 0;
+        for (int[] capa : celdas) {
+            total += capa.length;
+        }
+        return "GameDelta{celdas=" + total + ", barcos=" + (barcosJugador.length + barcosCpu.length) + "}";
+    }
+}
@@ -1,46 +1,108 @@
 package com.example.batallanaval.modelo;
-import java.util.Random;
+import com.example.batallanaval.interfaces.ShotStrategy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 import java.util.List;
 
 public class GameLogic {
 
-    // Matrices para rastrear el estado del juego
-    private boolean[][] matrizLimpiezaPlayer = new boolean[10][10];
-    private boolean[][] matrizLimpiezaCpu = new boolean[10][10];
-    private boolean[][] matrizAtinacionPlayer = new boolean[10][10];
-    private boolean[][] matrizAtinacionCpu = new boolean[10][10];
-    private boolean[][] matrizDisparosPlayer = new boolean[10][10];
-    private boolean[][] matrizDisparosCpu = new boolean[10][10];
+    // Capas de bits para rastrear el estado del juego (ocupación, impactos y disparos)
+    private final BitBoard limpiezaPlayer = new BitBoard(Constants.GRID_COLS, Constants.GRID_ROWS);
+    private final BitBoard limpiezaCpu = new BitBoard(Constants.GRID_COLS, Constants.GRID_ROWS);
+    private final BitBoard atinacionPlayer = new BitBoard(Constants.GRID_COLS, Constants.GRID_ROWS);
+    private final BitBoard atinacionCpu = new BitBoard(Constants.GRID_COLS, Constants.GRID_ROWS);
+    private final BitBoard disparosPlayer = new BitBoard(Constants.GRID_COLS, Constants.GRID_ROWS);
+    private final BitBoard disparosCpu = new BitBoard(Constants.GRID_COLS, Constants.GRID_ROWS);
+
+    // Áreas acumuladas de la ocupación del jugador: comprobar un hueco cuesta O(1)
+    private final FreeSpaceIndex espacioLibrePlayer = new FreeSpaceIndex(Constants.GRID_COLS, Constants.GRID_ROWS);
 
     // Arrays para almacenar los barcos
     private Ship[] arrayPlayer = new Ship[10];
     private Ship[] arrayCpu = new Ship[10];
 
+    // Índice celda -> posición del barco en su arreglo (-1 = agua), uno por tablero
+    private final int[] indiceBarcosPlayer = nuevoIndiceBarcos();
+    private final int[] indiceBarcosCpu = nuevoIndiceBarcos();
+
+    // Celdas a las que cada tirador aún no ha disparado (muestreo uniforme en O(1))
+    private final ShotCandidateSet candidatosPlayer = new ShotCandidateSet(Constants.GRID_COLS * Constants.GRID_ROWS);
+    private final ShotCandidateSet candidatosCpu = new ShotCandidateSet(Constants.GRID_COLS * Constants.GRID_ROWS);
+
+    // Hash de Zobrist de lo que sabe cada tirador del tablero rival (0 = jugador, 1 = CPU).
+    // jugada lo actualiza con XOR; al cargar capas o barcos desde fuera se marca para recalcular.
+    private final long[] hashZobrist = new long[2];
+    private final boolean[] hashValido = {true, true};
+
+    // Segmentos de cada flota que aún no han sido impactados
+    private int vidaFlotaPlayer = 0;
+    private int vidaFlotaCpu = 0;
+
     // Variables para el control del fin del juego
     private boolean gameEnded = false;
     private String winner = "";
 
-    // Random para posicionamiento automático de barcos de la CPU
-    private Random random = new Random();
+    // Semilla de la sesión: reproduce la flota de la CPU y todos sus disparos aleatorios.
+    // El generador es propio de cada partida, así que no se comparte entre hilos.
+    private long semilla;
+    private final boolean semillaFija;
+    private SplittableRandom random;
+
+    // Estrategia con la que la CPU elige sus disparos
+    // volatile: cancelarDisparoCpu la lee desde fuera del hilo que juega
+    private volatile ShotStrategy estrategiaCpu = new RandomShotStrategy();
+
+    // false para simulaciones sin interfaz: no se imprime nada por consola
+    private boolean verbose = true;
+
+    // Última vista inmutable publicada. Solo la reemplaza el hilo que modifica la partida;
+    // los lectores (guardado, interfaz) la leen sin cerrojos.
+    // Solo se publica si se activa: las simulaciones no la leen y no deben pagar la copia por jugada.
+    private volatile GameSnapshot snapshot;
+    private volatile boolean publicarSnapshots = false;
+
+    // Jugadas resueltas pendientes de pasar al diario de guardado.
+    // Solo se registran si se activa: las simulaciones no guardan y no deben acumularlas.
+    private final List<RegistroJugada> jugadasPendientes = new ArrayList<>();
+    private volatile boolean registrarJugadas = false;
+
+    // Generador de flotas por enumeración exacta de posiciones legales
+    private final FleetPlacer fleetPlacer = new FleetPlacer(Constants.GRID_COLS, Constants.GRID_ROWS);
+
+    /**
+     * Crea una partida con una semilla nueva en cada reinicio
+     */
+    public GameLogic() {
+        this(new SplittableRandom().nextLong(), false);
+    }
+
+    /**
+     * Crea una partida reproducible: cada reinicio vuelve a la misma semilla
+     * y no se usan flotas de la reserva compartida
+     * @param semilla Semilla de la sesión
+     */
+    public GameLogic(long semilla) {
+        this(semilla, true);
+    }
+
+    private GameLogic(long semilla, boolean semillaFija) {
+        this.semillaFija = semillaFija;
+        iniciarSesion(semilla);
+        publicarCompleto();
+    }
+
+    private void iniciarSesion(long semilla) {
+        this.semilla = semilla;
+        this.random = new SplittableRandom(semilla);
+    }
 
     /**
      * Verifica si un barco puede ser colocado en las coordenadas especificadas
      */
     public boolean canPlaceShip(int startCol, int startRow, int widthCells, int heightCells) {
-        if (startCol < 0 || startRow < 0 ||
-                startCol + widthCells > Constants.GRID_COLS ||
-                startRow + heightCells > Constants.GRID_ROWS) {
-            return false;
-        }
-
-        for (int row = startRow; row < startRow + heightCells; row++) {
-            for (int col = startCol; col < startCol + widthCells; col++) {
-                if (matrizLimpiezaPlayer[row][col]) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return espacioLibrePlayer.estaLibre(startCol, startRow, widthCells, heightCells);
     }
 
     /**
@@ -53,35 +115,34 @@ public class GameLogic {
             return false;
         }
 
-        for (int row = startRow; row < startRow + heightCells; row++) {
-            for (int col = startCol; col < startCol + widthCells; col++) {
-                if (matrizLimpiezaCpu[row][col]) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return !limpiezaCpu.intersectsRect(startCol, startRow, widthCells, heightCells);
     }
 
     /**
      * Marca las celdas como ocupadas por un barco en la matriz de limpieza
      */
     public void placeShip(int startCol, int startRow, int widthCells, int heightCells) {
-        for (int row = startRow; row < startRow + heightCells; row++) {
-            for (int col = startCol; col < startCol + widthCells; col++) {
-                matrizLimpiezaPlayer[row][col] = true;
-            }
-        }
+        limpiezaPlayer.setRect(startCol, startRow, widthCells, heightCells);
+        espacioLibrePlayer.actualizar(limpiezaPlayer, startCol, startRow);
+        publicarCompleto();
     }
 
     /**
      * Marca las celdas como ocupadas por un barco de la CPU
      */
     public void placeShipCpu(int startCol, int startRow, int widthCells, int heightCells) {
+        limpiezaCpu.setRect(startCol, startRow, widthCells, heightCells);
+        publicarCompleto();
+    }
+
+    /**
+     * Marca las celdas como ocupadas por el barco de la CPU indicado y las registra en el índice de barcos
+     */
+    public void placeShipCpu(int startCol, int startRow, int widthCells, int heightCells, int indiceBarco) {
+        placeShipCpu(startCol, startRow, widthCells, heightCells);
         for (int row = startRow; row < startRow + heightCells; row++) {
-            for (int col = startCol; col < startCol + widthCells; col++) {
-                matrizLimpiezaCpu[row][col] = true;
-            }
+            Arrays.fill(indiceBarcosCpu, limpiezaCpu.indexOf(startCol, row),
+                    limpiezaCpu.indexOf(startCol + widthCells, row), indiceBarco);
         }
     }
 
@@ -89,11 +150,9 @@ public class GameLogic {
      * Libera las celdas ocupadas por un barco (para cuando se mueve)
      */
     public void removeShip(int startCol, int startRow, int widthCells, int heightCells) {
-        for (int row = startRow; row < startRow + heightCells; row++) {
-            for (int col = startCol; col < startCol + widthCells; col++) {
-                matrizLimpiezaPlayer[row][col] = false;
-            }
-        }
+        limpiezaPlayer.clearRect(startCol, startRow, widthCells, heightCells);
+        espacioLibrePlayer.actualizar(limpiezaPlayer, startCol, startRow);
+        publicarCompleto();
     }
 
     /**
@@ -104,19 +163,29 @@ public class GameLogic {
             return new int[]{preferredCol, preferredRow};
         }
 
+        // Solo se recorren orígenes donde el barco cabe en el tablero
+        int maxCol = Constants.GRID_COLS - widthCells;
+        int maxRow = Constants.GRID_ROWS - heightCells;
+        if (maxCol < 0 || maxRow < 0) {
+            return null;
+        }
+
         int maxDistance = Math.max(Constants.GRID_ROWS, Constants.GRID_COLS);
 
         for (int distance = 1; distance <= maxDistance; distance++) {
-            for (int deltaRow = -distance; deltaRow <= distance; deltaRow++) {
-                for (int deltaCol = -distance; deltaCol <= distance; deltaCol++) {
-                    if (Math.abs(deltaRow) != distance && Math.abs(deltaCol) != distance) {
-                        continue;
-                    }
-
-                    int newCol = preferredCol + deltaCol;
-                    int newRow = preferredRow + deltaRow;
-
-                    if (canPlaceShip(newCol, newRow, widthCells, heightCells)) {
+            int firstRow = Math.max(preferredRow - distance, 0);
+            int lastRow = Math.min(preferredRow + distance, maxRow);
+            int firstCol = Math.max(preferredCol - distance, 0);
+            int lastCol = Math.min(preferredCol + distance, maxCol);
+
+            for (int newRow = firstRow; newRow <= lastRow; newRow++) {
+                boolean filaBorde = Math.abs(newRow - preferredRow) == distance;
+                // En filas interiores del anillo solo cuentan las dos columnas del borde
+                int step = filaBorde ? 1 : 2 * distance;
+                int startCol = filaBorde ? firstCol : preferredCol - distance;
+
+                for (int newCol = startCol; newCol <= lastCol; newCol += step) {
+                    if (newCol >= firstCol && canPlaceShip(newCol, newRow, widthCells, heightCells)) {
                         return new int[]{newCol, newRow};
                     }
                 }
@@ -130,67 +199,77 @@ public class GameLogic {
      * Posiciona automáticamente todos los barcos de la CPU
      */
     public void posicionarBarcosCpu() {
-        System.out.println("=== POSICIONANDO BARCOS DE LA CPU ===");
-
-        // Limpiar matriz de la CPU
-        for (int i = 0; i < 10; i++) {
-            for (int j = 0; j < 10; j++) {
-                matrizLimpiezaCpu[i][j] = false;
-            }
-        }
-
-        // Definir los barcos a crear
-        int[][] shipSizes = {
-                {4, 1}, {3, 1}, {3, 1}, {2, 1}, {2, 1}, 
-                {2, 1}, {1, 1}, {1, 1}, {1, 1}, {1, 1}
-        };
+        log("=== POSICIONANDO BARCOS DE LA CPU ===");
 
         String[] shipNames = {"Portaaviones", "Submarino-1", "Submarino-2",
                 "Destructor-1", "Destructor-2", "Destructor-3",
                 "Fragata-1", "Fragata-2", "Fragata-3", "Fragata-4"};
 
-        // Crear e inicializar los barcos de la CPU
-        for (int i = 0; i < 10; i++) {
-            arrayCpu[i] = new Ship();
+        // Tomar una flota preparada en segundo plano y adoptar su semilla;
+        // si no hay ninguna (o la semilla es fija), generarla aquí a partir de la semilla actual
+        CpuFleetPool.Disposicion flota = semillaFija ? null : CpuFleetPool.getInstance().tomar();
+        if (flota != null) {
+            iniciarSesion(flota.getSemilla());
+        } else {
+            flota = CpuFleetPool.generarParaSesion(fleetPlacer, Constants.FLEET_SHIP_LENGTHS, semilla);
+            iniciarSesion(semilla);
         }
+        // La flota sale del primer split() de la sesión; los disparos usan el resto del flujo
+        random.split();
 
-        // Colocar cada barco automáticamente
-        for (int i = 0; i < shipSizes.length; i++) {
-            int widthCells = shipSizes[i][0];
-            int heightCells = shipSizes[i][1];
-            boolean placed = false;
-            int attempts = 0;
-            int maxAttempts = 1000;
-
-            while (!placed && attempts < maxAttempts) {
-                int startCol = random.nextInt(Constants.GRID_COLS);
-                int startRow = random.nextInt(Constants.GRID_ROWS);
-
-                boolean isVertical = random.nextBoolean();
-                int finalWidth = isVertical ? heightCells : widthCells;
-                int finalHeight = isVertical ? widthCells : heightCells;
-
-                if (canPlaceShipCpu(startCol, startRow, finalWidth, finalHeight)) {
-                    placeShipCpu(startCol, startRow, finalWidth, finalHeight);
+        if (flota == null) {
+            log("✗ ERROR: No se pudo colocar la flota de la CPU");
+            return;
+        }
 
-                    for (int row = startRow; row < startRow + finalHeight; row++) {
-                        for (int col = startCol; col < startCol + finalWidth; col++) {
-                            arrayCpu[i].addCoordinate(col, row);
-                        }
-                    }
+        colocarFlota(1, flota);
+        for (int i = 0; i < flota.getBarcos(); i++) {
+            log("✓ " + shipNames[i] + " colocado en (" + arrayCpu[i].getOrigenCol() + "," + arrayCpu[i].getOrigenRow() + ")");
+        }
 
-                    placed = true;
-                    System.out.println("✓ " + shipNames[i] + " colocado en (" + startCol + "," + startRow + ")");
-                }
-                attempts++;
-            }
+        log("=== BARCOS DE LA CPU POSICIONADOS ===");
+    }
 
-            if (!placed) {
-                System.out.println("✗ ERROR: No se pudo colocar " + shipNames[i]);
+    /**
+     * Coloca una flota completa en el tablero de un jugador, reemplazando la anterior.
+     * La usan la colocación automática de la CPU y las simulaciones sin interfaz.
+     * @param jugador Dueño del tablero: 0 = jugador, 1 = CPU
+     */
+    public void colocarFlota(int jugador, CpuFleetPool.Disposicion flota) {
+        BitBoard limpieza = jugador == 0 ? limpiezaPlayer : limpiezaCpu;
+        Ship[] barcos = jugador == 0 ? arrayPlayer : arrayCpu;
+        int[] indiceBarcos = jugador == 0 ? indiceBarcosPlayer : indiceBarcosCpu;
+
+        limpieza.clearAll();
+        Arrays.fill(indiceBarcos, -1);
+        Arrays.fill(barcos, null);
+        int vidaFlota = 0;
+
+        for (int i = 0; i < flota.getBarcos(); i++) {
+            int longitud = flota.getLongitud(i);
+            int startCol = flota.getOrigen(i) % Constants.GRID_COLS;
+            int startRow = flota.getOrigen(i) / Constants.GRID_COLS;
+            boolean vertical = flota.isVertical(i);
+            int widthCells = vertical ? 1 : longitud;
+            int heightCells = vertical ? longitud : 1;
+
+            limpieza.setRect(startCol, startRow, widthCells, heightCells);
+            for (int row = startRow; row < startRow + heightCells; row++) {
+                Arrays.fill(indiceBarcos, limpieza.indexOf(startCol, row),
+                        limpieza.indexOf(startCol + widthCells, row), i);
             }
+            barcos[i] = new Ship(startCol, startRow, longitud, vertical);
+            vidaFlota += longitud;
         }
 
-        System.out.println("=== BARCOS DE LA CPU POSICIONADOS ===");
+        invalidarHash();
+        if (jugador == 0) {
+            espacioLibrePlayer.reconstruir(limpiezaPlayer);
+            vidaFlotaPlayer = vidaFlota;
+        } else {
+            vidaFlotaCpu = vidaFlota;
+        }
+        publicarCompleto();
     }
 
     /**
@@ -217,43 +296,149 @@ public class GameLogic {
      */
     public boolean yaSeDisparo(int col, int row, int jugador) {
         if (jugador == 0) { // Jugador humano dispara a CPU
-            return matrizDisparosPlayer[row][col];
+            return disparosPlayer.get(col, row);
         } else { // CPU dispara a jugador
-            return matrizDisparosCpu[row][col];
+            return disparosCpu.get(col, row);
         }
     }
 
     /**
-     * Método principal para manejar jugadas
+     * Método principal para manejar jugadas.
+     * Los disparos de la CPU se notifican a su estrategia para que actualice su estado.
      */
     public String jugada(int x, int y, int jugador) {
+        String resultado = resolverJugada(x, y, jugador);
+        RegistroJugada registro = RegistroJugada.desdeResultado(jugador, x, y, resultado);
+        if (registro != null && publicarSnapshots) {
+            publicarJugada(registro);
+        }
+        if (jugador == 1) {
+            estrategiaCpu.registrarResultado(this, 1, disparosCpu.indexOf(x, y), resultado);
+        }
+        if (registrarJugadas && registro != null) {
+            synchronized (jugadasPendientes) {
+                jugadasPendientes.add(registro);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * @return La última vista inmutable de la partida; se puede leer desde cualquier hilo si la
+     *         publicación está activa. Sin ella se construye en el momento a partir del estado
+     *         actual, así que solo se debe llamar desde el hilo que modifica la partida.
+     */
+    public GameSnapshot getSnapshot() {
+        return publicarSnapshots ? snapshot : construirCompleto(0);
+    }
+
+    /**
+     * Activa la publicación de un snapshot tras cada jugada y cada cambio en bloque, para
+     * leer la partida desde otros hilos (interfaz, guardado)
+     */
+    public void setPublicarSnapshots(boolean publicarSnapshots) {
+        this.publicarSnapshots = publicarSnapshots;
+        if (publicarSnapshots) {
+            publicarCompleto();
+        } else {
+            snapshot = null;
+        }
+    }
+
+    /**
+     * Publica el snapshot de una jugada resuelta compartiendo con el anterior lo que no cambió
+     */
+    private void publicarJugada(RegistroJugada jugada) {
+        boolean tiraJugador = jugada.getTirador() == 0;
+        BitBoard atinacion = tiraJugador ? atinacionCpu : atinacionPlayer;
+        int[] indiceBarcos = tiraJugador ? indiceBarcosCpu : indiceBarcosPlayer;
+        int celda = atinacion.indexOf(jugada.getCol(), jugada.getRow());
+        Ship[] flotaRival = tiraJugador ? arrayCpu : arrayPlayer;
+        int barco = jugada.esImpacto() ? indiceBarcos[celda] : -1;
+        if (barco >= 0 && flotaRival[barco] == null) {
+            barco = -1;
+        }
+        int estadoBarco = barco >= 0 ? flotaRival[barco].getState() : 0;
+
+        snapshot = snapshot.conJugada(jugada.getTirador(), tiraJugador ? disparosPlayer : disparosCpu,
+                atinacion, jugada.esImpacto(), barco, estadoBarco, gameEnded, winner);
+    }
+
+    /**
+     * Publica un snapshot nuevo tras un cambio en bloque (colocación, reinicio o restauración)
+     */
+    private void publicarCompleto() {
+        if (!publicarSnapshots) {
+            return;
+        }
+        GameSnapshot anterior = snapshot;
+        snapshot = construirCompleto(anterior != null ? anterior.getVersion() + 1 : 0);
+    }
+
+    private GameSnapshot construirCompleto(long version) {
+        return GameSnapshot.completo(version,
+                new BitBoard[] {limpiezaPlayer, limpiezaCpu, atinacionPlayer, atinacionCpu, disparosPlayer, disparosCpu},
+                arrayPlayer, arrayCpu, gameEnded, winner, semilla);
+    }
+
+    /**
+     * Activa el registro de jugadas para el guardado por diario
+     */
+    public void setRegistrarJugadas(boolean registrarJugadas) {
+        this.registrarJugadas = registrarJugadas;
+        if (!registrarJugadas) {
+            synchronized (jugadasPendientes) {
+                jugadasPendientes.clear();
+            }
+        }
+    }
+
+    /**
+     * Devuelve y vacía las jugadas registradas desde la última llamada, en orden
+     */
+    public List<RegistroJugada> drenarJugadas() {
+        synchronized (jugadasPendientes) {
+            if (jugadasPendientes.isEmpty()) {
+                return List.of();
+            }
+            List<RegistroJugada> jugadas = new ArrayList<>(jugadasPendientes);
+            jugadasPendientes.clear();
+            return jugadas;
+        }
+    }
+
+    private String resolverJugada(int x, int y, int jugador) {
         if (gameEnded) {
             return "JUEGO_TERMINADO";
         }
 
         if (jugador == 0) { // Jugador humano dispara a CPU
-            if (matrizDisparosPlayer[y][x]) {
+            int celda = disparosPlayer.indexOf(x, y);
+            if (disparosPlayer.get(celda)) {
                 return "YA_DISPARADO";
             }
 
-            matrizDisparosPlayer[y][x] = true;
-
-            if (matrizLimpiezaCpu[y][x]) {
-                matrizAtinacionCpu[y][x] = true;
-
-                for (int i = 0; i < 10; i++) {
-                    if (arrayCpu[i] != null && arrayCpu[i].containsCoordinate(x, y)) {
-                        if (cambiarPng(arrayCpu[i], jugador)) {
-                            if (todasFlotasHundidas(1)) {
-                                gameEnded = true;
-                                winner = "JUGADOR";
-                                return "VICTORIA_JUGADOR";
-                            }
-                            return "HUNDIDO";
-                        } else {
-                            return "TOCADO";
-                        }
+            disparosPlayer.set(celda);
+            candidatosPlayer.eliminar(celda);
+            hashZobrist[0] ^= Zobrist.clave(Zobrist.CAPA_DISPARO, celda);
+
+            if (limpiezaCpu.get(celda)) {
+                atinacionCpu.set(celda);
+                hashZobrist[0] ^= Zobrist.clave(Zobrist.CAPA_IMPACTO, celda);
+
+                Ship barco = barcoEnCelda(arrayCpu, indiceBarcosCpu, celda);
+                if (barco == null) {
+                    return "TOCADO";
+                }
+                vidaFlotaCpu--;
+                if (barco.registrarImpacto(x, y)) {
+                    marcarHundidoEnHash(0, barco);
+                    if (todasFlotasHundidas(1)) {
+                        gameEnded = true;
+                        winner = "JUGADOR";
+                        return "VICTORIA_JUGADOR";
                     }
+                    return "HUNDIDO";
                 }
                 return "TOCADO";
             } else {
@@ -261,28 +446,32 @@ public class GameLogic {
             }
 
         } else if (jugador == 1) { // CPU dispara a jugador
-            if (matrizDisparosCpu[y][x]) {
+            int celda = disparosCpu.indexOf(x, y);
+            if (disparosCpu.get(celda)) {
                 return "YA_DISPARADO";
             }
 
-            matrizDisparosCpu[y][x] = true;
-
-            if (matrizLimpiezaPlayer[y][x]) {
-                matrizAtinacionPlayer[y][x] = true;
-
-                for (int i = 0; i < 10; i++) {
-                    if (arrayPlayer[i] != null && arrayPlayer[i].containsCoordinate(x, y)) {
-                        if (cambiarPng(arrayPlayer[i], jugador)) {
-                            if (todasFlotasHundidas(0)) {
-                                gameEnded = true;
-                                winner = "CPU";
-                                return "VICTORIA_CPU";
-                            }
-                            return "HUNDIDO";
-                        } else {
-                            return "TOCADO";
-                        }
+            disparosCpu.set(celda);
+            candidatosCpu.eliminar(celda);
+            hashZobrist[1] ^= Zobrist.clave(Zobrist.CAPA_DISPARO, celda);
+
+            if (limpiezaPlayer.get(celda)) {
+                atinacionPlayer.set(celda);
+                hashZobrist[1] ^= Zobrist.clave(Zobrist.CAPA_IMPACTO, celda);
+
+                Ship barco = barcoEnCelda(arrayPlayer, indiceBarcosPlayer, celda);
+                if (barco == null) {
+                    return "TOCADO";
+                }
+                vidaFlotaPlayer--;
+                if (barco.registrarImpacto(x, y)) {
+                    marcarHundidoEnHash(1, barco);
+                    if (todasFlotasHundidas(0)) {
+                        gameEnded = true;
+                        winner = "CPU";
+                        return "VICTORIA_CPU";
                     }
+                    return "HUNDIDO";
                 }
                 return "TOCADO";
             } else {
@@ -294,72 +483,96 @@ public class GameLogic {
     }
 
     /**
-     * Verifica si todas las flotas de un jugador están hundidas
+     * Obtiene el barco que ocupa una celda con una sola lectura del índice de barcos
+     * @param jugador Dueño del tablero: 0 = jugador, 1 = CPU
+     * @return El barco en esa celda o null si es agua
      */
-    public boolean todasFlotasHundidas(int jugador) {
-        Ship[] barcosAVerificar;
-        boolean[][] matrizAtinacion;
+    public Ship getBarcoEn(int col, int row, int jugador) {
+        if (jugador == 0) {
+            return barcoEnCelda(arrayPlayer, indiceBarcosPlayer, limpiezaPlayer.indexOf(col, row));
+        }
+        return barcoEnCelda(arrayCpu, indiceBarcosCpu, limpiezaCpu.indexOf(col, row));
+    }
+
+    /**
+     * Asigna un barco a una posición de la flota y registra sus celdas en el índice de barcos.
+     * Se usa al restaurar partidas guardadas.
+     * @param jugador Dueño del barco: 0 = jugador, 1 = CPU
+     */
+    public void asignarBarco(int jugador, int indice, Ship barco) {
+        Ship[] flota = jugador == 0 ? arrayPlayer : arrayCpu;
+        int[] indiceBarcos = jugador == 0 ? indiceBarcosPlayer : indiceBarcosCpu;
+        BitBoard atinacion = jugador == 0 ? atinacionPlayer : atinacionCpu;
+
+        int vidaAnterior = flota[indice] != null ? flota[indice].getVidaRestante() : 0;
+        flota[indice] = barco;
+        invalidarHash();
+
+        for (int i = 0; i < barco.getSize(); i++) {
+            indiceBarcos[atinacion.indexOf(barco.getCol(i), barco.getRow(i))] = indice;
+        }
+        barco.sincronizarImpactos(atinacion);
 
         if (jugador == 0) {
-            barcosAVerificar = arrayPlayer;
-            matrizAtinacion = matrizAtinacionPlayer;
+            vidaFlotaPlayer += barco.getVidaRestante() - vidaAnterior;
         } else {
-            barcosAVerificar = arrayCpu;
-            matrizAtinacion = matrizAtinacionCpu;
+            vidaFlotaCpu += barco.getVidaRestante() - vidaAnterior;
+        }
+        publicarCompleto();
+    }
+
+    /**
+     * Obtiene el hash de Zobrist de lo que sabe un tirador: celdas disparadas, impactos y barcos hundidos.
+     * Dos tableros con el mismo conocimiento tienen el mismo hash, en esta u otra partida.
+     * @param jugador Tirador: 0 = jugador, 1 = CPU
+     */
+    public long getHashZobrist(int jugador) {
+        if (!hashValido[jugador]) {
+            BitBoard disparos = jugador == 0 ? disparosPlayer : disparosCpu;
+            BitBoard atinacion = jugador == 0 ? atinacionCpu : atinacionPlayer;
+            Ship[] flotaRival = jugador == 0 ? arrayCpu : arrayPlayer;
+            hashZobrist[jugador] = Zobrist.calcular(disparos, atinacion, flotaRival);
+            hashValido[jugador] = true;
         }
+        return hashZobrist[jugador];
+    }
 
-        int barcosHundidos = 0;
-        int barcosIntactos = 0;
+    private void marcarHundidoEnHash(int tirador, Ship barco) {
+        hashZobrist[tirador] ^= Zobrist.claveHundido(barco);
+    }
 
-        for (int i = 0; i < 10; i++) {
-            if (barcosAVerificar[i] != null && barcosAVerificar[i].getSize() > 0) {
-                boolean barcoCompletamenteHundido = true;
+    private void invalidarHash() {
+        hashValido[0] = false;
+        hashValido[1] = false;
+    }
 
-                for (int[] coordinate : barcosAVerificar[i].getCoordinates()) {
-                    int col = coordinate[0];
-                    int row = coordinate[1];
+    private Ship barcoEnCelda(Ship[] flota, int[] indiceBarcos, int celda) {
+        int indice = indiceBarcos[celda];
+        return indice >= 0 ? flota[indice] : null;
+    }
 
-                    if (!matrizAtinacion[row][col]) {
-                        barcoCompletamenteHundido = false;
-                        break;
-                    }
-                }
+    private static int[] nuevoIndiceBarcos() {
+        int[] indice = new int[Constants.GRID_COLS * Constants.GRID_ROWS];
+        Arrays.fill(indice, -1);
+        return indice;
+    }
 
-                if (barcoCompletamenteHundido) {
-                    barcosHundidos++;
-                } else {
-                    barcosIntactos++;
-                }
-            }
-        }
+    /**
+     * Verifica si todas las flotas de un jugador están hundidas.
+     * Compara el contador de vida de la flota, que cada impacto decrementa.
+     */
+    public boolean todasFlotasHundidas(int jugador) {
+        BitBoard flota = jugador == 0 ? limpiezaPlayer : limpiezaCpu;
+        int vidaFlota = jugador == 0 ? vidaFlotaPlayer : vidaFlotaCpu;
 
-        return (barcosIntactos == 0 && barcosHundidos > 0);
+        return vidaFlota == 0 && !flota.isEmpty();
     }
 
     /**
      * Verifica si un barco está completamente hundido
      */
     public boolean cambiarPng(Ship barco, int jugador) {
-        boolean allDestroyed = true;
-
-        for (int[] coordinate : barco.getCoordinates()) {
-            int col = coordinate[0];
-            int row = coordinate[1];
-
-            if (jugador == 0) { // Verificando barcos de CPU
-                if (!matrizAtinacionCpu[row][col]) {
-                    allDestroyed = false;
-                    break;
-                }
-            } else { // Verificando barcos de jugador
-                if (!matrizAtinacionPlayer[row][col]) {
-                    allDestroyed = false;
-                    break;
-                }
-            }
-        }
-
-        return allDestroyed;
+        return barco.isHundido();
     }
 
     /**
@@ -368,6 +581,9 @@ public class GameLogic {
     public void inicializarBarcosJugador(Object playerShips) {
         if (playerShips instanceof List<?>) {
             List<?> shipsList = (List<?>) playerShips;
+            invalidarHash();
+            Arrays.fill(indiceBarcosPlayer, -1);
+            vidaFlotaPlayer = 0;
 
             for (int i = 0; i < shipsList.size() && i < 10; i++) {
                 arrayPlayer[i] = new Ship();
@@ -381,16 +597,20 @@ public class GameLogic {
                     int[] dimensions = (int[]) getCurrentDimensionsInCellsMethod.invoke(ship);
 
                     if (position[0] >= 0 && position[1] >= 0) {
-                        for (int row = position[1]; row < position[1] + dimensions[1]; row++) {
-                            for (int col = position[0]; col < position[0] + dimensions[0]; col++) {
-                                arrayPlayer[i].addCoordinate(col, row);
-                            }
+                        Ship barco = arrayPlayer[i];
+                        barco.colocar(position[0], position[1],
+                                Math.max(dimensions[0], dimensions[1]), dimensions[1] > dimensions[0]);
+                        for (int segmento = 0; segmento < barco.getSize(); segmento++) {
+                            indiceBarcosPlayer[limpiezaPlayer.indexOf(barco.getCol(segmento), barco.getRow(segmento))] = i;
                         }
+                        barco.sincronizarImpactos(atinacionPlayer);
+                        vidaFlotaPlayer += barco.getVidaRestante();
                     }
                 } catch (Exception e) {
                     System.out.println("Error inicializando barco " + (i+1) + ": " + e.getMessage());
                 }
             }
+            publicarCompleto();
         }
     }
 
@@ -398,78 +618,142 @@ public class GameLogic {
      * Verifica si quedan posiciones válidas para disparar
      */
     public boolean quedanPosicionesParaDisparar(int jugador) {
-        boolean[][] matrizDisparos;
-
-        if (jugador == 0) {
-            matrizDisparos = matrizDisparosPlayer;
-        } else {
-            matrizDisparos = matrizDisparosCpu;
-        }
-
-        for (int row = 0; row < Constants.GRID_ROWS; row++) {
-            for (int col = 0; col < Constants.GRID_COLS; col++) {
-                if (!matrizDisparos[row][col]) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return !getCandidatos(jugador).isEmpty();
     }
 
     /**
-     * Encuentra una coordenada aleatoria válida para disparar
+     * Encuentra una coordenada válida para disparar.
+     * Para la CPU decide su estrategia; para el jugador se elige de forma uniforme
+     * entre las celdas sin disparar en tiempo constante.
+     * @return [col, row] o null solo si ya no quedan celdas sin disparar
      */
     public int[] encontrarCoordenadaValidaParaDisparar(int jugador) {
-        if (!quedanPosicionesParaDisparar(jugador)) {
+        int celda = jugador == 1
+                ? estrategiaCpu.elegirDisparo(this, 1, random)
+                : muestrearCeldaSinDisparar(jugador, random);
+        if (celda < 0) {
             return null;
         }
+        return new int[]{celda % Constants.GRID_COLS, celda / Constants.GRID_COLS};
+    }
 
-        int maxIntentos = 200;
-        int intentos = 0;
+    /**
+     * Elige de forma uniforme una celda a la que el tirador aún no ha disparado
+     * @param random Fuente de aleatoriedad del llamador (cada hilo de simulación usa la suya)
+     * @return Índice de la celda o -1 si ya no quedan celdas sin disparar
+     */
+    public int muestrearCeldaSinDisparar(int jugador, RandomGenerator random) {
+        return getCandidatos(jugador).muestrear(random);
+    }
 
-        while (intentos < maxIntentos) {
-            int col = random.nextInt(Constants.GRID_COLS);
-            int row = random.nextInt(Constants.GRID_ROWS);
+    /**
+     * @return Número de disparos que ha hecho un tirador en la partida
+     */
+    public int getDisparosRealizados(int jugador) {
+        ShotCandidateSet candidatos = getCandidatos(jugador);
+        return candidatos.capacidad() - candidatos.size();
+    }
 
-            if (!yaSeDisparo(col, row, jugador)) {
-                return new int[]{col, row};
-            }
-            intentos++;
+    /**
+     * Método para verificar si un disparo ya hecho fue impacto
+     */
+    public boolean esImpacto(int col, int row, int jugador) {
+        if (jugador == 0) { // Jugador humano dispara a CPU
+            return atinacionCpu.get(col, row);
+        } else { // CPU dispara a jugador
+            return atinacionPlayer.get(col, row);
         }
+    }
 
-        for (int row = 0; row < Constants.GRID_ROWS; row++) {
-            for (int col = 0; col < Constants.GRID_COLS; col++) {
-                if (!yaSeDisparo(col, row, jugador)) {
-                    return new int[]{col, row};
-                }
-            }
-        }
+    public ShotStrategy getEstrategiaCpu() {
+        return estrategiaCpu;
+    }
 
-        return null;
+    /**
+     * Pide a la estrategia de la CPU que termine cuanto antes el disparo que esté eligiendo.
+     * Es la única operación de GameLogic que se puede llamar desde otro hilo mientras se juega:
+     * la vista la usa al reiniciar o cerrar para no esperar el presupuesto completo del turno.
+     */
+    public void cancelarDisparoCpu() {
+        estrategiaCpu.cancelar();
+    }
+
+    /**
+     * Cambia la estrategia de disparo de la CPU
+     */
+    public void setEstrategiaCpu(ShotStrategy estrategiaCpu) {
+        this.estrategiaCpu = estrategiaCpu;
+        estrategiaCpu.reiniciar();
+    }
+
+    private ShotCandidateSet getCandidatos(int jugador) {
+        return jugador == 0 ? candidatosPlayer : candidatosCpu;
     }
 
     /**
      * Reinicia el estado del juego
      */
     public void reiniciarJuego() {
-        for (int i = 0; i < 10; i++) {
-            for (int j = 0; j < 10; j++) {
-                matrizLimpiezaPlayer[i][j] = false;
-                matrizLimpiezaCpu[i][j] = false;
-                matrizAtinacionPlayer[i][j] = false;
-                matrizAtinacionCpu[i][j] = false;
-                matrizDisparosPlayer[i][j] = false;
-                matrizDisparosCpu[i][j] = false;
-            }
-        }
+        iniciarSesion(semillaFija ? semilla : new SplittableRandom().nextLong());
+        limpiezaPlayer.clearAll();
+        espacioLibrePlayer.reconstruir(limpiezaPlayer);
+        limpiezaCpu.clearAll();
+        atinacionPlayer.clearAll();
+        atinacionCpu.clearAll();
+        disparosPlayer.clearAll();
+        disparosCpu.clearAll();
+        candidatosPlayer.reiniciar();
+        candidatosCpu.reiniciar();
 
         for (int i = 0; i < 10; i++) {
             arrayPlayer[i] = null;
             arrayCpu[i] = null;
         }
+        Arrays.fill(indiceBarcosPlayer, -1);
+        Arrays.fill(indiceBarcosCpu, -1);
+        vidaFlotaPlayer = 0;
+        vidaFlotaCpu = 0;
 
         gameEnded = false;
         winner = "";
+        hashZobrist[0] = 0L;
+        hashZobrist[1] = 0L;
+        hashValido[0] = true;
+        hashValido[1] = true;
+        publicarCompleto();
+        synchronized (jugadasPendientes) {
+            jugadasPendientes.clear();
+        }
+        estrategiaCpu.reiniciar();
+    }
+
+    /**
+     * @return Semilla de la sesión actual (se guarda en GameState para poder reproducir la partida)
+     */
+    public long getSemilla() {
+        return semilla;
+    }
+
+    /**
+     * Restaura la semilla de una sesión guardada y reinicia su generador
+     */
+    public void setSemilla(long semilla) {
+        iniciarSesion(semilla);
+        publicarCompleto();
+    }
+
+    public boolean isVerbose() {
+        return verbose;
+    }
+
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    private void log(String mensaje) {
+        if (verbose) {
+            System.out.println(mensaje);
+        }
     }
 
     /**
@@ -481,7 +765,7 @@ public class GameLogic {
         for (int row = 0; row < Constants.GRID_ROWS; row++) {
             System.out.print(row + ": ");
             for (int col = 0; col < Constants.GRID_COLS; col++) {
-                System.out.print(matrizLimpiezaPlayer[row][col] ? "X " : "- ");
+                System.out.print(limpiezaPlayer.get(col, row) ? "X " : "- ");
             }
             System.out.println();
         }
@@ -489,48 +773,66 @@ public class GameLogic {
     }
 
     // MÉTODOS SETTER PARA RESTAURAR ESTADO DEL JUEGO
+    // Las matrices se copian dentro de las capas de bits; el arreglo recibido no queda referenciado
     public void setMatrizLimpiezaPlayer(boolean[][] matriz) {
-        if (matriz != null && matriz.length == 10 && matriz[0].length == 10) {
-            this.matrizLimpiezaPlayer = matriz;
+        if (esMatrizValida(matriz)) {
+            limpiezaPlayer.loadMatrix(matriz);
+            espacioLibrePlayer.reconstruir(limpiezaPlayer);
+            publicarCompleto();
             System.out.println("✓ Matriz limpieza jugador restaurada");
         }
     }
 
     public void setMatrizLimpiezaCpu(boolean[][] matriz) {
-        if (matriz != null && matriz.length == 10 && matriz[0].length == 10) {
-            this.matrizLimpiezaCpu = matriz;
+        if (esMatrizValida(matriz)) {
+            limpiezaCpu.loadMatrix(matriz);
+            publicarCompleto();
             System.out.println("✓ Matriz limpieza CPU restaurada");
         }
     }
 
     public void setMatrizDisparosPlayer(boolean[][] matriz) {
-        if (matriz != null && matriz.length == 10 && matriz[0].length == 10) {
-            this.matrizDisparosPlayer = matriz;
+        if (esMatrizValida(matriz)) {
+            disparosPlayer.loadMatrix(matriz);
+            candidatosPlayer.reconstruir(disparosPlayer);
+            invalidarHash();
+            publicarCompleto();
             System.out.println("✓ Matriz disparos jugador restaurada");
         }
     }
 
     public void setMatrizDisparosCpu(boolean[][] matriz) {
-        if (matriz != null && matriz.length == 10 && matriz[0].length == 10) {
-            this.matrizDisparosCpu = matriz;
+        if (esMatrizValida(matriz)) {
+            disparosCpu.loadMatrix(matriz);
+            candidatosCpu.reconstruir(disparosCpu);
+            invalidarHash();
+            publicarCompleto();
             System.out.println("✓ Matriz disparos CPU restaurada");
         }
     }
 
     public void setMatrizAtinacionCpu(boolean[][] matriz) {
-        if (matriz != null && matriz.length == 10 && matriz[0].length == 10) {
-            this.matrizAtinacionCpu = matriz;
+        if (esMatrizValida(matriz)) {
+            atinacionCpu.loadMatrix(matriz);
+            invalidarHash();
+            publicarCompleto();
             System.out.println("✓ Matriz atinación CPU restaurada");
         }
     }
 
     public void setMatrizAtinacionPlayer(boolean[][] matriz) {
-        if (matriz != null && matriz.length == 10 && matriz[0].length == 10) {
-            this.matrizAtinacionPlayer = matriz;
+        if (esMatrizValida(matriz)) {
+            atinacionPlayer.loadMatrix(matriz);
+            invalidarHash();
+            publicarCompleto();
             System.out.println("✓ Matriz atinación jugador restaurada");
         }
     }
 
+    private boolean esMatrizValida(boolean[][] matriz) {
+        return matriz != null && matriz.length == Constants.GRID_ROWS && matriz[0].length == Constants.GRID_COLS;
+    }
+
     // GETTERS PARA EL ESTADO DEL JUEGO
     public boolean isGameEnded() {
         return gameEnded;
@@ -541,28 +843,29 @@ public class GameLogic {
     }
 
     // GETTERS PARA ACCEDER A LAS MATRICES
+    // Cada llamada devuelve una copia [fila][columna] generada desde la capa de bits
     public boolean[][] getMatrizLimpiezaPlayer() {
-        return matrizLimpiezaPlayer;
+        return limpiezaPlayer.toMatrix();
     }
 
     public boolean[][] getMatrizLimpiezaCpu() {
-        return matrizLimpiezaCpu;
+        return limpiezaCpu.toMatrix();
     }
 
     public boolean[][] getMatrizDisparosPlayer() {
-        return matrizDisparosPlayer;
+        return disparosPlayer.toMatrix();
     }
 
     public boolean[][] getMatrizDisparosCpu() {
-        return matrizDisparosCpu;
+        return disparosCpu.toMatrix();
     }
 
     public boolean[][] getMatrizAtinacionCpu() {
-        return matrizAtinacionCpu;
+        return atinacionCpu.toMatrix();
     }
 
     public boolean[][] getMatrizAtinacionPlayer() {
-        return matrizAtinacionPlayer;
+        return atinacionPlayer.toMatrix();
     }
 
     public Ship[] getArrayCpu() {
@@ -7,9 +7,14 @@ import com.example.batallanaval.exceptions.GameLoadException;
 import com.example.batallanaval.exceptions.GameCriticalException;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -24,9 +29,37 @@ public class GameSaveManager implements GameSaveInterface {
     private static final String SAVE_DIRECTORY = "battleship_saves";
     private static final String SAVE_FILE = "last_game.dat";
     private static final String BACKUP_FILE = "last_game_backup.dat";
+    private static final String TEMP_FILE = "last_game.dat.tmp";
+    private static final String JOURNAL_FILE = "last_game.journal";
+    private static final String BACKUP_JOURNAL_FILE = "last_game_backup.journal";
+    
+    // Jugadas que se añaden al diario antes de volver a escribir un snapshot completo
+    private static final int INTERVALO_SNAPSHOT_POR_DEFECTO = 50;
+    
+    // Una partida ocupa unos cientos de bytes; un archivo mucho mayor no es un guardado
+    private static final long MAX_TAMANO_ARCHIVO = 1L << 20;
     
     private List<GameStateListener> listeners;
     
+    // Modo diario: cada jugada se añade al diario y el snapshot completo solo se reescribe
+    // cada intervaloSnapshot jugadas, al terminar la partida o al empezar otra
+    private boolean modoDiario = true;
+    private int intervaloSnapshot = INTERVALO_SNAPSHOT_POR_DEFECTO;
+    
+    // Directorio con el principal, el backup y sus diarios
+    private final Path directorio;
+    
+    // Estado del diario respecto al último snapshot escrito por esta instancia
+    private final MoveJournal diario;
+    // Diario de la generación del backup: rota junto con el snapshot
+    private final MoveJournal diarioBackup;
+    private boolean diarioActivo;
+    private long generacion;
+    private boolean snapshotConSemilla;
+    private long semillaSnapshot;
+    private int jugadasEnDiario;
+    private boolean turnoPersistido;
+    
     /**
      * Clase interna para manejar las operaciones de archivo
      * Encapsula la lógica de manejo de archivos
@@ -39,7 +72,7 @@ public class GameSaveManager implements GameSaveInterface {
          */
         public void ensureSaveDirectoryExists() throws GameSaveException {
             try {
-                Path saveDir = Paths.get(SAVE_DIRECTORY);
+                Path saveDir = directorio;
                 if (!Files.exists(saveDir)) {
                     Files.createDirectories(saveDir);
                     System.out.println("✓ Directorio de guardado creado: " + saveDir.toAbsolutePath());
@@ -54,7 +87,7 @@ public class GameSaveManager implements GameSaveInterface {
          * @return Path del archivo de guardado
          */
         public Path getSaveFilePath() {
-            return Paths.get(SAVE_DIRECTORY, SAVE_FILE);
+            return directorio.resolve(SAVE_FILE);
         }
         
         /**
@@ -62,16 +95,91 @@ public class GameSaveManager implements GameSaveInterface {
          * @return Path del archivo de backup
          */
         public Path getBackupFilePath() {
-            return Paths.get(SAVE_DIRECTORY, BACKUP_FILE);
+            return directorio.resolve(BACKUP_FILE);
+        }
+        
+        /**
+         * Obtiene la ruta del archivo temporal donde se escribe cada guardado
+         * @return Path del archivo temporal
+         */
+        public Path getTempFilePath() {
+            return directorio.resolve(TEMP_FILE);
+        }
+        
+        /**
+         * Reemplaza el archivo principal de forma atómica.
+         * Los datos se escriben y se fuerzan a disco en el archivo temporal; después el
+         * principal pasa a ser el backup y el temporal pasa a ser el principal, ambos por
+         * renombrado. Si el proceso muere a mitad, queda el principal anterior o el backup,
+         * nunca un archivo a medio escribir.
+         * El diario del principal anterior pasa con él a ser el diario del backup, así que el
+         * backup se recupera con todas sus jugadas y no solo hasta su último snapshot.
+         * @param datos Contenido completo del nuevo archivo principal
+         * @throws IOException Si falla la escritura o alguno de los renombrados
+         */
+        public void replaceAtomically(ByteBuffer datos) throws IOException {
+            Path saveFile = getSaveFilePath();
+            Path backupFile = getBackupFilePath();
+            Path tempFile = getTempFilePath();
+            
+            try (FileChannel canal = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (datos.hasRemaining()) {
+                    canal.write(datos);
+                }
+                canal.force(true);
+            }
+            
+            // La generación anterior se conserva como backup por renombrado, sin copiarla
+            if (Files.exists(saveFile)) {
+                move(saveFile, backupFile);
+            }
+            move(tempFile, saveFile);
+            // Si se corta antes de rotar, la carga encuentra el diario por su generación
+            if (Files.exists(diario.getRuta())) {
+                move(diario.getRuta(), diarioBackup.getRuta());
+            }
+            forceDirectory();
+        }
+        
+        private void move(Path origen, Path destino) throws IOException {
+            try {
+                Files.move(origen, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(origen, destino, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        
+        /**
+         * Fuerza a disco la entrada de directorio de los renombrados.
+         * No todos los sistemas permiten abrir un directorio como canal; ahí se omite.
+         */
+        private void forceDirectory() {
+            try (FileChannel canal = FileChannel.open(directorio, StandardOpenOption.READ)) {
+                canal.force(true);
+            } catch (IOException | UnsupportedOperationException e) {
+                // Sin soporte para sincronizar directorios: los renombrados siguen siendo atómicos
+            }
         }
     }
     
     private FileOperationHandler fileHandler;
     
     /**
-     * Constructor del GameSaveManager
+     * Constructor del GameSaveManager sobre el directorio de guardado por defecto
      */
     public GameSaveManager() {
+        this(Paths.get(SAVE_DIRECTORY));
+    }
+    
+    /**
+     * Constructor del GameSaveManager
+     * @param directorio Directorio donde se guardan la partida, el backup y sus diarios
+     */
+    public GameSaveManager(Path directorio) {
+        this.directorio = directorio;
+        this.diario = new MoveJournal(directorio.resolve(JOURNAL_FILE));
+        this.diarioBackup = new MoveJournal(directorio.resolve(BACKUP_JOURNAL_FILE));
         this.listeners = new ArrayList<>();
         this.fileHandler = new FileOperationHandler();
     }
@@ -94,8 +202,84 @@ public class GameSaveManager implements GameSaveInterface {
         listeners.remove(listener);
     }
     
+    /**
+     * Activa o desactiva el modo diario. Desactivado, cada guardado escribe el estado completo.
+     */
+    public synchronized void setModoDiario(boolean modoDiario) {
+        this.modoDiario = modoDiario;
+        if (!modoDiario) {
+            diarioActivo = false;
+        }
+    }
+    
+    public synchronized boolean isModoDiario() {
+        return modoDiario;
+    }
+    
+    /**
+     * @param intervaloSnapshot Jugadas del diario tras las que se escribe un snapshot completo
+     */
+    public synchronized void setIntervaloSnapshot(int intervaloSnapshot) {
+        if (intervaloSnapshot < 1) {
+            throw new IllegalArgumentException("El intervalo de snapshot debe ser positivo");
+        }
+        this.intervaloSnapshot = intervaloSnapshot;
+    }
+    
+    /**
+     * Guarda las jugadas nuevas en el diario; el estado completo solo se escribe cuando
+     * toca snapshot. El estado debe incluir ya las jugadas.
+     */
+    @Override
+    public synchronized void saveMoves(GameState gameState, List<RegistroJugada> jugadas) throws GameSaveException {
+        if (gameState == null) {
+            throw new IllegalArgumentException("El estado del juego no puede ser null");
+        }
+        if (!modoDiario) {
+            saveGame(gameState);
+            return;
+        }
+        
+        if (!jugadas.isEmpty() && !gameState.isGameEnded()) {
+            // El turno capturado puede ir por detrás de la última jugada; manda la jugada
+            gameState.setPlayerTurn(MoveJournal.turnoTras(jugadas.get(jugadas.size() - 1)));
+        }
+        
+        boolean snapshot = !diarioActivo
+                || gameState.isGameEnded()
+                || !esPartidaDelSnapshot(gameState)
+                || jugadasEnDiario + jugadas.size() > intervaloSnapshot;
+        if (!snapshot && jugadas.isEmpty()) {
+            if (gameState.isPlayerTurn() == turnoPersistido) {
+                return; // Nada nuevo que guardar
+            }
+            snapshot = true;
+        }
+        if (snapshot) {
+            saveGame(gameState);
+            return;
+        }
+        
+        try {
+            diario.anexar(jugadas, jugadasEnDiario);
+            jugadasEnDiario += jugadas.size();
+            turnoPersistido = gameState.isPlayerTurn();
+            notifyGameSaved();
+        } catch (IOException e) {
+            // El siguiente guardado escribirá un snapshot completo
+            diarioActivo = false;
+            notifyError("Error al guardar la partida: " + e.getMessage());
+            throw new GameSaveException("Error al añadir jugadas al diario", e);
+        }
+    }
+    
+    private boolean esPartidaDelSnapshot(GameState gameState) {
+        return gameState.hasSemilla() == snapshotConSemilla
+                && (!snapshotConSemilla || gameState.getSemilla() == semillaSnapshot);
+    }
+    
     @Override
-    public void saveGame(GameState gameState) throws GameSaveException {
+    public synchronized void saveGame(GameState gameState) throws GameSaveException {
         if (gameState == null) {
             throw new IllegalArgumentException("El estado del juego no puede ser null");
         }
@@ -104,26 +288,15 @@ public class GameSaveManager implements GameSaveInterface {
             fileHandler.ensureSaveDirectoryExists();
             
             Path saveFile = fileHandler.getSaveFilePath();
-            Path backupFile = fileHandler.getBackupFilePath();
-            
-            // Crear backup del archivo anterior si existe
-            if (Files.exists(saveFile)) {
-                try {
-                    Files.copy(saveFile, backupFile, 
-                              java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-                    System.out.println("✓ Backup creado exitosamente");
-                } catch (IOException e) {
-                    System.err.println("Advertencia: No se pudo crear backup: " + e.getMessage());
-                }
-            }
-            
-            // Guardar el nuevo estado usando ObjectOutputStream (Java estándar)
-            gameState.setSaveTimestamp(System.currentTimeMillis());
             
-            try (ObjectOutputStream oos = new ObjectOutputStream(
-                    new FileOutputStream(saveFile.toFile()))) {
-                oos.writeObject(gameState);
-                oos.flush();
+            // Guardar el nuevo estado en formato binario compacto, sin tocar el principal hasta tenerlo en disco.
+            // La fecha identifica la generación del diario, así que nunca se repite.
+            long marca = Math.max(System.currentTimeMillis(), generacion + 1);
+            gameState.setSaveTimestamp(marca);
+            diarioActivo = false;
+            fileHandler.replaceAtomically(GameStateCodec.codificar(gameState));
+            if (modoDiario) {
+                iniciarDiario(gameState, marca);
             }
             
             // Verificar que se guardó correctamente
@@ -139,65 +312,171 @@ public class GameSaveManager implements GameSaveInterface {
         } catch (IOException e) {
             notifyError("Error al guardar la partida: " + e.getMessage());
             throw new GameSaveException("Error al guardar el estado del juego", e);
+        } catch (GameSaveException e) {
+            notifyError("Error al guardar la partida: " + e.getMessage());
+            throw e;
         } catch (Exception e) {
             notifyError("Error crítico al guardar: " + e.getMessage());
             throw new GameCriticalException("Error crítico durante el guardado", e);
         }
     }
     
+    /**
+     * Empieza el diario del snapshot recién escrito. Si falla, el siguiente guardado
+     * vuelve a escribir un snapshot completo.
+     */
+    private void iniciarDiario(GameState gameState, long marca) {
+        try {
+            diario.iniciar(marca);
+            generacion = marca;
+            snapshotConSemilla = gameState.hasSemilla();
+            semillaSnapshot = gameState.getSemilla();
+            jugadasEnDiario = 0;
+            turnoPersistido = gameState.isPlayerTurn();
+            diarioActivo = true;
+        } catch (IOException e) {
+            System.err.println("⚠️ No se pudo iniciar el diario de jugadas: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Busca el diario de una generación: el del principal o el del backup.
+     * Se buscan los dos porque un guardado cortado entre renombrados puede dejar el diario
+     * de una generación en cualquiera de las dos rutas.
+     * @return La lectura o null si ninguno de los dos es de esa generación
+     */
+    private MoveJournal.Lectura leerDiario(long generacion) throws IOException {
+        for (MoveJournal candidato : new MoveJournal[]{diario, diarioBackup}) {
+            MoveJournal.Lectura lectura = candidato.leer();
+            if (lectura != null && lectura.generacion == generacion) {
+                return lectura;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Aplica las jugadas del diario si pertenecen al snapshot cargado
+     */
+    private void aplicarDiario(GameState gameState) {
+        try {
+            MoveJournal.Lectura lectura = leerDiario(gameState.getSaveTimestamp());
+            if (lectura == null) {
+                return;
+            }
+            if (lectura.danado) {
+                notifyLoadWarning("Diario de jugadas dañado: se recuperaron solo las " + lectura.jugadas.size()
+                        + " jugadas anteriores al daño");
+            }
+            if (!lectura.jugadas.isEmpty()) {
+                MoveJournal.aplicar(gameState, lectura.jugadas);
+                System.out.println("✓ " + lectura.jugadas.size() + " jugadas recuperadas del diario");
+            }
+        } catch (IOException e) {
+            // Sin diario la partida sigue siendo la del snapshot
+            System.err.println("⚠️ No se pudo leer el diario de jugadas: " + e.getMessage());
+        }
+    }
+    
     @Override
     public GameState loadGame() throws GameLoadException {
         Path saveFile = fileHandler.getSaveFilePath();
         Path backupFile = fileHandler.getBackupFilePath();
         
-        if (!Files.exists(saveFile)) {
+        boolean hayPrincipal = Files.exists(saveFile);
+        boolean hayBackup = Files.exists(backupFile);
+        if (!hayPrincipal && !hayBackup) {
             throw new GameLoadException("No existe una partida guardada");
         }
         
         GameState gameState = null;
+        // Aviso para el jugador si al final se carga el backup
+        String avisoBackup = null;
         
         // Intentar cargar el archivo principal
+        if (hayPrincipal) {
+            try {
+                gameState = loadFromFile(saveFile);
+                if (isValidGameState(gameState)) {
+                    aplicarDiario(gameState);
+                    System.out.println("✓ Archivo principal cargado exitosamente");
+                    notifyGameLoaded();
+                    return gameState;
+                }
+            } catch (Exception e) {
+                System.err.println("Error cargando archivo principal: " + e.getMessage());
+                avisoBackup = "Partida dañada, se recuperó el guardado anterior";
+                if (!hayBackup) {
+                    throw new GameLoadException("Archivo corrupto y no existe backup", e);
+                }
+            }
+        } else {
+            // El guardado se interrumpió entre los dos renombrados: el backup es la última generación
+            System.out.println("No hay archivo principal, se usa el backup");
+        }
+        
+        // Intentar cargar desde backup
         try {
-            gameState = loadFromFile(saveFile);
+            System.out.println("Intentando cargar desde backup...");
+            gameState = loadFromFile(backupFile);
             if (isValidGameState(gameState)) {
-                System.out.println("✓ Archivo principal cargado exitosamente");
+                // El backup tiene su propio diario, rotado con él
+                aplicarDiario(gameState);
+                System.out.println("✓ Cargado desde archivo de backup");
+                if (avisoBackup != null) {
+                    notifyLoadWarning(avisoBackup);
+                }
                 notifyGameLoaded();
                 return gameState;
             }
-        } catch (Exception e) {
-            System.err.println("Error cargando archivo principal: " + e.getMessage());
-            
-            // Intentar cargar desde backup
-            if (Files.exists(backupFile)) {
-                try {
-                    System.out.println("Intentando cargar desde backup...");
-                    gameState = loadFromFile(backupFile);
-                    if (isValidGameState(gameState)) {
-                        System.out.println("✓ Cargado desde archivo de backup");
-                        notifyGameLoaded();
-                        return gameState;
-                    }
-                } catch (Exception backupError) {
-                    throw new GameLoadException("Error al cargar tanto el archivo principal como el backup", 
-                                               backupError);
-                }
-            } else {
-                throw new GameLoadException("Archivo corrupto y no existe backup", e);
-            }
+        } catch (Exception backupError) {
+            throw new GameLoadException("Error al cargar tanto el archivo principal como el backup", 
+                                       backupError);
         }
         
         throw new GameLoadException("No se pudo cargar el estado del juego");
     }
     
     /**
-     * Carga el estado del juego desde un archivo específico
+     * Carga el estado del juego desde un archivo específico.
+     * Acepta el formato binario actual y las partidas antiguas guardadas con ObjectOutputStream.
+     * En el formato binario la longitud y el CRC se comprueban antes de decodificar.
      * @param filePath Ruta del archivo a cargar
      * @return Estado del juego cargado
      * @throws GameLoadException Si ocurre un error durante la carga
      */
     private GameState loadFromFile(Path filePath) throws GameLoadException {
+        ByteBuffer datos;
+        try (FileChannel canal = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long tamaño = canal.size();
+            if (tamaño > MAX_TAMANO_ARCHIVO) {
+                throw new GameLoadException("Archivo de guardado demasiado grande: " + tamaño + " bytes");
+            }
+            datos = ByteBuffer.allocate((int) tamaño);
+            while (datos.hasRemaining() && canal.read(datos) >= 0) {
+                // Leer hasta llenar el buffer
+            }
+            datos.flip();
+        } catch (IOException e) {
+            throw new GameLoadException("Error de E/O al cargar el archivo", e);
+        }
+
+        if (GameStateCodec.esFormatoBinario(datos)) {
+            return GameStateCodec.decodificar(datos);
+        }
+        if (GameStateCodec.esSerializacionJava(datos)) {
+            System.out.println("Importando partida guardada con el formato antiguo");
+            return loadLegacy(datos);
+        }
+        throw new GameLoadException("El archivo no contiene un estado de juego válido");
+    }
+
+    /**
+     * Lee una partida antigua escrita con ObjectOutputStream
+     */
+    private GameState loadLegacy(ByteBuffer datos) throws GameLoadException {
         try (ObjectInputStream ois = new ObjectInputStream(
-                new FileInputStream(filePath.toFile()))) {
+                new ByteArrayInputStream(datos.array(), datos.position(), datos.remaining()))) {
             
             Object obj = ois.readObject();
             if (!(obj instanceof GameState)) {
@@ -241,8 +520,11 @@ public class GameSaveManager implements GameSaveInterface {
     @Override
     public boolean hasSavedGame() {
         Path saveFile = fileHandler.getSaveFilePath();
+        Path backupFile = fileHandler.getBackupFilePath();
         try {
-            return Files.exists(saveFile) && Files.size(saveFile) > 0;
+            // Sin principal pero con backup, la partida se recupera del backup
+            return (Files.exists(saveFile) && Files.size(saveFile) > 0)
+                    || (Files.exists(backupFile) && Files.size(backupFile) > 0);
         } catch (IOException e) {
             System.err.println("Error verificando archivo guardado: " + e.getMessage());
             return false;
@@ -250,7 +532,7 @@ public class GameSaveManager implements GameSaveInterface {
     }
     
     @Override
-    public void deleteSavedGame() throws GameSaveException {
+    public synchronized void deleteSavedGame() throws GameSaveException {
         Path saveFile = fileHandler.getSaveFilePath();
         Path backupFile = fileHandler.getBackupFilePath();
         
@@ -266,6 +548,10 @@ public class GameSaveManager implements GameSaveInterface {
                 Files.delete(backupFile);
                 deletedBackup = true;
             }
+            Files.deleteIfExists(fileHandler.getTempFilePath());
+            diario.borrar();
+            diarioBackup.borrar();
+            diarioActivo = false;
             
             if (deletedMain || deletedBackup) {
                 System.out.println("✓ Archivos de guardado eliminados");
@@ -277,6 +563,41 @@ public class GameSaveManager implements GameSaveInterface {
         }
     }
     
+    /**
+     * Resumen de la partida guardada para el menú: lee solo la cabecera del archivo con una
+     * lectura posicionada y le aplica el diario, sin cargar ni decodificar la partida.
+     * @return El resumen, o null si no hay partida o su cabecera no tiene resumen (formato antiguo)
+     */
+    public synchronized SaveMetadata getSaveMetadata() {
+        for (Path archivo : new Path[]{fileHandler.getSaveFilePath(), fileHandler.getBackupFilePath()}) {
+            if (!Files.exists(archivo)) {
+                continue;
+            }
+            try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+                ByteBuffer cabecera = ByteBuffer.allocate(GameStateCodec.TAMANO_CABECERA_METADATOS);
+                long posicion = 0;
+                while (cabecera.hasRemaining()) {
+                    int leidos = canal.read(cabecera, posicion);
+                    if (leidos < 0) {
+                        break;
+                    }
+                    posicion += leidos;
+                }
+                cabecera.flip();
+                SaveMetadata metadatos = GameStateCodec.leerMetadatos(cabecera);
+                
+                MoveJournal.Lectura lectura = leerDiario(metadatos.getSaveTimestamp());
+                if (lectura != null && !lectura.jugadas.isEmpty()) {
+                    metadatos = metadatos.conJugadas(lectura.jugadas);
+                }
+                return metadatos;
+            } catch (IOException | GameLoadException e) {
+                System.err.println("No se pudo leer el resumen de " + archivo.getFileName() + ": " + e.getMessage());
+            }
+        }
+        return null;
+    }
+    
     /**
      * Obtiene información sobre los archivos de guardado
      */
@@ -337,6 +658,20 @@ public class GameSaveManager implements GameSaveInterface {
         }
     }
     
+    /**
+     * Notifica a todos los listeners que una carga se recuperó de un daño
+     * @param warning Mensaje de aviso
+     */
+    private void notifyLoadWarning(String warning) {
+        for (GameStateListener listener : listeners) {
+            try {
+                listener.onLoadWarning(warning);
+            } catch (Exception e) {
+                System.err.println("Error notificando aviso de carga: " + e.getMessage());
+            }
+        }
+    }
+    
     /**
      * Notifica a todos los listeners de un error
      * @param error Mensaje de error
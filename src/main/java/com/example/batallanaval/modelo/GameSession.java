@@ -0,0 +1,226 @@
+package com.example.batallanaval.modelo;
+
+import com.example.batallanaval.interfaces.GameCommand;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bucle de eventos de una partida: todas las órdenes que modifican su GameLogic (colocar barcos,
+ * disparar, reiniciar, capturar para guardar) se encolan aquí y se ejecutan de una en una, en el
+ * orden de llegada, así que GameLogic nunca se modifica desde dos hilos a la vez.
+ *
+ * Las sesiones no tienen hilo propio: comparten un grupo pequeño de hilos y solo ocupan uno
+ * mientras tienen órdenes pendientes, de a un lote cada vez para no acaparar el grupo.
+ * Las actualizaciones de la vista que devuelven las órdenes de un lote se publican juntas con
+ * una sola llamada al ejecutor de la vista (Platform::runLater en JavaFX).
+ *
+ * Cada sesión tiene una época: cancelarPendientes() la avanza y descarta lo que quedaba de la
+ * época anterior (órdenes encoladas o programadas y actualizaciones de vista sin publicar),
+ * por ejemplo el turno de la CPU de una partida que se acaba de reiniciar.
+ * Lo que se envía o programa desde dentro de una orden o de una actualización de vista hereda
+ * la época de esa orden y no la actual: si la partida se canceló mientras la orden se
+ * ejecutaba, lo que programe también queda descartado.
+ */
+public class GameSession {
+
+    // Órdenes por lote antes de ceder el hilo a otras sesiones
+    private static final int MAX_LOTE = 32;
+
+    private static final ScheduledExecutorService GRUPO = crearGrupo();
+
+    private final GameLogic logica;
+    private final Executor vista;
+
+    private final Object cerrojo = new Object();
+    private final ArrayDeque<Pendiente> cola = new ArrayDeque<>();
+    // true mientras hay un lote en el grupo o encolado en él
+    private boolean programada;
+    private boolean cerrada;
+    private volatile int epoca;
+    // Época de la orden o actualización de vista que se está ejecutando en este hilo
+    private final ThreadLocal<Integer> epocaEnCurso = new ThreadLocal<>();
+
+    /**
+     * Orden encolada con la época en la que se envió
+     */
+    private static final class Pendiente {
+        final GameCommand comando;
+        final int epoca;
+
+        Pendiente(GameCommand comando, int epoca) {
+            this.comando = comando;
+            this.epoca = epoca;
+        }
+    }
+
+    /**
+     * Activa la publicación de snapshots de la partida, que es como la leen la vista y el guardado
+     * @param logica Partida de la sesión; desde este momento solo se debe modificar con enviar()
+     * @param vista Ejecutor donde se publican las actualizaciones de la vista
+     */
+    public GameSession(GameLogic logica, Executor vista) {
+        this.logica = logica;
+        this.vista = vista;
+        logica.setPublicarSnapshots(true);
+    }
+
+    /**
+     * Encola una orden para ejecutarla en el bucle de la sesión
+     */
+    public void enviar(GameCommand comando) {
+        enviar(comando, epocaDeEnvio());
+    }
+
+    private void enviar(GameCommand comando, int epocaEnvio) {
+        synchronized (cerrojo) {
+            if (cerrada || epocaEnvio != epoca) {
+                return;
+            }
+            cola.add(new Pendiente(comando, epocaEnvio));
+            if (!programada) {
+                programada = true;
+                GRUPO.execute(this::drenar);
+            }
+        }
+    }
+
+    /**
+     * Encola una orden pasado un retraso, sin ocupar ningún hilo mientras espera
+     */
+    public void programar(GameCommand comando, long retrasoMillis) {
+        int epocaEnvio = epocaDeEnvio();
+        GRUPO.schedule(() -> enviar(comando, epocaEnvio), retrasoMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Publica una actualización de la vista pasado un retraso (pausas entre turnos)
+     */
+    public void programarEnVista(Runnable actualizacion, long retrasoMillis) {
+        int epocaEnvio = epocaDeEnvio();
+        GRUPO.schedule(() -> publicar(List.of(actualizacion), epocaEnvio), retrasoMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return La época de la orden en curso si se llama desde una, o la actual si no
+     */
+    private int epocaDeEnvio() {
+        Integer enCurso = epocaEnCurso.get();
+        return enCurso != null ? enCurso : epoca;
+    }
+
+    /**
+     * Descarta las órdenes encoladas o programadas y las actualizaciones de vista pendientes.
+     * Lo que se envíe después sí se ejecuta.
+     */
+    public void cancelarPendientes() {
+        synchronized (cerrojo) {
+            epoca++;
+            cola.clear();
+        }
+    }
+
+    /**
+     * Cierra la sesión: las órdenes pendientes y las que lleguen después se descartan
+     */
+    public void cerrar() {
+        synchronized (cerrojo) {
+            cerrada = true;
+            epoca++;
+            cola.clear();
+        }
+    }
+
+    /**
+     * @return La última vista inmutable de la partida, para leerla desde cualquier hilo
+     */
+    public GameSnapshot getSnapshot() {
+        return logica.getSnapshot();
+    }
+
+    /**
+     * Ejecuta un lote de órdenes y vuelve a programarse si quedan más
+     */
+    private void drenar() {
+        List<Runnable> actualizaciones = new ArrayList<>();
+        int epocaLote = epoca;
+        for (int i = 0; i < MAX_LOTE; i++) {
+            Pendiente pendiente;
+            synchronized (cerrojo) {
+                pendiente = cola.poll();
+            }
+            if (pendiente == null) {
+                break;
+            }
+            if (pendiente.epoca != epoca) {
+                continue;
+            }
+            if (pendiente.epoca != epocaLote) {
+                // La época cambió a mitad del lote: lo anterior se descarta al publicarlo
+                publicar(actualizaciones, epocaLote);
+                actualizaciones = new ArrayList<>();
+                epocaLote = pendiente.epoca;
+            }
+            epocaEnCurso.set(pendiente.epoca);
+            try {
+                Runnable actualizacion = pendiente.comando.ejecutar(logica);
+                if (actualizacion != null) {
+                    actualizaciones.add(actualizacion);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("❌ Error ejecutando una orden de la partida: " + e.getMessage());
+                e.printStackTrace();
+            } finally {
+                epocaEnCurso.remove();
+            }
+        }
+        publicar(actualizaciones, epocaLote);
+
+        synchronized (cerrojo) {
+            if (cola.isEmpty()) {
+                programada = false;
+            } else {
+                GRUPO.execute(this::drenar);
+            }
+        }
+    }
+
+    /**
+     * Publica un lote en la vista. La época se comprueba otra vez al ejecutarlo, porque la
+     * vista puede haber cancelado la partida mientras el lote esperaba su turno.
+     */
+    private void publicar(List<Runnable> actualizaciones, int epocaLote) {
+        if (actualizaciones.isEmpty()) {
+            return;
+        }
+        vista.execute(() -> {
+            if (epocaLote != epoca) {
+                return;
+            }
+            epocaEnCurso.set(epocaLote);
+            try {
+                for (Runnable actualizacion : actualizaciones) {
+                    actualizacion.run();
+                }
+            } finally {
+                epocaEnCurso.remove();
+            }
+        });
+    }
+
+    private static ScheduledExecutorService crearGrupo() {
+        int hilos = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger contador = new AtomicInteger();
+        return Executors.newScheduledThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, "game-session-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.batallanaval.modelo;
+
+import com.example.batallanaval.interfaces.ShotStrategy;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Juega partidas completas CPU contra CPU sin interfaz gráfica.
+ * Usa las mismas reglas que GameController: quien acierta vuelve a disparar y quien
+ * falla cede el turno. Una instancia se reutiliza para muchas partidas, pero no es
+ * segura entre hilos: cada hilo de simulación debe tener la suya.
+ */
+public class GameSimulator {
+
+    private static final int TOTAL_CELDAS = Constants.GRID_COLS * Constants.GRID_ROWS;
+
+    // La aleatoriedad la aporta el hilo que simula; la semilla propia de la partida no se usa
+    private final GameLogic juego = new GameLogic(0L);
+    private final FleetPlacer fleetPlacer = new FleetPlacer(Constants.GRID_COLS, Constants.GRID_ROWS);
+    private final ShotStrategy[] estrategias;
+
+    // Resultado de la última partida
+    private int ganador = -1;
+    private final int[] disparos = new int[2];
+
+    /**
+     * @param estrategiaJugador Estrategia del lado 0
+     * @param estrategiaCpu Estrategia del lado 1
+     */
+    public GameSimulator(ShotStrategy estrategiaJugador, ShotStrategy estrategiaCpu) {
+        this.estrategias = new ShotStrategy[]{estrategiaJugador, estrategiaCpu};
+        juego.setVerbose(false);
+    }
+
+    /**
+     * Juega una partida completa con flotas aleatorias en ambos lados
+     * @param random Fuente de aleatoriedad del hilo que simula
+     * @param primerTirador Lado que abre la partida: 0 o 1
+     * @return Lado ganador (0 o 1), o -1 si la partida no terminó
+     */
+    public int jugarPartida(RandomGenerator random, int primerTirador) {
+        juego.reiniciarJuego();
+        juego.colocarFlota(0, generarFlota(random));
+        juego.colocarFlota(1, generarFlota(random));
+        estrategias[0].reiniciar();
+        estrategias[1].reiniciar();
+        disparos[0] = 0;
+        disparos[1] = 0;
+        ganador = -1;
+
+        int tirador = primerTirador;
+        // Cota de seguridad: ningún lado puede disparar más veces que celdas tiene el tablero
+        while (disparos[0] + disparos[1] < 2 * TOTAL_CELDAS) {
+            ShotStrategy estrategia = estrategias[tirador];
+            int celda = estrategia.elegirDisparo(juego, tirador, random);
+            if (celda < 0) {
+                break;
+            }
+
+            String resultado = juego.jugada(celda % Constants.GRID_COLS, celda / Constants.GRID_COLS, tirador);
+            disparos[tirador]++;
+            estrategia.registrarResultado(juego, tirador, celda, resultado);
+
+            switch (resultado) {
+                case "VICTORIA_JUGADOR":
+                case "VICTORIA_CPU":
+                    ganador = tirador;
+                    return ganador;
+                case "AGUA":
+                    tirador = 1 - tirador;
+                    break;
+                case "TOCADO":
+                case "HUNDIDO":
+                    // Quien acierta vuelve a disparar
+                    break;
+                default:
+                    // YA_DISPARADO u otro resultado: la estrategia eligió mal, cede el turno
+                    tirador = 1 - tirador;
+                    break;
+            }
+        }
+        return ganador;
+    }
+
+    /**
+     * @return Lado ganador de la última partida o -1
+     */
+    public int getGanador() {
+        return ganador;
+    }
+
+    /**
+     * @return Disparos realizados por un lado en la última partida
+     */
+    public int getDisparos(int lado) {
+        return disparos[lado];
+    }
+
+    public ShotStrategy getEstrategia(int lado) {
+        return estrategias[lado];
+    }
+
+    private CpuFleetPool.Disposicion generarFlota(RandomGenerator random) {
+        CpuFleetPool.Disposicion flota = CpuFleetPool.generar(fleetPlacer, Constants.FLEET_SHIP_LENGTHS, random);
+        if (flota == null) {
+            throw new IllegalStateException("No se pudo generar una flota aleatoria");
+        }
+        return flota;
+    }
+}
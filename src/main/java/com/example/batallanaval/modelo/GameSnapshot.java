@@ -0,0 +1,281 @@
+package com.example.batallanaval.modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vista inmutable de una partida que GameLogic publica tras cada jugada y cada cambio en bloque.
+ * Se lee sin cerrojos desde cualquier hilo: nada de lo que contiene se modifica después de publicarse.
+ *
+ * Las capas (en el orden de GameDelta) se guardan como las palabras de su BitBoard. Una jugada
+ * solo copia las capas y los estados de barco que cambia y comparte el resto con el snapshot
+ * anterior, así que comparar referencias basta para saber qué cambió entre dos snapshots.
+ */
+public final class GameSnapshot {
+
+    // Disposición de cada barco empaquetada en un int: celda de origen, longitud y orientación
+    private static final int SIN_BARCO = -1;
+    private static final int BITS_ORIGEN = 16;
+    private static final int MASCARA_ORIGEN = (1 << BITS_ORIGEN) - 1;
+    private static final int BIT_VERTICAL = 1 << 30;
+
+    private final long version;
+    private final int columnas;
+    private final int filas;
+    private final long[][] capas;
+    // [flota][barco], flota 0 = jugador, 1 = CPU
+    private final int[][] barcos;
+    private final int[][] estados;
+    private final boolean gameEnded;
+    private final String winner;
+    private final long semilla;
+
+    GameSnapshot(long version, int columnas, int filas, long[][] capas, int[][] barcos, int[][] estados,
+                 boolean gameEnded, String winner, long semilla) {
+        this.version = version;
+        this.columnas = columnas;
+        this.filas = filas;
+        this.capas = capas;
+        this.barcos = barcos;
+        this.estados = estados;
+        this.gameEnded = gameEnded;
+        this.winner = winner;
+        this.semilla = semilla;
+    }
+
+    /**
+     * Crea un snapshot completo, sin compartir nada con el anterior
+     * @param capas Las seis capas en el orden de GameDelta
+     */
+    static GameSnapshot completo(long version, BitBoard[] capas, Ship[] flotaJugador, Ship[] flotaCpu,
+                                 boolean gameEnded, String winner, long semilla) {
+        long[][] palabras = new long[GameDelta.CAPAS][];
+        for (int capa = 0; capa < GameDelta.CAPAS; capa++) {
+            palabras[capa] = capas[capa].copiarPalabras();
+        }
+        Ship[][] flotas = {flotaJugador, flotaCpu};
+        int[][] barcos = new int[2][];
+        int[][] estados = new int[2][];
+        for (int flota = 0; flota < 2; flota++) {
+            barcos[flota] = new int[flotas[flota].length];
+            estados[flota] = new int[flotas[flota].length];
+            for (int i = 0; i < flotas[flota].length; i++) {
+                Ship barco = flotas[flota][i];
+                if (barco == null || barco.getSize() == 0) {
+                    barcos[flota][i] = SIN_BARCO;
+                    continue;
+                }
+                int origen = barco.getOrigenRow() * capas[0].getCols() + barco.getOrigenCol();
+                barcos[flota][i] = origen | barco.getSize() << BITS_ORIGEN | (barco.isVertical() ? BIT_VERTICAL : 0);
+                estados[flota][i] = barco.getState();
+            }
+        }
+        return new GameSnapshot(version, capas[0].getCols(), capas[0].getRows(), palabras, barcos, estados,
+                gameEnded, winner, semilla);
+    }
+
+    /**
+     * Snapshot tras una jugada: copia la capa de disparos del tirador y, si hubo impacto,
+     * la de atinación y el estado del barco tocado
+     * @param tirador 0 = jugador, 1 = CPU
+     * @param barco Posición en la flota rival del barco tocado, o -1 si no hay ninguno
+     */
+    GameSnapshot conJugada(int tirador, BitBoard disparos, BitBoard atinacion, boolean impacto,
+                           int barco, int estadoBarco, boolean terminada, String ganador) {
+        long[][] nuevasCapas = capas.clone();
+        nuevasCapas[tirador == 0 ? GameDelta.DISPAROS_PLAYER : GameDelta.DISPAROS_CPU] = disparos.copiarPalabras();
+        int[][] nuevosEstados = estados;
+        if (impacto) {
+            nuevasCapas[tirador == 0 ? GameDelta.ATINACION_CPU : GameDelta.ATINACION_PLAYER] = atinacion.copiarPalabras();
+            int flotaRival = 1 - tirador;
+            if (barco >= 0 && estados[flotaRival][barco] != estadoBarco) {
+                nuevosEstados = estados.clone();
+                nuevosEstados[flotaRival] = estados[flotaRival].clone();
+                nuevosEstados[flotaRival][barco] = estadoBarco;
+            }
+        }
+        return new GameSnapshot(version + 1, columnas, filas, nuevasCapas, barcos, nuevosEstados,
+                terminada, ganador, semilla);
+    }
+
+    /**
+     * Cambios de este snapshot respecto a uno anterior de la misma partida.
+     * Las capas y estados compartidos no se recorren; en las capas copiadas se comparan las palabras.
+     * @return Un delta completo si no hay anterior o si entre ambos hubo un cambio en bloque
+     */
+    public GameDelta cambiosDesde(GameSnapshot anterior) {
+        if (anterior == null || anterior.barcos != barcos || anterior.version > version) {
+            return GameDelta.completo();
+        }
+        int[][] celdas = new int[GameDelta.CAPAS][];
+        boolean[][] valores = new boolean[GameDelta.CAPAS][];
+        for (int capa = 0; capa < GameDelta.CAPAS; capa++) {
+            long[] actual = capas[capa];
+            long[] previa = anterior.capas[capa];
+            int total = 0;
+            if (actual != previa) {
+                for (int i = 0; i < actual.length; i++) {
+                    total += Long.bitCount(actual[i] ^ previa[i]);
+                }
+            }
+            celdas[capa] = new int[total];
+            valores[capa] = new boolean[total];
+            for (int i = 0, j = 0; j < total; i++) {
+                long diferencia = actual[i] ^ previa[i];
+                while (diferencia != 0L) {
+                    int bit = Long.numberOfTrailingZeros(diferencia);
+                    celdas[capa][j] = (i << 6) + bit;
+                    valores[capa][j++] = (actual[i] & (1L << bit)) != 0;
+                    diferencia &= diferencia - 1;
+                }
+            }
+        }
+        return new GameDelta(false, columnas, celdas, valores,
+                estadosCambiados(anterior.estados[0], estados[0]), estadosCambiados(anterior.estados[1], estados[1]));
+    }
+
+    private static int[] estadosCambiados(int[] previos, int[] actuales) {
+        if (previos == actuales) {
+            return new int[0];
+        }
+        int total = 0;
+        for (int i = 0; i < actuales.length; i++) {
+            if (previos[i] != actuales[i]) total++;
+        }
+        int[] indices = new int[total];
+        for (int i = 0, j = 0; i < actuales.length; i++) {
+            if (previos[i] != actuales[i]) indices[j++] = i;
+        }
+        return indices;
+    }
+
+    /**
+     * @return Número de publicación; crece con cada jugada o cambio en bloque
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @param capa Una de las capas de GameDelta
+     */
+    public boolean get(int capa, int col, int row) {
+        int indice = row * columnas + col;
+        return (capas[capa][indice >>> 6] & (1L << indice)) != 0;
+    }
+
+    /**
+     * @return Celdas marcadas en la capa
+     */
+    public int contar(int capa) {
+        int total = 0;
+        for (long palabra : capas[capa]) {
+            total += Long.bitCount(palabra);
+        }
+        return total;
+    }
+
+    /**
+     * Exporta una capa como una nueva matriz booleana [fila][columna]
+     */
+    public boolean[][] getMatriz(int capa) {
+        boolean[][] matriz = new boolean[filas][columnas];
+        long[] palabras = capas[capa];
+        for (int i = 0; i < palabras.length; i++) {
+            for (long palabra = palabras[i]; palabra != 0L; palabra &= palabra - 1) {
+                int indice = (i << 6) + Long.numberOfTrailingZeros(palabra);
+                matriz[indice / columnas][indice % columnas] = true;
+            }
+        }
+        return matriz;
+    }
+
+    /**
+     * @param flota 0 = jugador, 1 = CPU
+     * @return Número de posiciones de la flota, incluidas las vacías
+     */
+    public int getPosicionesFlota(int flota) {
+        return barcos[flota].length;
+    }
+
+    /**
+     * @return true si hay un barco colocado en esa posición de la flota
+     */
+    public boolean hayBarco(int flota, int barco) {
+        return barcos[flota][barco] != SIN_BARCO;
+    }
+
+    /**
+     * @return 0 = intacto, 1 = dañado, 2 = hundido
+     */
+    public int getEstadoBarco(int flota, int barco) {
+        return estados[flota][barco];
+    }
+
+    /**
+     * Busca el barco de la flota que ocupa una celda
+     * @return Su posición en la flota o -1 si la celda es agua
+     */
+    public int barcoEn(int flota, int col, int row) {
+        for (int i = 0; i < barcos[flota].length; i++) {
+            int disposicion = barcos[flota][i];
+            if (disposicion == SIN_BARCO) {
+                continue;
+            }
+            int origen = disposicion & MASCARA_ORIGEN;
+            int origenCol = origen % columnas;
+            int origenRow = origen / columnas;
+            int longitud = (disposicion & ~BIT_VERTICAL) >>> BITS_ORIGEN;
+            boolean vertical = (disposicion & BIT_VERTICAL) != 0;
+            if (vertical ? col == origenCol && row >= origenRow && row < origenRow + longitud
+                         : row == origenRow && col >= origenCol && col < origenCol + longitud) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Estado de guardado de un barco; es un objeto nuevo en cada llamada
+     */
+    public GameState.ShipState getShipState(int flota, int barco) {
+        int disposicion = barcos[flota][barco];
+        int origen = disposicion & MASCARA_ORIGEN;
+        GameState.ShipState shipState = new GameState.ShipState();
+        shipState.setLayout(origen % columnas, origen / columnas,
+                (disposicion & ~BIT_VERTICAL) >>> BITS_ORIGEN, (disposicion & BIT_VERTICAL) != 0);
+        shipState.setState(estados[flota][barco]);
+        return shipState;
+    }
+
+    /**
+     * @return Estados de guardado de los barcos colocados de la flota, en orden
+     */
+    public List<GameState.ShipState> getShipStates(int flota) {
+        List<GameState.ShipState> lista = new ArrayList<>(barcos[flota].length);
+        for (int i = 0; i < barcos[flota].length; i++) {
+            if (hayBarco(flota, i)) {
+                lista.add(getShipState(flota, i));
+            }
+        }
+        return lista;
+    }
+
+    public boolean isGameEnded() {
+        return gameEnded;
+    }
+
+    public String getWinner() {
+        return winner;
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    @Override
+    public String toString() {
+        return "GameSnapshot{version=" + version + ", disparos=" + contar(GameDelta.DISPAROS_PLAYER)
+                + "/" + contar(GameDelta.DISPAROS_CPU) + ", terminada=" + gameEnded + "}";
+    }
+}
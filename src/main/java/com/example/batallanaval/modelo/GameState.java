@@ -1,5 +1,7 @@
 package com.example.batallanaval.modelo;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.List;
 import java.util.ArrayList;
@@ -32,6 +34,10 @@ public class GameState implements Serializable {
     private String winner;
     private String playerNickname;
 
+    // Semilla de la sesión (las partidas antiguas no la tienen)
+    private long semilla;
+    private boolean semillaRegistrada;
+
     // Información de guardado
     private long saveTimestamp;
 
@@ -49,32 +55,190 @@ public class GameState implements Serializable {
         this.playerNickname = "Capitán";
     }
 
+    /**
+     * Copia para guardar en segundo plano mientras el original se sigue actualizando.
+     * Las listas de barcos son nuevas; las matrices y los ShipState se comparten porque
+     * al capturar el estado se reemplazan en lugar de modificarse.
+     */
+    public GameState copia() {
+        GameState copia = new GameState();
+        copia.matrizLimpiezaPlayer = matrizLimpiezaPlayer;
+        copia.matrizLimpiezaCpu = matrizLimpiezaCpu;
+        copia.matrizAtinacionPlayer = matrizAtinacionPlayer;
+        copia.matrizAtinacionCpu = matrizAtinacionCpu;
+        copia.matrizDisparosPlayer = matrizDisparosPlayer;
+        copia.matrizDisparosCpu = matrizDisparosCpu;
+        copia.playerShips = playerShips != null ? new ArrayList<>(playerShips) : null;
+        copia.cpuShips = cpuShips != null ? new ArrayList<>(cpuShips) : null;
+        copia.gameStarted = gameStarted;
+        copia.gameEnded = gameEnded;
+        copia.isPlayerTurn = isPlayerTurn;
+        copia.firstPlayerMove = firstPlayerMove;
+        copia.winner = winner;
+        copia.playerNickname = playerNickname;
+        copia.semilla = semilla;
+        copia.semillaRegistrada = semillaRegistrada;
+        copia.saveTimestamp = saveTimestamp;
+        return copia;
+    }
+
+    /**
+     * Copia con las celdas del delta aplicadas. Solo se copian las filas que cambian;
+     * el resto de filas se comparte con este estado, que no se modifica.
+     * Los barcos cambiados los reemplaza quien captura, porque el delta solo trae su posición.
+     */
+    public GameState conCambios(GameDelta delta) {
+        GameState copia = copia();
+        copia.matrizLimpiezaPlayer = aplicarCapa(matrizLimpiezaPlayer, delta, GameDelta.LIMPIEZA_PLAYER);
+        copia.matrizLimpiezaCpu = aplicarCapa(matrizLimpiezaCpu, delta, GameDelta.LIMPIEZA_CPU);
+        copia.matrizAtinacionPlayer = aplicarCapa(matrizAtinacionPlayer, delta, GameDelta.ATINACION_PLAYER);
+        copia.matrizAtinacionCpu = aplicarCapa(matrizAtinacionCpu, delta, GameDelta.ATINACION_CPU);
+        copia.matrizDisparosPlayer = aplicarCapa(matrizDisparosPlayer, delta, GameDelta.DISPAROS_PLAYER);
+        copia.matrizDisparosCpu = aplicarCapa(matrizDisparosCpu, delta, GameDelta.DISPAROS_CPU);
+        return copia;
+    }
+
+    private static boolean[][] aplicarCapa(boolean[][] matriz, GameDelta delta, int capa) {
+        int[] celdas = delta.getCeldas(capa);
+        if (celdas.length == 0 || matriz == null) {
+            return matriz;
+        }
+        int columnas = delta.getColumnas();
+        boolean[][] nueva = matriz.clone();
+        boolean[] copiadas = new boolean[matriz.length];
+        for (int i = 0; i < celdas.length; i++) {
+            int fila = celdas[i] / columnas;
+            if (!copiadas[fila]) {
+                nueva[fila] = nueva[fila].clone();
+                copiadas[fila] = true;
+            }
+            nueva[fila][celdas[i] % columnas] = delta.getValor(capa, i);
+        }
+        return nueva;
+    }
+
     /**
      * Clase interna para representar el estado de un barco
-     * Implementa Serializable para ser guardada junto con GameState
+     * Implementa Serializable para ser guardada junto con GameState.
+     * El barco se guarda como origen, longitud y orientación; la lista de coordenadas
+     * solo se conserva para leer partidas antiguas y ya no se escribe.
      */
     public static class ShipState implements Serializable {
         private static final long serialVersionUID = 1L;
 
+        // Formato antiguo: un int[] por segmento. Se convierte al leer y se guarda como null.
         private List<int[]> coordinates;
         private int state; // 0 = intacto, 1 = dañado, 2 = hundido
         private boolean isVertical;
         private int gridCol;
         private int gridRow;
+        private int longitud;
         private double width;
         private double height;
 
         public ShipState() {
-            this.coordinates = new ArrayList<>();
+            this.coordinates = null;
             this.state = 0;
             this.isVertical = false;
             this.gridCol = -1;
             this.gridRow = -1;
+            this.longitud = 0;
         }
 
-        // Getters y setters
-        public List<int[]> getCoordinates() { return coordinates; }
-        public void setCoordinates(List<int[]> coordinates) { this.coordinates = coordinates; }
+        /**
+         * Crea el estado de guardado de un barco de la lógica del juego
+         */
+        public static ShipState fromShip(Ship ship) {
+            ShipState shipState = new ShipState();
+            shipState.setLayout(ship.getOrigenCol(), ship.getOrigenRow(), ship.getSize(), ship.isVertical());
+            shipState.setState(ship.getState());
+            return shipState;
+        }
+
+        /**
+         * Copia con la misma disposición y otro estado, para no modificar un ShipState compartido
+         */
+        public ShipState conEstado(int nuevoEstado) {
+            ShipState copia = new ShipState();
+            copia.coordinates = coordinates;
+            copia.isVertical = isVertical;
+            copia.gridCol = gridCol;
+            copia.gridRow = gridRow;
+            copia.longitud = longitud;
+            copia.width = width;
+            copia.height = height;
+            copia.state = nuevoEstado;
+            return copia;
+        }
+
+        /**
+         * Reconstruye un barco de la lógica del juego con la disposición guardada
+         */
+        public Ship toShip() {
+            Ship ship = new Ship();
+            if (longitud > 0) {
+                ship.colocar(gridCol, gridRow, longitud, isVertical);
+            }
+            ship.setState(state);
+            return ship;
+        }
+
+        /**
+         * Establece la disposición del barco en el tablero
+         */
+        public void setLayout(int gridCol, int gridRow, int longitud, boolean isVertical) {
+            this.gridCol = gridCol;
+            this.gridRow = gridRow;
+            this.longitud = longitud;
+            this.isVertical = isVertical;
+        }
+
+        /**
+         * Obtiene la columna del segmento i sin reservar memoria
+         */
+        public int getCol(int segmento) {
+            return isVertical ? gridCol : gridCol + segmento;
+        }
+
+        /**
+         * Obtiene la fila del segmento i sin reservar memoria
+         */
+        public int getRow(int segmento) {
+            return isVertical ? gridRow + segmento : gridRow;
+        }
+
+        /**
+         * Coordenadas como lista (compatibilidad). Se generan en cada llamada.
+         */
+        public List<int[]> getCoordinates() {
+            List<int[]> result = new ArrayList<>(longitud);
+            for (int i = 0; i < longitud; i++) {
+                result.add(new int[]{getCol(i), getRow(i)});
+            }
+            return result;
+        }
+
+        /**
+         * Establece la disposición a partir de una lista de coordenadas contiguas (compatibilidad)
+         */
+        public void setCoordinates(List<int[]> coordinates) {
+            if (coordinates == null || coordinates.isEmpty()) {
+                setLayout(-1, -1, 0, false);
+                return;
+            }
+            int minCol = Integer.MAX_VALUE;
+            int minRow = Integer.MAX_VALUE;
+            boolean sameCol = true;
+            int firstCol = coordinates.get(0)[0];
+            for (int[] coord : coordinates) {
+                minCol = Math.min(minCol, coord[0]);
+                minRow = Math.min(minRow, coord[1]);
+                sameCol &= coord[0] == firstCol;
+            }
+            setLayout(minCol, minRow, coordinates.size(), sameCol && coordinates.size() > 1);
+        }
+
+        public int getLongitud() { return longitud; }
 
         public int getState() { return state; }
         public void setState(int state) { this.state = state; }
@@ -93,6 +257,19 @@ public class GameState implements Serializable {
 
         public double getHeight() { return height; }
         public void setHeight(double height) { this.height = height; }
+
+        /**
+         * Convierte las partidas guardadas con el formato antiguo de coordenadas
+         */
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            if (coordinates != null) {
+                if (longitud == 0) {
+                    setCoordinates(coordinates);
+                }
+                coordinates = null;
+            }
+        }
     }
 
     // Getters y setters para todas las propiedades
@@ -150,6 +327,13 @@ public class GameState implements Serializable {
     public String getPlayerNickname() { return playerNickname; }
     public void setPlayerNickname(String playerNickname) { this.playerNickname = playerNickname; }
 
+    public long getSemilla() { return semilla; }
+    public void setSemilla(long semilla) {
+        this.semilla = semilla;
+        this.semillaRegistrada = true;
+    }
+    public boolean hasSemilla() { return semillaRegistrada; }
+
     public long getSaveTimestamp() { return saveTimestamp; }
     public void setSaveTimestamp(long saveTimestamp) { this.saveTimestamp = saveTimestamp; }
 
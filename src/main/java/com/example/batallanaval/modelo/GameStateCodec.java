@@ -0,0 +1,416 @@
+package com.example.batallanaval.modelo;
+
+import com.example.batallanaval.exceptions.GameLoadException;
+import com.example.batallanaval.exceptions.GameSaveException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Formato binario compacto de GameState para los archivos de guardado.
+ * Sustituye a la serialización de Java: no escribe descriptores de clase, cada matriz
+ * se empaqueta a un bit por celda y cada barco ocupa dos bytes (celda de origen y
+ * longitud/orientación/estado). Una partida de 10x10 ocupa unos 150 bytes.
+ *
+ * Estructura (big-endian):
+ * <pre>
+ * int    MAGIA ("BNAV")
+ * byte   versión
+ * int    longitud del contenido (todo lo que sigue a la cabecera)
+ * int    CRC32C del contenido
+ * --- contenido ---
+ * SaveMetadata.TAMANO bytes de resumen (apodo, fecha, turno, disparos, barcos a flote)
+ * byte   filas, byte columnas
+ * byte   banderas (partida iniciada, terminada, turno del jugador, primera jugada, semilla)
+ * byte   matrices presentes (un bit por matriz, en el orden de MATRICES)
+ * long   fecha de guardado
+ * long   semilla (solo si la bandera está activa)
+ * texto  ganador, texto apodo (byte de longitud en UTF-8, 255 = null)
+ * matrices presentes, filas * columnas bits cada una, redondeado a bytes
+ * byte   barcos del jugador, 2 bytes por barco
+ * byte   barcos de la CPU, 2 bytes por barco
+ * </pre>
+ * La longitud y el CRC se comprueban antes de decodificar nada, así que un archivo
+ * truncado o dañado se rechaza sin recorrerlo; no se acepta ninguna otra versión.
+ * El resumen tiene tamaño fijo y su propio CRC, así que leerMetadatos lo obtiene de
+ * los primeros TAMANO_CABECERA_METADATOS bytes del archivo sin leer el resto.
+ * Los archivos antiguos escritos con ObjectOutputStream empiezan por 0xACED y se
+ * reconocen con esSerializacionJava para seguir pudiendo importarlos.
+ */
+public final class GameStateCodec {
+
+    public static final int MAGIA = 0x424E4156;
+    public static final byte VERSION = 3;
+
+    // Magia, versión, longitud y CRC
+    public static final int TAMANO_CABECERA = 4 + 1 + 4 + 4;
+    // Bytes que hay que leer para obtener el resumen de la partida
+    public static final int TAMANO_CABECERA_METADATOS = TAMANO_CABECERA + SaveMetadata.TAMANO;
+
+    // Cabecera de la serialización de Java (ObjectOutputStream.STREAM_MAGIC)
+    private static final short MAGIA_SERIALIZACION_JAVA = (short) 0xACED;
+
+    private static final int MATRICES = 6;
+
+    private static final int BANDERA_INICIADA = 1;
+    private static final int BANDERA_TERMINADA = 1 << 1;
+    private static final int BANDERA_TURNO_JUGADOR = 1 << 2;
+    private static final int BANDERA_PRIMERA_JUGADA = 1 << 3;
+    private static final int BANDERA_SEMILLA = 1 << 4;
+
+    private static final int TEXTO_NULL = 0xFF;
+    private static final int MAX_TEXTO = 254;
+
+    // Celda de origen de un barco sin colocar
+    private static final int SIN_ORIGEN = 0xFF;
+    // Longitud máxima que cabe en los 5 bits altos del segundo byte del barco
+    private static final int MAX_LONGITUD_CODIFICABLE = 31;
+
+    private GameStateCodec() {
+    }
+
+    /**
+     * Codifica un estado de juego
+     * @return Buffer listo para escribir (posición 0, límite al final de los datos)
+     * @throws GameSaveException Si el estado no cabe en el formato (matrices de distinto tamaño, barcos demasiado largos...)
+     */
+    public static ByteBuffer codificar(GameState estado) throws GameSaveException {
+        boolean[][][] matrices = matricesDe(estado);
+        // Sin matrices, las celdas de origen de los barcos se numeran sobre el tablero estándar
+        int filas = Constants.GRID_ROWS;
+        int columnas = Constants.GRID_COLS;
+        int presentes = 0;
+        for (int i = 0; i < MATRICES; i++) {
+            boolean[][] matriz = matrices[i];
+            if (matriz == null) {
+                continue;
+            }
+            if (matriz.length == 0 || matriz[0] == null) {
+                throw new GameSaveException("Matriz vacía en el estado del juego");
+            }
+            if (presentes == 0) {
+                filas = matriz.length;
+                columnas = matriz[0].length;
+            }
+            if (matriz.length != filas) {
+                throw new GameSaveException("Las matrices del estado tienen tamaños distintos");
+            }
+            for (boolean[] fila : matriz) {
+                if (fila == null || fila.length != columnas) {
+                    throw new GameSaveException("Las matrices del estado tienen tamaños distintos");
+                }
+            }
+            presentes |= 1 << i;
+        }
+        if (filas > 255 || columnas > 255 || filas * columnas > SIN_ORIGEN) {
+            throw new GameSaveException("Tablero demasiado grande para el formato binario: " + filas + "x" + columnas);
+        }
+
+        byte[] ganador = texto(estado.getWinner());
+        byte[] apodo = texto(estado.getPlayerNickname());
+        List<GameState.ShipState> barcosJugador = barcos(estado.getPlayerShips());
+        List<GameState.ShipState> barcosCpu = barcos(estado.getCpuShips());
+        int bytesMatriz = (filas * columnas + 7) / 8;
+
+        int tamaño = TAMANO_CABECERA_METADATOS + 2 + 1 + 1 + 8
+                + (estado.hasSemilla() ? 8 : 0)
+                + 1 + (ganador != null ? ganador.length : 0)
+                + 1 + (apodo != null ? apodo.length : 0)
+                + Integer.bitCount(presentes) * bytesMatriz
+                + 1 + 2 * barcosJugador.size()
+                + 1 + 2 * barcosCpu.size();
+
+        ByteBuffer buffer = ByteBuffer.allocate(tamaño);
+        buffer.putInt(MAGIA);
+        buffer.put(VERSION);
+        buffer.putInt(tamaño - TAMANO_CABECERA);
+        buffer.putInt(0); // CRC, se calcula al final
+        SaveMetadata.desde(estado).escribir(buffer);
+        buffer.put((byte) filas);
+        buffer.put((byte) columnas);
+
+        int banderas = 0;
+        if (estado.isGameStarted()) banderas |= BANDERA_INICIADA;
+        if (estado.isGameEnded()) banderas |= BANDERA_TERMINADA;
+        if (estado.isPlayerTurn()) banderas |= BANDERA_TURNO_JUGADOR;
+        if (estado.isFirstPlayerMove()) banderas |= BANDERA_PRIMERA_JUGADA;
+        if (estado.hasSemilla()) banderas |= BANDERA_SEMILLA;
+        buffer.put((byte) banderas);
+        buffer.put((byte) presentes);
+
+        buffer.putLong(estado.getSaveTimestamp());
+        if (estado.hasSemilla()) {
+            buffer.putLong(estado.getSemilla());
+        }
+        escribirTexto(buffer, ganador);
+        escribirTexto(buffer, apodo);
+
+        for (int i = 0; i < MATRICES; i++) {
+            if (matrices[i] != null) {
+                escribirMatriz(buffer, matrices[i], columnas, bytesMatriz);
+            }
+        }
+
+        escribirBarcos(buffer, barcosJugador, columnas);
+        escribirBarcos(buffer, barcosCpu, columnas);
+
+        buffer.flip();
+        buffer.putInt(TAMANO_CABECERA - 4, crc(buffer, TAMANO_CABECERA, buffer.limit()));
+        return buffer;
+    }
+
+    /**
+     * Comprueba la cabecera, la longitud y el CRC sin decodificar el contenido.
+     * No mueve la posición del buffer.
+     * @throws GameLoadException Si los datos no son un guardado de este formato o están truncados o dañados
+     */
+    public static void verificar(ByteBuffer buffer) throws GameLoadException {
+        int inicio = buffer.position();
+        if (buffer.remaining() < 5 || buffer.getInt(inicio) != MAGIA) {
+            throw new GameLoadException("El archivo no es una partida guardada");
+        }
+        byte version = buffer.get(inicio + 4);
+        if (version != VERSION) {
+            throw new GameLoadException("Versión de guardado no soportada: " + version);
+        }
+        if (buffer.remaining() < TAMANO_CABECERA) {
+            throw new GameLoadException("Partida guardada truncada");
+        }
+        long longitud = Integer.toUnsignedLong(buffer.getInt(inicio + 5));
+        if (longitud != buffer.remaining() - TAMANO_CABECERA) {
+            throw new GameLoadException("Longitud incorrecta en la partida guardada: se esperaban "
+                    + longitud + " bytes y hay " + (buffer.remaining() - TAMANO_CABECERA));
+        }
+        int esperado = buffer.getInt(inicio + 9);
+        if (crc(buffer, inicio + TAMANO_CABECERA, buffer.limit()) != esperado) {
+            throw new GameLoadException("Suma de comprobación incorrecta: la partida guardada está dañada");
+        }
+    }
+
+    /**
+     * Lee el resumen de la partida de la cabecera sin comprobar ni decodificar el contenido
+     * @param cabecera Al menos los primeros TAMANO_CABECERA_METADATOS bytes del archivo
+     * @throws GameLoadException Si no es un guardado con resumen o el resumen está dañado
+     */
+    public static SaveMetadata leerMetadatos(ByteBuffer cabecera) throws GameLoadException {
+        int inicio = cabecera.position();
+        if (cabecera.remaining() < TAMANO_CABECERA_METADATOS || cabecera.getInt(inicio) != MAGIA) {
+            throw new GameLoadException("El archivo no es una partida guardada");
+        }
+        byte version = cabecera.get(inicio + 4);
+        if (version != VERSION) {
+            throw new GameLoadException("Versión de guardado no soportada: " + version);
+        }
+        ByteBuffer resumen = cabecera.duplicate();
+        resumen.position(inicio + TAMANO_CABECERA);
+        return SaveMetadata.leer(resumen, version);
+    }
+
+    /**
+     * Decodifica un estado escrito con codificar, después de verificar su longitud y CRC
+     * @throws GameLoadException Si los datos no tienen el formato esperado o están truncados o dañados
+     */
+    public static GameState decodificar(ByteBuffer buffer) throws GameLoadException {
+        verificar(buffer);
+        try {
+            // El resumen se recalcula al guardar; el estado completo está en el resto
+            buffer.position(buffer.position() + TAMANO_CABECERA_METADATOS);
+            int filas = Byte.toUnsignedInt(buffer.get());
+            int columnas = Byte.toUnsignedInt(buffer.get());
+            if (filas == 0 || columnas == 0) {
+                throw new GameLoadException("Tamaño de tablero inválido en la partida guardada");
+            }
+            int banderas = buffer.get();
+            int presentes = buffer.get();
+
+            GameState estado = new GameState();
+            estado.setGameStarted((banderas & BANDERA_INICIADA) != 0);
+            estado.setGameEnded((banderas & BANDERA_TERMINADA) != 0);
+            estado.setPlayerTurn((banderas & BANDERA_TURNO_JUGADOR) != 0);
+            estado.setFirstPlayerMove((banderas & BANDERA_PRIMERA_JUGADA) != 0);
+            estado.setSaveTimestamp(buffer.getLong());
+            if ((banderas & BANDERA_SEMILLA) != 0) {
+                estado.setSemilla(buffer.getLong());
+            }
+            estado.setWinner(leerTexto(buffer));
+            estado.setPlayerNickname(leerTexto(buffer));
+
+            int bytesMatriz = (filas * columnas + 7) / 8;
+            boolean[][][] matrices = new boolean[MATRICES][][];
+            for (int i = 0; i < MATRICES; i++) {
+                if ((presentes & (1 << i)) != 0) {
+                    matrices[i] = leerMatriz(buffer, filas, columnas, bytesMatriz);
+                }
+            }
+            estado.setMatrizLimpiezaPlayer(matrices[0]);
+            estado.setMatrizLimpiezaCpu(matrices[1]);
+            estado.setMatrizAtinacionPlayer(matrices[2]);
+            estado.setMatrizAtinacionCpu(matrices[3]);
+            estado.setMatrizDisparosPlayer(matrices[4]);
+            estado.setMatrizDisparosCpu(matrices[5]);
+
+            estado.setPlayerShips(leerBarcos(buffer, columnas));
+            estado.setCpuShips(leerBarcos(buffer, columnas));
+            return estado;
+        } catch (BufferUnderflowException e) {
+            throw new GameLoadException("Partida guardada truncada", e);
+        }
+    }
+
+    /**
+     * @return true si los datos empiezan como un archivo de este formato
+     */
+    public static boolean esFormatoBinario(ByteBuffer buffer) {
+        return buffer.remaining() >= 4 && buffer.getInt(buffer.position()) == MAGIA;
+    }
+
+    /**
+     * @return true si los datos son una partida antigua escrita con ObjectOutputStream
+     */
+    public static boolean esSerializacionJava(ByteBuffer buffer) {
+        return buffer.remaining() >= 2 && buffer.getShort(buffer.position()) == MAGIA_SERIALIZACION_JAVA;
+    }
+
+    /**
+     * CRC32C de los bytes [desde, hasta) del buffer, sin mover su posición
+     */
+    static int crc(ByteBuffer buffer, int desde, int hasta) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer rango = buffer.duplicate();
+        rango.limit(hasta).position(desde);
+        crc.update(rango);
+        return (int) crc.getValue();
+    }
+
+    private static boolean[][][] matricesDe(GameState estado) {
+        return new boolean[][][]{
+                estado.getMatrizLimpiezaPlayer(),
+                estado.getMatrizLimpiezaCpu(),
+                estado.getMatrizAtinacionPlayer(),
+                estado.getMatrizAtinacionCpu(),
+                estado.getMatrizDisparosPlayer(),
+                estado.getMatrizDisparosCpu()
+        };
+    }
+
+    private static List<GameState.ShipState> barcos(List<GameState.ShipState> lista) throws GameSaveException {
+        List<GameState.ShipState> barcos = new ArrayList<>();
+        if (lista != null) {
+            for (GameState.ShipState barco : lista) {
+                if (barco != null) {
+                    barcos.add(barco);
+                }
+            }
+        }
+        if (barcos.size() > 255) {
+            throw new GameSaveException("Demasiados barcos para el formato binario: " + barcos.size());
+        }
+        return barcos;
+    }
+
+    private static byte[] texto(String valor) throws GameSaveException {
+        if (valor == null) {
+            return null;
+        }
+        byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_TEXTO) {
+            throw new GameSaveException("Texto demasiado largo para el formato binario: " + valor);
+        }
+        return bytes;
+    }
+
+    private static void escribirTexto(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.put((byte) TEXTO_NULL);
+            return;
+        }
+        buffer.put((byte) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String leerTexto(ByteBuffer buffer) {
+        int longitud = Byte.toUnsignedInt(buffer.get());
+        if (longitud == TEXTO_NULL) {
+            return null;
+        }
+        byte[] bytes = new byte[longitud];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Empaqueta la matriz a un bit por celda en orden fila * columnas + columna
+     */
+    private static void escribirMatriz(ByteBuffer buffer, boolean[][] matriz, int columnas, int bytesMatriz) {
+        byte[] bits = new byte[bytesMatriz];
+        int celda = 0;
+        for (boolean[] fila : matriz) {
+            for (int columna = 0; columna < columnas; columna++, celda++) {
+                if (fila[columna]) {
+                    bits[celda >>> 3] |= (byte) (1 << (celda & 7));
+                }
+            }
+        }
+        buffer.put(bits);
+    }
+
+    private static boolean[][] leerMatriz(ByteBuffer buffer, int filas, int columnas, int bytesMatriz) {
+        byte[] bits = new byte[bytesMatriz];
+        buffer.get(bits);
+        boolean[][] matriz = new boolean[filas][columnas];
+        for (int celda = 0; celda < filas * columnas; celda++) {
+            if ((bits[celda >>> 3] & (1 << (celda & 7))) != 0) {
+                matriz[celda / columnas][celda % columnas] = true;
+            }
+        }
+        return matriz;
+    }
+
+    /**
+     * Cada barco: celda de origen (255 si no está colocado) y un byte con
+     * la orientación (bit 0), el estado (bits 1-2) y la longitud (bits 3-7)
+     */
+    private static void escribirBarcos(ByteBuffer buffer, List<GameState.ShipState> barcos, int columnas)
+            throws GameSaveException {
+        buffer.put((byte) barcos.size());
+        for (GameState.ShipState barco : barcos) {
+            int longitud = barco.getLongitud();
+            if (longitud > MAX_LONGITUD_CODIFICABLE) {
+                throw new GameSaveException("Barco demasiado largo para el formato binario: " + longitud);
+            }
+            boolean colocado = longitud > 0 && barco.getGridCol() >= 0 && barco.getGridRow() >= 0;
+            int origen = colocado ? barco.getGridRow() * columnas + barco.getGridCol() : SIN_ORIGEN;
+            int datos = (barco.isVertical() ? 1 : 0) | ((barco.getState() & 0x3) << 1) | (longitud << 3);
+            buffer.put((byte) origen);
+            buffer.put((byte) datos);
+        }
+    }
+
+    private static List<GameState.ShipState> leerBarcos(ByteBuffer buffer, int columnas) {
+        int total = Byte.toUnsignedInt(buffer.get());
+        List<GameState.ShipState> barcos = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            int origen = Byte.toUnsignedInt(buffer.get());
+            int datos = Byte.toUnsignedInt(buffer.get());
+            boolean vertical = (datos & 1) != 0;
+            int longitud = datos >>> 3;
+
+            GameState.ShipState barco = new GameState.ShipState();
+            if (origen != SIN_ORIGEN) {
+                barco.setLayout(origen % columnas, origen / columnas, longitud, vertical);
+            } else {
+                barco.setLayout(-1, -1, longitud, vertical);
+            }
+            barco.setState((datos >>> 1) & 0x3);
+            // El tamaño en píxeles no se guarda: se deriva de la disposición
+            barco.setWidth((vertical ? 1 : longitud) * Constants.CELL_SIZE);
+            barco.setHeight((vertical ? longitud : 1) * Constants.CELL_SIZE);
+            barcos.add(barco);
+        }
+        return barcos;
+    }
+}
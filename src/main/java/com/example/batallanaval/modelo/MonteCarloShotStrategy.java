@@ -0,0 +1,254 @@
+package com.example.batallanaval.modelo;
+
+import com.example.batallanaval.interfaces.ShotStrategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+/**
+ * Estrategia Monte Carlo para el nivel de dificultad más alto.
+ * En cada turno genera miles de flotas al azar compatibles con lo que el tirador sabe
+ * (agua descubierta, barcos hundidos e impactos pendientes) y dispara a la celda
+ * desconocida que aparece ocupada en más muestras.
+ *
+ * El muestreo se reparte en tareas de un ForkJoinPool; cada hilo reutiliza sus propios
+ * buffers. Las tareas paran al agotar el presupuesto de tiempo del turno, al llegar al
+ * máximo de muestras o al cancelarse (fin o reinicio de la partida), así que la latencia
+ * por turno es fija sin importar cuántos núcleos haya.
+ *
+ * Los mapas de ocupación se guardan en una caché de transposición indexada por el hash de
+ * Zobrist de lo que sabe el tirador: si la misma situación vuelve a aparecer (en otro turno
+ * u otra partida simulada) se reutiliza el mapa sin volver a muestrear.
+ */
+public class MonteCarloShotStrategy implements ShotStrategy {
+
+    public static final String NOMBRE = "montecarlo";
+
+    private static final long PRESUPUESTO_POR_DEFECTO_NANOS = 20_000_000L;
+    private static final int MAX_MUESTRAS_POR_DEFECTO = 20_000;
+
+    // Cada cuántas muestras se consulta el reloj
+    private static final int MUESTRAS_POR_CONSULTA = 16;
+
+    // Caché compartida por las instancias creadas con la configuración por defecto
+    private static final TranspositionCache<int[]> CACHE_COMPARTIDA = crearCache(4096, 2L << 20);
+
+    private final int cols;
+    private final int rows;
+    private final int[] longitudesFlota;
+    private final long presupuestoNanos;
+    private final int maxMuestras;
+    private final ForkJoinPool pool;
+    private final TranspositionCache<int[]> cache;
+
+    // Estrategia de respaldo si no se consigue ninguna muestra a tiempo
+    private final DensityShotStrategy respaldo;
+
+    // Cambia en cada reinicio o cancelación; las tareas de una generación anterior abandonan
+    private final AtomicLong generacion = new AtomicLong();
+
+    private final ThreadLocal<Buffers> buffers;
+
+    /**
+     * Buffers de un hilo de muestreo
+     */
+    private static final class Buffers {
+        final FleetPlacer placer;
+        final int[] conteo;
+        int[] origenes = new int[0];
+        boolean[] verticales = new boolean[0];
+
+        Buffers(int cols, int rows) {
+            this.placer = new FleetPlacer(cols, rows);
+            this.conteo = new int[cols * rows];
+        }
+
+        void asegurar(int barcos) {
+            if (origenes.length < barcos) {
+                origenes = new int[barcos];
+                verticales = new boolean[barcos];
+            }
+        }
+    }
+
+    /**
+     * Crea la estrategia con el presupuesto por defecto sobre el pool común
+     */
+    public MonteCarloShotStrategy() {
+        this(Constants.GRID_COLS, Constants.GRID_ROWS, Constants.FLEET_SHIP_LENGTHS,
+                PRESUPUESTO_POR_DEFECTO_NANOS / 1_000_000L, MAX_MUESTRAS_POR_DEFECTO, ForkJoinPool.commonPool(),
+                CACHE_COMPARTIDA);
+    }
+
+    /**
+     * @param presupuestoMillis Tiempo máximo de muestreo por turno
+     * @param maxMuestras Muestras a partir de las cuales se deja de muestrear aunque sobre tiempo
+     * @param pool Pool donde se ejecutan las tareas de muestreo
+     * @param cache Caché de mapas de ocupación; solo se debe compartir entre estrategias con
+     *              el mismo tablero y la misma flota
+     */
+    public MonteCarloShotStrategy(int cols, int rows, int[] longitudesFlota,
+                                  long presupuestoMillis, int maxMuestras, ForkJoinPool pool,
+                                  TranspositionCache<int[]> cache) {
+        this.cols = cols;
+        this.rows = rows;
+        this.longitudesFlota = longitudesFlota.clone();
+        this.presupuestoNanos = presupuestoMillis * 1_000_000L;
+        this.maxMuestras = maxMuestras;
+        this.pool = pool;
+        this.cache = cache;
+        this.respaldo = new DensityShotStrategy(cols, rows, longitudesFlota);
+        this.buffers = ThreadLocal.withInitial(() -> new Buffers(cols, rows));
+    }
+
+    @Override
+    public String getNombre() {
+        return NOMBRE;
+    }
+
+    @Override
+    public void reiniciar() {
+        cancelar();
+        respaldo.reiniciar();
+    }
+
+    /**
+     * Cancela el muestreo en curso; el turno que lo lanzó responde con la estrategia de respaldo
+     */
+    @Override
+    public void cancelar() {
+        generacion.incrementAndGet();
+    }
+
+    /**
+     * Crea una caché de mapas de ocupación acotada por entradas y por bytes aproximados
+     */
+    public static TranspositionCache<int[]> crearCache(int entradas, long bytes) {
+        return new TranspositionCache<>(entradas, bytes, conteo -> 16 + 4 * conteo.length);
+    }
+
+    public TranspositionCache<int[]> getCache() {
+        return cache;
+    }
+
+    @Override
+    public int elegirDisparo(GameLogic juego, int tirador, RandomGenerator random) {
+        long hash = juego.getHashZobrist(tirador);
+        int[] guardado = cache.buscar(hash);
+        if (guardado != null) {
+            return elegirMaximo(juego, tirador, guardado, random);
+        }
+
+        long miGeneracion = generacion.get();
+        Restricciones restricciones = Restricciones.desde(juego, tirador, cols, rows, longitudesFlota);
+        if (restricciones.longitudes.length == 0) {
+            return respaldo.elegirDisparo(juego, tirador, random);
+        }
+
+        int tareas = Math.max(1, pool.getParallelism());
+        long limite = System.nanoTime() + presupuestoNanos;
+        int muestrasPorTarea = Math.max(1, maxMuestras / tareas);
+
+        List<ForkJoinTask<int[]>> lanzadas = new ArrayList<>(tareas);
+        for (int i = 0; i < tareas; i++) {
+            long semilla = random.nextLong();
+            lanzadas.add(pool.submit(() -> muestrear(restricciones, semilla, muestrasPorTarea, limite, miGeneracion)));
+        }
+
+        int[] conteo = new int[cols * rows];
+        boolean hayMuestras = false;
+        for (ForkJoinTask<int[]> tarea : lanzadas) {
+            int[] parcial = tarea.join();
+            for (int celda = 0; celda < conteo.length; celda++) {
+                conteo[celda] += parcial[celda];
+                hayMuestras |= parcial[celda] > 0;
+            }
+        }
+
+        if (!hayMuestras || generacion.get() != miGeneracion) {
+            return respaldo.elegirDisparo(juego, tirador, random);
+        }
+        // Solo se guardan mapas completos: uno de un turno cancelado no se reutiliza
+        cache.guardar(hash, conteo);
+        return elegirMaximo(juego, tirador, conteo, random);
+    }
+
+    @Override
+    public void registrarResultado(GameLogic juego, int tirador, int celda, String resultado) {
+        respaldo.registrarResultado(juego, tirador, celda, resultado);
+        if (resultado.startsWith("VICTORIA")) {
+            cancelar();
+        }
+    }
+
+    /**
+     * Tarea de muestreo: acumula la ocupación de las flotas compatibles que encuentre
+     */
+    private int[] muestrear(Restricciones restricciones, long semilla, int maxMuestrasTarea,
+                            long limite, long miGeneracion) {
+        Buffers local = buffers.get();
+        int[] longitudes = restricciones.longitudes;
+        local.asegurar(longitudes.length);
+        int[] conteo = local.conteo;
+        Arrays.fill(conteo, 0);
+
+        SplittableRandom random = new SplittableRandom(semilla);
+        int aceptadas = 0;
+        for (int intento = 1; aceptadas < maxMuestrasTarea; intento++) {
+            if (generacion.get() != miGeneracion) {
+                break;
+            }
+            if (intento % MUESTRAS_POR_CONSULTA == 0 && System.nanoTime() > limite) {
+                break;
+            }
+            // El plazo también llega al generador: una sola flota con mucho retroceso
+            // no debe pasarse del presupuesto del turno
+            if (!local.placer.colocarFlota(longitudes, restricciones.bloqueadas, random,
+                    local.origenes, local.verticales, limite)) {
+                if (System.nanoTime() > limite) {
+                    break;
+                }
+                continue;
+            }
+            if (!local.placer.cubre(restricciones.pendientes)) {
+                continue;
+            }
+            aceptadas++;
+            for (int barco = 0; barco < longitudes.length; barco++) {
+                int paso = local.verticales[barco] ? cols : 1;
+                int celda = local.origenes[barco];
+                for (int segmento = 0; segmento < longitudes[barco]; segmento++, celda += paso) {
+                    conteo[celda]++;
+                }
+            }
+        }
+        // El buffer es del hilo y se reutiliza: devolver una copia
+        return conteo.clone();
+    }
+
+    private int elegirMaximo(GameLogic juego, int tirador, int[] conteo, RandomGenerator random) {
+        int mejor = -1;
+        int mejorValor = -1;
+        int empates = 0;
+        for (int celda = 0; celda < conteo.length; celda++) {
+            if (juego.yaSeDisparo(celda % cols, celda / cols, tirador)) {
+                continue;
+            }
+            int valor = conteo[celda];
+            if (valor > mejorValor) {
+                mejor = celda;
+                mejorValor = valor;
+                empates = 1;
+            } else if (valor == mejorValor && random.nextInt(++empates) == 0) {
+                mejor = celda;
+            }
+        }
+        return mejor;
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.batallanaval.modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Diario de jugadas que se añade al final del último snapshot de la partida.
+ * Cada guardado añade un registro con sus jugadas (2 bytes por disparo) en lugar de
+ * reescribir el GameState completo; al cargar, las jugadas se vuelven a aplicar sobre
+ * el snapshot con aplicar().
+ *
+ * Estructura (big-endian):
+ * <pre>
+ * int    MAGIA ("BNJR")
+ * long   generación: fecha de guardado del snapshot al que pertenece
+ * int    CRC32C de la generación
+ * por registro:
+ *   short  número de secuencia de la primera jugada (0, 1, 2...)
+ *   byte   número de jugadas (longitud)
+ *   int    CRC32C de la secuencia, la longitud y las jugadas
+ *   por jugada:
+ *     byte   tirador (bit 7) y resultado (bits 0-1)
+ *     byte   fila (4 bits altos) y columna (4 bits bajos)
+ * </pre>
+ * Un diario de otra generación no se aplica: el snapshot se reescribió después.
+ * La lectura se detiene en el primer registro incompleto, que es lo que deja un proceso
+ * interrumpido a mitad de una escritura, o en el primero con el CRC o la secuencia
+ * incorrectos, que se informa como daño.
+ */
+final class MoveJournal {
+
+    static final int MAGIA = 0x424E4A52;
+    static final int TAMANO_CABECERA = 16;
+    static final int TAMANO_CABECERA_REGISTRO = 7;
+    static final int TAMANO_JUGADA = 2;
+
+    // La longitud del registro se guarda en un byte
+    private static final int MAX_JUGADAS_REGISTRO = 255;
+
+    // Fila y columna se guardan en 4 bits cada una
+    private static final int MAX_COORDENADA = 15;
+
+    private final Path ruta;
+
+    /**
+     * Contenido válido de un diario
+     */
+    static final class Lectura {
+        final long generacion;
+        final List<RegistroJugada> jugadas;
+        // true si la lectura se detuvo en un registro completo pero dañado
+        final boolean danado;
+
+        Lectura(long generacion, List<RegistroJugada> jugadas, boolean danado) {
+            this.generacion = generacion;
+            this.jugadas = jugadas;
+            this.danado = danado;
+        }
+    }
+
+    MoveJournal(Path ruta) {
+        this.ruta = ruta;
+    }
+
+    Path getRuta() {
+        return ruta;
+    }
+
+    /**
+     * Empieza un diario vacío para el snapshot de la generación indicada
+     */
+    void iniciar(long generacion) throws IOException {
+        ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+        cabecera.putInt(MAGIA).putLong(generacion);
+        cabecera.putInt(GameStateCodec.crc(cabecera, 4, 12)).flip();
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            escribirTodo(canal, cabecera);
+            // Sin la cabecera en disco, las jugadas siguientes no se podrían asociar al snapshot
+            canal.force(false);
+        }
+    }
+
+    /**
+     * Añade jugadas al final del diario sin forzarlas a disco: el snapshot es el punto
+     * duradero y, como mucho, se pierden las últimas jugadas si se corta la luz.
+     * @param secuencia Número de secuencia de la primera jugada
+     */
+    void anexar(List<RegistroJugada> jugadas, int secuencia) throws IOException {
+        int registros = (jugadas.size() + MAX_JUGADAS_REGISTRO - 1) / MAX_JUGADAS_REGISTRO;
+        ByteBuffer datos = ByteBuffer.allocate(registros * TAMANO_CABECERA_REGISTRO + jugadas.size() * TAMANO_JUGADA);
+        for (int desde = 0; desde < jugadas.size(); desde += MAX_JUGADAS_REGISTRO) {
+            int hasta = Math.min(jugadas.size(), desde + MAX_JUGADAS_REGISTRO);
+            int inicio = datos.position();
+            datos.putShort((short) (secuencia + desde));
+            datos.put((byte) (hasta - desde));
+            datos.putInt(0); // CRC, se calcula con las jugadas
+            for (RegistroJugada jugada : jugadas.subList(desde, hasta)) {
+                if (jugada.getCol() < 0 || jugada.getCol() > MAX_COORDENADA
+                        || jugada.getRow() < 0 || jugada.getRow() > MAX_COORDENADA) {
+                    throw new IOException("Celda fuera del rango del diario: " + jugada);
+                }
+                datos.put((byte) (jugada.getTirador() << 7 | jugada.getResultado()));
+                datos.put((byte) (jugada.getRow() << 4 | jugada.getCol()));
+            }
+            datos.putInt(inicio + 3, crcRegistro(datos, inicio, datos.position()));
+        }
+        datos.flip();
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            escribirTodo(canal, datos);
+        }
+    }
+
+    /**
+     * Lee el diario
+     * @return Generación y jugadas válidas, o null si no existe o la cabecera no es válida
+     */
+    Lectura leer() throws IOException {
+        if (!Files.exists(ruta)) {
+            return null;
+        }
+        ByteBuffer datos;
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            long tamaño = canal.size();
+            // Cada partida acaba en un snapshot; un diario mayor que 64K registros no es de este programa
+            if (tamaño < TAMANO_CABECERA
+                    || tamaño > TAMANO_CABECERA + 65_536L * (TAMANO_CABECERA_REGISTRO + TAMANO_JUGADA)) {
+                return null;
+            }
+            datos = ByteBuffer.allocate((int) tamaño);
+            while (datos.hasRemaining() && canal.read(datos) >= 0) {
+                // Leer hasta llenar el buffer
+            }
+            datos.flip();
+        }
+        if (datos.getInt(0) != MAGIA || datos.getInt(12) != GameStateCodec.crc(datos, 4, 12)) {
+            return null;
+        }
+        long generacion = datos.getLong(4);
+        datos.position(TAMANO_CABECERA);
+
+        List<RegistroJugada> jugadas = new ArrayList<>(datos.remaining() / TAMANO_JUGADA);
+        boolean danado = false;
+        while (datos.remaining() >= TAMANO_CABECERA_REGISTRO) {
+            int inicio = datos.position();
+            int secuencia = datos.getShort() & 0xFFFF;
+            int cantidad = datos.get() & 0xFF;
+            int crc = datos.getInt();
+            int fin = datos.position() + cantidad * TAMANO_JUGADA;
+            if (cantidad == 0 || fin > datos.limit()) {
+                // Registro a medio escribir: es el final del diario
+                break;
+            }
+            if (crc != crcRegistro(datos, inicio, fin) || secuencia != (jugadas.size() & 0xFFFF)) {
+                danado = true;
+                break;
+            }
+            for (int i = 0; i < cantidad; i++) {
+                int tiradorResultado = datos.get() & 0xFF;
+                int celda = datos.get() & 0xFF;
+                jugadas.add(new RegistroJugada(tiradorResultado >>> 7, celda & 0x0F, celda >>> 4,
+                        tiradorResultado & 0x03));
+            }
+        }
+        return new Lectura(generacion, jugadas, danado);
+    }
+
+    /**
+     * CRC de un registro: secuencia, longitud y jugadas, sin el propio campo del CRC
+     */
+    private static int crcRegistro(ByteBuffer datos, int inicio, int fin) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer rango = datos.duplicate();
+        rango.limit(inicio + 3).position(inicio);
+        crc.update(rango);
+        rango.limit(fin).position(inicio + TAMANO_CABECERA_REGISTRO);
+        crc.update(rango);
+        return (int) crc.getValue();
+    }
+
+    void borrar() throws IOException {
+        Files.deleteIfExists(ruta);
+    }
+
+    /**
+     * Aplica jugadas del diario sobre un estado cargado.
+     * Volver a aplicar una jugada que ya estaba en el snapshot no cambia nada.
+     */
+    static void aplicar(GameState estado, List<RegistroJugada> jugadas) {
+        for (RegistroJugada jugada : jugadas) {
+            boolean tiraJugador = jugada.getTirador() == 0;
+            boolean[][] disparos = tiraJugador ? estado.getMatrizDisparosPlayer() : estado.getMatrizDisparosCpu();
+            boolean[][] atinacion = tiraJugador ? estado.getMatrizAtinacionCpu() : estado.getMatrizAtinacionPlayer();
+            if (disparos == null || atinacion == null
+                    || jugada.getRow() >= disparos.length || jugada.getCol() >= disparos[0].length) {
+                continue;
+            }
+
+            disparos[jugada.getRow()][jugada.getCol()] = true;
+            if (jugada.esImpacto()) {
+                atinacion[jugada.getRow()][jugada.getCol()] = true;
+                actualizarBarco(tiraJugador ? estado.getCpuShips() : estado.getPlayerShips(),
+                        atinacion, jugada.getCol(), jugada.getRow());
+            }
+
+            if (tiraJugador) {
+                estado.setFirstPlayerMove(false);
+            }
+            if (jugada.getResultado() == RegistroJugada.VICTORIA) {
+                estado.setGameEnded(true);
+                estado.setWinner(tiraJugador ? "JUGADOR" : "CPU");
+                estado.setPlayerTurn(false);
+            } else {
+                estado.setPlayerTurn(turnoTras(jugada));
+            }
+        }
+    }
+
+    /**
+     * Turno tras una jugada: un fallo pasa el turno al rival, un acierto lo conserva
+     * @return true si le toca al jugador
+     */
+    static boolean turnoTras(RegistroJugada jugada) {
+        return jugada.esImpacto() == (jugada.getTirador() == 0);
+    }
+
+    /**
+     * Recalcula el estado del barco que ocupa la celda a partir de sus impactos
+     */
+    private static void actualizarBarco(List<GameState.ShipState> barcos, boolean[][] atinacion, int col, int row) {
+        if (barcos == null) {
+            return;
+        }
+        for (GameState.ShipState barco : barcos) {
+            int longitud = barco.getLongitud();
+            boolean contiene = false;
+            int impactos = 0;
+            for (int i = 0; i < longitud; i++) {
+                int c = barco.getCol(i);
+                int r = barco.getRow(i);
+                contiene |= c == col && r == row;
+                if (r >= 0 && r < atinacion.length && c >= 0 && c < atinacion[r].length && atinacion[r][c]) {
+                    impactos++;
+                }
+            }
+            if (contiene) {
+                barco.setState(impactos == longitud ? 2 : impactos > 0 ? 1 : 0);
+                return;
+            }
+        }
+    }
+
+    private static void escribirTodo(FileChannel canal, ByteBuffer datos) throws IOException {
+        while (datos.hasRemaining()) {
+            canal.write(datos);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.batallanaval.modelo;
+
+import com.example.batallanaval.interfaces.ShotStrategy;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Estrategia original de la CPU: dispara a una celda sin disparar elegida uniformemente al azar
+ */
+public class RandomShotStrategy implements ShotStrategy {
+
+    public static final String NOMBRE = "aleatoria";
+
+    @Override
+    public String getNombre() {
+        return NOMBRE;
+    }
+
+    @Override
+    public void reiniciar() {
+        // No guarda estado entre disparos
+    }
+
+    @Override
+    public int elegirDisparo(GameLogic juego, int tirador, RandomGenerator random) {
+        return juego.muestrearCeldaSinDisparar(tirador, random);
+    }
+
+    @Override
+    public void registrarResultado(GameLogic juego, int tirador, int celda, String resultado) {
+        // No aprende de los resultados
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.batallanaval.modelo;
+
+/**
+ * Una jugada ya resuelta: quién disparó, a qué celda y con qué resultado.
+ * Es lo que el diario de guardado escribe por cada disparo.
+ */
+public final class RegistroJugada {
+
+    public static final int AGUA = 0;
+    public static final int TOCADO = 1;
+    public static final int HUNDIDO = 2;
+    public static final int VICTORIA = 3;
+
+    private final int tirador;
+    private final int col;
+    private final int row;
+    private final int resultado;
+
+    public RegistroJugada(int tirador, int col, int row, int resultado) {
+        this.tirador = tirador;
+        this.col = col;
+        this.row = row;
+        this.resultado = resultado;
+    }
+
+    /**
+     * Crea el registro a partir del resultado devuelto por GameLogic.jugada
+     * @return El registro o null si el resultado no cambió el tablero (YA_DISPARADO, JUEGO_TERMINADO...)
+     */
+    public static RegistroJugada desdeResultado(int tirador, int col, int row, String resultado) {
+        switch (resultado) {
+            case "AGUA":
+                return new RegistroJugada(tirador, col, row, AGUA);
+            case "TOCADO":
+                return new RegistroJugada(tirador, col, row, TOCADO);
+            case "HUNDIDO":
+                return new RegistroJugada(tirador, col, row, HUNDIDO);
+            case "VICTORIA_JUGADOR":
+            case "VICTORIA_CPU":
+                return new RegistroJugada(tirador, col, row, VICTORIA);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @return 0 = jugador, 1 = CPU
+     */
+    public int getTirador() {
+        return tirador;
+    }
+
+    public int getCol() {
+        return col;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * @return AGUA, TOCADO, HUNDIDO o VICTORIA
+     */
+    public int getResultado() {
+        return resultado;
+    }
+
+    public boolean esImpacto() {
+        return resultado != AGUA;
+    }
+
+    @Override
+    public String toString() {
+        return "RegistroJugada{tirador=" + tirador + ", col=" + col + ", row=" + row + ", resultado=" + resultado + "}";
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.batallanaval.modelo;
+
+/**
+ * Lo que un tirador sabe del tablero rival en un turno, traducido a restricciones sobre
+ * las flotas posibles. Es inmutable una vez creado, así que las tareas de un turno
+ * cancelado nunca ven las restricciones a medio escribir del siguiente.
+ */
+final class Restricciones {
+
+    // Agua descubierta y barcos hundidos: ninguna flota posible puede ocuparlas
+    final BitBoard bloqueadas;
+    // Impactos de barcos aún a flote: toda flota posible debe cubrirlos
+    final BitBoard pendientes;
+    // Barcos que faltan por hundir, de mayor a menor
+    final int[] longitudes;
+
+    private Restricciones(BitBoard bloqueadas, BitBoard pendientes, int[] longitudes) {
+        this.bloqueadas = bloqueadas;
+        this.pendientes = pendientes;
+        this.longitudes = longitudes;
+    }
+
+    /**
+     * Lee los tableros de la partida: celdas bloqueadas (agua y barcos hundidos), impactos
+     * pendientes y barcos de la flota que faltan por hundir
+     */
+    static Restricciones desde(GameLogic juego, int tirador, int cols, int rows, int[] longitudesFlota) {
+        BitBoard bloqueadas = new BitBoard(cols, rows);
+        BitBoard pendientes = new BitBoard(cols, rows);
+        int defensor = 1 - tirador;
+
+        int[] restantes = new int[Ship.MAX_LONGITUD + 1];
+        for (int longitud : longitudesFlota) {
+            restantes[longitud]++;
+        }
+
+        for (int celda = 0; celda < cols * rows; celda++) {
+            int col = celda % cols;
+            int row = celda / cols;
+            if (!juego.yaSeDisparo(col, row, tirador)) {
+                continue;
+            }
+            if (!juego.esImpacto(col, row, tirador)) {
+                bloqueadas.set(celda);
+                continue;
+            }
+            Ship barco = juego.getBarcoEn(col, row, defensor);
+            if (barco != null && barco.isHundido()) {
+                bloqueadas.set(celda);
+                // Cada barco hundido se descuenta una sola vez, desde su primer segmento
+                if (barco.getCol(0) == col && barco.getRow(0) == row && restantes[barco.getSize()] > 0) {
+                    restantes[barco.getSize()]--;
+                }
+            } else {
+                pendientes.set(celda);
+            }
+        }
+
+        // Los barcos grandes primero: son los más difíciles de encajar
+        int total = 0;
+        for (int longitud = 1; longitud < restantes.length; longitud++) {
+            total += restantes[longitud];
+        }
+        int[] longitudes = new int[total];
+        int indice = 0;
+        for (int longitud = restantes.length - 1; longitud >= 1; longitud--) {
+            for (int i = 0; i < restantes[longitud]; i++) {
+                longitudes[indice++] = longitud;
+            }
+        }
+        return new Restricciones(bloqueadas, pendientes, longitudes);
+    }
+}
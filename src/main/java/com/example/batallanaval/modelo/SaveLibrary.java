@@ -0,0 +1,585 @@
+package com.example.batallanaval.modelo;
+
+import com.example.batallanaval.exceptions.GameLoadException;
+import com.example.batallanaval.exceptions.GameSaveException;
+import com.example.batallanaval.interfaces.GameSaveInterface;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Biblioteca de partidas guardadas en ranuras con nombre.
+ * Un único archivo de índice, mapeado en memoria, guarda por cada ranura su nombre, el
+ * segmento, la posición, la longitud y el CRC32C de la partida, y el resumen SaveMetadata.
+ * Listar, consultar y borrar ranuras solo toca el índice; las partidas se añaden al final
+ * de unos pocos archivos de segmento en lugar de ocupar un archivo cada una.
+ *
+ * Índice (big-endian):
+ * <pre>
+ * cabecera, TAMANO_CABECERA bytes:
+ *   int MAGIA ("BNIX"), int versión, int capacidad (entradas), int segmento activo, long secuencia
+ * por entrada, TAMANO_ENTRADA bytes:
+ *   byte  ocupada (se escribe la última), byte longitud del nombre, short segmento
+ *   int   longitud de la partida, long posición en el segmento, int CRC32C, int (libre)
+ *   long  secuencia (la mayor gana si un cierre deja dos entradas con el mismo nombre)
+ *   MAX_NOMBRE bytes de nombre en UTF-8, SaveMetadata.TAMANO bytes de resumen
+ * </pre>
+ * Guardar en una ranura existente escribe una entrada nueva y después libera la anterior,
+ * así que un cierre a mitad deja la versión antigua o la nueva, nunca una mezcla.
+ * Implementa el patrón Singleton para el directorio por defecto: el índice mapeado no
+ * se debe abrir dos veces.
+ */
+public class SaveLibrary {
+
+    private static final Path DIRECTORIO_POR_DEFECTO = Paths.get("battleship_saves", "library");
+    private static final String ARCHIVO_INDICE = "slots.idx";
+
+    private static final int MAGIA = 0x424E4958;
+    private static final int VERSION = 1;
+    private static final int TAMANO_CABECERA = 32;
+    private static final int TAMANO_ENTRADA = 128;
+    private static final int CAPACIDAD_INICIAL = 256;
+    public static final int MAX_NOMBRE = 40;
+
+    // Al superar este tamaño se empieza un segmento nuevo
+    private static final long TAMANO_MAX_SEGMENTO = 1L << 20;
+
+    // Cabecera
+    private static final int C_CAPACIDAD = 8;
+    private static final int C_SEGMENTO_ACTIVO = 12;
+    private static final int C_SECUENCIA = 16;
+
+    // Campos de cada entrada
+    private static final int E_OCUPADA = 0;
+    private static final int E_LONGITUD_NOMBRE = 1;
+    private static final int E_SEGMENTO = 2;
+    private static final int E_LONGITUD = 4;
+    private static final int E_POSICION = 8;
+    private static final int E_CRC = 16;
+    private static final int E_SECUENCIA = 24;
+    private static final int E_NOMBRE = 32;
+    private static final int E_METADATOS = E_NOMBRE + MAX_NOMBRE;
+
+    private static SaveLibrary instance;
+
+    private final Path directorio;
+
+    private FileChannel canalIndice;
+    private MappedByteBuffer indice;
+    private int capacidad;
+    private int segmentoActivo;
+    private long secuencia;
+
+    // Vista en memoria del índice, reconstruida al abrir
+    private final Map<String, Integer> ranuras = new HashMap<>();
+    private final ArrayDeque<Integer> libres = new ArrayDeque<>();
+    private final Map<Integer, Long> bytesVivos = new HashMap<>();
+    private final Map<Integer, FileChannel> segmentos = new HashMap<>();
+
+    /**
+     * Resumen de una ranura, leído solo del índice
+     */
+    public static final class InfoRanura {
+        private final String nombre;
+        private final SaveMetadata metadatos;
+        private final int tamano;
+
+        InfoRanura(String nombre, SaveMetadata metadatos, int tamano) {
+            this.nombre = nombre;
+            this.metadatos = metadatos;
+            this.tamano = tamano;
+        }
+
+        public String getNombre() { return nombre; }
+
+        /**
+         * @return El resumen de la partida, o null si está dañado en el índice
+         */
+        public SaveMetadata getMetadatos() { return metadatos; }
+
+        public int getTamano() { return tamano; }
+    }
+
+    public SaveLibrary(Path directorio) {
+        this.directorio = directorio;
+    }
+
+    public static synchronized SaveLibrary getInstance() {
+        if (instance == null) {
+            instance = new SaveLibrary(DIRECTORIO_POR_DEFECTO);
+        }
+        return instance;
+    }
+
+    /**
+     * Vista de una ranura como destino de guardado, para usarla con SaveWorker
+     */
+    public GameSaveInterface ranura(String nombre) {
+        validarNombre(nombre);
+        return new GameSaveInterface() {
+            @Override
+            public void saveGame(GameState gameState) throws GameSaveException {
+                guardar(nombre, gameState);
+            }
+
+            @Override
+            public GameState loadGame() throws GameLoadException {
+                return cargar(nombre);
+            }
+
+            @Override
+            public boolean hasSavedGame() {
+                return existe(nombre);
+            }
+
+            @Override
+            public void deleteSavedGame() throws GameSaveException {
+                eliminar(nombre);
+            }
+        };
+    }
+
+    /**
+     * Guarda una partida en la ranura, creándola o reemplazando la anterior
+     * @throws GameSaveException Si falla la escritura
+     */
+    public synchronized void guardar(String nombre, GameState estado) throws GameSaveException {
+        byte[] bytesNombre = validarNombre(nombre);
+        if (estado == null) {
+            throw new IllegalArgumentException("El estado del juego no puede ser null");
+        }
+        try {
+            abrir();
+            estado.setSaveTimestamp(System.currentTimeMillis());
+            ByteBuffer datos = GameStateCodec.codificar(estado);
+            byte[] metadatos = new byte[SaveMetadata.TAMANO];
+            datos.get(GameStateCodec.TAMANO_CABECERA, metadatos);
+            int crc = GameStateCodec.crc(datos, 0, datos.limit());
+
+            int longitud = datos.remaining();
+            int segmento = segmentoParaEscribir(longitud);
+            long posicion = escribirEnSegmento(segmento, datos);
+            publicar(nombre, bytesNombre, segmento, posicion, longitud, crc, metadatos);
+            System.out.println("✓ Partida guardada en la ranura \"" + nombre + "\"");
+        } catch (IOException e) {
+            throw new GameSaveException("Error al guardar en la ranura " + nombre, e);
+        }
+    }
+
+    /**
+     * Carga la partida de una ranura, comprobando el CRC del índice antes de decodificar
+     * @throws GameLoadException Si la ranura no existe o la partida está dañada
+     */
+    public synchronized GameState cargar(String nombre) throws GameLoadException {
+        try {
+            abrir();
+        } catch (IOException e) {
+            throw new GameLoadException("No se pudo abrir la biblioteca de partidas", e);
+        }
+        Integer entrada = ranuras.get(nombre);
+        if (entrada == null) {
+            throw new GameLoadException("No existe la ranura " + nombre);
+        }
+        int base = base(entrada);
+        int longitud = indice.getInt(base + E_LONGITUD);
+        ByteBuffer datos = ByteBuffer.allocate(longitud);
+        try {
+            FileChannel canal = canalSegmento(indice.getShort(base + E_SEGMENTO));
+            long posicion = indice.getLong(base + E_POSICION);
+            while (datos.hasRemaining()) {
+                if (canal.read(datos, posicion + datos.position()) < 0) {
+                    throw new GameLoadException("Partida truncada en la ranura " + nombre);
+                }
+            }
+        } catch (IOException e) {
+            throw new GameLoadException("Error de E/O al cargar la ranura " + nombre, e);
+        }
+        datos.flip();
+        if (GameStateCodec.crc(datos, 0, datos.limit()) != indice.getInt(base + E_CRC)) {
+            throw new GameLoadException("La partida de la ranura " + nombre + " está dañada");
+        }
+        return GameStateCodec.decodificar(datos);
+    }
+
+    public synchronized boolean existe(String nombre) {
+        try {
+            abrir();
+        } catch (IOException e) {
+            return false;
+        }
+        return ranuras.containsKey(nombre);
+    }
+
+    /**
+     * Elimina una ranura. El espacio del segmento se recupera al vaciarse o al compactar.
+     * @return true si la ranura existía
+     */
+    public synchronized boolean eliminar(String nombre) throws GameSaveException {
+        try {
+            abrir();
+            Integer entrada = ranuras.remove(nombre);
+            if (entrada == null) {
+                return false;
+            }
+            liberar(entrada);
+            indice.force();
+            return true;
+        } catch (IOException e) {
+            throw new GameSaveException("Error al eliminar la ranura " + nombre, e);
+        }
+    }
+
+    /**
+     * Resumen de una ranura sin leer su partida
+     * @return El resumen, o null si la ranura no existe o su resumen está dañado
+     */
+    public synchronized SaveMetadata getMetadatos(String nombre) {
+        try {
+            abrir();
+        } catch (IOException e) {
+            return null;
+        }
+        Integer entrada = ranuras.get(nombre);
+        return entrada != null ? leerMetadatos(entrada) : null;
+    }
+
+    /**
+     * Lista las ranuras, de la guardada más recientemente a la más antigua, leyendo solo el índice
+     */
+    public synchronized List<InfoRanura> listar() {
+        List<InfoRanura> lista = new ArrayList<>(ranuras.size());
+        try {
+            abrir();
+        } catch (IOException e) {
+            System.err.println("Error abriendo la biblioteca de partidas: " + e.getMessage());
+            return lista;
+        }
+        List<Map.Entry<String, Integer>> entradas = new ArrayList<>(ranuras.entrySet());
+        entradas.sort(Comparator.comparingLong(
+                (Map.Entry<String, Integer> e) -> indice.getLong(base(e.getValue()) + E_SECUENCIA)).reversed());
+        for (Map.Entry<String, Integer> e : entradas) {
+            lista.add(new InfoRanura(e.getKey(), leerMetadatos(e.getValue()),
+                    indice.getInt(base(e.getValue()) + E_LONGITUD)));
+        }
+        return lista;
+    }
+
+    public synchronized int size() {
+        try {
+            abrir();
+        } catch (IOException e) {
+            return 0;
+        }
+        return ranuras.size();
+    }
+
+    /**
+     * Mueve las partidas de los segmentos con más de la mitad del espacio libre al segmento
+     * activo y borra los segmentos que quedan vacíos
+     */
+    public synchronized void compactar() throws GameSaveException {
+        try {
+            abrir();
+            long vivosActivo = bytesVivos.getOrDefault(segmentoActivo, 0L);
+            if (vivosActivo * 2 < canalSegmento(segmentoActivo).size()) {
+                // El activo también se compacta: las partidas van a uno nuevo
+                empezarSegmento();
+            }
+            List<Integer> aCompactar = new ArrayList<>();
+            for (Map.Entry<Integer, Long> segmento : bytesVivos.entrySet()) {
+                if (segmento.getKey() != segmentoActivo
+                        && segmento.getValue() * 2 < canalSegmento(segmento.getKey()).size()) {
+                    aCompactar.add(segmento.getKey());
+                }
+            }
+            if (aCompactar.isEmpty()) {
+                return;
+            }
+            for (Map.Entry<String, Integer> ranura : new ArrayList<>(ranuras.entrySet())) {
+                int base = base(ranura.getValue());
+                int segmento = indice.getShort(base + E_SEGMENTO);
+                if (!aCompactar.contains(segmento)) {
+                    continue;
+                }
+                int longitud = indice.getInt(base + E_LONGITUD);
+                ByteBuffer datos = ByteBuffer.allocate(longitud);
+                FileChannel origen = canalSegmento(segmento);
+                long posicionOrigen = indice.getLong(base + E_POSICION);
+                while (datos.hasRemaining() && origen.read(datos, posicionOrigen + datos.position()) >= 0) {
+                    // Leer la partida completa
+                }
+                datos.flip();
+                byte[] metadatos = new byte[SaveMetadata.TAMANO];
+                indice.get(base + E_METADATOS, metadatos);
+                byte[] nombre = ranura.getKey().getBytes(StandardCharsets.UTF_8);
+
+                int destino = segmentoParaEscribir(longitud);
+                long posicion = escribirEnSegmento(destino, datos);
+                publicar(ranura.getKey(), nombre, destino, posicion, longitud, indice.getInt(base + E_CRC), metadatos);
+            }
+            System.out.println("✓ Biblioteca de partidas compactada: " + aCompactar.size() + " segmentos");
+        } catch (IOException e) {
+            throw new GameSaveException("Error al compactar la biblioteca de partidas", e);
+        }
+    }
+
+    /**
+     * Cierra el índice y los segmentos. Se vuelven a abrir en la siguiente operación.
+     */
+    public synchronized void cerrar() {
+        if (canalIndice == null) {
+            return;
+        }
+        try {
+            indice.force();
+            for (FileChannel canal : segmentos.values()) {
+                canal.close();
+            }
+            canalIndice.close();
+        } catch (IOException e) {
+            System.err.println("Error cerrando la biblioteca de partidas: " + e.getMessage());
+        }
+        segmentos.clear();
+        ranuras.clear();
+        libres.clear();
+        bytesVivos.clear();
+        indice = null;
+        canalIndice = null;
+    }
+
+    // ===== Índice =====
+
+    private void abrir() throws IOException {
+        if (canalIndice != null) {
+            return;
+        }
+        Files.createDirectories(directorio);
+        FileChannel canal = FileChannel.open(directorio.resolve(ARCHIVO_INDICE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (canal.size() == 0) {
+                capacidad = CAPACIDAD_INICIAL;
+                indice = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanoIndice(capacidad));
+                indice.putInt(0, MAGIA);
+                indice.putInt(4, VERSION);
+                indice.putInt(C_CAPACIDAD, capacidad);
+                indice.putInt(C_SEGMENTO_ACTIVO, 0);
+                indice.putLong(C_SECUENCIA, 0L);
+                indice.force();
+            } else {
+                ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+                canal.read(cabecera, 0);
+                if (cabecera.getInt(0) != MAGIA || cabecera.getInt(4) != VERSION) {
+                    throw new IOException("El índice de partidas no tiene un formato válido");
+                }
+                capacidad = cabecera.getInt(C_CAPACIDAD);
+                if (capacidad <= 0 || canal.size() < tamanoIndice(capacidad)) {
+                    throw new IOException("El índice de partidas está truncado");
+                }
+                indice = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanoIndice(capacidad));
+            }
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+        canalIndice = canal;
+        segmentoActivo = indice.getInt(C_SEGMENTO_ACTIVO);
+        secuencia = indice.getLong(C_SECUENCIA);
+        reconstruir();
+    }
+
+    /**
+     * Reconstruye la vista en memoria recorriendo las entradas una vez
+     */
+    private void reconstruir() {
+        ranuras.clear();
+        libres.clear();
+        bytesVivos.clear();
+        for (int entrada = capacidad - 1; entrada >= 0; entrada--) {
+            int base = base(entrada);
+            if (indice.get(base + E_OCUPADA) == 0) {
+                libres.push(entrada);
+                continue;
+            }
+            String nombre = leerNombre(entrada);
+            long secuenciaEntrada = indice.getLong(base + E_SECUENCIA);
+            secuencia = Math.max(secuencia, secuenciaEntrada);
+            Integer otra = ranuras.get(nombre);
+            if (otra != null) {
+                // Un guardado se cortó entre publicar la entrada nueva y liberar la antigua
+                if (indice.getLong(base(otra) + E_SECUENCIA) > secuenciaEntrada) {
+                    indice.put(base + E_OCUPADA, (byte) 0);
+                    libres.push(entrada);
+                    continue;
+                }
+                indice.put(base(otra) + E_OCUPADA, (byte) 0);
+                libres.push(otra);
+                bytesVivos.merge((int) indice.getShort(base(otra) + E_SEGMENTO),
+                        -(long) indice.getInt(base(otra) + E_LONGITUD), Long::sum);
+            }
+            ranuras.put(nombre, entrada);
+            bytesVivos.merge((int) indice.getShort(base + E_SEGMENTO),
+                    (long) indice.getInt(base + E_LONGITUD), Long::sum);
+        }
+    }
+
+    /**
+     * Escribe la entrada de una ranura y libera la que tuviera antes
+     */
+    private void publicar(String nombre, byte[] bytesNombre, int segmento, long posicion, int longitud,
+                          int crc, byte[] metadatos) throws IOException {
+        if (libres.isEmpty()) {
+            crecer();
+        }
+        int entrada = libres.pop();
+        int base = base(entrada);
+        indice.put(base + E_LONGITUD_NOMBRE, (byte) bytesNombre.length);
+        indice.putShort(base + E_SEGMENTO, (short) segmento);
+        indice.putInt(base + E_LONGITUD, longitud);
+        indice.putLong(base + E_POSICION, posicion);
+        indice.putInt(base + E_CRC, crc);
+        indice.putLong(base + E_SECUENCIA, ++secuencia);
+        indice.put(base + E_NOMBRE, new byte[MAX_NOMBRE]);
+        indice.put(base + E_NOMBRE, bytesNombre);
+        indice.put(base + E_METADATOS, metadatos);
+        // La marca de ocupada va la última: hasta aquí la entrada no existe
+        indice.put(base + E_OCUPADA, (byte) 1);
+        indice.putLong(C_SECUENCIA, secuencia);
+        bytesVivos.merge(segmento, (long) longitud, Long::sum);
+
+        Integer anterior = ranuras.put(nombre, entrada);
+        if (anterior != null) {
+            liberar(anterior);
+        }
+        indice.force();
+    }
+
+    private void liberar(int entrada) throws IOException {
+        int base = base(entrada);
+        indice.put(base + E_OCUPADA, (byte) 0);
+        libres.push(entrada);
+        int segmento = indice.getShort(base + E_SEGMENTO);
+        long vivos = bytesVivos.merge(segmento, -(long) indice.getInt(base + E_LONGITUD), Long::sum);
+        if (vivos <= 0 && segmento != segmentoActivo) {
+            // Ninguna ranura apunta ya al segmento
+            bytesVivos.remove(segmento);
+            FileChannel canal = segmentos.remove(segmento);
+            if (canal != null) {
+                canal.close();
+            }
+            Files.deleteIfExists(rutaSegmento(segmento));
+        }
+    }
+
+    /**
+     * Duplica la capacidad del índice volviendo a mapearlo con el nuevo tamaño
+     */
+    private void crecer() throws IOException {
+        int nuevaCapacidad = capacidad * 2;
+        indice.force();
+        indice = canalIndice.map(FileChannel.MapMode.READ_WRITE, 0, tamanoIndice(nuevaCapacidad));
+        for (int entrada = nuevaCapacidad - 1; entrada >= capacidad; entrada--) {
+            libres.push(entrada);
+        }
+        capacidad = nuevaCapacidad;
+        indice.putInt(C_CAPACIDAD, capacidad);
+    }
+
+    private SaveMetadata leerMetadatos(int entrada) {
+        ByteBuffer resumen = indice.duplicate();
+        resumen.position(base(entrada) + E_METADATOS);
+        try {
+            return SaveMetadata.leer(resumen, GameStateCodec.VERSION);
+        } catch (GameLoadException e) {
+            return null;
+        }
+    }
+
+    private String leerNombre(int entrada) {
+        int base = base(entrada);
+        byte[] nombre = new byte[Math.min(Byte.toUnsignedInt(indice.get(base + E_LONGITUD_NOMBRE)), MAX_NOMBRE)];
+        indice.get(base + E_NOMBRE, nombre);
+        return new String(nombre, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] validarNombre(String nombre) {
+        if (nombre == null || nombre.isEmpty()) {
+            throw new IllegalArgumentException("El nombre de la ranura no puede estar vacío");
+        }
+        byte[] bytes = nombre.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_NOMBRE) {
+            throw new IllegalArgumentException("Nombre de ranura demasiado largo (máximo " + MAX_NOMBRE + " bytes)");
+        }
+        return bytes;
+    }
+
+    private static int base(int entrada) {
+        return TAMANO_CABECERA + entrada * TAMANO_ENTRADA;
+    }
+
+    private static long tamanoIndice(int capacidad) {
+        return TAMANO_CABECERA + (long) capacidad * TAMANO_ENTRADA;
+    }
+
+    // ===== Segmentos =====
+
+    /**
+     * Segmento donde añadir una partida: el activo, o uno nuevo si el activo está lleno
+     */
+    private int segmentoParaEscribir(int longitud) throws IOException {
+        long tamaño = canalSegmento(segmentoActivo).size();
+        if (tamaño > 0 && tamaño + longitud > TAMANO_MAX_SEGMENTO) {
+            empezarSegmento();
+        }
+        return segmentoActivo;
+    }
+
+    private void empezarSegmento() {
+        do {
+            segmentoActivo = (segmentoActivo + 1) & 0x7FFF;
+        } while (Files.exists(rutaSegmento(segmentoActivo)));
+        indice.putInt(C_SEGMENTO_ACTIVO, segmentoActivo);
+    }
+
+    /**
+     * Añade los datos al final del segmento y los fuerza a disco antes de publicar la entrada
+     * @return Posición donde empiezan los datos
+     */
+    private long escribirEnSegmento(int segmento, ByteBuffer datos) throws IOException {
+        FileChannel canal = canalSegmento(segmento);
+        long posicion = canal.size();
+        long escrito = posicion;
+        while (datos.hasRemaining()) {
+            escrito += canal.write(datos, escrito);
+        }
+        canal.force(false);
+        return posicion;
+    }
+
+    private FileChannel canalSegmento(int segmento) throws IOException {
+        FileChannel canal = segmentos.get(segmento);
+        if (canal == null) {
+            canal = FileChannel.open(rutaSegmento(segmento),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segmentos.put(segmento, canal);
+        }
+        return canal;
+    }
+
+    private Path rutaSegmento(int segmento) {
+        return directorio.resolve(String.format("segment-%03d.dat", segmento));
+    }
+}
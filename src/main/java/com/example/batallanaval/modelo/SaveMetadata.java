@@ -0,0 +1,196 @@
+package com.example.batallanaval.modelo;
+
+import com.example.batallanaval.exceptions.GameLoadException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Resumen de una partida guardada que va en la cabecera del archivo, con tamaño fijo,
+ * para poder mostrarlo en el menú leyendo solo los primeros bytes del archivo.
+ *
+ * Estructura (big-endian, TAMANO bytes):
+ * <pre>
+ * long   fecha de guardado
+ * byte   banderas (partida iniciada, terminada, turno del jugador)
+ * byte   disparos del jugador, byte disparos de la CPU
+ * byte   barcos a flote del jugador, byte barcos a flote de la CPU
+ * byte   longitud del apodo, MAX_APODO bytes de apodo en UTF-8 (recortado)
+ * int    CRC32C de todo lo anterior
+ * </pre>
+ */
+public final class SaveMetadata {
+
+    public static final int MAX_APODO = 32;
+    public static final int TAMANO = 8 + 1 + 2 + 2 + 1 + MAX_APODO + 4;
+
+    private static final int BANDERA_INICIADA = 1;
+    private static final int BANDERA_TERMINADA = 1 << 1;
+    private static final int BANDERA_TURNO_JUGADOR = 1 << 2;
+
+    private final int version;
+    private final String playerNickname;
+    private final long saveTimestamp;
+    private final boolean gameStarted;
+    private final boolean gameEnded;
+    private final boolean playerTurn;
+    private final int disparosJugador;
+    private final int disparosCpu;
+    private final int barcosJugador;
+    private final int barcosCpu;
+
+    private SaveMetadata(int version, String playerNickname, long saveTimestamp, boolean gameStarted,
+                         boolean gameEnded, boolean playerTurn, int disparosJugador, int disparosCpu,
+                         int barcosJugador, int barcosCpu) {
+        this.version = version;
+        this.playerNickname = playerNickname;
+        this.saveTimestamp = saveTimestamp;
+        this.gameStarted = gameStarted;
+        this.gameEnded = gameEnded;
+        this.playerTurn = playerTurn;
+        this.disparosJugador = disparosJugador;
+        this.disparosCpu = disparosCpu;
+        this.barcosJugador = barcosJugador;
+        this.barcosCpu = barcosCpu;
+    }
+
+    /**
+     * Resume un estado de juego para escribirlo en la cabecera
+     */
+    static SaveMetadata desde(GameState estado) {
+        return new SaveMetadata(GameStateCodec.VERSION, estado.getPlayerNickname(), estado.getSaveTimestamp(),
+                estado.isGameStarted(), estado.isGameEnded(), estado.isPlayerTurn(),
+                contar(estado.getMatrizDisparosPlayer()), contar(estado.getMatrizDisparosCpu()),
+                aFlote(estado.getPlayerShips()), aFlote(estado.getCpuShips()));
+    }
+
+    /**
+     * Aplica las jugadas del diario al resumen del snapshot, sin cargar la partida
+     */
+    SaveMetadata conJugadas(List<RegistroJugada> jugadas) {
+        boolean terminada = gameEnded;
+        boolean turno = playerTurn;
+        int[] disparos = {disparosJugador, disparosCpu};
+        // Barcos a flote del rival de cada tirador
+        int[] barcosRival = {barcosCpu, barcosJugador};
+        for (RegistroJugada jugada : jugadas) {
+            int tirador = jugada.getTirador();
+            disparos[tirador]++;
+            if (jugada.getResultado() == RegistroJugada.HUNDIDO || jugada.getResultado() == RegistroJugada.VICTORIA) {
+                barcosRival[tirador] = Math.max(0, barcosRival[tirador] - 1);
+            }
+            if (jugada.getResultado() == RegistroJugada.VICTORIA) {
+                terminada = true;
+                turno = false;
+            } else {
+                turno = MoveJournal.turnoTras(jugada);
+            }
+        }
+        return new SaveMetadata(version, playerNickname, saveTimestamp, gameStarted, terminada, turno,
+                disparos[0], disparos[1], barcosRival[1], barcosRival[0]);
+    }
+
+    void escribir(ByteBuffer buffer) {
+        int inicio = buffer.position();
+        buffer.putLong(saveTimestamp);
+        int banderas = 0;
+        if (gameStarted) banderas |= BANDERA_INICIADA;
+        if (gameEnded) banderas |= BANDERA_TERMINADA;
+        if (playerTurn) banderas |= BANDERA_TURNO_JUGADOR;
+        buffer.put((byte) banderas);
+        buffer.put((byte) disparosJugador);
+        buffer.put((byte) disparosCpu);
+        buffer.put((byte) barcosJugador);
+        buffer.put((byte) barcosCpu);
+
+        byte[] apodo = recortar(playerNickname);
+        buffer.put((byte) apodo.length);
+        buffer.put(apodo);
+        buffer.position(buffer.position() + MAX_APODO - apodo.length);
+        buffer.putInt(GameStateCodec.crc(buffer, inicio, buffer.position()));
+    }
+
+    /**
+     * Lee el resumen desde la posición actual del buffer
+     * @throws GameLoadException Si el CRC no coincide
+     */
+    static SaveMetadata leer(ByteBuffer buffer, int version) throws GameLoadException {
+        int inicio = buffer.position();
+        int esperado = buffer.getInt(inicio + TAMANO - 4);
+        if (GameStateCodec.crc(buffer, inicio, inicio + TAMANO - 4) != esperado) {
+            throw new GameLoadException("Suma de comprobación incorrecta en la cabecera de la partida guardada");
+        }
+        long fecha = buffer.getLong();
+        int banderas = buffer.get();
+        int disparosJugador = Byte.toUnsignedInt(buffer.get());
+        int disparosCpu = Byte.toUnsignedInt(buffer.get());
+        int barcosJugador = Byte.toUnsignedInt(buffer.get());
+        int barcosCpu = Byte.toUnsignedInt(buffer.get());
+        int longitudApodo = Math.min(Byte.toUnsignedInt(buffer.get()), MAX_APODO);
+        byte[] bytesApodo = new byte[longitudApodo];
+        buffer.get(bytesApodo);
+        String apodo = new String(bytesApodo, StandardCharsets.UTF_8);
+        buffer.position(inicio + TAMANO);
+        return new SaveMetadata(version, apodo, fecha, (banderas & BANDERA_INICIADA) != 0,
+                (banderas & BANDERA_TERMINADA) != 0, (banderas & BANDERA_TURNO_JUGADOR) != 0,
+                disparosJugador, disparosCpu, barcosJugador, barcosCpu);
+    }
+
+    private static byte[] recortar(String apodo) {
+        if (apodo == null) {
+            return new byte[0];
+        }
+        byte[] bytes = apodo.getBytes(StandardCharsets.UTF_8);
+        // Recortar por caracteres para no partir una secuencia UTF-8
+        while (bytes.length > MAX_APODO) {
+            apodo = apodo.substring(0, apodo.offsetByCodePoints(apodo.length(), -1));
+            bytes = apodo.getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+
+    private static int contar(boolean[][] matriz) {
+        int total = 0;
+        if (matriz != null) {
+            for (boolean[] fila : matriz) {
+                for (boolean celda : fila) {
+                    if (celda) {
+                        total++;
+                    }
+                }
+            }
+        }
+        return Math.min(total, 255);
+    }
+
+    private static int aFlote(List<GameState.ShipState> barcos) {
+        int total = 0;
+        if (barcos != null) {
+            for (GameState.ShipState barco : barcos) {
+                if (barco != null && barco.getState() != 2) {
+                    total++;
+                }
+            }
+        }
+        return Math.min(total, 255);
+    }
+
+    public int getVersion() { return version; }
+    public String getPlayerNickname() { return playerNickname; }
+    public long getSaveTimestamp() { return saveTimestamp; }
+    public boolean isGameStarted() { return gameStarted; }
+    public boolean isGameEnded() { return gameEnded; }
+    public boolean isPlayerTurn() { return playerTurn; }
+    public int getDisparosJugador() { return disparosJugador; }
+    public int getDisparosCpu() { return disparosCpu; }
+    public int getBarcosJugador() { return barcosJugador; }
+    public int getBarcosCpu() { return barcosCpu; }
+
+    @Override
+    public String toString() {
+        return "SaveMetadata{" + playerNickname + ", fecha=" + saveTimestamp + ", turnoJugador=" + playerTurn
+                + ", disparos=" + disparosJugador + "/" + disparosCpu
+                + ", barcos=" + barcosJugador + "/" + barcosCpu + ", terminada=" + gameEnded + "}";
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.batallanaval.modelo;
+
+import com.example.batallanaval.exceptions.GameSaveException;
+import com.example.batallanaval.interfaces.GameSaveInterface;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hilo único de guardado en segundo plano.
+ * Los auto-guardados dejan su estado en un buzón de una sola plaza: si llega uno nuevo
+ * antes de que se escriba el anterior, el anterior se descarta, porque solo importa el
+ * último estado de la partida. Las jugadas enviadas con el estado no se descartan: se
+ * acumulan y se pasan juntas a saveMoves para que el diario las tenga todas.
+ * Como hay un único hilo escritor, dos guardados nunca se solapan sobre el mismo
+ * archivo y no se crea un hilo por jugada.
+ * El resultado de cada guardado se notifica con los listeners del GameSaveManager
+ * (onGameSaved / onSaveError). Implementa el patrón Singleton: GameController y
+ * GameManager escriben el mismo archivo y deben compartir el hilo.
+ */
+public class SaveWorker {
+
+    // Espera máxima del último guardado al cerrar la JVM sin pasar por cerrar()
+    private static final long ESPERA_CIERRE_MILLIS = 2_000L;
+
+    private static SaveWorker instance;
+
+    private final Object cerrojo = new Object();
+    // Serializa las escrituras del hilo y las síncronas (guardado manual, envíos tras el cierre)
+    private final Object escritura = new Object();
+
+    // Buzón: último estado pendiente de escribir y dónde escribirlo
+    private GameSaveInterface destinoPendiente;
+    private GameState estadoPendiente;
+    // Jugadas acumuladas desde la última escritura; completoPendiente pide el estado entero
+    private final List<RegistroJugada> jugadasPendientes = new ArrayList<>();
+    private boolean completoPendiente;
+
+    private boolean escribiendo;
+    private boolean cerrado;
+    private Thread hilo;
+    private boolean ganchoRegistrado;
+
+    // Estadísticas
+    private long guardados;
+    private long descartados;
+
+    private SaveWorker() {
+    }
+
+    public static synchronized SaveWorker getInstance() {
+        if (instance == null) {
+            instance = new SaveWorker();
+        }
+        return instance;
+    }
+
+    /**
+     * Encola un estado para guardarlo en segundo plano, reemplazando al pendiente si lo hay.
+     * El estado no se debe modificar después de enviarlo. Si el hilo ya se cerró, se guarda
+     * en el hilo que llama para no perderlo.
+     */
+    public void enviar(GameSaveInterface destino, GameState estado) {
+        enviar(destino, estado, null);
+    }
+
+    /**
+     * Encola un estado junto con las jugadas que lo produjeron, para guardarlo con saveMoves.
+     * Si se reemplaza un estado pendiente, sus jugadas se conservan y se escriben con este.
+     * @param jugadas Jugadas desde el envío anterior, o null para guardar el estado completo
+     */
+    public void enviar(GameSaveInterface destino, GameState estado, List<RegistroJugada> jugadas) {
+        synchronized (cerrojo) {
+            if (!cerrado) {
+                if (estadoPendiente != null) {
+                    descartados++;
+                }
+                if (destinoPendiente != null && destinoPendiente != destino) {
+                    // Las jugadas anteriores eran de otro destino: este recibe el estado completo
+                    jugadasPendientes.clear();
+                    completoPendiente = true;
+                }
+                destinoPendiente = destino;
+                estadoPendiente = estado;
+                if (jugadas == null) {
+                    completoPendiente = true;
+                } else {
+                    jugadasPendientes.addAll(jugadas);
+                }
+                iniciarSiHaceFalta();
+                cerrojo.notifyAll();
+                return;
+            }
+        }
+        escribir(destino, estado, jugadas);
+    }
+
+    /**
+     * Guarda un estado de forma síncrona (guardado manual), sin solaparse con el hilo.
+     * Si el auto-guardado pendiente es del mismo destino se descarta, porque es más antiguo
+     * que este estado; si es de otro (por ejemplo, guardar en una ranura de la biblioteca)
+     * se conserva con sus jugadas.
+     * @throws GameSaveException Si falla la escritura
+     */
+    public void guardar(GameSaveInterface destino, GameState estado) throws GameSaveException {
+        synchronized (cerrojo) {
+            if (estadoPendiente != null && destinoPendiente == destino) {
+                descartados++;
+                destinoPendiente = null;
+                estadoPendiente = null;
+                // El estado completo incluye las jugadas pendientes
+                jugadasPendientes.clear();
+                completoPendiente = false;
+                cerrojo.notifyAll();
+            }
+        }
+        synchronized (escritura) {
+            destino.saveGame(estado);
+        }
+    }
+
+    /**
+     * Espera a que se escriba el estado pendiente y el guardado en curso
+     * @param timeoutMillis Tiempo máximo de espera
+     * @return true si no queda nada por guardar
+     */
+    public boolean vaciar(long timeoutMillis) {
+        long limite = System.currentTimeMillis() + timeoutMillis;
+        synchronized (cerrojo) {
+            while (estadoPendiente != null || escribiendo) {
+                long restante = limite - System.currentTimeMillis();
+                if (restante <= 0) {
+                    return false;
+                }
+                try {
+                    cerrojo.wait(restante);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Escribe lo pendiente y detiene el hilo. Los envíos posteriores se guardan de forma síncrona.
+     * @param timeoutMillis Tiempo máximo de espera para el último guardado
+     */
+    public void cerrar(long timeoutMillis) {
+        boolean vacio = vaciar(timeoutMillis);
+        synchronized (cerrojo) {
+            cerrado = true;
+            cerrojo.notifyAll();
+        }
+        if (!vacio) {
+            System.err.println("⚠️ El último auto-guardado no terminó antes del cierre");
+        }
+    }
+
+    public long getGuardados() {
+        synchronized (cerrojo) {
+            return guardados;
+        }
+    }
+
+    /**
+     * @return Estados reemplazados por otro más reciente antes de llegar a escribirse
+     */
+    public long getDescartados() {
+        synchronized (cerrojo) {
+            return descartados;
+        }
+    }
+
+    private void iniciarSiHaceFalta() {
+        if (hilo != null) {
+            return;
+        }
+        // Daemon: el cierre ordenado vacía el buzón con cerrar(); el hilo no bloquea la salida
+        hilo = new Thread(this::ejecutar, "save-worker");
+        hilo.setDaemon(true);
+        hilo.start();
+
+        // Si la JVM se cierra sin pasar por cerrar() (Ctrl+C, cierre del sistema), escribir lo pendiente
+        if (!ganchoRegistrado) {
+            ganchoRegistrado = true;
+            Runtime.getRuntime().addShutdownHook(
+                    new Thread(() -> cerrar(ESPERA_CIERRE_MILLIS), "save-worker-cierre"));
+        }
+    }
+
+    private void ejecutar() {
+        while (true) {
+            GameSaveInterface destino;
+            GameState estado;
+            List<RegistroJugada> jugadas;
+            synchronized (cerrojo) {
+                while (estadoPendiente == null && !cerrado) {
+                    try {
+                        cerrojo.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (estadoPendiente == null) {
+                    hilo = null;
+                    return;
+                }
+                destino = destinoPendiente;
+                estado = estadoPendiente;
+                jugadas = completoPendiente ? null : new ArrayList<>(jugadasPendientes);
+                destinoPendiente = null;
+                estadoPendiente = null;
+                jugadasPendientes.clear();
+                completoPendiente = false;
+                escribiendo = true;
+            }
+
+            boolean correcto = escribir(destino, estado, jugadas);
+
+            synchronized (cerrojo) {
+                escribiendo = false;
+                if (correcto) {
+                    guardados++;
+                }
+                cerrojo.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Guarda el estado. Los errores ya se notifican a los listeners desde saveGame / saveMoves
+     */
+    private boolean escribir(GameSaveInterface destino, GameState estado, List<RegistroJugada> jugadas) {
+        try {
+            synchronized (escritura) {
+                if (jugadas == null) {
+                    destino.saveGame(estado);
+                } else {
+                    destino.saveMoves(estado, jugadas);
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            System.err.println("❌ Error en auto-guardado: " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -5,17 +5,54 @@ import java.io.Serializable;
 
 public class Ship implements Serializable {
     // AÑADIDO: serialVersionUID para una serialización segura.
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
+
+    // Longitud máxima representable por la máscara de impactos
+    public static final int MAX_LONGITUD = 64;
+
+    // Disposición compacta: origen, longitud y orientación (sin un int[] por segmento)
+    private int origenCol = -1;
+    private int origenRow = -1;
+    private int longitud = 0;
+    private boolean vertical = false;
+
+    // Bit i encendido = segmento i impactado
+    private long mascaraImpactos = 0L;
 
-    // CORREGIDO: Usar List en lugar de Map para almacenar múltiples coordenadas
-    List<int[]> coordinates = new ArrayList<>();
     private int state = 0; // 0 = intacto, 1 = dañado, 2 = hundido
+    private int vidaRestante = 0; // Segmentos que aún no han sido impactados
 
     /**
-     * Constructor por defecto
+     * Constructor por defecto (barco sin colocar)
      */
     public Ship() {
-        // La ArrayList ya está inicializada arriba
+    }
+
+    /**
+     * Crea un barco ya colocado en el tablero
+     * @param col Columna del segmento de origen
+     * @param row Fila del segmento de origen
+     * @param longitud Número de segmentos
+     * @param vertical true si el barco se extiende hacia abajo, false si hacia la derecha
+     */
+    public Ship(int col, int row, int longitud, boolean vertical) {
+        colocar(col, row, longitud, vertical);
+    }
+
+    /**
+     * Coloca el barco en el tablero y reinicia sus impactos
+     */
+    public void colocar(int col, int row, int longitud, boolean vertical) {
+        if (longitud < 0 || longitud > MAX_LONGITUD) {
+            throw new IllegalArgumentException("Longitud de barco inválida: " + longitud);
+        }
+        this.origenCol = col;
+        this.origenRow = row;
+        this.longitud = longitud;
+        this.vertical = vertical && longitud > 1;
+        this.mascaraImpactos = 0L;
+        this.vidaRestante = longitud;
+        this.state = 0;
     }
 
     /**
@@ -34,11 +71,52 @@ public class Ship implements Serializable {
         this.state = state;
     }
 
+    public int getOrigenCol() {
+        return origenCol;
+    }
+
+    public int getOrigenRow() {
+        return origenRow;
+    }
+
+    public boolean isVertical() {
+        return vertical;
+    }
+
+    /**
+     * Obtiene la columna del segmento i sin reservar memoria
+     */
+    public int getCol(int segmento) {
+        return vertical ? origenCol : origenCol + segmento;
+    }
+
+    /**
+     * Obtiene la fila del segmento i sin reservar memoria
+     */
+    public int getRow(int segmento) {
+        return vertical ? origenRow + segmento : origenRow;
+    }
+
     /**
-     * CORREGIDO: Obtiene las coordenadas del barco como List
+     * Obtiene el índice del segmento que ocupa una coordenada
+     * @return Índice del segmento o -1 si el barco no ocupa esa coordenada
+     */
+    public int indiceSegmento(int col, int row) {
+        int segmento = vertical ? row - origenRow : col - origenCol;
+        int fijo = vertical ? col - origenCol : row - origenRow;
+        return fijo == 0 && segmento >= 0 && segmento < longitud ? segmento : -1;
+    }
+
+    /**
+     * Obtiene las coordenadas del barco como List (compatibilidad).
+     * Reserva una lista nueva en cada llamada; para recorridos frecuentes usar getCol/getRow.
      * @return List con arrays [col, row] de las coordenadas del barco
      */
     public List<int[]> getCoordinates() {
+        List<int[]> coordinates = new ArrayList<>(longitud);
+        for (int i = 0; i < longitud; i++) {
+            coordinates.add(new int[]{getCol(i), getRow(i)});
+        }
         return coordinates;
     }
 
@@ -47,53 +125,125 @@ public class Ship implements Serializable {
      * @return Número total de coordenadas que ocupa el barco
      */
     public int getSize() {
-        return coordinates.size();
+        return longitud;
     }
 
     /**
-     * CORREGIDO: Verifica si el barco contiene una coordenada específica
+     * Verifica si el barco contiene una coordenada específica
      * @param col Columna a verificar
      * @param row Fila a verificar
      * @return true si el barco ocupa esa coordenada
      */
     public boolean containsCoordinate(int col, int row) {
-        for (int[] coordinate : coordinates) {
-            int shipCol = coordinate[0]; // columna del barco
-            int shipRow = coordinate[1]; // fila del barco
-
-            if (shipCol == col && shipRow == row) {
-                return true;
-            }
-        }
-        return false;
+        return indiceSegmento(col, row) >= 0;
     }
 
     /**
-     * CORREGIDO: Añade una coordenada al barco
+     * Añade una coordenada al barco (compatibilidad).
+     * Las coordenadas deben añadirse en orden y ser contiguas en una misma fila o columna.
      * @param col Columna
      * @param row Fila
      */
     public void addCoordinate(int col, int row) {
-        coordinates.add(new int[]{col, row});
+        if (longitud == 0) {
+            colocar(col, row, 1, false);
+            return;
+        }
+
+        if (longitud == 1 && col == origenCol && row == origenRow + 1) {
+            vertical = true;
+        }
+
+        if (col != getCol(longitud) || row != getRow(longitud) || longitud == MAX_LONGITUD) {
+            throw new IllegalArgumentException("Coordenada no contigua al barco: (" + col + "," + row + ")");
+        }
+        longitud++;
+        vidaRestante++;
     }
 
     /**
      * Limpia todas las coordenadas del barco
      */
     public void clearCoordinates() {
-        coordinates.clear();
+        colocar(-1, -1, 0, false);
+    }
+
+    /**
+     * Obtiene los segmentos del barco que aún no han sido impactados
+     * @return Puntos de vida restantes del barco
+     */
+    public int getVidaRestante() {
+        return vidaRestante;
+    }
+
+    /**
+     * @return Máscara de segmentos impactados (bit i = segmento i)
+     */
+    public long getMascaraImpactos() {
+        return mascaraImpactos;
+    }
+
+    public boolean isSegmentoImpactado(int segmento) {
+        return (mascaraImpactos & (1L << segmento)) != 0L;
+    }
+
+    /**
+     * Registra un impacto sobre la coordenada indicada y actualiza el estado del barco.
+     * Un segundo impacto sobre el mismo segmento no descuenta vida.
+     * @return true si el impacto hundió el barco
+     */
+    public boolean registrarImpacto(int col, int row) {
+        int segmento = indiceSegmento(col, row);
+        if (segmento >= 0 && !isSegmentoImpactado(segmento)) {
+            mascaraImpactos |= 1L << segmento;
+            vidaRestante--;
+        }
+        actualizarEstado();
+        return vidaRestante == 0;
+    }
+
+    /**
+     * Reconstruye los impactos del barco a partir de una capa de impactos
+     * (por ejemplo al restaurar una partida guardada)
+     * @param atinacion Capa de impactos del tablero donde está el barco
+     */
+    public void sincronizarImpactos(BitBoard atinacion) {
+        mascaraImpactos = 0L;
+        for (int i = 0; i < longitud; i++) {
+            if (atinacion.get(getCol(i), getRow(i))) {
+                mascaraImpactos |= 1L << i;
+            }
+        }
+        vidaRestante = longitud - Long.bitCount(mascaraImpactos);
+        actualizarEstado();
+    }
+
+    /**
+     * @return true si todos los segmentos del barco fueron impactados
+     */
+    public boolean isHundido() {
+        return longitud > 0 && vidaRestante == 0;
+    }
+
+    private void actualizarEstado() {
+        if (mascaraImpactos == 0L) {
+            state = 0;
+        } else {
+            state = vidaRestante == 0 ? 2 : 1;
+        }
     }
 
     /**
-     * NUEVO: Método de compatibilidad para obtener coordenadas como Map (para el código existente)
+     * Método de compatibilidad para obtener coordenadas como Map (para el código existente).
+     * @deprecated Reserva un mapa nuevo en cada llamada; usar getCol/getRow.
      * @return Map simulado con las coordenadas del barco
      */
+    @Deprecated
     public java.util.Map<Integer, Integer> getCoordinatesAsMap() {
         java.util.Map<Integer, Integer> map = new java.util.HashMap<>();
-        for (int i = 0; i < coordinates.size(); i++) {
-            int[] coord = coordinates.get(i);
+        for (int i = 0; i < longitud; i++) {
             // Usar el índice como clave para evitar sobrescribir
-            map.put(i, coord[0] * 100 + coord[1]); // Codificar col y row en un entero
+            map.put(i, getCol(i) * 100 + getRow(i)); // Codificar col y row en un entero
         }
         return map;
     }
@@ -104,16 +254,14 @@ public class Ship implements Serializable {
         sb.append("Ship{state=").append(state);
         sb.append(", coordinates=[");
 
-        boolean first = true;
-        for (int[] coordinate : coordinates) {
-            if (!first) {
+        for (int i = 0; i < longitud; i++) {
+            if (i > 0) {
                 sb.append(", ");
             }
-            sb.append("(").append(coordinate[0]).append(",").append(coordinate[1]).append(")");
-            first = false;
+            sb.append("(").append(getCol(i)).append(",").append(getRow(i)).append(")");
         }
 
         sb.append("]}");
         return sb.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,96 @@
+package com.example.batallanaval.modelo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Conjunto de celdas a las que un tirador todavía no ha disparado.
+ * Las celdas se guardan de forma densa en un arreglo y cada celda conoce su posición,
+ * así que eliminar una celda (intercambio con la última) y sacar una celda
+ * uniformemente al azar cuestan O(1).
+ */
+public class ShotCandidateSet {
+
+    private final int[] celdas;
+    private final int[] posiciones;
+    private int size;
+
+    /**
+     * Crea el conjunto con todas las celdas del tablero disponibles
+     * @param totalCeldas Número de celdas del tablero
+     */
+    public ShotCandidateSet(int totalCeldas) {
+        this.celdas = new int[totalCeldas];
+        this.posiciones = new int[totalCeldas];
+        reiniciar();
+    }
+
+    /**
+     * Vuelve a marcar todas las celdas como disponibles
+     */
+    public void reiniciar() {
+        for (int i = 0; i < celdas.length; i++) {
+            celdas[i] = i;
+            posiciones[i] = i;
+        }
+        size = celdas.length;
+    }
+
+    /**
+     * Reconstruye el conjunto con las celdas que no aparecen en la capa de disparos
+     * (por ejemplo al restaurar una partida guardada)
+     */
+    public void reconstruir(BitBoard disparos) {
+        size = 0;
+        for (int celda = 0; celda < celdas.length; celda++) {
+            if (disparos.get(celda)) {
+                posiciones[celda] = -1;
+            } else {
+                celdas[size] = celda;
+                posiciones[celda] = size++;
+            }
+        }
+    }
+
+    /**
+     * Quita una celda del conjunto intercambiándola con la última
+     * @return true si la celda estaba disponible
+     */
+    public boolean eliminar(int celda) {
+        int posicion = posiciones[celda];
+        if (posicion < 0) {
+            return false;
+        }
+        int ultima = celdas[--size];
+        celdas[posicion] = ultima;
+        posiciones[ultima] = posicion;
+        posiciones[celda] = -1;
+        return true;
+    }
+
+    public boolean contiene(int celda) {
+        return posiciones[celda] >= 0;
+    }
+
+    /**
+     * Devuelve una celda disponible elegida uniformemente al azar, sin quitarla
+     * @return Índice de la celda o -1 si no quedan celdas
+     */
+    public int muestrear(RandomGenerator random) {
+        return size == 0 ? -1 : celdas[random.nextInt(size)];
+    }
+
+    /**
+     * @return Número total de celdas del tablero
+     */
+    public int capacidad() {
+        return celdas.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
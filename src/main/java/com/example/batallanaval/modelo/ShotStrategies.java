@@ -0,0 +1,64 @@
+package com.example.batallanaval.modelo;
+
+import com.example.batallanaval.interfaces.ShotStrategy;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Registro de las estrategias de disparo disponibles, por nombre.
+ * Lo usan el controlador para elegir la estrategia de la CPU y las herramientas sin
+ * interfaz (simulaciones y benchmark). Cada llamada a crear() devuelve una instancia
+ * nueva, porque las estrategias guardan estado de una sola partida.
+ */
+public final class ShotStrategies {
+
+    // Estrategia de la CPU en las partidas normales
+    public static final String POR_DEFECTO = DensityShotStrategy.NOMBRE;
+
+    private static final Map<String, Supplier<ShotStrategy>> FABRICAS = new LinkedHashMap<>();
+
+    static {
+        registrar(RandomShotStrategy.NOMBRE, RandomShotStrategy::new);
+        registrar(DensityShotStrategy.NOMBRE, DensityShotStrategy::new);
+        registrar(MonteCarloShotStrategy.NOMBRE, MonteCarloShotStrategy::new);
+        registrar(EndgameShotStrategy.NOMBRE, EndgameShotStrategy::new);
+    }
+
+    private ShotStrategies() {
+    }
+
+    /**
+     * Registra una estrategia; si el nombre ya existe, se reemplaza
+     */
+    public static synchronized void registrar(String nombre, Supplier<ShotStrategy> fabrica) {
+        FABRICAS.put(nombre, fabrica);
+    }
+
+    /**
+     * Crea una instancia nueva de la estrategia indicada
+     * @throws IllegalArgumentException Si no hay ninguna estrategia con ese nombre
+     */
+    public static synchronized ShotStrategy crear(String nombre) {
+        Supplier<ShotStrategy> fabrica = FABRICAS.get(nombre);
+        if (fabrica == null) {
+            throw new IllegalArgumentException("Estrategia desconocida: " + nombre + ". Disponibles: " + FABRICAS.keySet());
+        }
+        return fabrica.get();
+    }
+
+    public static synchronized boolean existe(String nombre) {
+        return FABRICAS.containsKey(nombre);
+    }
+
+    /**
+     * @return Nombres registrados, en orden de registro
+     */
+    public static synchronized Set<String> nombres() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(FABRICAS.keySet()));
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.batallanaval.modelo;
+
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+/**
+ * Caché acotada de evaluaciones de la IA indexada por hash de Zobrist.
+ * Guarda como mucho un número fijo de entradas y un peso total (por ejemplo, bytes
+ * aproximados de cada valor). Cuando hace falta espacio expulsa entradas con el
+ * algoritmo CLOCK: cada acierto marca la entrada como usada y la manecilla solo
+ * expulsa entradas que no se han usado desde su última vuelta.
+ *
+ * La búsqueda usa una tabla de direccionamiento abierto sobre arreglos primitivos,
+ * sin objetos por entrada. Es segura entre hilos (los métodos están sincronizados),
+ * así que la pueden compartir los hilos de una simulación.
+ *
+ * @param <V> Tipo de la evaluación guardada; no se debe modificar después de guardarla
+ */
+public class TranspositionCache<V> {
+
+    private final int capacidad;
+    private final long pesoMaximo;
+    private final ToIntFunction<V> pesador;
+
+    // Entradas, por ranura
+    private final long[] claves;
+    private final Object[] valores;
+    private final int[] pesos;
+    private final boolean[] usadas;
+    private final boolean[] ocupadas;
+
+    // Tabla hash: posición -> ranura + 1 (0 = vacía)
+    private final int[] indice;
+    private final int mascara;
+
+    // Ranuras libres, como pila
+    private final int[] libres;
+    private int totalLibres;
+
+    private int manecilla;
+    private long pesoTotal;
+
+    // Estadísticas
+    private long aciertos;
+    private long fallos;
+    private long expulsiones;
+
+    /**
+     * @param capacidad Número máximo de entradas
+     * @param pesoMaximo Peso total máximo de las entradas
+     * @param pesador Calcula el peso de un valor (debe ser positivo)
+     */
+    public TranspositionCache(int capacidad, long pesoMaximo, ToIntFunction<V> pesador) {
+        if (capacidad <= 0 || pesoMaximo <= 0) {
+            throw new IllegalArgumentException("Capacidad de caché inválida: " + capacidad + " / " + pesoMaximo);
+        }
+        this.capacidad = capacidad;
+        this.pesoMaximo = pesoMaximo;
+        this.pesador = pesador;
+        this.claves = new long[capacidad];
+        this.valores = new Object[capacidad];
+        this.pesos = new int[capacidad];
+        this.usadas = new boolean[capacidad];
+        this.ocupadas = new boolean[capacidad];
+
+        // Factor de carga máximo del 50%
+        int tamañoIndice = Integer.highestOneBit(Math.max(2, capacidad * 2 - 1)) << 1;
+        this.indice = new int[tamañoIndice];
+        this.mascara = tamañoIndice - 1;
+
+        this.libres = new int[capacidad];
+        for (int i = 0; i < capacidad; i++) {
+            libres[i] = capacidad - 1 - i;
+        }
+        this.totalLibres = capacidad;
+    }
+
+    /**
+     * Busca la evaluación guardada para un hash
+     * @return El valor o null si no está en la caché
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized V buscar(long clave) {
+        int posicion = buscarPosicion(clave);
+        if (posicion < 0) {
+            fallos++;
+            return null;
+        }
+        int ranura = indice[posicion] - 1;
+        usadas[ranura] = true;
+        aciertos++;
+        return (V) valores[ranura];
+    }
+
+    /**
+     * Guarda (o reemplaza) la evaluación de un hash, expulsando entradas si hace falta.
+     * Un valor más pesado que toda la caché no se guarda.
+     */
+    public synchronized void guardar(long clave, V valor) {
+        int peso = pesador.applyAsInt(valor);
+        if (peso <= 0 || peso > pesoMaximo) {
+            return;
+        }
+
+        int posicion = buscarPosicion(clave);
+        if (posicion >= 0) {
+            int ranura = indice[posicion] - 1;
+            pesoTotal += peso - pesos[ranura];
+            valores[ranura] = valor;
+            pesos[ranura] = peso;
+            usadas[ranura] = true;
+            while (pesoTotal > pesoMaximo) {
+                expulsar();
+            }
+            return;
+        }
+
+        while (totalLibres == 0 || pesoTotal + peso > pesoMaximo) {
+            expulsar();
+        }
+
+        int ranura = libres[--totalLibres];
+        claves[ranura] = clave;
+        valores[ranura] = valor;
+        pesos[ranura] = peso;
+        usadas[ranura] = false;
+        ocupadas[ranura] = true;
+        pesoTotal += peso;
+
+        int i = inicio(clave);
+        while (indice[i] != 0) {
+            i = (i + 1) & mascara;
+        }
+        indice[i] = ranura + 1;
+    }
+
+    /**
+     * Vacía la caché sin reiniciar las estadísticas
+     */
+    public synchronized void limpiar() {
+        Arrays.fill(indice, 0);
+        Arrays.fill(valores, null);
+        Arrays.fill(ocupadas, false);
+        for (int i = 0; i < capacidad; i++) {
+            libres[i] = capacidad - 1 - i;
+        }
+        totalLibres = capacidad;
+        pesoTotal = 0;
+        manecilla = 0;
+    }
+
+    public synchronized int size() {
+        return capacidad - totalLibres;
+    }
+
+    public synchronized long getPesoTotal() {
+        return pesoTotal;
+    }
+
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    public synchronized long getFallos() {
+        return fallos;
+    }
+
+    public synchronized long getExpulsiones() {
+        return expulsiones;
+    }
+
+    /**
+     * @return Fracción de búsquedas que encontraron la entrada (0 si aún no hubo búsquedas)
+     */
+    public synchronized double getTasaAciertos() {
+        long total = aciertos + fallos;
+        return total == 0 ? 0.0 : (double) aciertos / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("TranspositionCache{entradas=%d/%d, peso=%d/%d, aciertos=%d, fallos=%d, tasa=%.1f%%, expulsiones=%d}",
+                size(), capacidad, pesoTotal, pesoMaximo, aciertos, fallos, 100.0 * getTasaAciertos(), expulsiones);
+    }
+
+    /**
+     * Avanza la manecilla hasta encontrar una entrada no usada y la expulsa
+     */
+    private void expulsar() {
+        while (true) {
+            int ranura = manecilla;
+            manecilla = (manecilla + 1) % capacidad;
+            if (!ocupadas[ranura]) {
+                continue;
+            }
+            if (usadas[ranura]) {
+                usadas[ranura] = false;
+                continue;
+            }
+            quitarDelIndice(claves[ranura]);
+            valores[ranura] = null;
+            ocupadas[ranura] = false;
+            pesoTotal -= pesos[ranura];
+            libres[totalLibres++] = ranura;
+            expulsiones++;
+            return;
+        }
+    }
+
+    private int buscarPosicion(long clave) {
+        int i = inicio(clave);
+        while (indice[i] != 0) {
+            if (claves[indice[i] - 1] == clave) {
+                return i;
+            }
+            i = (i + 1) & mascara;
+        }
+        return -1;
+    }
+
+    /**
+     * Quita una clave del índice y recoloca las siguientes de su racha (borrado por desplazamiento)
+     */
+    private void quitarDelIndice(long clave) {
+        int hueco = buscarPosicion(clave);
+        if (hueco < 0) {
+            return;
+        }
+        int i = hueco;
+        while (true) {
+            i = (i + 1) & mascara;
+            if (indice[i] == 0) {
+                break;
+            }
+            int deseada = inicio(claves[indice[i] - 1]);
+            // La entrada en i puede ocupar el hueco si su posición deseada no está entre el hueco e i
+            boolean puedeMoverse = hueco <= i
+                    ? deseada <= hueco || deseada > i
+                    : deseada <= hueco && deseada > i;
+            if (puedeMoverse) {
+                indice[hueco] = indice[i];
+                hueco = i;
+            }
+        }
+        indice[hueco] = 0;
+    }
+
+    private int inicio(long clave) {
+        return (int) (clave ^ (clave >>> 32)) & mascara;
+    }
+}
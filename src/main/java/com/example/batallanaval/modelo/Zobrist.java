@@ -0,0 +1,85 @@
+package com.example.batallanaval.modelo;
+
+import java.util.SplittableRandom;
+
+/**
+ * Claves de Zobrist para resumir en 64 bits lo que un tirador sabe del tablero rival.
+ * Cada celda tiene una clave aleatoria por capa (disparada, impactada); el hash de un
+ * tablero es el XOR de las claves de sus celdas marcadas, así que marcar o desmarcar
+ * una celda actualiza el hash con un solo XOR.
+ * Los barcos hundidos llevan una clave por barco (origen, longitud y orientación) y no por
+ * celda: los barcos pueden tocarse, y dos fragatas hundidas juntas no dejan la misma flota
+ * pendiente que un destructor hundido en las mismas dos celdas.
+ * Las claves salen de una semilla fija: el mismo tablero da el mismo hash en cualquier
+ * partida, hilo o ejecución.
+ */
+public final class Zobrist {
+
+    public static final int CAPA_DISPARO = 0;
+    public static final int CAPA_IMPACTO = 1;
+
+    private static final long SEMILLA = 0x2545F4914F6CDD1DL;
+
+    private static final long[][] CLAVES = new long[2][Constants.GRID_COLS * Constants.GRID_ROWS];
+    // [vertical][longitud][celda de origen]; ningún barco es más largo que el lado del tablero
+    private static final long[][][] CLAVES_HUNDIDO =
+            new long[2][Math.max(Constants.GRID_COLS, Constants.GRID_ROWS) + 1][Constants.GRID_COLS * Constants.GRID_ROWS];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEMILLA);
+        for (long[] capa : CLAVES) {
+            for (int celda = 0; celda < capa.length; celda++) {
+                capa[celda] = random.nextLong();
+            }
+        }
+        for (long[][] orientacion : CLAVES_HUNDIDO) {
+            for (long[] longitud : orientacion) {
+                for (int celda = 0; celda < longitud.length; celda++) {
+                    longitud[celda] = random.nextLong();
+                }
+            }
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @return Clave de una celda en una capa
+     */
+    public static long clave(int capa, int celda) {
+        return CLAVES[capa][celda];
+    }
+
+    /**
+     * @return Clave de un barco hundido
+     */
+    public static long claveHundido(Ship barco) {
+        // Un barco de una celda es igual en ambas orientaciones
+        int vertical = barco.isVertical() && barco.getSize() > 1 ? 1 : 0;
+        int origen = barco.getOrigenRow() * Constants.GRID_COLS + barco.getOrigenCol();
+        return CLAVES_HUNDIDO[vertical][barco.getSize()][origen];
+    }
+
+    /**
+     * Calcula desde cero el hash de lo que sabe un tirador
+     * @param disparos Celdas disparadas
+     * @param impactos Celdas disparadas que resultaron impacto
+     * @param flotaRival Barcos del rival; cuentan los que ya están hundidos
+     */
+    public static long calcular(BitBoard disparos, BitBoard impactos, Ship[] flotaRival) {
+        long hash = 0L;
+        for (int celda = disparos.nextSetBit(0); celda >= 0; celda = disparos.nextSetBit(celda + 1)) {
+            hash ^= CLAVES[CAPA_DISPARO][celda];
+        }
+        for (int celda = impactos.nextSetBit(0); celda >= 0; celda = impactos.nextSetBit(celda + 1)) {
+            hash ^= CLAVES[CAPA_IMPACTO][celda];
+        }
+        for (Ship barco : flotaRival) {
+            if (barco != null && barco.isHundido()) {
+                hash ^= claveHundido(barco);
+            }
+        }
+        return hash;
+    }
+}
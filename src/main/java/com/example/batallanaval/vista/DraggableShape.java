@@ -11,6 +11,7 @@ import java.util.HashMap;
 import java.util.Map;
 import com.example.batallanaval.modelo.Constants;
 import com.example.batallanaval.modelo.GameLogic;
+import com.example.batallanaval.modelo.GameSession;
 
 public class DraggableShape {
 
@@ -32,8 +33,13 @@ public class DraggableShape {
     private final int widthCells;
     private final int heightCells;
 
-    // Referencia a la lógica del juego para manejar colisiones
-    private GameLogic gameLogic;
+    // Sesión de la partida: las colisiones se resuelven con órdenes en su bucle de eventos
+    private GameSession sesion;
+
+    // Celdas que ocupa el barco en GameLogic (columna, fila, ancho, alto) o null.
+    // Solo lo leen y escriben las órdenes de la sesión, así que no depende de cuándo
+    // se publique la posición en la vista.
+    private int[] colocacionLogica;
 
     // Callback para notificar cambios de posición
     private Runnable positionChangeCallback;
@@ -49,11 +55,11 @@ public class DraggableShape {
     // Sistema de overlays para mostrar impactos
     private Map<String, Rectangle> cellOverlays = new HashMap<>();
 
-    public DraggableShape(double widthPx, double heightPx, String imagePath, GameLogic logic, Runnable callback) {
+    public DraggableShape(double widthPx, double heightPx, String imagePath, GameSession sesion, Runnable callback) {
         // Guardar dimensiones originales
         this.originalWidth = widthPx;
         this.originalHeight = heightPx;
-        this.gameLogic = logic;
+        this.sesion = sesion;
         this.positionChangeCallback = callback;
 
         // Calcular dimensiones en celdas basándose en las dimensiones en píxeles
@@ -202,9 +208,7 @@ public class DraggableShape {
 
                 // Liberar las celdas ocupadas cuando se comienza a arrastrar
                 if (currentGridCol >= 0 && currentGridRow >= 0) {
-                    int currentWidthCells = isVertical ? heightCells : widthCells;
-                    int currentHeightCells = isVertical ? widthCells : heightCells;
-                    gameLogic.removeShip(currentGridCol, currentGridRow, currentWidthCells, currentHeightCells);
+                    sesion.enviar(this::liberarCeldas);
                     System.out.println("Liberando celdas del barco en posición: (" + currentGridCol + ", " + currentGridRow + ")");
 
                     // Actualizar coordenadas actuales
@@ -260,9 +264,7 @@ public class DraggableShape {
             if (event.getButton() == MouseButton.SECONDARY) {
                 // Liberar celdas actuales antes de rotar
                 if (currentGridCol >= 0 && currentGridRow >= 0) {
-                    int currentWidthCells = isVertical ? heightCells : widthCells;
-                    int currentHeightCells = isVertical ? widthCells : heightCells;
-                    gameLogic.removeShip(currentGridCol, currentGridRow, currentWidthCells, currentHeightCells);
+                    sesion.enviar(this::liberarCeldas);
                 }
 
                 // Guardar posición actual para mantener el barco en la misma zona
@@ -319,7 +321,7 @@ public class DraggableShape {
                 currentTranslateY < playerBoardStartY ||
                 currentTranslateY + getCurrentHeight() > playerBoardEndY) {
             System.out.println("El barco está fuera del área del tablero del jugador");
-            returnToValidPosition();
+            colocarEnTablero(0, 0);
             return;
         }
 
@@ -351,87 +353,79 @@ public class DraggableShape {
 
         System.out.println("Celda ajustada para snap: (" + snapCol + ", " + snapRow + ")");
 
-        // Buscar la posición válida más cercana (verificar colisiones)
-        int[] validPosition = gameLogic.findNearestValidPosition(snapCol, snapRow, currentWidthCells, currentHeightCells);
-
-        if (validPosition != null) {
-            int finalCol = validPosition[0];
-            int finalRow = validPosition[1];
-
-            // CÁLCULO EXACTO DE COORDENADAS FINALES
-            double snappedX = playerBoardStartX + (finalCol * Constants.CELL_SIZE);
-            double snappedY = playerBoardStartY + (finalRow * Constants.CELL_SIZE);
-
-            System.out.println("Posición final calculada: (" + snappedX + ", " + snappedY + ")");
-
-            // Posicionar el barco perfectamente alineado con las celdas
-            group.setTranslateX(snappedX);
-            group.setTranslateY(snappedY);
-
-            // Marcar las celdas como ocupadas
-            gameLogic.placeShip(finalCol, finalRow, currentWidthCells, currentHeightCells);
-
-            // Actualizar coordenadas actuales
-            currentGridCol = finalCol;
-            currentGridRow = finalRow;
-
-            // Obtener y mostrar todas las coordenadas ocupadas
-            int[][] occupiedCoordinates = gameLogic.getShipCoordinates(finalCol, finalRow, currentWidthCells, currentHeightCells);
-            System.out.println("✓ Barco colocado exitosamente en posición: (" + finalCol + ", " + finalRow + ")");
-            System.out.print("Coordenadas ocupadas: ");
-            for (int i = 0; i < occupiedCoordinates.length; i++) {
-                System.out.print("(" + occupiedCoordinates[i][0] + "," + occupiedCoordinates[i][1] + ")");
-                if (i < occupiedCoordinates.length - 1) {
-                    System.out.print(", ");
-                }
-            }
-            System.out.println();
-            System.out.println("Posición final en píxeles: (" + snappedX + ", " + snappedY + ")");
-            System.out.println("=== FIN DEBUGGING SNAP ===");
+        colocarEnTablero(snapCol, snapRow);
+    }
 
-            // Notificar el cambio de posición
-            if (positionChangeCallback != null) {
-                positionChangeCallback.run();
-            }
-        } else {
-            System.out.println("¡No hay espacio disponible para colocar el barco en esa posición!");
-            returnToValidPosition();
+    /**
+     * Libera en GameLogic las celdas que ocupa el barco. Se ejecuta en el bucle de la sesión.
+     */
+    private Runnable liberarCeldas(GameLogic logica) {
+        if (colocacionLogica != null) {
+            logica.removeShip(colocacionLogica[0], colocacionLogica[1], colocacionLogica[2], colocacionLogica[3]);
+            colocacionLogica = null;
         }
+        return null;
+    }
+
+    /**
+     * Ocupa en GameLogic las celdas de una posición ya conocida (al restaurar una partida).
+     * Solo se debe llamar desde una orden de la sesión.
+     */
+    public void ocuparCeldas(GameLogic logica, int col, int row, int anchoCeldas, int altoCeldas) {
+        liberarCeldas(logica);
+        logica.placeShip(col, row, anchoCeldas, altoCeldas);
+        colocacionLogica = new int[]{col, row, anchoCeldas, altoCeldas};
     }
 
     /**
-     * Devuelve el barco a una posición válida dentro del tablero del jugador
+     * Coloca el barco en la posición válida más cercana a la celda indicada (verificando
+     * colisiones) o, si no la hay, en cualquier posición válida del tablero.
+     * La búsqueda y la ocupación de celdas son una sola orden de la sesión; la vista se
+     * actualiza cuando la sesión publica el resultado.
      */
-    private void returnToValidPosition() {
+    private void colocarEnTablero(int preferredCol, int preferredRow) {
         // Obtener dimensiones actuales en celdas considerando orientación
         int currentWidthCells = isVertical ? heightCells : widthCells;
         int currentHeightCells = isVertical ? widthCells : heightCells;
 
-        // Buscar cualquier posición válida en el tablero
-        int[] validPosition = gameLogic.findNearestValidPosition(0, 0, currentWidthCells, currentHeightCells);
+        sesion.enviar(logica -> {
+            liberarCeldas(logica);
+            int[] validPosition = logica.findNearestValidPosition(preferredCol, preferredRow, currentWidthCells, currentHeightCells);
+            if (validPosition == null) {
+                validPosition = logica.findNearestValidPosition(0, 0, currentWidthCells, currentHeightCells);
+            }
+            if (validPosition != null) {
+                // Marcar las celdas como ocupadas
+                logica.placeShip(validPosition[0], validPosition[1], currentWidthCells, currentHeightCells);
+                colocacionLogica = new int[]{validPosition[0], validPosition[1], currentWidthCells, currentHeightCells};
+            }
+            int[] posicion = validPosition;
+            return () -> mostrarColocacion(posicion);
+        });
+    }
 
-        if (validPosition != null) {
-            int finalCol = validPosition[0];
-            int finalRow = validPosition[1];
+    /**
+     * Mueve el barco a la posición que eligió la sesión, o fuera del tablero si no había espacio
+     */
+    private void mostrarColocacion(int[] posicion) {
+        if (posicion != null) {
+            int finalCol = posicion[0];
+            int finalRow = posicion[1];
 
-            // Usar las mismas coordenadas exactas que en snapToPlayerBoardOnly
+            // CÁLCULO EXACTO DE COORDENADAS FINALES
             double snappedX = Constants.BOARD_START_X + (finalCol * Constants.CELL_SIZE);
             double snappedY = Constants.BOARD_START_Y + (finalRow * Constants.CELL_SIZE);
 
+            // Posicionar el barco perfectamente alineado con las celdas
             group.setTranslateX(snappedX);
             group.setTranslateY(snappedY);
 
-            gameLogic.placeShip(finalCol, finalRow, currentWidthCells, currentHeightCells);
+            // Actualizar coordenadas actuales
             currentGridCol = finalCol;
             currentGridRow = finalRow;
 
-            System.out.println("Barco reubicado automáticamente en posición válida: (" + finalCol + ", " + finalRow + ")");
-            System.out.println("Posición en píxeles: (" + snappedX + ", " + snappedY + ")");
-
-            // Notificar el cambio de posición
-            if (positionChangeCallback != null) {
-                positionChangeCallback.run();
-            }
+            System.out.println("✓ Barco colocado exitosamente en posición: (" + finalCol + ", " + finalRow + ")");
+            System.out.println("Posición final en píxeles: (" + snappedX + ", " + snappedY + ")");
         } else {
             // Si no hay posición válida, mover el barco fuera del tablero (debajo)
             double fallbackX = 50;
@@ -441,11 +435,11 @@ public class DraggableShape {
             currentGridCol = -1;
             currentGridRow = -1;
             System.out.println("No hay espacio en el tablero. Barco movido fuera del tablero.");
+        }
 
-            // Notificar el cambio de posición
-            if (positionChangeCallback != null) {
-                positionChangeCallback.run();
-            }
+        // Notificar el cambio de posición
+        if (positionChangeCallback != null) {
+            positionChangeCallback.run();
         }
     }
 
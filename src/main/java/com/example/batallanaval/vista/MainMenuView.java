@@ -3,6 +3,7 @@ package com.example.batallanaval.vista;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.ChoiceDialog;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextInputDialog;
 import javafx.scene.layout.VBox;
@@ -15,7 +16,13 @@ import javafx.geometry.Insets;
 
 import com.example.batallanaval.interfaces.MenuInterface;
 import com.example.batallanaval.interfaces.MenuListener;
+import com.example.batallanaval.modelo.SaveLibrary;
+import com.example.batallanaval.modelo.SaveMetadata;
 
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -27,6 +34,10 @@ public class MainMenuView implements MenuInterface {
     private Scene menuScene;
     private MenuListener menuListener;
     
+    // Tarjeta "Continuar" con el resumen de la partida guardada
+    private VBox continueCard;
+    private Label continueDetailsLabel;
+    
     public MainMenuView(Stage stage) {
         this.stage = stage;
         createMenuScene();
@@ -43,6 +54,9 @@ public class MainMenuView implements MenuInterface {
         subtitleLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 16));
         subtitleLabel.setTextFill(Color.DARKRED);
         
+        // Tarjeta Continuar: oculta hasta que haya un resumen de partida guardada
+        continueCard = createContinueCard();
+        
         // Botón Nueva Partida
         Button newGameButton = createButton("🚢 NUEVA PARTIDA", "#4CAF50");
         newGameButton.setOnAction(e -> {
@@ -64,18 +78,73 @@ public class MainMenuView implements MenuInterface {
             }
         });
         
+        // Botón Partidas Guardadas: biblioteca de ranuras con nombre
+        Button slotsButton = createButton("💾 PARTIDAS GUARDADAS", "#FF9800");
+        slotsButton.setOnAction(e -> {
+            if (menuListener != null) {
+                menuListener.onSlotsRequested();
+            }
+        });
+        
         // Botón Salir
         Button exitButton = createButton("🚪 SALIR", "#f44336");
         exitButton.setOnAction(e -> stage.close());
         
         // Contenedor principal
-        VBox mainContainer = new VBox(30);
+        VBox mainContainer = new VBox(20);
         mainContainer.setAlignment(Pos.CENTER);
         mainContainer.setPadding(new Insets(50));
         mainContainer.setStyle("-fx-background-color: linear-gradient(to bottom, #e3f2fd, #bbdefb);");
-        mainContainer.getChildren().addAll(titleLabel, subtitleLabel, newGameButton, loadGameButton, exitButton);
+        mainContainer.getChildren().addAll(titleLabel, subtitleLabel, continueCard, newGameButton, loadGameButton, slotsButton, exitButton);
         
-        menuScene = new Scene(mainContainer, 600, 500);
+        menuScene = new Scene(mainContainer, 600, 700);
+    }
+    
+    private VBox createContinueCard() {
+        Label cardTitle = new Label("▶ CONTINUAR PARTIDA");
+        cardTitle.setFont(Font.font("Arial", FontWeight.BOLD, 16));
+        cardTitle.setTextFill(Color.WHITE);
+        
+        continueDetailsLabel = new Label();
+        continueDetailsLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 13));
+        continueDetailsLabel.setTextFill(Color.WHITE);
+        
+        VBox card = new VBox(6, cardTitle, continueDetailsLabel);
+        card.setAlignment(Pos.CENTER_LEFT);
+        card.setPadding(new Insets(12, 18, 12, 18));
+        card.setMaxWidth(300);
+        card.setStyle("-fx-background-color: #1565C0; -fx-background-radius: 10; -fx-cursor: hand;");
+        card.setOnMouseClicked(e -> {
+            hideMenu();
+            if (menuListener != null) {
+                menuListener.onLoadGameRequested();
+            }
+        });
+        card.setVisible(false);
+        card.setManaged(false);
+        return card;
+    }
+    
+    /**
+     * Muestra la tarjeta "Continuar" con el resumen de la partida guardada
+     * @param metadata Resumen leído de la cabecera del archivo, o null para ocultar la tarjeta
+     */
+    public void showSavedGame(SaveMetadata metadata) {
+        boolean visible = metadata != null && metadata.isGameStarted();
+        continueCard.setVisible(visible);
+        continueCard.setManaged(visible);
+        if (!visible) {
+            return;
+        }
+        
+        String fecha = new SimpleDateFormat("dd/MM/yyyy HH:mm").format(new Date(metadata.getSaveTimestamp()));
+        String turno = metadata.isGameEnded() ? "Partida terminada"
+                : metadata.isPlayerTurn() ? "Tu turno" : "Turno de la CPU";
+        continueDetailsLabel.setText(
+                "Capitán: " + metadata.getPlayerNickname() + "  ·  " + fecha + "\n" +
+                turno + "\n" +
+                "Disparos: " + metadata.getDisparosJugador() + " tuyos, " + metadata.getDisparosCpu() + " de la CPU\n" +
+                "Barcos a flote: " + metadata.getBarcosJugador() + " tuyos, " + metadata.getBarcosCpu() + " enemigos");
     }
     
     private Button createButton(String text, String color) {
@@ -102,6 +171,36 @@ public class MainMenuView implements MenuInterface {
         return result.orElse("Capitán");
     }
     
+    /**
+     * Muestra las ranuras guardadas para que el jugador elija una
+     * @param ranuras Ranuras de la biblioteca, de la más reciente a la más antigua
+     * @return El nombre de la ranura elegida, o null si se cancela
+     */
+    public String chooseSlot(List<SaveLibrary.InfoRanura> ranuras) {
+        List<String> opciones = new ArrayList<>();
+        for (SaveLibrary.InfoRanura ranura : ranuras) {
+            opciones.add(describirRanura(ranura));
+        }
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(opciones.get(0), opciones);
+        dialog.setTitle("Batalla Naval");
+        dialog.setHeaderText("Elige una partida guardada");
+        dialog.setContentText("Partida:");
+        
+        Optional<String> result = dialog.showAndWait();
+        return result.map(opcion -> ranuras.get(opciones.indexOf(opcion)).getNombre()).orElse(null);
+    }
+    
+    private String describirRanura(SaveLibrary.InfoRanura ranura) {
+        SaveMetadata metadata = ranura.getMetadatos();
+        if (metadata == null) {
+            return ranura.getNombre() + " (resumen no disponible)";
+        }
+        String fecha = new SimpleDateFormat("dd/MM/yyyy HH:mm").format(new Date(metadata.getSaveTimestamp()));
+        String estado = metadata.isGameEnded() ? "terminada"
+                : metadata.getBarcosJugador() + " vs " + metadata.getBarcosCpu() + " barcos";
+        return ranura.getNombre() + " · " + fecha + " · " + estado;
+    }
+    
     public void showLoadError(String message) {
         Alert alert = new Alert(Alert.AlertType.ERROR);
         alert.setTitle("Error");
@@ -3,7 +3,7 @@ package com.example.batallanaval.vista;
 import java.util.ArrayList;
 import java.util.List;
 import com.example.batallanaval.modelo.Constants;
-import com.example.batallanaval.modelo.GameLogic;
+import com.example.batallanaval.modelo.GameSession;
 
 public class PlayerShipManager {
 
@@ -13,23 +13,23 @@ public class PlayerShipManager {
      * Crea todas las instancias de los barcos del jugador y los posiciona inicialmente
      * debajo de los tableros de juego usando las coordenadas exactas.
      *
-     * @param gameLogic Instancia de la lógica del juego para manejar colisiones
+     * @param sesion Sesión de la partida, que resuelve las colisiones en su bucle de eventos
      * @param positionChangeCallback Callback que se ejecuta cuando un barco cambia de posición
      * @return Una lista de objetos DraggableShape que representan los barcos del jugador
      */
-    public List<DraggableShape> createAndPositionShips(GameLogic gameLogic, Runnable positionChangeCallback) {
+    public List<DraggableShape> createAndPositionShips(GameSession sesion, Runnable positionChangeCallback) {
         List<DraggableShape> playerShips = new ArrayList<>();
 
         System.out.println("=== CREANDO BARCOS DEL JUGADOR ===");
 
-        // Crear cada tipo de barco pasando la referencia a gameLogic y el callback
+        // Crear cada tipo de barco pasando la sesión y el callback
 
         // 1 Portaaviones (ocupa 4 casillas)
         DraggableShape carrier = new DraggableShape(
                 Constants.CARRIER_GROUP_WIDTH,
                 Constants.CARRIER_GROUP_HEIGHT,
                 shipImagePath,
-                gameLogic,
+                sesion,
                 positionChangeCallback
         );
         playerShips.add(carrier);
@@ -40,14 +40,14 @@ public class PlayerShipManager {
                 Constants.SUBMARINE_GROUP_WIDTH,
                 Constants.SUBMARINE_GROUP_HEIGHT,
                 shipImagePath,
-                gameLogic,
+                sesion,
                 positionChangeCallback
         );
         DraggableShape submarine2 = new DraggableShape(
                 Constants.SUBMARINE_GROUP_WIDTH,
                 Constants.SUBMARINE_GROUP_HEIGHT,
                 shipImagePath,
-                gameLogic,
+                sesion,
                 positionChangeCallback
         );
         playerShips.add(submarine1);
@@ -59,21 +59,21 @@ public class PlayerShipManager {
                 Constants.DESTROYER_GROUP_WIDTH,
                 Constants.DESTROYER_GROUP_HEIGHT,
                 shipImagePath,
-                gameLogic,
+                sesion,
                 positionChangeCallback
         );
         DraggableShape destroyer2 = new DraggableShape(
                 Constants.DESTROYER_GROUP_WIDTH,
                 Constants.DESTROYER_GROUP_HEIGHT,
                 shipImagePath,
-                gameLogic,
+                sesion,
                 positionChangeCallback
         );
         DraggableShape destroyer3 = new DraggableShape(
                 Constants.DESTROYER_GROUP_WIDTH,
                 Constants.DESTROYER_GROUP_HEIGHT,
                 shipImagePath,
-                gameLogic,
+                sesion,
                 positionChangeCallback
         );
         playerShips.add(destroyer1);
@@ -86,28 +86,28 @@ public class PlayerShipManager {
                 Constants.FRIGATE_GROUP_WIDTH,
                 Constants.FRIGATE_GROUP_HEIGHT,
                 shipImagePath,
-                gameLogic,
+                sesion,
                 positionChangeCallback
         );
         DraggableShape frigate2 = new DraggableShape(
                 Constants.FRIGATE_GROUP_WIDTH,
                 Constants.FRIGATE_GROUP_HEIGHT,
                 shipImagePath,
-                gameLogic,
+                sesion,
                 positionChangeCallback
         );
         DraggableShape frigate3 = new DraggableShape(
                 Constants.FRIGATE_GROUP_WIDTH,
                 Constants.FRIGATE_GROUP_HEIGHT,
                 shipImagePath,
-                gameLogic,
+                sesion,
                 positionChangeCallback
         );
         DraggableShape frigate4 = new DraggableShape(
                 Constants.FRIGATE_GROUP_WIDTH,
                 Constants.FRIGATE_GROUP_HEIGHT,
                 shipImagePath,
-                gameLogic,
+                sesion,
                 positionChangeCallback
         );
         playerShips.add(frigate1);
@@ -0,0 +1,123 @@
+package com.example.batallanaval.modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del mapa de calor: la actualización incremental coincide con el cálculo desde cero
+ */
+class DensityShotStrategyTest {
+
+    private static final int COLS = Constants.GRID_COLS;
+    private static final int ROWS = Constants.GRID_ROWS;
+
+    @Test
+    void elMapaIncrementalCoincideConElCalculadoDesdeCero() {
+        int[] resultados = new int[3];
+        for (long semilla = 0; semilla < 20; semilla++) {
+            SplittableRandom random = new SplittableRandom(semilla);
+            GameLogic logica = partida(random);
+            DensityShotStrategy estrategia = new DensityShotStrategy();
+            logica.setEstrategiaCpu(estrategia);
+
+            for (int disparo = 0; !logica.isGameEnded(); disparo++) {
+                // Disparos de la propia estrategia mezclados con disparos al azar
+                int celda = disparo % 2 == 0
+                        ? estrategia.elegirDisparo(logica, 1, random)
+                        : logica.muestrearCeldaSinDisparar(1, random);
+                String resultado = logica.jugada(celda % COLS, celda / COLS, 1);
+                resultados[resultado.equals("AGUA") ? 0 : resultado.equals("TOCADO") ? 1 : 2]++;
+
+                assertArrayEquals(desdeCero(logica), estrategia.copiarCalor(),
+                        "semilla " + semilla + ", disparo " + disparo + " (" + resultado + ")");
+            }
+        }
+        assertTrue(resultados[0] > 0 && resultados[1] > 0 && resultados[2] > 0);
+    }
+
+    @Test
+    void laReconstruccionCoincideConElCalculadoDesdeCero() {
+        for (long semilla = 0; semilla < 20; semilla++) {
+            SplittableRandom random = new SplittableRandom(semilla);
+            GameLogic logica = partida(random);
+            for (int disparo = 0; !logica.isGameEnded(); disparo++) {
+                int celda = logica.muestrearCeldaSinDisparar(1, random);
+                logica.jugada(celda % COLS, celda / COLS, 1);
+                if (disparo % 7 != 0) {
+                    continue;
+                }
+
+                // Una estrategia nueva no vio los disparos: reconstruye al elegir
+                DensityShotStrategy nueva = new DensityShotStrategy();
+                nueva.elegirDisparo(logica, 1, random);
+
+                assertArrayEquals(desdeCero(logica), nueva.copiarCalor(), "semilla " + semilla + ", disparo " + disparo);
+            }
+        }
+    }
+
+    private static GameLogic partida(SplittableRandom random) {
+        GameLogic logica = new GameLogic(random.nextLong());
+        logica.setVerbose(false);
+        FleetPlacer placer = new FleetPlacer(COLS, ROWS);
+        logica.colocarFlota(0, CpuFleetPool.generar(placer, Constants.FLEET_SHIP_LENGTHS, random));
+        logica.colocarFlota(1, CpuFleetPool.generar(placer, Constants.FLEET_SHIP_LENGTHS, random));
+        return logica;
+    }
+
+    /**
+     * Cada posición de cada longitud a flote que no toca agua ni barcos hundidos suma a sus
+     * celdas tantas veces como barcos de esa longitud queden a flote
+     */
+    private static int[] desdeCero(GameLogic logica) {
+        boolean[] bloqueada = new boolean[COLS * ROWS];
+        int[] restantes = new int[Ship.MAX_LONGITUD + 1];
+        for (int longitud : Constants.FLEET_SHIP_LENGTHS) {
+            restantes[longitud]++;
+        }
+        for (Ship barco : logica.getArrayPlayer()) {
+            if (barco.isHundido()) {
+                restantes[barco.getSize()]--;
+                for (int segmento = 0; segmento < barco.getSize(); segmento++) {
+                    bloqueada[barco.getRow(segmento) * COLS + barco.getCol(segmento)] = true;
+                }
+            }
+        }
+        for (int celda = 0; celda < bloqueada.length; celda++) {
+            if (logica.yaSeDisparo(celda % COLS, celda / COLS, 1) && !logica.esImpacto(celda % COLS, celda / COLS, 1)) {
+                bloqueada[celda] = true;
+            }
+        }
+
+        int[] calor = new int[COLS * ROWS];
+        for (int longitud = 1; longitud < restantes.length; longitud++) {
+            for (int row = 0; row < ROWS; row++) {
+                for (int col = 0; col < COLS; col++) {
+                    sumar(calor, bloqueada, col, row, longitud, false, restantes[longitud]);
+                    if (longitud > 1) {
+                        sumar(calor, bloqueada, col, row, longitud, true, restantes[longitud]);
+                    }
+                }
+            }
+        }
+        return calor;
+    }
+
+    private static void sumar(int[] calor, boolean[] bloqueada, int col, int row, int longitud, boolean vertical, int peso) {
+        if (peso == 0 || (vertical ? row + longitud > ROWS : col + longitud > COLS)) {
+            return;
+        }
+        int paso = vertical ? COLS : 1;
+        for (int i = 0; i < longitud; i++) {
+            if (bloqueada[row * COLS + col + i * paso]) {
+                return;
+            }
+        }
+        for (int i = 0; i < longitud; i++) {
+            calor[row * COLS + col + i * paso] += peso;
+        }
+    }
+}
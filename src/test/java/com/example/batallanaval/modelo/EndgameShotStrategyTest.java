@@ -0,0 +1,90 @@
+package com.example.batallanaval.modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del final exacto sobre posiciones pequeñas con respuesta conocida
+ */
+class EndgameShotStrategyTest {
+
+    private static final int COLS = Constants.GRID_COLS;
+
+    // Flota del jugador; el último destructor, en (2,0)-(2,1), es el único a flote
+    private static final int[] ORIGENES = {40, 50, 60, 70, 73, 2, 80, 82, 84, 86};
+    private static final boolean[] VERTICALES = {false, false, false, false, false, true, false, false, false, false};
+
+    // Celdas sin disparar: (0,0), (0,1), (0,2) y (2,0), (2,1)
+    private static final int[] DESCONOCIDAS = {0, 10, 20, 2, 12};
+
+    @Test
+    void eligeLaCeldaQueMinimizaLosDisparosEsperados() {
+        GameLogic logica = finalDePartida();
+        EndgameShotStrategy estrategia = nueva();
+
+        int celda = estrategia.elegirDisparo(logica, 1, new SplittableRandom(1));
+
+        // Tres flotas posibles: (0,0)-(0,1), (0,1)-(0,2) y (2,0)-(2,1). Disparar a (0,1)
+        // cuesta 8/3 disparos de media; cualquier otra celda, 3
+        assertEquals(10, celda);
+        assertEquals(1, estrategia.getDecisionesExactas());
+        assertEquals(0, estrategia.getDecisionesRespaldo());
+    }
+
+    @Test
+    void conUnaSolaFlotaPosibleRemataElBarco() {
+        GameLogic logica = finalDePartida();
+        assertEquals("TOCADO", logica.jugada(2, 0, 1));
+        EndgameShotStrategy estrategia = nueva();
+
+        int celda = estrategia.elegirDisparo(logica, 1, new SplittableRandom(1));
+
+        // (1,0) y (3,0) son agua: el barco tocado en (2,0) solo puede seguir hacia abajo
+        assertEquals(12, celda);
+        assertEquals(1, estrategia.getDecisionesExactas());
+    }
+
+    @Test
+    void alPrincipioDeLaPartidaDecideElRespaldo() {
+        GameLogic logica = new GameLogic(1);
+        logica.setVerbose(false);
+        logica.colocarFlota(0, new CpuFleetPool.Disposicion(0, Constants.FLEET_SHIP_LENGTHS, ORIGENES, VERTICALES));
+        EndgameShotStrategy estrategia = nueva();
+
+        int celda = estrategia.elegirDisparo(logica, 1, new SplittableRandom(1));
+
+        assertTrue(celda >= 0 && celda < COLS * Constants.GRID_ROWS);
+        assertEquals(0, estrategia.getDecisionesExactas());
+        assertEquals(1, estrategia.getDecisionesRespaldo());
+    }
+
+    /**
+     * La CPU ya disparó a todo salvo a las celdas desconocidas: todos los barcos del jugador
+     * están hundidos menos el destructor
+     */
+    private static GameLogic finalDePartida() {
+        GameLogic logica = new GameLogic(1);
+        logica.setVerbose(false);
+        logica.colocarFlota(0, new CpuFleetPool.Disposicion(0, Constants.FLEET_SHIP_LENGTHS, ORIGENES, VERTICALES));
+        boolean[] desconocida = new boolean[COLS * Constants.GRID_ROWS];
+        for (int celda : DESCONOCIDAS) {
+            desconocida[celda] = true;
+        }
+        for (int celda = 0; celda < desconocida.length; celda++) {
+            if (!desconocida[celda]) {
+                logica.jugada(celda % COLS, celda / COLS, 1);
+            }
+        }
+        assertFalse(logica.isGameEnded());
+        return logica;
+    }
+
+    private static EndgameShotStrategy nueva() {
+        // Presupuesto amplio y caché propia: el resultado no depende de la máquina ni de otras pruebas
+        return new EndgameShotStrategy(COLS, Constants.GRID_ROWS, Constants.FLEET_SHIP_LENGTHS, 5_000,
+                50_000, new DensityShotStrategy(), EndgameShotStrategy.crearCache(16));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.batallanaval.modelo;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Partidas reproducibles para las pruebas de guardado: se juegan con una semilla fija
+ * sobre GameLogic y se capturan como las captura el controlador.
+ */
+final class EstadosDePrueba {
+
+    private final GameLogic logica;
+    private final SplittableRandom random;
+    private boolean turnoJugador = true;
+    private boolean primeraJugada = true;
+
+    EstadosDePrueba(long semilla) {
+        random = new SplittableRandom(semilla);
+        logica = new GameLogic(semilla);
+        logica.setVerbose(false);
+        logica.setRegistrarJugadas(true);
+        FleetPlacer placer = new FleetPlacer(Constants.GRID_COLS, Constants.GRID_ROWS);
+        logica.colocarFlota(0, CpuFleetPool.generar(placer, Constants.FLEET_SHIP_LENGTHS, random));
+        logica.colocarFlota(1, CpuFleetPool.generar(placer, Constants.FLEET_SHIP_LENGTHS, random));
+        logica.drenarJugadas();
+    }
+
+    /**
+     * Juega hasta n disparos aleatorios alternando el turno como el controlador
+     * @return Las jugadas registradas, en orden
+     */
+    List<RegistroJugada> jugar(int n) {
+        for (int i = 0; i < n && !logica.isGameEnded(); i++) {
+            int tirador = turnoJugador ? 0 : 1;
+            int celda = logica.muestrearCeldaSinDisparar(tirador, random);
+            String resultado = logica.jugada(celda % Constants.GRID_COLS, celda / Constants.GRID_COLS, tirador);
+            if (tirador == 0) {
+                primeraJugada = false;
+            }
+            if (resultado.equals("AGUA")) {
+                turnoJugador = !turnoJugador;
+            } else if (resultado.startsWith("VICTORIA")) {
+                turnoJugador = false;
+            }
+        }
+        return logica.drenarJugadas();
+    }
+
+    boolean terminada() {
+        return logica.isGameEnded();
+    }
+
+    /**
+     * Estado actual de la partida, con matrices copiadas
+     */
+    GameState capturar() {
+        GameState estado = new GameState();
+        estado.setGameStarted(true);
+        estado.setGameEnded(logica.isGameEnded());
+        estado.setWinner(logica.getWinner());
+        estado.setPlayerTurn(turnoJugador);
+        estado.setFirstPlayerMove(primeraJugada);
+        estado.setSemilla(logica.getSemilla());
+        estado.setPlayerNickname("Almirante");
+        estado.setMatrizLimpiezaPlayer(copiar(logica.getMatrizLimpiezaPlayer()));
+        estado.setMatrizLimpiezaCpu(copiar(logica.getMatrizLimpiezaCpu()));
+        estado.setMatrizAtinacionPlayer(copiar(logica.getMatrizAtinacionPlayer()));
+        estado.setMatrizAtinacionCpu(copiar(logica.getMatrizAtinacionCpu()));
+        estado.setMatrizDisparosPlayer(copiar(logica.getMatrizDisparosPlayer()));
+        estado.setMatrizDisparosCpu(copiar(logica.getMatrizDisparosCpu()));
+        for (Ship barco : logica.getArrayPlayer()) {
+            if (barco != null) {
+                estado.getPlayerShips().add(GameState.ShipState.fromShip(barco));
+            }
+        }
+        for (Ship barco : logica.getArrayCpu()) {
+            if (barco != null) {
+                estado.getCpuShips().add(GameState.ShipState.fromShip(barco));
+            }
+        }
+        return estado;
+    }
+
+    /**
+     * Bytes del estado codificado sin la fecha de guardado, para comparar dos estados
+     */
+    static byte[] huella(GameState estado) throws Exception {
+        long fecha = estado.getSaveTimestamp();
+        estado.setSaveTimestamp(0);
+        try {
+            ByteBuffer datos = GameStateCodec.codificar(estado);
+            return Arrays.copyOf(datos.array(), datos.limit());
+        } finally {
+            estado.setSaveTimestamp(fecha);
+        }
+    }
+
+    private static boolean[][] copiar(boolean[][] matriz) {
+        boolean[][] copia = new boolean[matriz.length][];
+        for (int i = 0; i < matriz.length; i++) {
+            copia[i] = matriz[i].clone();
+        }
+        return copia;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.batallanaval.modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la colocación exacta de flotas sobre tableros pequeños con respuesta conocida
+ */
+class FleetPlacerTest {
+
+    @Test
+    void cadaPosicionLegalSaleConLaMismaProbabilidad() {
+        // Un destructor en un tablero de 3x2: 4 posiciones horizontales y 3 verticales
+        FleetPlacer placer = new FleetPlacer(3, 2);
+        SplittableRandom random = new SplittableRandom(6);
+        Map<String, Integer> veces = new HashMap<>();
+        int muestras = 7000;
+
+        for (int i = 0; i < muestras; i++) {
+            int[] origenes = new int[1];
+            boolean[] verticales = new boolean[1];
+            assertTrue(placer.colocarFlota(new int[]{2}, random, origenes, verticales));
+            veces.merge(origenes[0] + (verticales[0] ? "v" : "h"), 1, Integer::sum);
+        }
+
+        assertEquals(Set.of("0h", "1h", "3h", "4h", "0v", "1v", "2v"), veces.keySet());
+        for (Map.Entry<String, Integer> posicion : veces.entrySet()) {
+            assertEquals(muestras / 7.0, posicion.getValue(), muestras / 7.0 * 0.15, posicion.getKey());
+        }
+    }
+
+    @Test
+    void losBarcosDeUnaCeldaSoloSeCuentanEnHorizontal() {
+        FleetPlacer placer = new FleetPlacer(2, 2);
+        SplittableRandom random = new SplittableRandom(6);
+        Set<Integer> origenesVistos = new HashSet<>();
+
+        for (int i = 0; i < 200; i++) {
+            int[] origenes = new int[1];
+            boolean[] verticales = new boolean[1];
+            assertTrue(placer.colocarFlota(new int[]{1}, random, origenes, verticales));
+            assertFalse(verticales[0]);
+            origenesVistos.add(origenes[0]);
+        }
+
+        assertEquals(Set.of(0, 1, 2, 3), origenesVistos);
+    }
+
+    @Test
+    void retrocedeCuandoElPrimerBarcoNoDejaSitioAlSegundo() {
+        // Dos destructores en una fila de 4: si el primero cae en el centro, el segundo no cabe
+        FleetPlacer placer = new FleetPlacer(4, 1);
+        for (long semilla = 0; semilla < 100; semilla++) {
+            int[] origenes = new int[2];
+            boolean[] verticales = new boolean[2];
+
+            assertTrue(placer.colocarFlota(new int[]{2, 2}, new SplittableRandom(semilla), origenes, verticales));
+
+            assertEquals(Set.of(0, 2), Set.of(origenes[0], origenes[1]), "semilla " + semilla);
+        }
+    }
+
+    @Test
+    void unaFlotaQueLlenaElTableroSaleEnTodasSusFormas() {
+        // Tres destructores en 3x2 solo caben de 3 formas
+        FleetPlacer placer = new FleetPlacer(3, 2);
+        BitBoard todo = new BitBoard(3, 2);
+        todo.setRect(0, 0, 3, 2);
+        Set<String> formas = new HashSet<>();
+
+        for (long semilla = 0; semilla < 300; semilla++) {
+            int[] origenes = new int[3];
+            boolean[] verticales = new boolean[3];
+            assertTrue(placer.colocarFlota(new int[]{2, 2, 2}, new SplittableRandom(semilla), origenes, verticales));
+            assertTrue(placer.cubre(todo));
+
+            BitBoard horizontales = new BitBoard(3, 2);
+            for (int barco = 0; barco < 3; barco++) {
+                if (!verticales[barco]) {
+                    horizontales.set(origenes[barco]);
+                }
+            }
+            formas.add(Arrays.deepToString(horizontales.toMatrix()));
+        }
+
+        assertEquals(3, formas.size());
+    }
+
+    @Test
+    void respetaLasCeldasBloqueadas() {
+        FleetPlacer placer = new FleetPlacer(3, 3);
+        BitBoard bloqueadas = new BitBoard(3, 3);
+        bloqueadas.setRect(0, 1, 3, 1);
+
+        for (long semilla = 0; semilla < 50; semilla++) {
+            int[] origenes = new int[2];
+            boolean[] verticales = new boolean[2];
+
+            assertTrue(placer.colocarFlota(new int[]{3, 3}, bloqueadas, new SplittableRandom(semilla), origenes, verticales));
+
+            assertEquals(Set.of(0, 6), Set.of(origenes[0], origenes[1]));
+            assertFalse(verticales[0] || verticales[1]);
+        }
+    }
+
+    @Test
+    void unaFlotaImposibleDevuelveFalse() {
+        // 10 celdas de barcos en un tablero de 9
+        FleetPlacer placer = new FleetPlacer(3, 3);
+
+        assertFalse(placer.colocarFlota(new int[]{3, 3, 3, 1}, new SplittableRandom(1), new int[4], new boolean[4]));
+        // Caben por celdas pero no por forma: dos barcos de 3 y uno de 2 en 3x3 con el centro bloqueado
+        BitBoard centro = new BitBoard(3, 3);
+        centro.set(1, 1);
+        assertFalse(placer.colocarFlota(new int[]{3, 3, 2}, centro, new SplittableRandom(1), new int[3], new boolean[3]));
+    }
+}
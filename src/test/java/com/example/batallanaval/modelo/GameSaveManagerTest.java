@@ -0,0 +1,161 @@
+package com.example.batallanaval.modelo;
+
+import com.example.batallanaval.exceptions.GameLoadException;
+import com.example.batallanaval.adapters.GameStateAdapter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la detección de guardados dañados y de la recuperación desde el backup
+ */
+class GameSaveManagerTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void verificarAceptaUnGuardadoIntacto() throws Exception {
+        ByteBuffer datos = GameStateCodec.codificar(partida(7, 30));
+
+        GameStateCodec.verificar(datos);
+
+        assertEquals(0, datos.position());
+    }
+
+    @Test
+    void verificarRechazaCualquierGuardadoTruncado() throws Exception {
+        byte[] datos = bytes(GameStateCodec.codificar(partida(7, 30)));
+
+        for (int longitud = 0; longitud < datos.length; longitud++) {
+            ByteBuffer truncado = ByteBuffer.wrap(Arrays.copyOf(datos, longitud));
+            assertThrows(GameLoadException.class, () -> GameStateCodec.verificar(truncado),
+                    "truncado a " + longitud + " bytes");
+        }
+    }
+
+    @Test
+    void verificarRechazaCualquierBitCambiadoEnLaLongitudElCrcOElContenido() throws Exception {
+        byte[] datos = bytes(GameStateCodec.codificar(partida(7, 30)));
+
+        // Desde el campo de longitud hasta el final
+        for (int bit = 5 * 8; bit < datos.length * 8; bit++) {
+            ByteBuffer dañado = ByteBuffer.wrap(cambiarBit(datos, bit));
+            assertThrows(GameLoadException.class, () -> GameStateCodec.verificar(dañado),
+                    "bit " + bit + " cambiado");
+        }
+    }
+
+    @Test
+    void verificarRechazaCualquierBitCambiadoEnLaMagiaOLaVersion() throws Exception {
+        byte[] datos = bytes(GameStateCodec.codificar(partida(7, 30)));
+
+        for (int bit = 0; bit < 5 * 8; bit++) {
+            ByteBuffer dañado = ByteBuffer.wrap(cambiarBit(datos, bit));
+            assertThrows(GameLoadException.class, () -> GameStateCodec.verificar(dañado),
+                    "bit " + bit + " cambiado");
+        }
+    }
+
+    @Test
+    void verificarRechazaDatosSobrantes() throws Exception {
+        byte[] datos = bytes(GameStateCodec.codificar(partida(7, 30)));
+
+        ByteBuffer alargado = ByteBuffer.wrap(Arrays.copyOf(datos, datos.length + 1));
+
+        assertThrows(GameLoadException.class, () -> GameStateCodec.verificar(alargado));
+    }
+
+    @Test
+    void leerMetadatosRechazaUnResumenDañado() throws Exception {
+        byte[] datos = bytes(GameStateCodec.codificar(partida(7, 30)));
+
+        for (int bit = GameStateCodec.TAMANO_CABECERA * 8; bit < GameStateCodec.TAMANO_CABECERA_METADATOS * 8; bit++) {
+            ByteBuffer dañado = ByteBuffer.wrap(cambiarBit(datos, bit));
+            assertThrows(GameLoadException.class, () -> GameStateCodec.leerMetadatos(dañado),
+                    "bit " + bit + " cambiado");
+        }
+    }
+
+    @Test
+    void unPrincipalDañadoSeRecuperaDelBackupConUnAviso() throws Exception {
+        GameSaveManager manager = new GameSaveManager(directorio);
+        manager.setModoDiario(false);
+        GameState anterior = partida(3, 20);
+        GameState ultimo = partida(3, 40);
+        manager.saveGame(anterior);
+        manager.saveGame(ultimo);
+        dañarUnBit(directorio.resolve("last_game.dat"));
+
+        GameSaveManager cargador = new GameSaveManager(directorio);
+        List<String> eventos = escuchar(cargador);
+        GameState cargado = cargador.loadGame();
+
+        assertArrayEquals(EstadosDePrueba.huella(anterior), EstadosDePrueba.huella(cargado));
+        assertEquals(List.of("aviso", "cargada"), eventos);
+    }
+
+    @Test
+    void unPrincipalDañadoSinBackupNoSeCarga() throws Exception {
+        GameSaveManager manager = new GameSaveManager(directorio);
+        manager.setModoDiario(false);
+        manager.saveGame(partida(3, 20));
+        dañarUnBit(directorio.resolve("last_game.dat"));
+
+        GameSaveManager cargador = new GameSaveManager(directorio);
+        List<String> eventos = escuchar(cargador);
+
+        assertThrows(GameLoadException.class, cargador::loadGame);
+        assertTrue(eventos.isEmpty());
+    }
+
+    private static GameState partida(long semilla, int disparos) {
+        EstadosDePrueba partida = new EstadosDePrueba(semilla);
+        partida.jugar(disparos);
+        return partida.capturar();
+    }
+
+    private static List<String> escuchar(GameSaveManager manager) {
+        List<String> eventos = new ArrayList<>();
+        manager.addListener(new GameStateAdapter() {
+            @Override
+            public void onGameLoaded() {
+                eventos.add("cargada");
+            }
+
+            @Override
+            public void onLoadWarning(String warning) {
+                eventos.add("aviso");
+            }
+
+            @Override
+            public void onSaveError(String error) {
+                eventos.add("error");
+            }
+        });
+        return eventos;
+    }
+
+    private static void dañarUnBit(Path archivo) throws Exception {
+        byte[] datos = Files.readAllBytes(archivo);
+        Files.write(archivo, cambiarBit(datos, (datos.length - 3) * 8 + 5));
+    }
+
+    private static byte[] cambiarBit(byte[] datos, int bit) {
+        byte[] copia = datos.clone();
+        copia[bit >>> 3] ^= (byte) (1 << (bit & 7));
+        return copia;
+    }
+
+    private static byte[] bytes(ByteBuffer datos) {
+        return Arrays.copyOf(datos.array(), datos.limit());
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.batallanaval.modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de las épocas de la sesión: lo que programa una orden cancelada no llega a la partida nueva
+ */
+class GameSessionTest {
+
+    private static final long ESPERA = 5;
+
+    @Test
+    void loQueProgramaUnaOrdenCanceladaSeDescarta() throws Exception {
+        ExecutorService vista = Executors.newSingleThreadExecutor();
+        GameSession sesion = new GameSession(new GameLogic(1), vista);
+        List<String> ejecutadas = new CopyOnWriteArrayList<>();
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch cancelada = new CountDownLatch(1);
+
+        sesion.enviar(logica -> {
+            enCurso.countDown();
+            esperar(cancelada);
+            // Como el turno de la CPU tras un fallo del jugador
+            sesion.programar(l -> {
+                ejecutadas.add("orden");
+                return null;
+            }, 1);
+            sesion.programarEnVista(() -> ejecutadas.add("vista"), 1);
+            sesion.enviar(l -> {
+                ejecutadas.add("enviada");
+                return null;
+            });
+            return () -> ejecutadas.add("actualización");
+        });
+        esperar(enCurso);
+        sesion.cancelarPendientes();
+        cancelada.countDown();
+
+        CountDownLatch nueva = new CountDownLatch(1);
+        sesion.programar(logica -> () -> {
+            ejecutadas.add("nueva");
+            nueva.countDown();
+        }, 50);
+        esperar(nueva);
+        vista.submit(() -> { }).get(ESPERA, TimeUnit.SECONDS);
+
+        assertEquals(List.of("nueva"), ejecutadas);
+        sesion.cerrar();
+        vista.shutdown();
+    }
+
+    @Test
+    void fueraDeUnaOrdenSeUsaLaEpocaActual() throws Exception {
+        Executor vista = Runnable::run;
+        GameSession sesion = new GameSession(new GameLogic(3), vista);
+        CountDownLatch ejecutada = new CountDownLatch(1);
+
+        sesion.cancelarPendientes();
+        sesion.enviar(logica -> ejecutada::countDown);
+
+        esperar(ejecutada);
+        sesion.cerrar();
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(ESPERA, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.batallanaval.modelo;
+
+import com.example.batallanaval.exceptions.GameLoadException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del formato binario de guardado y de la importación de la serialización de Java
+ */
+class GameStateCodecTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void decodificarDevuelveElEstadoCodificado() throws Exception {
+        EstadosDePrueba partida = new EstadosDePrueba(11);
+        partida.jugar(40);
+        GameState original = partida.capturar();
+        original.setSaveTimestamp(1_700_000_000_000L);
+
+        GameState leido = GameStateCodec.decodificar(GameStateCodec.codificar(original));
+
+        assertArrayEquals(EstadosDePrueba.huella(original), EstadosDePrueba.huella(leido));
+        assertEquals(1_700_000_000_000L, leido.getSaveTimestamp());
+        assertEquals("Almirante", leido.getPlayerNickname());
+        assertEquals(11, leido.getSemilla());
+        assertTrue(leido.hasSemilla());
+        assertEquals(original.isPlayerTurn(), leido.isPlayerTurn());
+        assertFalse(leido.isFirstPlayerMove());
+        assertEquals(original.getPlayerShips().size(), leido.getPlayerShips().size());
+        for (int i = 0; i < original.getCpuShips().size(); i++) {
+            GameState.ShipState esperado = original.getCpuShips().get(i);
+            GameState.ShipState barco = leido.getCpuShips().get(i);
+            assertEquals(esperado.getGridCol(), barco.getGridCol());
+            assertEquals(esperado.getGridRow(), barco.getGridRow());
+            assertEquals(esperado.getLongitud(), barco.getLongitud());
+            assertEquals(esperado.isVertical(), barco.isVertical());
+            assertEquals(esperado.getState(), barco.getState());
+        }
+    }
+
+    @Test
+    void partidaTerminadaConservaGanadorYBarcosHundidos() throws Exception {
+        EstadosDePrueba partida = new EstadosDePrueba(5);
+        while (!partida.terminada()) {
+            partida.jugar(50);
+        }
+        GameState original = partida.capturar();
+
+        GameState leido = GameStateCodec.decodificar(GameStateCodec.codificar(original));
+
+        assertTrue(leido.isGameEnded());
+        assertNotNull(leido.getWinner());
+        assertEquals(original.getWinner(), leido.getWinner());
+        assertArrayEquals(EstadosDePrueba.huella(original), EstadosDePrueba.huella(leido));
+    }
+
+    @Test
+    void estadoSinMatricesNiSemillaConBarcoSinColocar() throws Exception {
+        GameState original = new GameState();
+        original.setPlayerNickname(null);
+        original.setPlayerTurn(false);
+        GameState.ShipState sinColocar = new GameState.ShipState();
+        sinColocar.setLayout(-1, -1, 3, true);
+        original.getPlayerShips().add(sinColocar);
+
+        GameState leido = GameStateCodec.decodificar(GameStateCodec.codificar(original));
+
+        assertNull(leido.getPlayerNickname());
+        assertNull(leido.getWinner());
+        assertNull(leido.getMatrizDisparosPlayer());
+        assertFalse(leido.hasSemilla());
+        assertFalse(leido.isPlayerTurn());
+        assertEquals(1, leido.getPlayerShips().size());
+        assertEquals(-1, leido.getPlayerShips().get(0).getGridCol());
+        assertEquals(3, leido.getPlayerShips().get(0).getLongitud());
+        assertTrue(leido.getCpuShips().isEmpty());
+    }
+
+    @Test
+    void rechazaLasVersionesAnterioresAunqueElCrcCuadre() throws Exception {
+        byte[] datos = GameStateCodec.codificar(partidaAvanzada()).array();
+
+        // El CRC solo cubre el contenido: cambiar la versión no lo invalida
+        for (byte version = 1; version < GameStateCodec.VERSION; version++) {
+            ByteBuffer antigua = ByteBuffer.wrap(datos.clone());
+            antigua.put(4, version);
+
+            assertThrows(GameLoadException.class, () -> GameStateCodec.verificar(antigua), "versión " + version);
+            assertThrows(GameLoadException.class, () -> GameStateCodec.decodificar(antigua), "versión " + version);
+            assertThrows(GameLoadException.class, () -> GameStateCodec.leerMetadatos(antigua), "versión " + version);
+        }
+    }
+
+    @Test
+    void leerMetadatosSoloNecesitaLaCabecera() throws Exception {
+        GameState original = partidaAvanzada();
+        ByteBuffer datos = GameStateCodec.codificar(original);
+        ByteBuffer cabecera = ByteBuffer.wrap(datos.array(), 0, GameStateCodec.TAMANO_CABECERA_METADATOS).slice();
+
+        SaveMetadata resumen = GameStateCodec.leerMetadatos(cabecera);
+        SaveMetadata esperado = SaveMetadata.desde(original);
+
+        assertEquals(GameStateCodec.VERSION, resumen.getVersion());
+        assertEquals("Almirante", resumen.getPlayerNickname());
+        assertEquals(esperado.getDisparosJugador(), resumen.getDisparosJugador());
+        assertEquals(esperado.getDisparosCpu(), resumen.getDisparosCpu());
+        assertEquals(esperado.getBarcosJugador(), resumen.getBarcosJugador());
+        assertEquals(esperado.getBarcosCpu(), resumen.getBarcosCpu());
+        assertEquals(original.isPlayerTurn(), resumen.isPlayerTurn());
+    }
+
+    @Test
+    void importaUnaPartidaEscritaConObjectOutputStream() throws Exception {
+        GameState original = partidaAvanzada();
+        Path archivo = directorio.resolve("last_game.dat");
+        try (OutputStream salida = Files.newOutputStream(archivo);
+             ObjectOutputStream objetos = new ObjectOutputStream(salida)) {
+            objetos.writeObject(original);
+        }
+        assertTrue(GameStateCodec.esSerializacionJava(ByteBuffer.wrap(Files.readAllBytes(archivo))));
+        assertFalse(GameStateCodec.esFormatoBinario(ByteBuffer.wrap(Files.readAllBytes(archivo))));
+
+        GameState leido = new GameSaveManager(directorio).loadGame();
+
+        assertArrayEquals(EstadosDePrueba.huella(original), EstadosDePrueba.huella(leido));
+        assertEquals(original.getPlayerNickname(), leido.getPlayerNickname());
+    }
+
+    @Test
+    void unaPartidaImportadaSeGuardaDespuesEnFormatoBinario() throws Exception {
+        GameState original = partidaAvanzada();
+        try (ObjectOutputStream objetos = new ObjectOutputStream(
+                Files.newOutputStream(directorio.resolve("last_game.dat")))) {
+            objetos.writeObject(original);
+        }
+        GameSaveManager manager = new GameSaveManager(directorio);
+        manager.saveGame(manager.loadGame());
+
+        ByteBuffer guardado = ByteBuffer.wrap(Files.readAllBytes(directorio.resolve("last_game.dat")));
+        assertTrue(GameStateCodec.esFormatoBinario(guardado));
+        // El antiguo pasa a ser el backup
+        ByteBuffer backup = ByteBuffer.wrap(Files.readAllBytes(directorio.resolve("last_game_backup.dat")));
+        assertTrue(GameStateCodec.esSerializacionJava(backup));
+        assertArrayEquals(EstadosDePrueba.huella(original),
+                EstadosDePrueba.huella(GameStateCodec.decodificar(guardado)));
+    }
+
+    private static GameState partidaAvanzada() {
+        EstadosDePrueba partida = new EstadosDePrueba(23);
+        List<RegistroJugada> jugadas = partida.jugar(35);
+        assertFalse(jugadas.isEmpty());
+        return partida.capturar();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.batallanaval.modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la cancelación del muestreo desde otro hilo
+ */
+class MonteCarloShotStrategyTest {
+
+    @Test
+    void cancelarDesdeOtroHiloTerminaElTurnoEnCurso() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        ExecutorService turno = Executors.newSingleThreadExecutor();
+        GameLogic logica = new GameLogic(6);
+        logica.setVerbose(false);
+        SplittableRandom random = new SplittableRandom(6);
+        FleetPlacer placer = new FleetPlacer(Constants.GRID_COLS, Constants.GRID_ROWS);
+        logica.colocarFlota(0, CpuFleetPool.generar(placer, Constants.FLEET_SHIP_LENGTHS, random));
+        logica.colocarFlota(1, CpuFleetPool.generar(placer, Constants.FLEET_SHIP_LENGTHS, random));
+        // Un presupuesto que no se agota durante la prueba
+        logica.setEstrategiaCpu(new MonteCarloShotStrategy(Constants.GRID_COLS, Constants.GRID_ROWS,
+                Constants.FLEET_SHIP_LENGTHS, 60_000, Integer.MAX_VALUE, pool,
+                MonteCarloShotStrategy.crearCache(16, 1 << 16)));
+
+        Future<Integer> disparo = turno.submit(() -> logica.getEstrategiaCpu().elegirDisparo(logica, 1, random));
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        // Se repite por si la primera llega antes de que empiece el muestreo
+        while (!disparo.isDone() && System.nanoTime() < limite) {
+            logica.cancelarDisparoCpu();
+            Thread.sleep(10);
+        }
+
+        assertTrue(disparo.isDone());
+        int celda = disparo.get();
+        assertFalse(logica.yaSeDisparo(celda % Constants.GRID_COLS, celda / Constants.GRID_COLS, 1));
+        turno.shutdown();
+        pool.shutdown();
+    }
+}
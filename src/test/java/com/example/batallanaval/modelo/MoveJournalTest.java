@@ -0,0 +1,268 @@
+package com.example.batallanaval.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del diario de jugadas: lectura tras un corte, daños y reaplicación sobre el snapshot
+ */
+class MoveJournalTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void leeLasJugadasAnexadasEnOrden() throws Exception {
+        MoveJournal diario = new MoveJournal(directorio.resolve("partida.journal"));
+        List<RegistroJugada> jugadas = jugadas(300);
+        diario.iniciar(42L);
+        // Más de 255 jugadas en un guardado se parten en varios registros
+        diario.anexar(jugadas.subList(0, 4), 0);
+        diario.anexar(jugadas.subList(4, 300), 4);
+
+        MoveJournal.Lectura lectura = diario.leer();
+
+        assertEquals(42L, lectura.generacion);
+        assertFalse(lectura.danado);
+        assertEquals(texto(jugadas), texto(lectura.jugadas));
+    }
+
+    @Test
+    void iniciarDescartaElDiarioAnterior() throws Exception {
+        MoveJournal diario = new MoveJournal(directorio.resolve("partida.journal"));
+        diario.iniciar(1L);
+        diario.anexar(jugadas(10), 0);
+
+        diario.iniciar(2L);
+        MoveJournal.Lectura lectura = diario.leer();
+
+        assertEquals(2L, lectura.generacion);
+        assertTrue(lectura.jugadas.isEmpty());
+    }
+
+    @Test
+    void sinDiarioOConLaCabeceraDañadaNoHayLectura() throws Exception {
+        Path ruta = directorio.resolve("partida.journal");
+        MoveJournal diario = new MoveJournal(ruta);
+        assertNull(diario.leer());
+
+        diario.iniciar(7L);
+        diario.anexar(jugadas(3), 0);
+        byte[] datos = Files.readAllBytes(ruta);
+        datos[6] ^= 1; // Generación
+        Files.write(ruta, datos);
+
+        assertNull(diario.leer());
+    }
+
+    @Test
+    void unaColaCortadaDejaLosRegistrosCompletos() throws Exception {
+        Path ruta = directorio.resolve("partida.journal");
+        MoveJournal diario = new MoveJournal(ruta);
+        List<RegistroJugada> jugadas = jugadas(6);
+        diario.iniciar(5L);
+        diario.anexar(jugadas.subList(0, 2), 0);
+        diario.anexar(jugadas.subList(2, 3), 2);
+        diario.anexar(jugadas.subList(3, 6), 3);
+        byte[] completo = Files.readAllBytes(ruta);
+        int finPrimero = MoveJournal.TAMANO_CABECERA + MoveJournal.TAMANO_CABECERA_REGISTRO + 2 * MoveJournal.TAMANO_JUGADA;
+        int finSegundo = finPrimero + MoveJournal.TAMANO_CABECERA_REGISTRO + MoveJournal.TAMANO_JUGADA;
+
+        for (int longitud = MoveJournal.TAMANO_CABECERA; longitud < completo.length; longitud++) {
+            Files.write(ruta, Arrays.copyOf(completo, longitud));
+
+            MoveJournal.Lectura lectura = diario.leer();
+
+            int esperadas = longitud >= finSegundo ? 3 : longitud >= finPrimero ? 2 : 0;
+            assertFalse(lectura.danado, "cortado a " + longitud + " bytes");
+            assertEquals(texto(jugadas.subList(0, esperadas)), texto(lectura.jugadas), "cortado a " + longitud + " bytes");
+        }
+    }
+
+    @Test
+    void seSiguenAnexandoJugadasTrasUnaLecturaCompleta() throws Exception {
+        MoveJournal diario = new MoveJournal(directorio.resolve("partida.journal"));
+        List<RegistroJugada> jugadas = jugadas(5);
+        diario.iniciar(5L);
+        diario.anexar(jugadas.subList(0, 3), 0);
+        assertEquals(3, diario.leer().jugadas.size());
+
+        diario.anexar(jugadas.subList(3, 5), 3);
+
+        assertEquals(texto(jugadas), texto(diario.leer().jugadas));
+    }
+
+    @Test
+    void unRegistroFueraDeSecuenciaSeInformaComoDaño() throws Exception {
+        MoveJournal diario = new MoveJournal(directorio.resolve("partida.journal"));
+        List<RegistroJugada> jugadas = jugadas(6);
+        diario.iniciar(9L);
+        diario.anexar(jugadas.subList(0, 2), 0);
+        // Un guardado perdido: el siguiente registro empieza en la jugada 3 y no en la 2
+        diario.anexar(jugadas.subList(3, 5), 3);
+        diario.anexar(jugadas.subList(5, 6), 5);
+
+        MoveJournal.Lectura lectura = diario.leer();
+
+        assertTrue(lectura.danado);
+        assertEquals(texto(jugadas.subList(0, 2)), texto(lectura.jugadas));
+    }
+
+    @Test
+    void unRegistroRepetidoSeInformaComoDaño() throws Exception {
+        MoveJournal diario = new MoveJournal(directorio.resolve("partida.journal"));
+        List<RegistroJugada> jugadas = jugadas(4);
+        diario.iniciar(9L);
+        diario.anexar(jugadas.subList(0, 2), 0);
+        diario.anexar(jugadas.subList(0, 2), 0);
+
+        MoveJournal.Lectura lectura = diario.leer();
+
+        assertTrue(lectura.danado);
+        assertEquals(2, lectura.jugadas.size());
+    }
+
+    @Test
+    void unBitCambiadoEnUnRegistroSeInformaComoDaño() throws Exception {
+        Path ruta = directorio.resolve("partida.journal");
+        MoveJournal diario = new MoveJournal(ruta);
+        List<RegistroJugada> jugadas = jugadas(4);
+        diario.iniciar(3L);
+        diario.anexar(jugadas.subList(0, 2), 0);
+        diario.anexar(jugadas.subList(2, 4), 2);
+        byte[] completo = Files.readAllBytes(ruta);
+        int inicioSegundo = MoveJournal.TAMANO_CABECERA + MoveJournal.TAMANO_CABECERA_REGISTRO + 2 * MoveJournal.TAMANO_JUGADA;
+
+        // El campo de longitud no: cambiarlo deja un registro incompleto o vacío, que es el final del diario
+        for (int bit = inicioSegundo * 8; bit < completo.length * 8; bit++) {
+            if (bit / 8 == inicioSegundo + 2) {
+                continue;
+            }
+            byte[] dañado = completo.clone();
+            dañado[bit >>> 3] ^= (byte) (1 << (bit & 7));
+            Files.write(ruta, dañado);
+
+            MoveJournal.Lectura lectura = diario.leer();
+
+            assertTrue(lectura.danado, "bit " + bit + " cambiado");
+            assertEquals(texto(jugadas.subList(0, 2)), texto(lectura.jugadas), "bit " + bit + " cambiado");
+        }
+    }
+
+    @Test
+    void aplicarSobreElSnapshotReproduceLaPartida() throws Exception {
+        for (long semilla = 0; semilla < 20; semilla++) {
+            EstadosDePrueba partida = new EstadosDePrueba(semilla);
+            partida.jugar((int) semilla * 3);
+            GameState snapshot = partida.capturar();
+            List<RegistroJugada> jugadas = new ArrayList<>();
+            while (!partida.terminada()) {
+                jugadas.addAll(partida.jugar(1));
+                GameState reconstruido = copiaCodificada(snapshot);
+
+                MoveJournal.aplicar(reconstruido, jugadas);
+
+                assertArrayEquals(EstadosDePrueba.huella(partida.capturar()), EstadosDePrueba.huella(reconstruido),
+                        "semilla " + semilla + ", " + jugadas.size() + " jugadas");
+            }
+        }
+    }
+
+    @Test
+    void aplicarDosVecesLasMismasJugadasNoCambiaNada() throws Exception {
+        EstadosDePrueba partida = new EstadosDePrueba(4);
+        GameState snapshot = partida.capturar();
+        List<RegistroJugada> jugadas = partida.jugar(45);
+        GameState esperado = partida.capturar();
+
+        MoveJournal.aplicar(snapshot, jugadas);
+        MoveJournal.aplicar(snapshot, jugadas);
+
+        assertArrayEquals(EstadosDePrueba.huella(esperado), EstadosDePrueba.huella(snapshot));
+    }
+
+    @Test
+    void laCargaAplicaElDiarioDelSnapshot() throws Exception {
+        GameSaveManager manager = new GameSaveManager(directorio);
+        manager.setIntervaloSnapshot(1000);
+        EstadosDePrueba partida = new EstadosDePrueba(8);
+        manager.saveMoves(partida.capturar(), List.of());
+        long tamañoSnapshot = Files.size(directorio.resolve("last_game.dat"));
+        for (int i = 0; i < 30; i++) {
+            List<RegistroJugada> jugadas = partida.jugar(1);
+            manager.saveMoves(partida.capturar(), jugadas);
+        }
+
+        GameState cargado = new GameSaveManager(directorio).loadGame();
+
+        assertEquals(tamañoSnapshot, Files.size(directorio.resolve("last_game.dat")));
+        assertArrayEquals(EstadosDePrueba.huella(partida.capturar()), EstadosDePrueba.huella(cargado));
+        SaveMetadata resumen = new GameSaveManager(directorio).getSaveMetadata();
+        assertEquals(SaveMetadata.desde(cargado).getDisparosJugador(), resumen.getDisparosJugador());
+        assertEquals(SaveMetadata.desde(cargado).getDisparosCpu(), resumen.getDisparosCpu());
+    }
+
+    @Test
+    void elBackupSeRecuperaConSuDiario() throws Exception {
+        GameSaveManager manager = new GameSaveManager(directorio);
+        manager.setIntervaloSnapshot(7);
+        Path principal = directorio.resolve("last_game.dat");
+        EstadosDePrueba partida = new EstadosDePrueba(12);
+        List<GameState> guardados = new ArrayList<>();
+        int snapshots = 0;
+        guardados.add(partida.capturar());
+        manager.saveMoves(partida.capturar(), List.of());
+        byte[] ultimoSnapshot = Files.readAllBytes(principal);
+
+        while (snapshots < 3 && !partida.terminada()) {
+            List<RegistroJugada> jugadas = partida.jugar(1);
+            guardados.add(partida.capturar());
+            manager.saveMoves(partida.capturar(), jugadas);
+            byte[] actual = Files.readAllBytes(principal);
+            if (Arrays.equals(actual, ultimoSnapshot)) {
+                continue;
+            }
+            snapshots++;
+            ultimoSnapshot = actual;
+
+            // Se pierde el principal: el backup y su diario llegan hasta el guardado anterior
+            byte[] dañado = actual.clone();
+            dañado[dañado.length - 1] ^= 1;
+            Files.write(principal, dañado);
+            GameState recuperado = new GameSaveManager(directorio).loadGame();
+            Files.write(principal, actual);
+
+            GameState anterior = guardados.get(guardados.size() - 2);
+            assertArrayEquals(EstadosDePrueba.huella(anterior), EstadosDePrueba.huella(recuperado),
+                    "snapshot " + snapshots + " tras " + (guardados.size() - 1) + " jugadas");
+        }
+        assertEquals(3, snapshots);
+    }
+
+    /**
+     * Jugadas variadas de los dos tiradores por todo el tablero
+     */
+    private static List<RegistroJugada> jugadas(int n) {
+        List<RegistroJugada> jugadas = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            jugadas.add(new RegistroJugada(i & 1, i % Constants.GRID_COLS, (i / 3) % Constants.GRID_ROWS, i % 4));
+        }
+        return jugadas;
+    }
+
+    private static String texto(List<RegistroJugada> jugadas) {
+        return jugadas.toString();
+    }
+
+    private static GameState copiaCodificada(GameState estado) throws Exception {
+        return GameStateCodec.decodificar(GameStateCodec.codificar(estado));
+    }
+}
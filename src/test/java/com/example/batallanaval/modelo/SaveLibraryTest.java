@@ -0,0 +1,320 @@
+package com.example.batallanaval.modelo;
+
+import com.example.batallanaval.exceptions.GameLoadException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la biblioteca de ranuras: sobrescritura, borrado, compactación, reapertura
+ * y recuperación de un guardado cortado a mitad
+ */
+class SaveLibraryTest {
+
+    // Disposición del índice descrita en SaveLibrary
+    private static final int TAMANO_CABECERA_INDICE = 32;
+    private static final int TAMANO_ENTRADA = 128;
+    private static final int E_OCUPADA = 0;
+    private static final int E_SECUENCIA = 24;
+    private static final int E_NOMBRE = 32;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void guardaYCargaVariasRanuras() throws Exception {
+        SaveLibrary biblioteca = new SaveLibrary(directorio);
+        GameState primera = partida(1, 10);
+        GameState segunda = partida(2, 30);
+
+        biblioteca.guardar("mañana", primera);
+        biblioteca.guardar("tarde", segunda);
+
+        assertEquals(2, biblioteca.size());
+        assertTrue(biblioteca.existe("mañana"));
+        assertFalse(biblioteca.existe("noche"));
+        assertArrayEquals(EstadosDePrueba.huella(primera), EstadosDePrueba.huella(biblioteca.cargar("mañana")));
+        assertArrayEquals(EstadosDePrueba.huella(segunda), EstadosDePrueba.huella(biblioteca.cargar("tarde")));
+        assertEquals(SaveMetadata.desde(segunda).getDisparosJugador(),
+                biblioteca.getMetadatos("tarde").getDisparosJugador());
+        assertNull(biblioteca.getMetadatos("noche"));
+        assertThrows(GameLoadException.class, () -> biblioteca.cargar("noche"));
+        biblioteca.cerrar();
+    }
+
+    @Test
+    void listarEmpiezaPorLaGuardadaMasReciente() throws Exception {
+        SaveLibrary biblioteca = new SaveLibrary(directorio);
+        biblioteca.guardar("a", partida(1, 5));
+        biblioteca.guardar("b", partida(2, 5));
+        biblioteca.guardar("c", partida(3, 5));
+        biblioteca.guardar("a", partida(4, 5));
+
+        List<SaveLibrary.InfoRanura> ranuras = biblioteca.listar();
+
+        assertEquals(List.of("a", "c", "b"), ranuras.stream().map(SaveLibrary.InfoRanura::getNombre).toList());
+        assertEquals("Almirante", ranuras.get(0).getMetadatos().getPlayerNickname());
+        assertTrue(ranuras.get(0).getTamano() > 0);
+        biblioteca.cerrar();
+    }
+
+    @Test
+    void sobrescribirUnaRanuraConservaSoloLaUltimaPartida() throws Exception {
+        SaveLibrary biblioteca = new SaveLibrary(directorio);
+        GameState ultima = partida(9, 40);
+        biblioteca.guardar("ranura", partida(8, 10));
+        biblioteca.guardar("ranura", partida(8, 20));
+        biblioteca.guardar("ranura", ultima);
+
+        assertEquals(1, biblioteca.size());
+        assertEquals(1, biblioteca.listar().size());
+        assertArrayEquals(EstadosDePrueba.huella(ultima), EstadosDePrueba.huella(biblioteca.cargar("ranura")));
+        biblioteca.cerrar();
+        assertEquals(1, ocupadas());
+    }
+
+    @Test
+    void eliminarQuitaLaRanura() throws Exception {
+        SaveLibrary biblioteca = new SaveLibrary(directorio);
+        GameState queda = partida(2, 15);
+        biblioteca.guardar("borrar", partida(1, 15));
+        biblioteca.guardar("queda", queda);
+
+        assertTrue(biblioteca.eliminar("borrar"));
+        assertFalse(biblioteca.eliminar("borrar"));
+
+        assertFalse(biblioteca.existe("borrar"));
+        assertThrows(GameLoadException.class, () -> biblioteca.cargar("borrar"));
+        assertEquals(1, biblioteca.size());
+        assertArrayEquals(EstadosDePrueba.huella(queda), EstadosDePrueba.huella(biblioteca.cargar("queda")));
+        biblioteca.cerrar();
+    }
+
+    @Test
+    void reabrirRecuperaLasRanurasDelIndice() throws Exception {
+        SaveLibrary biblioteca = new SaveLibrary(directorio);
+        GameState uno = partida(1, 25);
+        GameState dos = partida(2, 35);
+        biblioteca.guardar("uno", uno);
+        biblioteca.guardar("dos", partida(3, 5));
+        biblioteca.guardar("dos", dos);
+        biblioteca.guardar("tres", partida(4, 5));
+        biblioteca.eliminar("tres");
+        biblioteca.cerrar();
+
+        SaveLibrary reabierta = new SaveLibrary(directorio);
+
+        assertEquals(2, reabierta.size());
+        assertArrayEquals(EstadosDePrueba.huella(uno), EstadosDePrueba.huella(reabierta.cargar("uno")));
+        assertArrayEquals(EstadosDePrueba.huella(dos), EstadosDePrueba.huella(reabierta.cargar("dos")));
+        assertFalse(reabierta.existe("tres"));
+        // Las ranuras libres se reutilizan y la secuencia sigue donde se quedó
+        reabierta.guardar("cuatro", partida(5, 5));
+        assertEquals("cuatro", reabierta.listar().get(0).getNombre());
+        reabierta.cerrar();
+    }
+
+    @Test
+    void elIndiceCreceMasAlláDeSuCapacidadInicial() throws Exception {
+        SaveLibrary biblioteca = new SaveLibrary(directorio);
+        GameState estado = partida(6, 10);
+        for (int i = 0; i < 300; i++) {
+            biblioteca.guardar("ranura " + i, estado);
+        }
+        biblioteca.cerrar();
+
+        SaveLibrary reabierta = new SaveLibrary(directorio);
+
+        assertEquals(300, reabierta.size());
+        assertArrayEquals(EstadosDePrueba.huella(estado), EstadosDePrueba.huella(reabierta.cargar("ranura 299")));
+        reabierta.cerrar();
+    }
+
+    @Test
+    void compactarMueveLasPartidasVivasYBorraElSegmentoViejo() throws Exception {
+        SaveLibrary biblioteca = new SaveLibrary(directorio);
+        GameState a = partida(1, 20);
+        GameState b = partida(2, 20);
+        biblioteca.guardar("a", a);
+        biblioteca.guardar("b", b);
+        for (int i = 0; i < 10; i++) {
+            biblioteca.guardar("c", partida(3, i));
+        }
+        GameState c = partida(3, 30);
+        biblioteca.guardar("c", c);
+        long vivos = biblioteca.listar().stream().mapToLong(SaveLibrary.InfoRanura::getTamano).sum();
+        assertTrue(Files.size(segmento(0)) > 2 * vivos);
+
+        biblioteca.compactar();
+
+        assertFalse(Files.exists(segmento(0)));
+        assertEquals(vivos, Files.size(segmento(1)));
+        assertArrayEquals(EstadosDePrueba.huella(a), EstadosDePrueba.huella(biblioteca.cargar("a")));
+        assertArrayEquals(EstadosDePrueba.huella(b), EstadosDePrueba.huella(biblioteca.cargar("b")));
+        assertArrayEquals(EstadosDePrueba.huella(c), EstadosDePrueba.huella(biblioteca.cargar("c")));
+        biblioteca.cerrar();
+
+        SaveLibrary reabierta = new SaveLibrary(directorio);
+        assertEquals(3, reabierta.size());
+        assertArrayEquals(EstadosDePrueba.huella(c), EstadosDePrueba.huella(reabierta.cargar("c")));
+        // Sin espacio libre no hay nada que compactar
+        reabierta.compactar();
+        assertEquals(vivos, Files.size(segmento(1)));
+        reabierta.cerrar();
+    }
+
+    @Test
+    void eliminarLaUltimaRanuraDeUnSegmentoAntiguoLoBorra() throws Exception {
+        SaveLibrary biblioteca = new SaveLibrary(directorio);
+        biblioteca.guardar("vieja", partida(1, 10));
+        for (int i = 0; i < 4; i++) {
+            biblioteca.guardar("otra", partida(2, i));
+        }
+        biblioteca.compactar();
+        assertFalse(Files.exists(segmento(0)));
+        biblioteca.guardar("nueva", partida(3, 10));
+
+        // Todas las ranuras están ya en el segmento 1; al vaciarlo del todo sigue siendo el activo
+        biblioteca.eliminar("vieja");
+        biblioteca.eliminar("otra");
+        biblioteca.eliminar("nueva");
+
+        assertEquals(0, biblioteca.size());
+        assertTrue(Files.exists(segmento(1)));
+        biblioteca.cerrar();
+    }
+
+    @Test
+    void unaPartidaDañadaEnElSegmentoNoSeCarga() throws Exception {
+        SaveLibrary biblioteca = new SaveLibrary(directorio);
+        biblioteca.guardar("ranura", partida(1, 20));
+        biblioteca.cerrar();
+        byte[] datos = Files.readAllBytes(segmento(0));
+        datos[datos.length / 2] ^= 0x10;
+        Files.write(segmento(0), datos);
+
+        SaveLibrary reabierta = new SaveLibrary(directorio);
+
+        // El resumen está en el índice y sigue disponible
+        assertNotNull(reabierta.getMetadatos("ranura"));
+        assertThrows(GameLoadException.class, () -> reabierta.cargar("ranura"));
+        reabierta.cerrar();
+    }
+
+    @Test
+    void unGuardadoCortadoAntesDeLiberarLaEntradaAnteriorGanaLaNueva() throws Exception {
+        // Entrada 0: "a" antigua (secuencia 1); entrada 1: "b" (secuencia 2)
+        SaveLibrary biblioteca = new SaveLibrary(directorio);
+        GameState nueva = partida(2, 30);
+        biblioteca.guardar("a", partida(1, 10));
+        biblioteca.guardar("b", nueva);
+        biblioteca.cerrar();
+        // Como si el guardado de "a" se hubiera cortado tras publicar la entrada 1 y antes de liberar la 0
+        renombrarEntrada(1, "a");
+
+        SaveLibrary reabierta = new SaveLibrary(directorio);
+
+        assertEquals(1, reabierta.size());
+        assertFalse(reabierta.existe("b"));
+        assertArrayEquals(EstadosDePrueba.huella(nueva), EstadosDePrueba.huella(reabierta.cargar("a")));
+        reabierta.cerrar();
+        // La entrada perdedora queda liberada en el índice
+        assertEquals(1, ocupadas());
+        assertEquals(0, leerIndice(entrada(0) + E_OCUPADA, 1).get());
+    }
+
+    @Test
+    void laEntradaMasNuevaGanaAunqueEsteAntesEnElIndice() throws Exception {
+        // Entrada 1: "a" antigua (secuencia 2); entrada 0, reutilizada: "b" (secuencia 3)
+        SaveLibrary biblioteca = new SaveLibrary(directorio);
+        GameState nueva = partida(3, 30);
+        biblioteca.guardar("x", partida(1, 5));
+        biblioteca.guardar("a", partida(2, 10));
+        biblioteca.eliminar("x");
+        biblioteca.guardar("b", nueva);
+        biblioteca.cerrar();
+        assertTrue(leerIndice(entrada(0) + E_SECUENCIA, 8).getLong() > leerIndice(entrada(1) + E_SECUENCIA, 8).getLong());
+        renombrarEntrada(0, "a");
+
+        SaveLibrary reabierta = new SaveLibrary(directorio);
+
+        assertEquals(1, reabierta.size());
+        assertArrayEquals(EstadosDePrueba.huella(nueva), EstadosDePrueba.huella(reabierta.cargar("a")));
+        // Un guardado posterior no reutiliza ninguna de las dos partidas por error
+        GameState otra = partida(4, 12);
+        reabierta.guardar("c", otra);
+        reabierta.cerrar();
+
+        SaveLibrary otraVez = new SaveLibrary(directorio);
+        assertEquals(2, otraVez.size());
+        assertArrayEquals(EstadosDePrueba.huella(nueva), EstadosDePrueba.huella(otraVez.cargar("a")));
+        assertArrayEquals(EstadosDePrueba.huella(otra), EstadosDePrueba.huella(otraVez.cargar("c")));
+        otraVez.cerrar();
+    }
+
+    @Test
+    void rechazaNombresVaciosODemasiadoLargos() {
+        SaveLibrary biblioteca = new SaveLibrary(directorio);
+        GameState estado = new GameState();
+
+        assertThrows(IllegalArgumentException.class, () -> biblioteca.guardar("", estado));
+        assertThrows(IllegalArgumentException.class, () -> biblioteca.guardar(null, estado));
+        assertThrows(IllegalArgumentException.class,
+                () -> biblioteca.guardar("x".repeat(SaveLibrary.MAX_NOMBRE + 1), estado));
+        assertThrows(IllegalArgumentException.class, () -> biblioteca.ranura(""));
+    }
+
+    private static GameState partida(long semilla, int disparos) {
+        EstadosDePrueba partida = new EstadosDePrueba(semilla);
+        partida.jugar(disparos);
+        return partida.capturar();
+    }
+
+    private Path segmento(int numero) {
+        return directorio.resolve(String.format("segment-%03d.dat", numero));
+    }
+
+    private static int entrada(int numero) {
+        return TAMANO_CABECERA_INDICE + numero * TAMANO_ENTRADA;
+    }
+
+    /**
+     * Cambia el nombre de una entrada del índice por otro de la misma longitud
+     */
+    private void renombrarEntrada(int numero, String nombre) throws Exception {
+        try (FileChannel canal = FileChannel.open(directorio.resolve("slots.idx"), StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(nombre.getBytes(StandardCharsets.UTF_8)), entrada(numero) + E_NOMBRE);
+        }
+    }
+
+    private ByteBuffer leerIndice(int posicion, int longitud) throws Exception {
+        ByteBuffer datos = ByteBuffer.allocate(longitud);
+        try (FileChannel canal = FileChannel.open(directorio.resolve("slots.idx"), StandardOpenOption.READ)) {
+            canal.read(datos, posicion);
+        }
+        return datos.flip();
+    }
+
+    /**
+     * Entradas marcadas como ocupadas en el archivo de índice
+     */
+    private int ocupadas() throws Exception {
+        ByteBuffer indice = ByteBuffer.wrap(Files.readAllBytes(directorio.resolve("slots.idx")));
+        int ocupadas = 0;
+        for (int base = TAMANO_CABECERA_INDICE; base + TAMANO_ENTRADA <= indice.limit(); base += TAMANO_ENTRADA) {
+            if (indice.get(base + E_OCUPADA) != 0) {
+                ocupadas++;
+            }
+        }
+        return ocupadas;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.batallanaval.modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la caché de evaluaciones: borrado por desplazamiento y expulsión CLOCK
+ */
+class TranspositionCacheTest {
+
+    @Test
+    void lasBusquedasSiguenFuncionandoTrasBorradosQueDanLaVuelta() {
+        // 32 entradas: índice de 64 posiciones
+        int capacidad = 32;
+        TranspositionCache<String> cache = new TranspositionCache<>(capacidad, Long.MAX_VALUE, valor -> 1);
+        ArrayDeque<Long> presentes = new ArrayDeque<>();
+        SplittableRandom random = new SplittableRandom(14);
+
+        for (long k = 0; k < 500; k++) {
+            // Todas las claves empiezan entre las cuatro últimas posiciones y las cuatro primeras:
+            // las rachas dan la vuelta al índice, y la clave nueva no cae siempre en el hueco de la expulsada
+            long clave = (k << 6) | ((60 + random.nextInt(8)) & 63);
+            cache.guardar(clave, "v" + clave);
+            presentes.addLast(clave);
+            Long expulsada = presentes.size() > capacidad ? presentes.removeFirst() : null;
+
+            if (expulsada != null) {
+                assertNull(cache.buscar(expulsada), "clave " + expulsada + " tras guardar " + clave);
+            }
+            // Marcar todas como usadas mantiene el orden de expulsión por antigüedad
+            for (long presente : presentes) {
+                assertEquals("v" + presente, cache.buscar(presente), "clave " + presente + " tras guardar " + clave);
+            }
+            assertEquals(presentes.size(), cache.size());
+        }
+    }
+
+    @Test
+    void alLlegarALaCapacidadExpulsaLaPrimeraEntradaNoUsada() {
+        TranspositionCache<String> cache = new TranspositionCache<>(3, Long.MAX_VALUE, valor -> 1);
+        cache.guardar(1L, "a");
+        cache.guardar(2L, "b");
+        cache.guardar(3L, "c");
+        assertEquals("a", cache.buscar(1L));
+
+        cache.guardar(4L, "d");
+
+        // La manecilla pasa por "a", le quita la marca y expulsa "b"
+        assertNull(cache.buscar(2L));
+        assertEquals("a", cache.buscar(1L));
+        assertEquals("c", cache.buscar(3L));
+        assertEquals("d", cache.buscar(4L));
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getExpulsiones());
+    }
+
+    @Test
+    void siTodasEstanUsadasDaUnaVueltaYExpulsaLaDeLaManecilla() {
+        TranspositionCache<String> cache = new TranspositionCache<>(3, Long.MAX_VALUE, valor -> 1);
+        cache.guardar(1L, "a");
+        cache.guardar(2L, "b");
+        cache.guardar(3L, "c");
+        cache.buscar(1L);
+        cache.buscar(2L);
+        cache.buscar(3L);
+
+        cache.guardar(4L, "d");
+
+        assertNull(cache.buscar(1L));
+        assertEquals("b", cache.buscar(2L));
+        assertEquals("c", cache.buscar(3L));
+        assertEquals("d", cache.buscar(4L));
+    }
+
+    @Test
+    void expulsaHastaQueCabeElPeso() {
+        TranspositionCache<String> cache = new TranspositionCache<>(10, 10, String::length);
+        cache.guardar(1L, "aaaa");
+        cache.guardar(2L, "bbb");
+        cache.guardar(3L, "cc");
+
+        cache.guardar(4L, "dddddd");
+
+        assertNull(cache.buscar(1L));
+        assertNull(cache.buscar(2L));
+        assertEquals("cc", cache.buscar(3L));
+        assertEquals("dddddd", cache.buscar(4L));
+        assertEquals(8, cache.getPesoTotal());
+    }
+
+    @Test
+    void unValorMasPesadoQueLaCacheNoSeGuarda() {
+        TranspositionCache<String> cache = new TranspositionCache<>(10, 4, String::length);
+        cache.guardar(1L, "aa");
+
+        cache.guardar(2L, "bbbbb");
+
+        assertNull(cache.buscar(2L));
+        assertEquals("aa", cache.buscar(1L));
+        assertEquals(0, cache.getExpulsiones());
+    }
+
+    @Test
+    void reemplazarUnaClaveNoOcupaOtraEntrada() {
+        TranspositionCache<String> cache = new TranspositionCache<>(2, 10, String::length);
+        cache.guardar(1L, "a");
+        cache.guardar(2L, "b");
+
+        cache.guardar(1L, "aaa");
+
+        assertEquals(2, cache.size());
+        assertEquals(4, cache.getPesoTotal());
+        assertEquals("aaa", cache.buscar(1L));
+        assertEquals("b", cache.buscar(2L));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.batallanaval.modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del hash de Zobrist: la actualización incremental de GameLogic coincide con el cálculo desde cero
+ */
+class ZobristTest {
+
+    @Test
+    void elHashIncrementalCoincideConElCalculadoDesdeCero() {
+        int hundidos = 0;
+        for (long semilla = 0; semilla < 20; semilla++) {
+            SplittableRandom random = new SplittableRandom(semilla);
+            GameLogic logica = partida(semilla, random);
+            for (int disparo = 0; !logica.isGameEnded(); disparo++) {
+                int tirador = disparo % 3 == 0 ? 0 : 1;
+                int celda = logica.muestrearCeldaSinDisparar(tirador, random);
+                if (logica.jugada(celda % Constants.GRID_COLS, celda / Constants.GRID_COLS, tirador).equals("HUNDIDO")) {
+                    hundidos++;
+                }
+
+                for (int jugador = 0; jugador < 2; jugador++) {
+                    assertEquals(desdeCero(logica, jugador), logica.getHashZobrist(jugador),
+                            "semilla " + semilla + ", disparo " + disparo + ", tirador " + jugador);
+                }
+            }
+        }
+        assertTrue(hundidos > 0);
+    }
+
+    @Test
+    void losBarcosHundidosCambianElHash() {
+        SplittableRandom random = new SplittableRandom(3);
+        GameLogic logica = partida(3, random);
+        Ship barco = logica.getArrayCpu()[0];
+        for (int segmento = 0; segmento < barco.getSize(); segmento++) {
+            logica.jugada(barco.getCol(segmento), barco.getRow(segmento), 0);
+        }
+        assertTrue(barco.isHundido());
+
+        long sinHundidos = Zobrist.calcular(capa(logica.getMatrizDisparosPlayer()),
+                capa(logica.getMatrizAtinacionCpu()), new Ship[0]);
+
+        assertEquals(sinHundidos ^ Zobrist.claveHundido(barco), logica.getHashZobrist(0));
+    }
+
+    @Test
+    void dosBarcosEnLasMismasCeldasNoTienenLaMismaClave() {
+        long destructor = Zobrist.claveHundido(new Ship(2, 3, 2, false));
+        long fragatas = Zobrist.claveHundido(new Ship(2, 3, 1, false)) ^ Zobrist.claveHundido(new Ship(3, 3, 1, false));
+
+        assertNotEquals(destructor, fragatas);
+        assertNotEquals(destructor, Zobrist.claveHundido(new Ship(2, 3, 2, true)));
+        // Un barco de una celda es el mismo en las dos orientaciones
+        assertEquals(Zobrist.claveHundido(new Ship(5, 5, 1, false)), Zobrist.claveHundido(new Ship(5, 5, 1, true)));
+    }
+
+    private static GameLogic partida(long semilla, SplittableRandom random) {
+        GameLogic logica = new GameLogic(semilla);
+        logica.setVerbose(false);
+        FleetPlacer placer = new FleetPlacer(Constants.GRID_COLS, Constants.GRID_ROWS);
+        logica.colocarFlota(0, CpuFleetPool.generar(placer, Constants.FLEET_SHIP_LENGTHS, random));
+        logica.colocarFlota(1, CpuFleetPool.generar(placer, Constants.FLEET_SHIP_LENGTHS, random));
+        return logica;
+    }
+
+    private static long desdeCero(GameLogic logica, int jugador) {
+        if (jugador == 0) {
+            return Zobrist.calcular(capa(logica.getMatrizDisparosPlayer()), capa(logica.getMatrizAtinacionCpu()),
+                    logica.getArrayCpu());
+        }
+        return Zobrist.calcular(capa(logica.getMatrizDisparosCpu()), capa(logica.getMatrizAtinacionPlayer()),
+                logica.getArrayPlayer());
+    }
+
+    private static BitBoard capa(boolean[][] matriz) {
+        BitBoard capa = new BitBoard(Constants.GRID_COLS, Constants.GRID_ROWS);
+        capa.loadMatrix(matriz);
+        return capa;
+    }
+}